@@ -189,6 +189,7 @@ public class VMActuator implements Actuator2 {
 
         VM.play(program, OperationRegistry.getTable());
         result = program.getResult();
+        program.releaseMemory();
 
         if (VMConfig.allowEnergyAdjustment()) {
           // If the last op consumed too much execution time, the CPU time limit for the whole tx can be exceeded.
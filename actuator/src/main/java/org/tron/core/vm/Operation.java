@@ -2,7 +2,7 @@ package org.tron.core.vm;
 
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
-import java.util.function.Function;
+import java.util.function.ToLongFunction;
 import org.tron.core.vm.program.Program;
 
 public class Operation {
@@ -10,17 +10,17 @@ public class Operation {
   private final int opcode;
   private final int require;
   private final int ret;
-  private final Function<Program, Long> cost;
+  private final ToLongFunction<Program> cost;
   private final Consumer<Program> action;
   private final BooleanSupplier enabled;
 
   public Operation(int opcode, int require, int ret,
-                      Function<Program, Long> cost, Consumer<Program> action) {
+                      ToLongFunction<Program> cost, Consumer<Program> action) {
     this(opcode, require, ret, cost, action, () -> true);
   }
 
   public Operation(int opcode, int require, int ret,
-      Function<Program, Long> cost, Consumer<Program> action, BooleanSupplier enabled) {
+      ToLongFunction<Program> cost, Consumer<Program> action, BooleanSupplier enabled) {
     this.opcode = opcode;
     this.require = require;
     this.ret = ret;
@@ -42,7 +42,7 @@ public class Operation {
   }
 
   public long getEnergyCost(Program program) {
-    return this.cost.apply(program);
+    return this.cost.applyAsLong(program);
   }
 
   public void execute(Program program) {
@@ -3,7 +3,6 @@ package org.tron.core.vm;
 import static org.tron.common.crypto.Hash.sha3;
 import static org.tron.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
 
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import org.tron.common.runtime.vm.DataWord;
@@ -14,8 +13,6 @@ import org.tron.core.vm.program.Stack;
 
 public class OperationActions {
 
-  private static final BigInteger _32_ = BigInteger.valueOf(32);
-
   public static void stopAction(Program program) {
     program.setHReturn(EMPTY_BYTE_ARRAY);
     program.stop();
@@ -115,11 +112,11 @@ public class OperationActions {
 
   public static void signExtendAction(Program program) {
     DataWord word1 = program.stackPop();
-    BigInteger k = word1.value();
+    long k = word1.longValueSafe();
 
-    if (k.compareTo(_32_) < 0) {
+    if (k < 32) {
       DataWord word2 = program.stackPop();
-      word2.signExtend(k.byteValue());
+      word2.signExtend((byte) k);
       program.stackPush(word2);
     }
     program.step();
@@ -129,7 +126,7 @@ public class OperationActions {
     DataWord word1 = program.stackPop();
     DataWord word2 = program.stackPop();
 
-    if (word1.value().compareTo(word2.value()) < 0) {
+    if (word1.compareUnsigned(word2) < 0) {
       word1.and(DataWord.ZERO);
       word1.getData()[31] = 1;
     } else {
@@ -143,7 +140,7 @@ public class OperationActions {
     DataWord word1 = program.stackPop();
     DataWord word2 = program.stackPop();
 
-    if (word1.value().compareTo(word2.value()) > 0) {
+    if (word1.compareUnsigned(word2) > 0) {
       word1.and(DataWord.ZERO);
       word1.getData()[31] = 1;
     } else {
@@ -157,7 +154,7 @@ public class OperationActions {
     DataWord word1 = program.stackPop();
     DataWord word2 = program.stackPop();
 
-    if (word1.sValue().compareTo(word2.sValue()) < 0) {
+    if (word1.sCompareTo(word2) < 0) {
       word1.and(DataWord.ZERO);
       word1.getData()[31] = 1;
     } else {
@@ -171,7 +168,7 @@ public class OperationActions {
     DataWord word1 = program.stackPop();
     DataWord word2 = program.stackPop();
 
-    if (word1.sValue().compareTo(word2.sValue()) > 0) {
+    if (word1.sCompareTo(word2) > 0) {
       word1.and(DataWord.ZERO);
       word1.getData()[31] = 1;
     } else {
@@ -247,7 +244,7 @@ public class OperationActions {
     DataWord word2 = program.stackPop();
 
     final DataWord result;
-    if (word1.value().compareTo(_32_) < 0) {
+    if (word1.longValueSafe() < 32) {
       byte tmp = word2.getData()[word1.intValue()];
       word2.and(DataWord.ZERO);
       word2.getData()[31] = tmp;
@@ -650,10 +647,7 @@ public class OperationActions {
 
   public static void pushAction(Program program) {
     int n = program.getCurrentOpIntValue() - Op.PUSH1 + 1;
-    program.step();
-    byte[] data = program.sweep(n);
-
-    program.stackPush(new DataWord(data));
+    program.stackPush(program.sweepImmediate(n));
   }
 
   public static void dupAction(Program program) {
@@ -19,11 +19,26 @@ public class OperationRegistry {
 
   private static final Map<Version, JumpTable> tableMap = new HashMap<>();
 
+  // the newest table with the proposal adjustments already applied, indexed by
+  // (allowHigherLimitForMaxCpuTimeOfOneTx ? 1 : 0) | (allowEnergyAdjustment ? 2 : 0)
+  private static final JumpTable[] adjustedTables = new JumpTable[4];
+
   static {
     tableMap.put(Version.TRON_V1_0, newTronV10OperationSet());
     tableMap.put(Version.TRON_V1_1, newTronV11OperationSet());
     tableMap.put(Version.TRON_V1_2, newTronV12OperationSet());
     tableMap.put(Version.TRON_V1_3, newTronV13OperationSet());
+
+    for (int i = 0; i < adjustedTables.length; i++) {
+      JumpTable table = newTronV13OperationSet();
+      if ((i & 1) != 0) {
+        adjustMemOperations(table);
+      }
+      if ((i & 2) != 0) {
+        adjustForFairEnergy(table);
+      }
+      adjustedTables[i] = table;
+    }
   }
 
   public static JumpTable newTronV10OperationSet() {
@@ -59,19 +74,18 @@ public class OperationRegistry {
   public static void init() {}
 
   public static JumpTable getTable() {
-    // always get the table which has the newest version
-    JumpTable table = tableMap.get(Version.TRON_V1_3);
-
-    // next make the corresponding changes, exclude activating opcode
+    // always get the table which has the newest version, with the corresponding changes
+    // made in advance, exclude activating opcode
+    int index = 0;
     if (VMConfig.allowHigherLimitForMaxCpuTimeOfOneTx()) {
-      adjustMemOperations(table);
+      index |= 1;
     }
 
     if (VMConfig.allowEnergyAdjustment()) {
-      adjustForFairEnergy(table);
+      index |= 2;
     }
 
-    return table;
+    return adjustedTables[index];
   }
 
   public static JumpTable newBaseOperationSet() {
@@ -2,8 +2,6 @@ package org.tron.core.vm;
 
 import static org.tron.core.Constant.DYNAMIC_ENERGY_FACTOR_DECIMAL;
 
-import com.google.common.collect.ImmutableSet;
-import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.util.encoders.Hex;
 import org.springframework.util.StringUtils;
@@ -16,41 +14,51 @@ import org.tron.core.vm.program.Program.TransferException;
 @Slf4j(topic = "VM")
 public class VM {
 
-  private static final Set<Integer> CALL_OPS = ImmutableSet.of(Op.CALL, Op.STATICCALL,
-      Op.DELEGATECALL, Op.CALLCODE, Op.CALLTOKEN);
+  // indexed by opcode, avoids boxing the opcode into a set lookup for every instruction
+  private static final boolean[] CALL_OPS = new boolean[256];
+
+  static {
+    for (int op : new int[] {Op.CALL, Op.STATICCALL, Op.DELEGATECALL, Op.CALLCODE,
+        Op.CALLTOKEN}) {
+      CALL_OPS[op] = true;
+    }
+  }
 
   public static void play(Program program, JumpTable jumpTable) {
     try {
       long factor = DYNAMIC_ENERGY_FACTOR_DECIMAL;
       long energyUsage = 0L;
+      boolean dynamicEnergy = VMConfig.allowDynamicEnergy();
+      boolean vmTrace = VMConfig.vmTrace();
 
-      if (VMConfig.allowDynamicEnergy()) {
+      if (dynamicEnergy) {
         factor = program.updateContextContractFactor();
       }
 
       while (!program.isStopped()) {
-        if (VMConfig.vmTrace()) {
+        if (vmTrace) {
           program.saveOpTrace();
         }
 
         try {
           Operation op = jumpTable.get(program.getCurrentOpIntValue());
+          int opcode = op.getOpcode();
           if (!op.isEnabled()) {
             throw Program.Exception.invalidOpCode(program.getCurrentOp());
           }
-          program.setLastOp((byte) op.getOpcode());
+          program.setLastOp((byte) opcode);
 
           /* stack underflow/overflow check */
           program.verifyStackSize(op.getRequire());
           program.verifyStackOverflow(op.getRequire(), op.getRet());
 
-          String opName = Op.getNameOf(op.getOpcode());
+          String opName = Op.getNameOf(opcode);
           /* spend energy before execution */
           long energy = op.getEnergyCost(program);
-          if (VMConfig.allowDynamicEnergy()) {
+          if (dynamicEnergy) {
             long actualEnergy = energy;
             // CALL Ops have special calculation on energy.
-            if (CALL_OPS.contains(op.getOpcode())) {
+            if (CALL_OPS[opcode]) {
               actualEnergy = energy
                   - program.getAdjustedCallEnergy().longValueSafe()
                   - program.getCallPenaltyEnergy();
@@ -61,7 +69,7 @@ public class VM {
               long penalty;
 
               // CALL Ops have special calculation on energy.
-              if (CALL_OPS.contains(op.getOpcode())) {
+              if (CALL_OPS[opcode]) {
                 penalty = program.getCallPenaltyEnergy();
               } else {
                 penalty = energy * factor / DYNAMIC_ENERGY_FACTOR_DECIMAL - energy;
@@ -87,7 +95,7 @@ public class VM {
           /* exec op action */
           op.execute(program);
 
-          program.setPreviouslyExecutedOp((byte) op.getOpcode());
+          program.setPreviouslyExecutedOp((byte) opcode);
         } catch (RuntimeException e) {
           logger.info("VM halted: [{}]", e.getMessage());
           if (!(e instanceof TransferException)) {
@@ -101,7 +109,7 @@ public class VM {
         }
       }
 
-      if (VMConfig.allowDynamicEnergy()) {
+      if (dynamicEnergy) {
         program.addContextContractUsage(energyUsage);
       }
 
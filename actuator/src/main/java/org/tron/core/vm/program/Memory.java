@@ -6,7 +6,9 @@ import static java.lang.String.format;
 import static org.tron.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
 import static org.tron.common.utils.ByteUtil.oneByteToHexString;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.core.vm.program.listener.ProgramListener;
@@ -16,8 +18,18 @@ public class Memory implements ProgramListenerAware {
 
   private static final int CHUNK_SIZE = 1024;
   private static final int WORD_SIZE = 32;
+  private static final int INITIAL_CHUNK_SLOTS = 16;
+  // at most 1 MiB of released chunks is kept per thread
+  private static final int MAX_POOLED_CHUNKS = 1024;
 
-  private List<byte[]> chunks = new LinkedList<>();
+  private static final byte[][] EMPTY_CHUNKS = new byte[0][];
+
+  private static final ThreadLocal<Deque<byte[]>> CHUNK_POOL =
+      ThreadLocal.withInitial(ArrayDeque::new);
+
+  // chunk table indexed by address / CHUNK_SIZE, only the first chunkCount slots are in use
+  private byte[][] chunks = EMPTY_CHUNKS;
+  private int chunkCount;
   private int softSize;
   private ProgramListener programListener;
 
@@ -131,9 +143,7 @@ public class Memory implements ProgramListenerAware {
     int chunkIndex = address / CHUNK_SIZE;
     int chunkOffset = address % CHUNK_SIZE;
 
-    byte[] chunk = chunks.get(chunkIndex);
-
-    return chunk[chunkOffset];
+    return chunks[chunkIndex][chunkOffset];
   }
 
   @Override
@@ -174,16 +184,35 @@ public class Memory implements ProgramListenerAware {
   }
 
   public int internalSize() {
-    return chunks.size() * CHUNK_SIZE;
+    return chunkCount * CHUNK_SIZE;
   }
 
   public List<byte[]> getChunks() {
-    return new LinkedList<>(chunks);
+    return Arrays.asList(Arrays.copyOf(chunks, chunkCount));
+  }
+
+  /**
+   * Hands the chunks back to the pool of the current thread so that the next
+   * Program executed on it can reuse them, and resets this memory to empty.
+   * Must only be called once the memory is no longer read.
+   */
+  public void release() {
+    Deque<byte[]> pool = CHUNK_POOL.get();
+    for (int i = 0; i < chunkCount; ++i) {
+      if (pool.size() < MAX_POOLED_CHUNKS) {
+        Arrays.fill(chunks[i], (byte) 0);
+        pool.push(chunks[i]);
+      }
+      chunks[i] = null;
+    }
+    chunks = EMPTY_CHUNKS;
+    chunkCount = 0;
+    softSize = 0;
   }
 
   private int captureMax(int chunkIndex, int chunkOffset, int size, byte[] src, int srcPos) {
 
-    byte[] chunk = chunks.get(chunkIndex);
+    byte[] chunk = chunks[chunkIndex];
     int toCapture = min(size, chunk.length - chunkOffset);
 
     System.arraycopy(src, srcPos, chunk, chunkOffset, toCapture);
@@ -192,7 +221,7 @@ public class Memory implements ProgramListenerAware {
 
   private int grabMax(int chunkIndex, int chunkOffset, int size, byte[] dest, int destPos) {
 
-    byte[] chunk = chunks.get(chunkIndex);
+    byte[] chunk = chunks[chunkIndex];
     int toGrab = min(size, chunk.length - chunkOffset);
 
     System.arraycopy(chunk, chunkOffset, dest, destPos, toGrab);
@@ -201,8 +230,19 @@ public class Memory implements ProgramListenerAware {
   }
 
   private void addChunks(int num) {
+    int required = Math.addExact(chunkCount, num);
+    if (required > chunks.length) {
+      int capacity = Math.max(INITIAL_CHUNK_SLOTS, chunks.length);
+      while (capacity < required) {
+        capacity = capacity > Integer.MAX_VALUE / 2 ? required : capacity * 2;
+      }
+      chunks = Arrays.copyOf(chunks, capacity);
+    }
+
+    Deque<byte[]> pool = CHUNK_POOL.get();
     for (int i = 0; i < num; ++i) {
-      chunks.add(new byte[CHUNK_SIZE]);
+      byte[] chunk = pool.poll();
+      chunks[chunkCount++] = chunk != null ? chunk : new byte[CHUNK_SIZE];
     }
   }
 }
@@ -25,12 +25,17 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.map.LRUMap;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.bouncycastle.util.encoders.Hex;
+import org.tron.common.cache.CacheManager;
+import org.tron.common.cache.CacheType;
+import org.tron.common.cache.TronCache;
 import org.tron.common.crypto.Hash;
 import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.common.runtime.InternalTransaction;
 import org.tron.common.runtime.ProgramResult;
 import org.tron.common.runtime.vm.DataWord;
@@ -112,8 +117,10 @@ public class Program {
   private static final String REFUND_ENERGY_FROM_MESSAGE_CALL = "refund energy from message call";
   private static final String CALL_PRE_COMPILED = "call pre-compiled";
   private static final int lruCacheSize = CommonParameter.getInstance().getSafeLruCacheSize();
-  private static final LRUMap<Key, ProgramPrecompile> programPrecompileLRUMap
-      = new LRUMap<>(lruCacheSize);
+  private static final TronCache<Key, ProgramPrecompile> programPrecompileCache =
+      CacheManager.allocate(CacheType.programPrecompile, String.format(
+          "maximumSize=%d,concurrencyLevel=%d,recordStats", lruCacheSize,
+          Runtime.getRuntime().availableProcessors()));
   private long nonce;
   private byte[] rootTransactionId;
   private InternalTransaction internalTransaction;
@@ -200,20 +207,22 @@ public class Program {
     nonce = nonceValue;
   }
 
+  /**
+   * . The analysis is shared by constant calls and block execution, it only depends on the code
+   * which is pinned by the code hash in the key.
+   */
   public ProgramPrecompile getProgramPrecompile() {
-    if (isConstantCall()) {
-      if (programPrecompile == null) {
-        programPrecompile = ProgramPrecompile.compile(ops);
-      }
-      return programPrecompile;
-    }
     if (programPrecompile == null) {
       Key key = getJumpDestAnalysisCacheKey();
-      if (programPrecompileLRUMap.containsKey(key)) {
-        programPrecompile = programPrecompileLRUMap.get(key);
-      } else {
+      programPrecompile = programPrecompileCache.getIfPresent(key);
+      if (programPrecompile == null) {
+        Metrics.counterInc(MetricKeys.Counter.VM_CODE_CACHE, 1,
+            MetricLabels.Counter.CODE_CACHE_MISS);
         programPrecompile = ProgramPrecompile.compile(ops);
-        programPrecompileLRUMap.put(key, programPrecompile);
+        programPrecompileCache.put(key, programPrecompile);
+      } else {
+        Metrics.counterInc(MetricKeys.Counter.VM_CODE_CACHE, 1,
+            MetricLabels.Counter.CODE_CACHE_HIT);
       }
     }
     return programPrecompile;
@@ -346,6 +355,21 @@ public class Program {
     setPC(pc + 1);
   }
 
+  /**
+   * . Same as step() then sweep(n) for the PUSH at the current pc. Once the code analysis is
+   * loaded, which happens on the first jump, the immediate decoded once per code is taken instead
+   * of copying it out of the ops again.
+   */
+  public DataWord sweepImmediate(int n) {
+    if (programPrecompile == null) {
+      step();
+      return new DataWord(sweep(n));
+    }
+    DataWord immediate = programPrecompile.getImmediate(pc);
+    setPC(pc + 1 + n);
+    return immediate.clone();
+  }
+
   public byte[] sweep(int n) {
 
     if (pc + n > ops.length) {
@@ -799,6 +823,7 @@ public class Program {
       }
       VM.play(program, OperationRegistry.getTable());
       createResult = program.getResult();
+      program.releaseMemory();
       getTrace().merge(program.getTrace());
       // always commit nonce
       this.nonce = program.nonce;
@@ -1031,6 +1056,7 @@ public class Program {
       }
       VM.play(program, OperationRegistry.getTable());
       callResult = program.getResult();
+      program.releaseMemory();
 
       getTrace().merge(program.getTrace());
       getResult().merge(callResult);
@@ -1734,6 +1760,13 @@ public class Program {
     return memory.read(0, memory.size());
   }
 
+  /**
+   * . recycle the memory chunks once the program has finished and its result is taken
+   */
+  public void releaseMemory() {
+    memory.release();
+  }
+
   /**
    * . used mostly for testing reasons
    */
@@ -1,7 +1,9 @@
 package org.tron.core.vm.program;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.core.vm.Op;
@@ -10,22 +12,47 @@ import org.tron.core.vm.config.VMConfig;
 @Slf4j(topic = "VM")
 public class ProgramPrecompile {
 
-  private final Set<Integer> jumpDest = new HashSet<>();
+  private final BitSet jumpDest;
+
+  /**
+   * The pcs of the PUSHes in ascending order, and the immediate of each of them. Only the PUSHes
+   * are kept, so an entry of the cache grows with them and not with the code. Equal immediates
+   * share one instance, so callers must clone before handing it out.
+   */
+  private final int[] pushPcs;
+  private final DataWord[] immediates;
+
+  private ProgramPrecompile(BitSet jumpDest, int[] pushPcs, DataWord[] immediates) {
+    this.jumpDest = jumpDest;
+    this.pushPcs = pushPcs;
+    this.immediates = immediates;
+  }
 
   public static ProgramPrecompile compile(byte[] ops) {
-    ProgramPrecompile ret = new ProgramPrecompile();
+    BitSet jumpDest = new BitSet(ops.length);
+    // a PUSH takes two bytes at least, but the last one may be truncated
+    int[] pushPcs = new int[(ops.length + 1) / 2];
+    DataWord[] immediates = new DataWord[pushPcs.length];
+    int pushes = 0;
+    Map<DataWord, DataWord> decoded = new HashMap<>();
     for (int i = 0; i < ops.length; ++i) {
       int op = ops[i] & 0xff;
 
       if (op == Op.JUMPDEST) {
-        ret.jumpDest.add(i);
+        jumpDest.set(i);
       }
 
       if (op >= Op.PUSH1 && op <= Op.PUSH32) {
-        i += op - Op.PUSH1 + 1;
+        int n = op - Op.PUSH1 + 1;
+        // a truncated immediate is padded with zeros on the right, same as Program.sweep
+        DataWord immediate = new DataWord(Arrays.copyOfRange(ops, i + 1, i + 1 + n));
+        pushPcs[pushes] = i;
+        immediates[pushes++] = decoded.computeIfAbsent(immediate, k -> k);
+        i += n;
       }
     }
-    return ret;
+    return new ProgramPrecompile(jumpDest, Arrays.copyOf(pushPcs, pushes),
+        Arrays.copyOf(immediates, pushes));
   }
 
   public static byte[] getCode(byte[] ops) {
@@ -54,6 +81,14 @@ public class ProgramPrecompile {
   }
 
   public boolean hasJumpDest(int pc) {
-    return jumpDest.contains(pc);
+    return pc >= 0 && jumpDest.get(pc);
+  }
+
+  /**
+   * Returns the shared immediate of the PUSH at {@code pc}, never push it without cloning.
+   */
+  public DataWord getImmediate(int pc) {
+    int i = Arrays.binarySearch(pushPcs, pc);
+    return i < 0 ? null : immediates[i];
   }
 }
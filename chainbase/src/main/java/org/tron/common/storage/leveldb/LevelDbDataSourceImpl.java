@@ -47,6 +47,7 @@ import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Logger;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
 import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.WriteOptions;
 import org.slf4j.LoggerFactory;
@@ -204,6 +205,47 @@ public class LevelDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     }
   }
 
+  /**
+   * a point in time view of the db for {@link #getData(byte[], Snapshot)} and
+   * {@link #iterator(Snapshot)}, which must be released by {@link #releaseSnapshot(Snapshot)}.
+   */
+  public Snapshot getSnapshot() {
+    resetDbLock.readLock().lock();
+    try {
+      return database.getSnapshot();
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  public void releaseSnapshot(Snapshot snapshot) {
+    resetDbLock.readLock().lock();
+    try {
+      // the snapshots are released with the db
+      if (isAlive()) {
+        snapshot.close();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(dataBaseName, e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  public byte[] getData(byte[] key, Snapshot snapshot) {
+    resetDbLock.readLock().lock();
+    try {
+      return database.get(key, new ReadOptions().snapshot(snapshot));
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  public org.tron.core.db.common.iterator.DBIterator iterator(Snapshot snapshot) {
+    return new StoreIterator(database.iterator(new ReadOptions().fillCache(false)
+        .snapshot(snapshot)));
+  }
+
   @Override
   public void putData(byte[] key, byte[] value) {
     resetDbLock.readLock().lock();
@@ -259,11 +301,18 @@ public class LevelDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   }
 
   public Set<byte[]> getlatestValues(long limit) {
+    return getlatestValues(limit, null);
+  }
+
+  /**
+   * @param snapshot the snapshot of {@link #getSnapshot()} to read, the latest values if null
+   */
+  public Set<byte[]> getlatestValues(long limit, Snapshot snapshot) {
     if (limit <= 0) {
       return Sets.newHashSet();
     }
     resetDbLock.readLock().lock();
-    try (DBIterator iterator = getDBIterator()) {
+    try (DBIterator iterator = getDBIterator(snapshot)) {
       Set<byte[]> result = Sets.newHashSet();
       long i = 0;
       iterator.seekToLast();
@@ -470,7 +519,11 @@ public class LevelDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   }
 
   private DBIterator getDBIterator() {
-    ReadOptions readOptions = new ReadOptions().fillCache(false);
+    return getDBIterator(null);
+  }
+
+  private DBIterator getDBIterator(Snapshot snapshot) {
+    ReadOptions readOptions = new ReadOptions().fillCache(false).snapshot(snapshot);
     return  database.iterator(readOptions);
   }
 
@@ -23,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.BloomFilter;
 import org.rocksdb.Checkpoint;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.DirectComparator;
 import org.rocksdb.InfoLogLevel;
 import org.rocksdb.Logger;
@@ -31,6 +32,7 @@ import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
 import org.rocksdb.Statistics;
 import org.rocksdb.Status;
 import org.rocksdb.WriteBatch;
@@ -55,6 +57,9 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   ReadOptions readOpts;
   private String dataBaseName;
   private RocksDB database;
+  // the default column family of a standalone rocksdb, or the one of this store in SharedRocksDb
+  private ColumnFamilyHandle handle;
+  private boolean shared;
   private volatile boolean alive;
   private String parentPath;
   private ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
@@ -103,7 +108,11 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (!isAlive()) {
         return;
       }
-      database.close();
+      if (shared) {
+        SharedRocksDb.close(parentPath, dataBaseName);
+      } else {
+        database.close();
+      }
       alive = false;
     } catch (Exception e) {
       logger.error("Failed to find the dbStore file on the closeDB: {}.", dataBaseName, e);
@@ -116,9 +125,15 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   public void resetDb() {
     resetDbLock.writeLock().lock();
     try {
+      if (shared && isAlive()) {
+        handle = SharedRocksDb.get(parentPath).reset(dataBaseName);
+        return;
+      }
       closeDB();
       FileUtil.recursiveDelete(getDbPath().toString());
       initDB();
+    } catch (RocksDBException e) {
+      throw new RuntimeException(dataBaseName, e);
     } finally {
       resetDbLock.writeLock().unlock();
     }
@@ -192,6 +207,10 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   }
 
   public void initDB() {
+    if (isColumnFamily(RocksDbSettings.getSettings())) {
+      initDB(RocksDbSettings.getSettings());
+      return;
+    }
     if (!checkOrInitEngine()) {
       throw new RuntimeException(
           String.format("failed to check database: %s, engine do not match", dataBaseName));
@@ -208,6 +227,10 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (dataBaseName == null) {
         throw new IllegalArgumentException("No name set to the dbStore");
       }
+      if (isColumnFamily(settings)) {
+        initColumnFamily(settings);
+        return;
+      }
 
       try (Options options = new Options()) {
 
@@ -275,6 +298,8 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
             System.exit(1);
           }
 
+          handle = database.getDefaultColumnFamily();
+          shared = false;
           alive = true;
         } catch (IOException ioe) {
           throw new RuntimeException(
@@ -288,6 +313,41 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     }
   }
 
+  // a store with an unknown comparator keeps its own rocksdb, as well as a checkpoint which is
+  // recovered and pruned by its directory
+  private boolean isColumnFamily(RocksDbSettings settings) {
+    return settings.isColumnFamily() && !dataBaseName.startsWith("checkpoint")
+        && (comparator == null || SharedRocksDb.hasComparator(dataBaseName));
+  }
+
+  private void initColumnFamily(RocksDbSettings settings) {
+    if (Files.exists(getDbPath())) {
+      throw new RuntimeException(String.format(
+          "database %s exists in %s, it can not be opened as a column family", dataBaseName,
+          parentPath));
+    }
+    logger.debug("Opening column family {}.", dataBaseName);
+    try {
+      handle = SharedRocksDb.open(parentPath, dataBaseName, settings);
+    } catch (RocksDBException e) {
+      if (Objects.equals(e.getStatus().getCode(), Status.Code.Corruption)) {
+        logger.error("Database {} corrupted, please delete database directory({}) " +
+            "and restart.", dataBaseName, parentPath, e);
+      } else {
+        logger.error("Open Database {} failed", dataBaseName, e);
+      }
+      System.exit(1);
+    } catch (IOException ioe) {
+      throw new RuntimeException(
+          String.format("failed to init database: %s", dataBaseName), ioe);
+    }
+    database = SharedRocksDb.get(parentPath).getDatabase();
+    readOpts = new ReadOptions().setPrefixSameAsStart(true).setVerifyChecksums(false);
+    shared = true;
+    alive = true;
+    logger.debug("Init column family {} done.", dataBaseName);
+  }
+
   @Override
   public void putData(byte[] key, byte[] value) {
     resetDbLock.readLock().lock();
@@ -295,7 +355,12 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (quitIfNotAlive()) {
         return;
       }
-      database.put(key, value);
+      SharedRocksDb.Batch batch = getJoinedBatch();
+      if (batch != null) {
+        batch.put(handle, key, value);
+        return;
+      }
+      database.put(handle, key, value);
     } catch (RocksDBException e) {
       throw new RuntimeException(dataBaseName, e);
     } finally {
@@ -310,7 +375,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (quitIfNotAlive()) {
         return null;
       }
-      return database.get(key);
+      return database.get(handle, key);
     } catch (RocksDBException e) {
       throw new RuntimeException(dataBaseName, e);
     } finally {
@@ -318,6 +383,55 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     }
   }
 
+  /**
+   * a point in time view of the db for {@link #getData(byte[], Snapshot)} and
+   * {@link #iterator(Snapshot)}, which must be released by {@link #releaseSnapshot(Snapshot)}.
+   */
+  public Snapshot getSnapshot() {
+    resetDbLock.readLock().lock();
+    try {
+      if (quitIfNotAlive()) {
+        return null;
+      }
+      return database.getSnapshot();
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  public void releaseSnapshot(Snapshot snapshot) {
+    resetDbLock.readLock().lock();
+    try {
+      // the snapshots are released with the db
+      if (isAlive()) {
+        database.releaseSnapshot(snapshot);
+      }
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  public byte[] getData(byte[] key, Snapshot snapshot) {
+    resetDbLock.readLock().lock();
+    try (ReadOptions readOptions = new ReadOptions().setSnapshot(snapshot)) {
+      if (quitIfNotAlive()) {
+        return null;
+      }
+      return database.get(handle, readOptions, key);
+    } catch (RocksDBException e) {
+      throw new RuntimeException(dataBaseName, e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  public org.tron.core.db.common.iterator.DBIterator iterator(Snapshot snapshot) {
+    try (ReadOptions readOptions = new ReadOptions().setFillCache(false)
+        .setTotalOrderSeek(true).setSnapshot(snapshot)) {
+      return new RockStoreIterator(database.newIterator(handle, readOptions));
+    }
+  }
+
   @Override
   public void deleteData(byte[] key) {
     resetDbLock.readLock().lock();
@@ -325,7 +439,12 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (quitIfNotAlive()) {
         return;
       }
-      database.delete(key);
+      SharedRocksDb.Batch batch = getJoinedBatch();
+      if (batch != null) {
+        batch.put(handle, key, null);
+        return;
+      }
+      database.delete(handle, key);
     } catch (RocksDBException e) {
       throw new RuntimeException(dataBaseName, e);
     } finally {
@@ -333,6 +452,10 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     }
   }
 
+  private SharedRocksDb.Batch getJoinedBatch() {
+    return shared ? SharedRocksDb.getJoined(database) : null;
+  }
+
   @Override
   public boolean flush() {
     return false;
@@ -347,12 +470,17 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     if (quitIfNotAlive()) {
       return;
     }
+    SharedRocksDb.Batch joined = getJoinedBatch();
+    if (joined != null) {
+      joined.put(handle, rows);
+      return;
+    }
     try (WriteBatch batch = new WriteBatch()) {
       for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
         if (entry.getValue() == null) {
-          batch.delete(entry.getKey());
+          batch.delete(handle, entry.getKey());
         } else {
-          batch.put(entry.getKey(), entry.getValue());
+          batch.put(handle, entry.getKey(), entry.getValue());
         }
       }
       database.write(new WriteOptions(), batch);
@@ -364,12 +492,17 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
     if (quitIfNotAlive()) {
       return;
     }
+    SharedRocksDb.Batch joined = getJoinedBatch();
+    if (joined != null) {
+      joined.put(handle, rows);
+      return;
+    }
     try (WriteBatch batch = new WriteBatch()) {
       for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
         if (entry.getValue() == null) {
-          batch.delete(entry.getKey());
+          batch.delete(handle, entry.getKey());
         } else {
-          batch.put(entry.getKey(), entry.getValue());
+          batch.put(handle, entry.getKey(), entry.getValue());
         }
       }
       database.write(options, batch);
@@ -483,6 +616,13 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   }
 
   public Set<byte[]> getlatestValues(long limit) {
+    return getlatestValues(limit, null);
+  }
+
+  /**
+   * @param snapshot the snapshot of {@link #getSnapshot()} to read, the latest values if null
+   */
+  public Set<byte[]> getlatestValues(long limit, Snapshot snapshot) {
     resetDbLock.readLock().lock();
     try {
       if (quitIfNotAlive()) {
@@ -491,7 +631,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (limit <= 0) {
         return Sets.newHashSet();
       }
-      try (RocksIterator iter = getRocksIterator()) {
+      try (RocksIterator iter = getRocksIterator(snapshot)) {
         Set<byte[]> result = Sets.newHashSet();
         long i = 0;
         for (iter.seekToLast(); iter.isValid() && i < limit; iter.prev(), i++) {
@@ -528,17 +668,30 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
   }
 
   public void backup(String dir) throws RocksDBException {
+    if (shared) {
+      SharedRocksDb.get(parentPath).backup(dir);
+      return;
+    }
     Checkpoint cp = Checkpoint.create(database);
     cp.createCheckpoint(dir + this.getDBName());
   }
 
   private RocksIterator getRocksIterator() {
-    try ( ReadOptions readOptions = new ReadOptions().setFillCache(false)) {
-      return  database.newIterator(readOptions);
+    return getRocksIterator(null);
+  }
+
+  private RocksIterator getRocksIterator(Snapshot snapshot) {
+    // the total order is needed by the column families with a hash index
+    try ( ReadOptions readOptions = new ReadOptions().setFillCache(false)
+        .setTotalOrderSeek(true).setSnapshot(snapshot)) {
+      return  database.newIterator(handle, readOptions);
     }
   }
 
   public boolean deleteDbBakPath(String dir) {
+    if (shared) {
+      return FileUtil.deleteDir(new File(dir + SharedRocksDb.NAME));
+    }
     return FileUtil.deleteDir(new File(dir + this.getDBName()));
   }
 
@@ -567,7 +720,7 @@ public class RocksDbDataSourceImpl extends DbStat implements DbSourceInter<byte[
       if (!isAlive()) {
         return Collections.emptyList();
       }
-      String stat = database.getProperty("rocksdb.levelstats");
+      String stat = database.getProperty(handle, "rocksdb.levelstats");
       String[] stats = stat.split("\n");
       return Arrays.stream(stats).skip(2).collect(Collectors.toList());
     } finally {
@@ -0,0 +1,318 @@
+package org.tron.common.storage.rocksdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.AbstractNativeReference;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Checkpoint;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.ComparatorOptions;
+import org.rocksdb.CompressionType;
+import org.rocksdb.DBOptions;
+import org.rocksdb.IndexType;
+import org.rocksdb.InfoLogLevel;
+import org.rocksdb.Logger;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.slf4j.LoggerFactory;
+import org.tron.common.setting.RocksDbSettings;
+import org.tron.common.utils.MarketOrderPriceComparatorForRockDB;
+
+/**
+ * one rocksdb holding a column family for every store under the same parent path, so the stores
+ * share one wal, one pool of background threads and one set of open files.
+ * the options of a column family are chosen by the name of the store:
+ * <ul>
+ *   <li>point lookup stores use a hash index over a key prefix and a memtable bloom filter.</li>
+ *   <li>sequential stores use bigger blocks and a stronger compression for the last level.</li>
+ *   <li>the others use the options of a standalone rocksdb.</li>
+ * </ul>
+ * the writes of several stores can be committed at once by a {@link Batch}.
+ */
+@Slf4j(topic = "DB")
+public class SharedRocksDb {
+
+  public static final String NAME = "column-families";
+
+  private static final Set<String> POINT_LOOKUP_DBS = new HashSet<>(Arrays.asList(
+      "account", "storage-row", "code", "contract"));
+  private static final Set<String> SEQUENTIAL_DBS = new HashSet<>(Arrays.asList(
+      "block", "trans", "transactionRetStore", "transactionHistoryStore"));
+  // accounts are keyed by 21 bytes addresses, storage rows by 32 bytes hashes
+  private static final int POINT_LOOKUP_PREFIX = 16;
+  private static final long SEQUENTIAL_BLOCK_SIZE = 64 * 1024L;
+
+  // the comparators must be known when the rocksdb is opened, before their stores are
+  private static final Set<String> MARKET_PRICE_DBS = Collections.singleton(
+      "market_pair_price_to_order");
+
+  private static final Map<String, SharedRocksDb> instances = new ConcurrentHashMap<>();
+  private static final ThreadLocal<Batch> joined = new ThreadLocal<>();
+  private static final org.slf4j.Logger rocksDbLogger = LoggerFactory.getLogger("ROCKSDB");
+
+  @Getter
+  private final Path dbPath;
+  private final RocksDbSettings settings;
+  private final DBOptions dbOptions;
+  @Getter
+  private final RocksDB database;
+  private final Map<String, ColumnFamilyHandle> handles = new ConcurrentHashMap<>();
+  private final Set<String> opened = new HashSet<>();
+  // the native options of the column families, closed with the rocksdb
+  private final List<AbstractNativeReference> columnFamilyOptions = new ArrayList<>();
+
+  private SharedRocksDb(Path dbPath, RocksDbSettings settings) throws RocksDBException {
+    this.dbPath = dbPath;
+    this.settings = settings;
+    this.dbOptions = newDbOptions(settings);
+
+    List<byte[]> names = Collections.singletonList(RocksDB.DEFAULT_COLUMN_FAMILY);
+    if (Files.exists(dbPath.resolve("CURRENT"))) {
+      try (Options options = new Options()) {
+        names = RocksDB.listColumnFamilies(options, dbPath.toString());
+      }
+    }
+    List<ColumnFamilyDescriptor> descriptors = new ArrayList<>(names.size());
+    for (byte[] name : names) {
+      descriptors.add(new ColumnFamilyDescriptor(name, newColumnFamilyOptions(new String(name))));
+    }
+    List<ColumnFamilyHandle> list = new ArrayList<>(names.size());
+    database = RocksDB.open(dbOptions, dbPath.toString(), descriptors, list);
+    for (int i = 0; i < names.size(); i++) {
+      handles.put(new String(names.get(i)), list.get(i));
+    }
+    logger.info("Open {} with {} column families.", dbPath, names.size());
+  }
+
+  /**
+   * open the column family of a store in the shared rocksdb of parentPath, the rocksdb is opened
+   * by the first store.
+   */
+  public static synchronized ColumnFamilyHandle open(String parentPath, String name,
+      RocksDbSettings settings) throws RocksDBException, IOException {
+    Path path = Paths.get(parentPath, NAME).toAbsolutePath().normalize();
+    SharedRocksDb db = instances.get(path.toString());
+    if (db == null) {
+      if (!Files.isSymbolicLink(path.getParent())) {
+        Files.createDirectories(path.getParent());
+      }
+      db = new SharedRocksDb(path, settings);
+      instances.put(path.toString(), db);
+    }
+    return db.openColumnFamily(name);
+  }
+
+  public static boolean hasComparator(String name) {
+    return MARKET_PRICE_DBS.contains(name);
+  }
+
+  /**
+   * @return the shared rocksdb when every store is in it, null otherwise
+   */
+  public static SharedRocksDb getSingle() {
+    return instances.size() == 1 ? instances.values().iterator().next() : null;
+  }
+
+  /**
+   * @return the batch the current thread writes to database into, null if it does not
+   */
+  static Batch getJoined(RocksDB database) {
+    Batch batch = joined.get();
+    return batch != null && batch.getDatabase() == database ? batch : null;
+  }
+
+  public static SharedRocksDb get(String parentPath) {
+    return instances.get(Paths.get(parentPath, NAME).toAbsolutePath().normalize().toString());
+  }
+
+  private synchronized ColumnFamilyHandle openColumnFamily(String name) throws RocksDBException {
+    ColumnFamilyHandle handle = handles.get(name);
+    if (handle == null) {
+      handle = database.createColumnFamily(
+          new ColumnFamilyDescriptor(name.getBytes(), newColumnFamilyOptions(name)));
+      handles.put(name, handle);
+    }
+    opened.add(name);
+    return handle;
+  }
+
+  /**
+   * drop all the data of a store.
+   */
+  public synchronized ColumnFamilyHandle reset(String name) throws RocksDBException {
+    ColumnFamilyHandle handle = handles.remove(name);
+    if (handle != null) {
+      database.dropColumnFamily(handle);
+      handle.close();
+    }
+    return openColumnFamily(name);
+  }
+
+  /**
+   * close the column family of a store, the rocksdb is closed with the last one.
+   */
+  public static synchronized void close(String parentPath, String name) {
+    SharedRocksDb db = get(parentPath);
+    if (db == null) {
+      return;
+    }
+    db.opened.remove(name);
+    if (db.opened.isEmpty()) {
+      db.handles.values().forEach(ColumnFamilyHandle::close);
+      db.database.close();
+      db.dbOptions.close();
+      db.columnFamilyOptions.forEach(AbstractNativeReference::close);
+      instances.remove(db.dbPath.toString());
+    }
+  }
+
+  /**
+   * a checkpoint of all the stores, made once for every directory.
+   */
+  public synchronized void backup(String dir) throws RocksDBException {
+    if (new File(dir + NAME).exists()) {
+      return;
+    }
+    try (Checkpoint cp = Checkpoint.create(database)) {
+      cp.createCheckpoint(dir + NAME);
+    }
+  }
+
+  public Batch newBatch() {
+    return new Batch();
+  }
+
+  /**
+   * one atomic write to several column families. the threads running a task by the batch write
+   * into it instead of the rocksdb, until it is committed.
+   */
+  public class Batch implements AutoCloseable {
+
+    private final WriteBatch batch = new WriteBatch();
+
+    public void run(Runnable task) {
+      joined.set(this);
+      try {
+        task.run();
+      } finally {
+        joined.remove();
+      }
+    }
+
+    synchronized void put(ColumnFamilyHandle handle, Map<byte[], byte[]> rows)
+        throws RocksDBException {
+      for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
+        put(handle, entry.getKey(), entry.getValue());
+      }
+    }
+
+    synchronized void put(ColumnFamilyHandle handle, byte[] key, byte[] value)
+        throws RocksDBException {
+      if (value == null) {
+        batch.delete(handle, key);
+      } else {
+        batch.put(handle, key, value);
+      }
+    }
+
+    public synchronized int count() {
+      return batch.count();
+    }
+
+    public synchronized void commit(WriteOptions options) throws RocksDBException {
+      database.write(options, batch);
+    }
+
+    RocksDB getDatabase() {
+      return database;
+    }
+
+    @Override
+    public void close() {
+      batch.close();
+    }
+  }
+
+  private static DBOptions newDbOptions(RocksDbSettings settings) {
+    DBOptions options = new DBOptions();
+    if (settings.isEnableStatistics()) {
+      options.setStatistics(new Statistics());
+      options.setStatsDumpPeriodSec(60);
+    }
+    options.setCreateIfMissing(true);
+    options.setCreateMissingColumnFamilies(true);
+    // the compactions and flushes of all the stores share these threads
+    options.setIncreaseParallelism(settings.getCompactThreads());
+    options.setMaxBackgroundCompactions(settings.getCompactThreads());
+    options.setMaxOpenFiles(settings.getMaxOpenFiles());
+    options.setLogger(new Logger(options) {
+      @Override
+      protected void log(InfoLogLevel infoLogLevel, String logMsg) {
+        rocksDbLogger.info("{} {}", NAME, logMsg);
+      }
+    });
+    return options;
+  }
+
+  private ColumnFamilyOptions newColumnFamilyOptions(String name) {
+    ColumnFamilyOptions options = new ColumnFamilyOptions();
+    columnFamilyOptions.add(options);
+    options.setLevelCompactionDynamicLevelBytes(true);
+    options.setNumLevels(settings.getLevelNumber());
+    options.setMaxBytesForLevelMultiplier(settings.getMaxBytesForLevelMultiplier());
+    options.setMaxBytesForLevelBase(settings.getMaxBytesForLevelBase());
+    options.setLevel0FileNumCompactionTrigger(settings.getLevel0FileNumCompactionTrigger());
+    options.setTargetFileSizeMultiplier(settings.getTargetFileSizeMultiplier());
+    options.setTargetFileSizeBase(settings.getTargetFileSizeBase());
+
+    BlockBasedTableConfig tableCfg = new BlockBasedTableConfig();
+    tableCfg.setBlockSize(settings.getBlockSize());
+    tableCfg.setBlockCache(RocksDbSettings.getCache());
+    tableCfg.setCacheIndexAndFilterBlocks(true);
+    tableCfg.setPinL0FilterAndIndexBlocksInCache(true);
+    BloomFilter filter = new BloomFilter(10, false);
+    columnFamilyOptions.add(filter);
+    tableCfg.setFilter(filter);
+
+    if (POINT_LOOKUP_DBS.contains(name)) {
+      // iterators must seek in total order, see RocksDbDataSourceImpl.getRocksIterator
+      options.useCappedPrefixExtractor(POINT_LOOKUP_PREFIX);
+      options.setMemtablePrefixBloomSizeRatio(0.1);
+      tableCfg.setIndexType(IndexType.kHashSearch);
+    } else if (SEQUENTIAL_DBS.contains(name)) {
+      tableCfg.setBlockSize(Math.max(settings.getBlockSize(), SEQUENTIAL_BLOCK_SIZE));
+      options.setCompressionType(CompressionType.LZ4_COMPRESSION);
+      options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+    }
+    if (MARKET_PRICE_DBS.contains(name)) {
+      ComparatorOptions comparatorOptions = new ComparatorOptions();
+      MarketOrderPriceComparatorForRockDB comparator =
+          new MarketOrderPriceComparatorForRockDB(comparatorOptions);
+      columnFamilyOptions.add(comparatorOptions);
+      columnFamilyOptions.add(comparator);
+      options.setComparator(comparator);
+    }
+    options.setTableFormatConfig(tableCfg);
+    return options;
+  }
+}
@@ -55,6 +55,9 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   private BlockId blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
 
   private Block block;
+  // computed from the block they were made of, the block is replaced by every change
+  private volatile Computed<byte[]> signer;
+  private volatile Computed<Sha256Hash> merkleRoot;
   private List<TransactionCapsule> transactions = new ArrayList<>();
   private boolean isSwitch;
   @Getter
@@ -164,8 +167,8 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     SignInterface ecKeyEngine = SignUtils
         .fromPrivate(privateKey, CommonParameter.getInstance().isECKeyCryptoEngine());
 
-    ByteString sig = ByteString.copyFrom(ecKeyEngine.Base64toBytes(ecKeyEngine.signHash(getRawHash()
-        .getBytes())));
+    ByteString sig = ByteString.copyFrom(ecKeyEngine.Base64toBytes(ecKeyEngine.signHash(
+        getRawHash(block).getBytes())));
     BlockHeader blockHeader = this.block.getBlockHeader().toBuilder().setWitnessSignature(sig)
         .build();
 
@@ -173,18 +176,15 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
   }
 
-  private Sha256Hash getRawHash() {
+  private static Sha256Hash getRawHash(Block block) {
     return Sha256Hash.of(CommonParameter.getInstance().isECKeyCryptoEngine(),
-        this.block.getBlockHeader().getRawData().toByteArray());
+        block.getBlockHeader().getRawData().toByteArray());
   }
 
   public boolean validateSignature(DynamicPropertiesStore dynamicPropertiesStore,
       AccountStore accountStore) throws ValidateSignatureException {
     try {
-      byte[] sigAddress = SignUtils.signatureToAddress(getRawHash().getBytes(),
-          TransactionCapsule.getBase64FromByteString(
-              block.getBlockHeader().getWitnessSignature()),
-          CommonParameter.getInstance().isECKeyCryptoEngine());
+      byte[] sigAddress = getSignerAddress();
       byte[] witnessAccountAddress = block.getBlockHeader().getRawData().getWitnessAddress()
           .toByteArray();
 
@@ -201,6 +201,24 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     }
   }
 
+  /**
+   * @return the address recovered from the witness signature, it is recovered again only after
+   *     the block is changed, so it can be recovered ahead of the validation.
+   */
+  public byte[] getSignerAddress() throws SignatureException {
+    Block current = this.block;
+    Computed<byte[]> computed = signer;
+    if (computed == null || computed.block != current) {
+      computed = new Computed<>(current, SignUtils.signatureToAddress(
+          getRawHash(current).getBytes(),
+          TransactionCapsule.getBase64FromByteString(
+              current.getBlockHeader().getWitnessSignature()),
+          CommonParameter.getInstance().isECKeyCryptoEngine()));
+      signer = computed;
+    }
+    return computed.value;
+  }
+
   public BlockId getBlockId() {
     if (blockId.equals(Sha256Hash.ZERO_HASH)) {
       blockId =
@@ -211,8 +229,16 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   }
 
   public Sha256Hash calcMerkleRoot() {
-    List<Transaction> transactionsList = this.block.getTransactionsList();
+    Block current = this.block;
+    Computed<Sha256Hash> computed = merkleRoot;
+    if (computed == null || computed.block != current) {
+      computed = new Computed<>(current, calcMerkleRoot(current.getTransactionsList()));
+      merkleRoot = computed;
+    }
+    return computed.value;
+  }
 
+  private static Sha256Hash calcMerkleRoot(List<Transaction> transactionsList) {
     if (CollectionUtils.isEmpty(transactionsList)) {
       return Sha256Hash.ZERO_HASH;
     }
@@ -335,6 +361,17 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     return toStringBuff.toString();
   }
 
+  private static class Computed<T> {
+
+    private final Block block;
+    private final T value;
+
+    private Computed(Block block, T value) {
+      this.block = block;
+      this.value = value;
+    }
+  }
+
   public static class BlockId extends Sha256Hash {
 
     private long num;
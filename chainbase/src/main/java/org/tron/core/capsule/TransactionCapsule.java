@@ -40,6 +40,9 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
+import org.tron.common.cache.CacheManager;
+import org.tron.common.cache.CacheType;
+import org.tron.common.cache.TronCache;
 import org.tron.common.crypto.ECKey.ECDSASignature;
 import org.tron.common.crypto.SignInterface;
 import org.tron.common.crypto.SignUtils;
@@ -93,6 +96,14 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
       .newFixedThreadPool(esName, CommonParameter.getInstance()
           .getValidContractProtoThreadNum());
   private static final String OWNER_ADDRESS = "ownerAddress_";
+  private static final int signatureCacheSize = CommonParameter.getInstance()
+      .getSignatureCacheSize();
+  // (hash, signature) -> signer address, the same transaction is checked on receipt,
+  // on push and again in its block
+  private static final TronCache<ByteString, byte[]> recoveredAddressCache =
+      signatureCacheSize <= 0 ? null : CacheManager.allocate(CacheType.recoveredAddress,
+          String.format("maximumSize=%d,concurrencyLevel=%d,recordStats", signatureCacheSize,
+              Runtime.getRuntime().availableProcessors()));
 
   private Transaction transaction;
   @Setter
@@ -241,8 +252,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
             "Signature size is " + sig.size());
       }
       String base64 = TransactionCapsule.getBase64FromByteString(sig);
-      byte[] address = SignUtils
-          .signatureToAddress(hash, base64, CommonParameter.getInstance().isECKeyCryptoEngine());
+      byte[] address = signatureToAddress(hash, sig, base64);
       long weight = getWeight(permission, address);
       if (weight == 0) {
         throw new PermissionException(
@@ -264,6 +274,23 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     return currentWeight;
   }
 
+  private static byte[] signatureToAddress(byte[] hash, ByteString sig, String base64)
+      throws SignatureException {
+    if (recoveredAddressCache == null) {
+      return SignUtils.signatureToAddress(hash, base64,
+          CommonParameter.getInstance().isECKeyCryptoEngine());
+    }
+    ByteString key = ByteString.copyFrom(hash).concat(sig);
+    byte[] address = recoveredAddressCache.getIfPresent(key);
+    if (address == null) {
+      // only a successful recovery is cached, a bad signature is recovered and rejected each time
+      address = SignUtils.signatureToAddress(hash, base64,
+          CommonParameter.getInstance().isECKeyCryptoEngine());
+      recoveredAddressCache.put(key, address);
+    }
+    return address;
+  }
+
   //make sure that contractType is validated before
   //No exception will be thrown here
   public static byte[] getShieldTransactionHashIgnoreTypeException(Transaction tx) {
@@ -469,6 +496,15 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   public static boolean validateSignature(Transaction transaction,
       byte[] hash, AccountStore accountStore, DynamicPropertiesStore dynamicPropertiesStore)
       throws PermissionException, SignatureException, SignatureFormatException {
+    Permission permission = getPermission(transaction, accountStore, dynamicPropertiesStore);
+    return validateSignature(transaction, hash, permission);
+  }
+
+  /**
+   * get the permission of the owner that the transaction is signed with
+   */
+  public static Permission getPermission(Transaction transaction, AccountStore accountStore,
+      DynamicPropertiesStore dynamicPropertiesStore) throws PermissionException {
     Transaction.Contract contract = transaction.getRawData().getContractList().get(0);
     int permissionId = contract.getPermissionId();
     byte[] owner = getOwner(contract);
@@ -488,7 +524,17 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     if (permission == null) {
       throw new PermissionException("permission isn't exit");
     }
-    checkPermission(permissionId, permission, contract);
+    return permission;
+  }
+
+  /**
+   * validate the signatures against the permission, no state is read here
+   */
+  public static boolean validateSignature(Transaction transaction, byte[] hash,
+      Permission permission)
+      throws PermissionException, SignatureException, SignatureFormatException {
+    Transaction.Contract contract = transaction.getRawData().getContractList().get(0);
+    checkPermission(contract.getPermissionId(), permission, contract);
     long weight = checkWeight(permission, transaction.getSignatureList(), hash, null);
     if (weight >= permission.getThreshold()) {
       return true;
@@ -642,27 +688,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
       DynamicPropertiesStore dynamicPropertiesStore)
       throws ValidateSignatureException {
     if (!isVerified) {
-      if (this.transaction.getSignatureCount() <= 0
-              || this.transaction.getRawData().getContractCount() <= 0) {
-        throw new ValidateSignatureException("miss sig or contract");
-      }
-      if (this.transaction.getSignatureCount() > dynamicPropertiesStore
-              .getTotalSignNum()) {
-        throw new ValidateSignatureException("too many signatures");
-      }
-
-      byte[] hash = getTransactionId().getBytes();
-
-      try {
-        if (!validateSignature(this.transaction, hash, accountStore, dynamicPropertiesStore)) {
-          isVerified = false;
-          throw new ValidateSignatureException("sig error");
-        }
-      } catch (SignatureException | PermissionException | SignatureFormatException e) {
-        isVerified = false;
-        throw new ValidateSignatureException(e.getMessage());
-      }
-      isVerified = true;
+      validateSignature(readSignPermission(accountStore, dynamicPropertiesStore));
     }
     return true;
   }
@@ -673,26 +699,74 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   public boolean validateSignature(AccountStore accountStore,
       DynamicPropertiesStore dynamicPropertiesStore) throws ValidateSignatureException {
     if (!isVerified) {
-      //Do not support multi contracts in one transaction
-      Transaction.Contract contract = this.getInstance().getRawData().getContract(0);
-      if (contract.getType() != ContractType.ShieldedTransferContract) {
-        validatePubSignature(accountStore, dynamicPropertiesStore);
-      } else {  //ShieldedTransfer
-        byte[] owner = getOwnerAddress();
-        if (!ArrayUtils.isEmpty(owner)) { //transfer from transparent address
-          validatePubSignature(accountStore, dynamicPropertiesStore);
-        } else { //transfer from shielded address
-          if (this.transaction.getSignatureCount() > 0) {
-            throw new ValidateSignatureException("there should be no signatures signed by "
-                    + "transparent address when transfer from shielded address");
+      validateSignature(getSignPermission(accountStore, dynamicPropertiesStore));
+    }
+    return true;
+  }
+
+  /**
+   * The state part of {@link #validateSignature(AccountStore, DynamicPropertiesStore)}, it reads
+   * the permission the signatures have to satisfy. Null if the transaction is a shielded
+   * transfer from a shielded address, which has no transparent signer.
+   */
+  public Permission getSignPermission(AccountStore accountStore,
+      DynamicPropertiesStore dynamicPropertiesStore) throws ValidateSignatureException {
+    //Do not support multi contracts in one transaction
+    Transaction.Contract contract = this.getInstance().getRawData().getContract(0);
+    if (contract.getType() == ContractType.ShieldedTransferContract
+        && ArrayUtils.isEmpty(getOwnerAddress())) { //transfer from shielded address
+      return null;
+    }
+    return readSignPermission(accountStore, dynamicPropertiesStore);
+  }
+
+  /**
+   * The crypto part of {@link #validateSignature(AccountStore, DynamicPropertiesStore)}, it
+   * recovers the signers and checks them against the permission from
+   * {@link #getSignPermission}.
+   */
+  public boolean validateSignature(Permission permission) throws ValidateSignatureException {
+    if (!isVerified) {
+      if (permission == null) {
+        if (this.transaction.getSignatureCount() > 0) {
+          throw new ValidateSignatureException("there should be no signatures signed by "
+              + "transparent address when transfer from shielded address");
+        }
+      } else {
+        byte[] hash = getTransactionId().getBytes();
+        try {
+          if (!validateSignature(this.transaction, hash, permission)) {
+            isVerified = false;
+            throw new ValidateSignatureException("sig error");
           }
+        } catch (SignatureException | PermissionException | SignatureFormatException e) {
+          isVerified = false;
+          throw new ValidateSignatureException(e.getMessage());
         }
       }
       isVerified = true;
-    }  
+    }
     return true;
   }
 
+  private Permission readSignPermission(AccountStore accountStore,
+      DynamicPropertiesStore dynamicPropertiesStore) throws ValidateSignatureException {
+    if (this.transaction.getSignatureCount() <= 0
+        || this.transaction.getRawData().getContractCount() <= 0) {
+      throw new ValidateSignatureException("miss sig or contract");
+    }
+    if (this.transaction.getSignatureCount() > dynamicPropertiesStore
+        .getTotalSignNum()) {
+      throw new ValidateSignatureException("too many signatures");
+    }
+    try {
+      return getPermission(this.transaction, accountStore, dynamicPropertiesStore);
+    } catch (PermissionException e) {
+      isVerified = false;
+      throw new ValidateSignatureException(e.getMessage());
+    }
+  }
+
   public Sha256Hash getTransactionId() {
     if (this.id == null) {
       this.id = getRawHash();
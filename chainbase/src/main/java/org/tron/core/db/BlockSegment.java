@@ -0,0 +1,320 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.Longs;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import lombok.Getter;
+import org.tron.protos.Protocol.Block;
+
+/**
+ * the blocks of numbers [start, start + count) with their transaction results, in a data file and
+ * an index file which are not changed once written. both files are memory-mapped.
+ * the index file has a header, a record of fixed size for every block and a hash table of the
+ * transactions with open addressing:
+ * <pre>
+ *   header: magic(4) version(4) start(8) count(4) slots(4) data length(8)
+ *   record: block id(32) block offset(4) block length(4) ret offset(4) ret length(4)
+ *   slot:   first 8 bytes of the transaction id(8) offset(4) length(4), empty if length is 0
+ * </pre>
+ * the offsets are into the data file, a transaction is found inside the bytes of its block.
+ */
+class BlockSegment {
+
+  static final String INDEX_SUFFIX = ".idx";
+  static final String DATA_SUFFIX = ".dat";
+  static final String TMP_SUFFIX = ".tmp";
+
+  private static final int MAGIC = 0x54534547;
+  private static final int VERSION = 1;
+  private static final int HEADER = 32;
+  private static final int RECORD = 48;
+  private static final int SLOT = 16;
+  private static final int ID_LENGTH = 32;
+  private static final int MIN_SLOTS = 16;
+
+  @Getter
+  private final long start;
+  @Getter
+  private final int count;
+  private final int slots;
+  private final Path indexPath;
+  private final Path dataPath;
+  private final MappedByteBuffer index;
+  private final MappedByteBuffer data;
+
+  private BlockSegment(Path indexPath, Path dataPath) throws IOException {
+    this.indexPath = indexPath;
+    this.dataPath = dataPath;
+    this.index = map(indexPath);
+    this.data = map(dataPath);
+    if (index.capacity() < HEADER || index.getInt(0) != MAGIC || index.getInt(4) != VERSION) {
+      throw new IOException("bad segment header: " + indexPath);
+    }
+    this.start = index.getLong(8);
+    this.count = index.getInt(16);
+    this.slots = index.getInt(20);
+    if (index.capacity() != HEADER + (long) count * RECORD + (long) slots * SLOT
+        || index.getLong(24) != data.capacity()) {
+      throw new IOException("incomplete segment: " + indexPath);
+    }
+  }
+
+  static BlockSegment open(Path indexPath) throws IOException {
+    return new BlockSegment(indexPath, dataPath(indexPath.getParent(), name(indexPath)));
+  }
+
+  static String name(Path path) {
+    String file = path.getFileName().toString();
+    int dot = file.indexOf('.');
+    return dot < 0 ? file : file.substring(0, dot);
+  }
+
+  private static String name(long start) {
+    return String.format("%012d", start);
+  }
+
+  private static Path indexPath(Path dir, String name) {
+    return dir.resolve(name + INDEX_SUFFIX);
+  }
+
+  private static Path dataPath(Path dir, String name) {
+    return dir.resolve(name + DATA_SUFFIX);
+  }
+
+  private static MappedByteBuffer map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  long getEnd() {
+    return start + count;
+  }
+
+  boolean contains(long num) {
+    return num >= start && num < getEnd();
+  }
+
+  /**
+   * @return the block of num, null if it is not in this segment or its id is not blockId
+   */
+  byte[] getBlock(long num, byte[] blockId) {
+    if (!contains(num)) {
+      return null;
+    }
+    int record = record(num);
+    if (blockId != null && !Arrays.equals(blockId, read(index, record, ID_LENGTH))) {
+      return null;
+    }
+    return read(data, index.getInt(record + ID_LENGTH), index.getInt(record + ID_LENGTH + 4));
+  }
+
+  /**
+   * @return the transaction results of the block num, null if they were not kept
+   */
+  byte[] getRet(long num) {
+    if (!contains(num)) {
+      return null;
+    }
+    int record = record(num);
+    int length = index.getInt(record + ID_LENGTH + 12);
+    return length == 0 ? null : read(data, index.getInt(record + ID_LENGTH + 8), length);
+  }
+
+  /**
+   * @return the transaction of the block num whose id starts like transactionId, the caller
+   *     checks the whole id
+   */
+  byte[] getTransaction(long num, byte[] transactionId) {
+    if (!contains(num) || transactionId.length < Long.BYTES) {
+      return null;
+    }
+    int record = record(num);
+    int blockOffset = index.getInt(record + ID_LENGTH);
+    int blockEnd = blockOffset + index.getInt(record + ID_LENGTH + 4);
+    long key = Longs.fromByteArray(transactionId);
+    int table = HEADER + count * RECORD;
+    int mask = slots - 1;
+    for (int i = (int) key & mask, n = 0; n < slots; i = (i + 1) & mask, n++) {
+      int slot = table + i * SLOT;
+      int length = index.getInt(slot + 12);
+      if (length == 0) {
+        return null;
+      }
+      int offset = index.getInt(slot + 8);
+      // the same id may be in another block of the segment
+      if (index.getLong(slot) == key && offset >= blockOffset && offset < blockEnd) {
+        return read(data, offset, length);
+      }
+    }
+    return null;
+  }
+
+  void delete() throws IOException {
+    Files.deleteIfExists(indexPath);
+    Files.deleteIfExists(dataPath);
+  }
+
+  private int record(long num) {
+    return HEADER + (int) (num - start) * RECORD;
+  }
+
+  private static byte[] read(MappedByteBuffer buffer, int offset, int length) {
+    // a duplicate has its own position, so the buffer can be read by several threads
+    ByteBuffer view = buffer.duplicate();
+    view.position(offset);
+    byte[] value = new byte[length];
+    view.get(value);
+    return value;
+  }
+
+  /**
+   * write the blocks of a segment in the order of their numbers. the files are written under
+   * temporary names and renamed by finish, the index file last, so a segment without its index file
+   * was not completed.
+   */
+  static class Writer implements Closeable {
+
+    private final Path dir;
+    private final long start;
+    private final Path dataTmp;
+    private final Path indexTmp;
+    private final FileOutputStream file;
+    private final OutputStream out;
+    private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(records);
+
+    private long[] keys = new long[1024];
+    private int[] offsets = new int[1024];
+    private int[] lengths = new int[1024];
+    private int transactions;
+    private int count;
+    @Getter
+    private long size;
+    private boolean finished;
+
+    Writer(Path dir, long start) throws IOException {
+      this.dir = dir;
+      this.start = start;
+      this.dataTmp = dir.resolve(name(start) + DATA_SUFFIX + TMP_SUFFIX);
+      this.indexTmp = dir.resolve(name(start) + INDEX_SUFFIX + TMP_SUFFIX);
+      this.file = new FileOutputStream(dataTmp.toFile());
+      this.out = new BufferedOutputStream(file, 1 << 20);
+    }
+
+    /**
+     * append the next block.
+     * @param transactionIds the ids of the transactions of the block, in their order in it
+     * @param ret the transaction results of the block, null if they are not kept
+     */
+    void append(byte[] blockId, byte[] block, List<byte[]> transactionIds, byte[] ret)
+        throws IOException {
+      int blockOffset = (int) size;
+      int index = 0;
+      CodedInputStream in = CodedInputStream.newInstance(block);
+      for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+        if (WireFormat.getTagFieldNumber(tag) == Block.TRANSACTIONS_FIELD_NUMBER
+            && WireFormat.getTagWireType(tag) == WireFormat.WIRETYPE_LENGTH_DELIMITED
+            && index < transactionIds.size()) {
+          int length = in.readRawVarint32();
+          addTransaction(transactionIds.get(index++), blockOffset + in.getTotalBytesRead(), length);
+          in.skipRawBytes(length);
+        } else if (!in.skipField(tag)) {
+          break;
+        }
+      }
+
+      recordOut.write(blockId, 0, ID_LENGTH);
+      recordOut.writeInt(blockOffset);
+      recordOut.writeInt(block.length);
+      write(block);
+      recordOut.writeInt(ret == null ? 0 : (int) size);
+      recordOut.writeInt(ret == null ? 0 : ret.length);
+      if (ret != null) {
+        write(ret);
+      }
+      count++;
+    }
+
+    private void write(byte[] value) throws IOException {
+      out.write(value);
+      size += value.length;
+    }
+
+    private void addTransaction(byte[] id, int offset, int length) {
+      if (transactions == keys.length) {
+        keys = Arrays.copyOf(keys, transactions * 2);
+        offsets = Arrays.copyOf(offsets, transactions * 2);
+        lengths = Arrays.copyOf(lengths, transactions * 2);
+      }
+      keys[transactions] = Longs.fromByteArray(id);
+      offsets[transactions] = offset;
+      lengths[transactions] = length;
+      transactions++;
+    }
+
+    /**
+     * sync the files and open them as a segment.
+     */
+    BlockSegment finish() throws IOException {
+      out.flush();
+      file.getFD().sync();
+      out.close();
+
+      // a power of 2 at least twice the transactions, a probe ends at an empty slot
+      int slots = Math.max(MIN_SLOTS,
+          Integer.highestOneBit(Math.max(1, transactions) * 2 - 1) << 1);
+      long indexSize = HEADER + (long) count * RECORD + (long) slots * SLOT;
+      try (RandomAccessFile indexFile = new RandomAccessFile(indexTmp.toFile(), "rw")) {
+        indexFile.setLength(indexSize);
+        MappedByteBuffer buffer = indexFile.getChannel()
+            .map(FileChannel.MapMode.READ_WRITE, 0, indexSize);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(start).putInt(count).putInt(slots)
+            .putLong(size);
+        buffer.put(records.toByteArray());
+        int table = buffer.position();
+        int mask = slots - 1;
+        for (int t = 0; t < transactions; t++) {
+          int i = (int) keys[t] & mask;
+          while (buffer.getInt(table + i * SLOT + 12) != 0) {
+            i = (i + 1) & mask;
+          }
+          int slot = table + i * SLOT;
+          buffer.putLong(slot, keys[t]).putInt(slot + 8, offsets[t]).putInt(slot + 12, lengths[t]);
+        }
+        buffer.force();
+      }
+
+      String name = name(start);
+      Files.move(dataTmp, dataPath(dir, name), StandardCopyOption.ATOMIC_MOVE);
+      Files.move(indexTmp, indexPath(dir, name), StandardCopyOption.ATOMIC_MOVE);
+      finished = true;
+      return BlockSegment.open(indexPath(dir, name));
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+      if (!finished) {
+        Files.deleteIfExists(dataTmp);
+        Files.deleteIfExists(indexTmp);
+      }
+    }
+  }
+}
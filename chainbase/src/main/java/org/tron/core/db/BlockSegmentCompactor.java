@@ -0,0 +1,143 @@
+package org.tron.core.db;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.tron.common.es.ExecutorServiceManager;
+import org.tron.common.parameter.CommonParameter;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.TransactionRetCapsule;
+import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
+import org.tron.core.store.DynamicPropertiesStore;
+import org.tron.core.store.TransactionRetStore;
+
+/**
+ * copy the blocks below the solidified block into segments in the background. a segment is only
+ * written once all its blocks are solidified, so it is never changed.
+ */
+@Slf4j(topic = "DB")
+@Component
+public class BlockSegmentCompactor {
+
+  // the data file of a segment is mapped by one buffer
+  private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+  private final String esName = "segment-compactor";
+
+  @Autowired
+  private BlockSegmentStore blockSegmentStore;
+  @Autowired
+  private BlockIndexStore blockIndexStore;
+  @Autowired
+  private BlockStore blockStore;
+  @Autowired
+  private TransactionRetStore transactionRetStore;
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  private ScheduledExecutorService compactExecutor;
+  private int segmentBlocks;
+  private long next = -1;
+
+  @PostConstruct
+  public void init() {
+    if (!blockSegmentStore.isEnabled()) {
+      return;
+    }
+    segmentBlocks = CommonParameter.getInstance().getStorage().getSegmentBlocks();
+    compactExecutor = ExecutorServiceManager.newSingleThreadScheduledExecutor(esName);
+    compactExecutor.scheduleWithFixedDelay(() -> {
+      try {
+        compact();
+      } catch (Throwable t) {
+        logger.error("Exception in compact segments", t);
+      }
+    }, 1, 1, TimeUnit.MINUTES);
+  }
+
+  /**
+   * write the segments whose blocks are all solidified.
+   */
+  void compact() throws IOException {
+    if (next < 0) {
+      next = blockSegmentStore.getEnd();
+    }
+    if (next < 0) {
+      List<BlockId> first = blockIndexStore.getLimitNumber(0, 1);
+      if (first.isEmpty()) {
+        return;
+      }
+      next = first.get(0).getNum();
+    }
+    long solidified = dynamicPropertiesStore.getLatestSolidifiedBlockNum();
+    while (next + segmentBlocks - 1 <= solidified && !Thread.currentThread().isInterrupted()) {
+      long start = System.currentTimeMillis();
+      long end = compact(next);
+      if (blockSegmentStore.getEnd() == end) {
+        logger.info("Compact blocks [{}, {}) into a segment, cost {} ms.", next, end,
+            System.currentTimeMillis() - start);
+      }
+      next = end;
+    }
+  }
+
+  /**
+   * write the segment from start.
+   * @return the number the next segment starts from
+   */
+  private long compact(long start) throws IOException {
+    try (BlockSegment.Writer writer = new BlockSegment.Writer(blockSegmentStore.getDir(), start)) {
+      long num = start;
+      for (; num < start + segmentBlocks && writer.getSize() < MAX_SEGMENT_BYTES; num++) {
+        BlockCapsule block = getBlock(num);
+        if (block == null) {
+          // the blocks before num were pruned, by a lite fullnode for example
+          List<BlockId> kept = blockIndexStore.getLimitNumber(num + 1, 1);
+          logger.info("Block {} is not found, skip blocks [{}, {}].", num, start, num);
+          return kept.isEmpty() ? num + 1 : kept.get(0).getNum();
+        }
+        TransactionRetCapsule ret = getRet(num);
+        writer.append(block.getBlockId().getBytes(), block.getData(),
+            block.getTransactions().stream()
+                .map(transaction -> transaction.getTransactionId().getBytes())
+                .collect(Collectors.toList()),
+            ret == null ? null : ret.getData());
+      }
+      blockSegmentStore.add(writer.finish());
+      return num;
+    }
+  }
+
+  private BlockCapsule getBlock(long num) {
+    try {
+      return blockStore.get(blockIndexStore.get(num).getBytes());
+    } catch (ItemNotFoundException | BadItemException e) {
+      return null;
+    }
+  }
+
+  private TransactionRetCapsule getRet(long num) {
+    try {
+      return transactionRetStore.getTransactionInfoByBlockNum(ByteArray.fromLong(num));
+    } catch (BadItemException e) {
+      return null;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (compactExecutor != null) {
+      ExecutorServiceManager.shutdownAndAwaitTermination(compactExecutor, esName);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.Longs;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.tron.common.error.TronDBException;
+import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.Metrics;
+import org.tron.common.utils.StorageUtils;
+import org.tron.core.store.DynamicPropertiesStore;
+
+/**
+ * the finalized blocks in read-only segments, which are read before the block, trans and
+ * transactionRetStore dbs. the segments are written by the {@link BlockSegmentCompactor} in the
+ * order of their numbers, a read of a number not in them returns null.
+ */
+@Slf4j(topic = "DB")
+@Component
+public class BlockSegmentStore {
+
+  public static final String NAME = "segments";
+  private static final String BLOCK_DB = "block";
+  private static final String TRANSACTION_DB = "trans";
+  private static final String RET_DB = "transactionRetStore";
+
+  @Autowired
+  private DynamicPropertiesStore dynamicPropertiesStore;
+
+  private final NavigableMap<Long, BlockSegment> segments = new ConcurrentSkipListMap<>();
+
+  @Getter
+  private boolean enabled;
+  @Getter
+  private Path dir;
+
+  @PostConstruct
+  public void init() {
+    enabled = CommonParameter.getInstance().getStorage().isSegmentEnable();
+    if (!enabled) {
+      return;
+    }
+    dir = Paths.get(StorageUtils.getOutputDirectoryByDbName(NAME),
+        CommonParameter.getInstance().getStorage().getDbDirectory(), NAME);
+    try {
+      Files.createDirectories(dir);
+      open();
+    } catch (IOException e) {
+      throw new TronDBException(e);
+    }
+  }
+
+  /**
+   * open the completed segments, the others and those above the solidified block, which was
+   * rolled back, are deleted.
+   */
+  private void open() throws IOException {
+    segments.clear();
+    long solidified = dynamicPropertiesStore.getLatestSolidifiedBlockNum();
+    List<Path> files = new ArrayList<>();
+    try (Stream<Path> list = Files.list(dir)) {
+      list.sorted().forEach(files::add);
+    }
+    Set<String> opened = new HashSet<>();
+    for (Path file : files) {
+      if (!file.toString().endsWith(BlockSegment.INDEX_SUFFIX)) {
+        continue;
+      }
+      try {
+        BlockSegment segment = BlockSegment.open(file);
+        if (segment.getEnd() - 1 > solidified || segment.getStart() < getEnd()) {
+          logger.info("Drop segment {}, solidified block: {}.", file, solidified);
+          continue;
+        }
+        segments.put(segment.getStart(), segment);
+        opened.add(BlockSegment.name(file));
+      } catch (IOException e) {
+        logger.warn("Drop segment {}, {}.", file, e.getMessage());
+      }
+    }
+    for (Path file : files) {
+      if (!opened.contains(BlockSegment.name(file))) {
+        Files.deleteIfExists(file);
+      }
+    }
+    logger.info("Open {} segments of blocks [{}, {}).", segments.size(),
+        getStart(), getEnd());
+    Metrics.gaugeSet(MetricKeys.Gauge.SEGMENT_BLOCKS, getEnd() - getStart());
+  }
+
+  long getStart() {
+    return segments.isEmpty() ? -1 : segments.firstKey();
+  }
+
+  /**
+   * @return the number after the last block in the segments, -1 if there is none
+   */
+  long getEnd() {
+    return segments.isEmpty() ? -1 : segments.lastEntry().getValue().getEnd();
+  }
+
+  void add(BlockSegment segment) {
+    if (segment.getStart() < getEnd()) {
+      throw new IllegalArgumentException(String.format("segment %d overlaps the blocks before %d",
+          segment.getStart(), getEnd()));
+    }
+    segments.put(segment.getStart(), segment);
+    Metrics.gaugeSet(MetricKeys.Gauge.SEGMENT_BLOCKS, getEnd() - getStart());
+  }
+
+  private BlockSegment get(long num) {
+    if (!enabled) {
+      return null;
+    }
+    Map.Entry<Long, BlockSegment> entry = segments.floorEntry(num);
+    return entry == null || !entry.getValue().contains(num) ? null : entry.getValue();
+  }
+
+  /**
+   * @return the block of a block id, null if it is not in the segments
+   */
+  public byte[] getBlock(byte[] blockId) {
+    if (!enabled || blockId == null || blockId.length != Long.BYTES * 4) {
+      return null;
+    }
+    long num = Longs.fromByteArray(blockId);
+    BlockSegment segment = get(num);
+    return hit(segment == null ? null : segment.getBlock(num, blockId), BLOCK_DB);
+  }
+
+  /**
+   * @return the blocks [start, start + limit) in their order, null if one of them is not in the
+   *     segments
+   */
+  public List<byte[]> getBlocks(long start, long limit) {
+    BlockSegment first = get(start);
+    if (first == null || limit <= 0 || limit > getEnd() - start) {
+      return null;
+    }
+    List<byte[]> blocks = new ArrayList<>((int) limit);
+    BlockSegment segment = first;
+    for (long num = start; num < start + limit; num++) {
+      if (!segment.contains(num)) {
+        segment = get(num);
+        if (segment == null) {
+          return null;
+        }
+      }
+      blocks.add(segment.getBlock(num, null));
+    }
+    Metrics.counterInc(MetricKeys.Counter.SEGMENT_HIT, limit, BLOCK_DB);
+    return blocks;
+  }
+
+  /**
+   * @return the transaction of a block, null if it is not in the segments. the caller checks its
+   *     id, which may differ from transactionId with a tiny probability
+   */
+  public byte[] getTransaction(long num, byte[] transactionId) {
+    BlockSegment segment = get(num);
+    return hit(segment == null ? null : segment.getTransaction(num, transactionId),
+        TRANSACTION_DB);
+  }
+
+  /**
+   * @return the transaction results of a block, null if they are not in the segments
+   */
+  public byte[] getRet(long num) {
+    BlockSegment segment = get(num);
+    return hit(segment == null ? null : segment.getRet(num), RET_DB);
+  }
+
+  private static byte[] hit(byte[] value, String db) {
+    if (value != null) {
+      Metrics.counterInc(MetricKeys.Counter.SEGMENT_HIT, 1, db);
+    }
+    return value;
+  }
+
+  @PreDestroy
+  public void close() {
+    // the mapped buffers are released when they are collected
+    segments.clear();
+  }
+}
@@ -16,9 +16,9 @@
 package org.tron.core.db;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,17 +28,44 @@ import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
 import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
 
 @Slf4j(topic = "DB")
 @Component
 public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
 
+  @Autowired
+  private BlockSegmentStore blockSegmentStore;
+
   @Autowired
   private BlockStore(@Value("block") String dbName) {
     super(dbName);
   }
 
+  @Override
+  public BlockCapsule get(byte[] key) throws ItemNotFoundException, BadItemException {
+    byte[] value = blockSegmentStore.getBlock(key);
+    return value == null ? super.get(key) : of(value);
+  }
+
+  @Override
+  public BlockCapsule getUnchecked(byte[] key) {
+    byte[] value = blockSegmentStore.getBlock(key);
+    if (value == null) {
+      return super.getUnchecked(key);
+    }
+    try {
+      return of(value);
+    } catch (BadItemException e) {
+      return null;
+    }
+  }
+
   public List<BlockCapsule> getLimitNumber(long startNumber, long limit) {
+    List<byte[]> values = blockSegmentStore.getBlocks(startNumber, limit);
+    if (values != null) {
+      return pack(values);
+    }
     BlockId startBlockId = new BlockId(Sha256Hash.ZERO_HASH, startNumber);
     return pack(revokingDB.getValuesNext(startBlockId.getBytes(), limit));
   }
@@ -47,7 +74,7 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
     return pack(revokingDB.getlatestValues(getNum));
   }
 
-  private List<BlockCapsule> pack(Set<byte[]> values) {
+  private List<BlockCapsule> pack(Collection<byte[]> values) {
     List<BlockCapsule> blocks = new ArrayList<>();
     for (byte[] bytes : values) {
       try {
@@ -3,6 +3,7 @@ package org.tron.core.db;
 import org.tron.core.db2.ISession;
 import org.tron.core.db2.common.IRevokingDB;
 import org.tron.core.db2.core.Chainbase;
+import org.tron.core.db2.core.ReadView;
 import org.tron.core.exception.RevokingStoreIllegalStateException;
 
 public interface RevokingDatabase {
@@ -41,4 +42,9 @@ public interface RevokingDatabase {
 
   void shutdown();
 
+  /**
+   * @return a view of the state at the last committed block, bound to the current thread
+   */
+  ReadView openReadView();
+
 }
@@ -24,6 +24,9 @@ public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule>
   @Autowired
   private KhaosDatabase khaosDatabase;
 
+  @Autowired
+  private BlockSegmentStore blockSegmentStore;
+
   @Autowired
   private TransactionStore(@Value("trans") String dbName) {
     super(dbName);
@@ -38,6 +41,19 @@ public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule>
     }
   }
 
+  private TransactionCapsule getTransactionFromSegments(byte[] key, long blockNum) {
+    byte[] value = blockSegmentStore.getTransaction(blockNum, key);
+    if (value == null) {
+      return null;
+    }
+    try {
+      TransactionCapsule transaction = new TransactionCapsule(value);
+      return transaction.getTransactionId().equals(Sha256Hash.wrap(key)) ? transaction : null;
+    } catch (BadItemException e) {
+      return null;
+    }
+  }
+
   private TransactionCapsule getTransactionFromBlockStore(byte[] key, long blockNum) {
     List<BlockCapsule> blocksList = blockStore.getLimitNumber(blockNum, 1);
     if (blocksList.size() != 0) {
@@ -90,7 +106,10 @@ public class TransactionStore extends TronStoreWithRevoking<TransactionCapsule>
 
     if (value.length == 8) {
       blockHigh = ByteArray.toLong(value);
-      transactionCapsule = getTransactionFromBlockStore(key, blockHigh);
+      transactionCapsule = getTransactionFromSegments(key, blockHigh);
+      if (transactionCapsule == null) {
+        transactionCapsule = getTransactionFromBlockStore(key, blockHigh);
+      }
       if (transactionCapsule == null) {
         transactionCapsule = getTransactionFromKhaosDatabase(key, blockHigh);
       }
@@ -4,9 +4,8 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import com.google.common.reflect.TypeToken;
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.IOException;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Paths;
 import java.util.Iterator;
 import java.util.Map;
@@ -15,6 +14,7 @@ import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
 import org.iq80.leveldb.WriteOptions;
 import org.rocksdb.DirectComparator;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +24,9 @@ import org.tron.common.storage.metric.DbStatService;
 import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
 import org.tron.common.utils.StorageUtils;
 import org.tron.core.capsule.ProtoCapsule;
+import org.tron.core.db.common.Codec;
+import org.tron.core.db.common.CodecRegistry;
+import org.tron.core.db.common.MessageCodec;
 import org.tron.core.db.common.iterator.DBIterator;
 import org.tron.core.db2.common.DB;
 import org.tron.core.db2.common.IRevokingDB;
@@ -44,6 +47,12 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
   protected IRevokingDB revokingDB;
   private TypeToken<T> token = new TypeToken<T>(getClass()) {
   };
+  @SuppressWarnings("unchecked")
+  private final Codec<T> codec = CodecRegistry.get((Class<T>) token.getRawType());
+  @SuppressWarnings("unchecked")
+  private final MessageCodec<T, ?> messageCodec =
+      CommonParameter.getInstance().getStorage().isDecodedCache()
+          ? CodecRegistry.getMessageCodec((Class<T>) token.getRawType()) : null;
 
   @Autowired
   private RevokingDatabase revokingDatabase;
@@ -122,6 +131,10 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 
   @Override
   public T getUnchecked(byte[] key) {
+    T item = getMessage(key);
+    if (item != null) {
+      return item;
+    }
     byte[] value = revokingDB.getUnchecked(key);
 
     try {
@@ -137,13 +150,43 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 
   }
 
+  /**
+   * @return null if the key is absent or its value is empty
+   */
+  protected T getNonEmpty(byte[] key) {
+    T item = getMessage(key);
+    if (item != null) {
+      return item;
+    }
+    byte[] value = revokingDB.getUnchecked(key);
+    try {
+      return ArrayUtils.isEmpty(value) ? null : of(value);
+    } catch (BadItemException e) {
+      return null;
+    }
+  }
+
+  /**
+   * read through the decoded values kept by the store root, null if it is not enabled for this
+   * store, the key is absent, or the value can not be decoded.
+   */
+  private T getMessage(byte[] key) {
+    if (messageCodec == null) {
+      return null;
+    }
+    try {
+      return messageCodec.get(revokingDB, key);
+    } catch (InvalidProtocolBufferException e) {
+      // decoded by the capsule, which handles a bad value as before
+      return null;
+    }
+  }
+
   public T of(byte[] value) throws BadItemException {
     try {
-      Constructor constructor = token.getRawType().getConstructor(byte[].class);
-      @SuppressWarnings("unchecked")
-      T t = (T) constructor.newInstance(value);
-      return t;
-    } catch (NoSuchMethodException | IllegalAccessException | InstantiationException | InvocationTargetException e) {
+      return codec.decode(value);
+    } catch (RuntimeException e) {
+      // same as the reflective construction, which wrapped any failure of the constructor
       throw new BadItemException(e.getMessage());
     }
   }
@@ -216,6 +259,10 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
     revokingDB.setCursor(cursor);
   }
 
+  public Chainbase.Cursor getCursor() {
+    return revokingDB.getCursor();
+  }
+
   public Map<WrappedByteArray, T> prefixQuery(byte[] key) {
     return revokingDB.prefixQuery(key).entrySet().stream().collect(
         Collectors.toMap(Map.Entry::getKey, e -> {
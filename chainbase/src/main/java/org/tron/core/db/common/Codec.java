@@ -0,0 +1,13 @@
+package org.tron.core.db.common;
+
+import org.tron.core.capsule.ProtoCapsule;
+import org.tron.core.exception.BadItemException;
+
+/**
+ * decode the value read from a store into its capsule.
+ */
+@FunctionalInterface
+public interface Codec<T extends ProtoCapsule> {
+
+  T decode(byte[] value) throws BadItemException;
+}
@@ -0,0 +1,124 @@
+package org.tron.core.db.common;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.tron.core.capsule.AbiCapsule;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.AccountTraceCapsule;
+import org.tron.core.capsule.AssetIssueCapsule;
+import org.tron.core.capsule.BlockBalanceTraceCapsule;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BytesCapsule;
+import org.tron.core.capsule.CodeCapsule;
+import org.tron.core.capsule.ContractCapsule;
+import org.tron.core.capsule.ContractStateCapsule;
+import org.tron.core.capsule.DelegatedResourceCapsule;
+import org.tron.core.capsule.ExchangeCapsule;
+import org.tron.core.capsule.IncrementalMerkleTreeCapsule;
+import org.tron.core.capsule.MarketAccountOrderCapsule;
+import org.tron.core.capsule.MarketOrderCapsule;
+import org.tron.core.capsule.MarketOrderIdListCapsule;
+import org.tron.core.capsule.ProposalCapsule;
+import org.tron.core.capsule.ProtoCapsule;
+import org.tron.core.capsule.StorageRowCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransactionInfoCapsule;
+import org.tron.core.capsule.TransactionRetCapsule;
+import org.tron.core.capsule.VotesCapsule;
+import org.tron.core.capsule.WitnessCapsule;
+import org.tron.core.exception.BadItemException;
+import org.tron.protos.Protocol.Account;
+import org.tron.protos.Protocol.Witness;
+import org.tron.protos.contract.SmartContractOuterClass.SmartContract;
+import org.tron.protos.contract.SmartContractOuterClass.SmartContract.ABI;
+
+/**
+ * codecs of the capsules stored in TronStoreWithRevoking, the store capsules are decoded by
+ * their byte[] constructor directly, any other capsule falls back to a reflective codec which
+ * looks up its constructor only once.
+ */
+public class CodecRegistry {
+
+  private static final Map<Class<?>, Codec<?>> CODECS = new ConcurrentHashMap<>();
+  // the capsules of the stores whose root may keep the decoded values
+  private static final Map<Class<?>, MessageCodec<?, ?>> MESSAGE_CODECS =
+      new ConcurrentHashMap<>();
+
+  static {
+    register(AbiCapsule.class, AbiCapsule::new);
+    register(AccountCapsule.class, AccountCapsule::new);
+    register(AccountTraceCapsule.class, AccountTraceCapsule::new);
+    register(AssetIssueCapsule.class, AssetIssueCapsule::new);
+    register(BlockBalanceTraceCapsule.class, BlockBalanceTraceCapsule::new);
+    register(BlockCapsule.class, BlockCapsule::new);
+    register(BytesCapsule.class, BytesCapsule::new);
+    register(CodeCapsule.class, CodeCapsule::new);
+    register(ContractCapsule.class, ContractCapsule::new);
+    register(ContractStateCapsule.class, ContractStateCapsule::new);
+    register(DelegatedResourceCapsule.class, DelegatedResourceCapsule::new);
+    register(ExchangeCapsule.class, ExchangeCapsule::new);
+    register(IncrementalMerkleTreeCapsule.class, IncrementalMerkleTreeCapsule::new);
+    register(MarketAccountOrderCapsule.class, MarketAccountOrderCapsule::new);
+    register(MarketOrderCapsule.class, MarketOrderCapsule::new);
+    register(MarketOrderIdListCapsule.class, MarketOrderIdListCapsule::new);
+    register(ProposalCapsule.class, ProposalCapsule::new);
+    register(StorageRowCapsule.class, StorageRowCapsule::new);
+    register(TransactionCapsule.class, TransactionCapsule::new);
+    register(TransactionInfoCapsule.class, TransactionInfoCapsule::new);
+    register(TransactionRetCapsule.class, TransactionRetCapsule::new);
+    register(VotesCapsule.class, VotesCapsule::new);
+    register(WitnessCapsule.class, WitnessCapsule::new);
+
+    register(AccountCapsule.class, new MessageCodec<>(Account.parser(), AccountCapsule::new));
+    register(WitnessCapsule.class, new MessageCodec<>(Witness.parser(), WitnessCapsule::new));
+    register(ContractCapsule.class,
+        new MessageCodec<>(SmartContract.parser(), ContractCapsule::new));
+    register(AbiCapsule.class, new MessageCodec<>(ABI.parser(), AbiCapsule::new));
+  }
+
+  private CodecRegistry() {
+  }
+
+  public static <T extends ProtoCapsule> void register(Class<T> type, Codec<T> codec) {
+    CODECS.put(type, codec);
+  }
+
+  public static <T extends ProtoCapsule> void register(Class<T> type,
+      MessageCodec<T, ?> codec) {
+    MESSAGE_CODECS.put(type, codec);
+  }
+
+  /**
+   * @return null if the values of this type are not decoded as messages
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends ProtoCapsule> MessageCodec<T, ?> getMessageCodec(Class<T> type) {
+    return (MessageCodec<T, ?>) MESSAGE_CODECS.get(type);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T extends ProtoCapsule> Codec<T> get(Class<T> type) {
+    return (Codec<T>) CODECS.computeIfAbsent(type, CodecRegistry::reflective);
+  }
+
+  private static Codec<?> reflective(Class<?> type) {
+    Constructor<?> constructor;
+    try {
+      constructor = type.getConstructor(byte[].class);
+    } catch (NoSuchMethodException e) {
+      return value -> {
+        throw new BadItemException(e.getMessage());
+      };
+    }
+    return value -> {
+      try {
+        return (ProtoCapsule) constructor.newInstance((Object) value);
+      } catch (IllegalAccessException | InstantiationException
+          | InvocationTargetException e) {
+        throw new BadItemException(e.getMessage());
+      }
+    };
+  }
+}
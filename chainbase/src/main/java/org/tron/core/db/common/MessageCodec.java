@@ -0,0 +1,31 @@
+package org.tron.core.db.common;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import java.util.function.Function;
+import org.tron.core.capsule.ProtoCapsule;
+import org.tron.core.db2.common.IRevokingDB;
+
+/**
+ * decode a store value as its protobuf message and wrap it into the capsule, so that a store
+ * root which keeps the decoded messages does not parse them again.
+ */
+public class MessageCodec<T extends ProtoCapsule, M extends Message> {
+
+  private final Parser<M> parser;
+  private final Function<M, T> wrapper;
+
+  public MessageCodec(Parser<M> parser, Function<M, T> wrapper) {
+    this.parser = parser;
+    this.wrapper = wrapper;
+  }
+
+  /**
+   * @return null if the key is absent or its value is empty
+   */
+  public T get(IRevokingDB db, byte[] key) throws InvalidProtocolBufferException {
+    M message = db.getMessage(key, parser);
+    return message == null ? null : wrapper.apply(message);
+  }
+}
@@ -1,9 +1,13 @@
 package org.tron.core.db2.common;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.apache.commons.lang3.ArrayUtils;
 import org.tron.core.db2.core.Chainbase;
 import org.tron.core.exception.ItemNotFoundException;
 
@@ -21,6 +25,15 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
 
   byte[] getUnchecked(byte[] key);
 
+  /**
+   * get the value of key decoded by parser, null if the key is absent or its value is empty.
+   */
+  default <M extends Message> M getMessage(byte[] key, Parser<M> parser)
+      throws InvalidProtocolBufferException {
+    byte[] value = getUnchecked(key);
+    return ArrayUtils.isEmpty(value) ? null : parser.parseFrom(value);
+  }
+
   void close();
 
   void reset();
@@ -0,0 +1,89 @@
+package org.tron.core.db2.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * bloom filter over the keys written to one snapshot layer, so that a read can skip the layers
+ * which can not contain its key. the hash of a key is computed once per read and probed against
+ * every layer. one writer at a time, readers may run concurrently.
+ */
+public class KeyFilter {
+
+  public static final int MIN_BITS = 1 << 10;
+  private static final int MAX_BITS = 1 << 26;
+  private static final int BITS_PER_KEY = 8;
+  private static final int HASHES = 3;
+
+  private final AtomicLongArray bits;
+  private final int mask;
+  private int count;
+
+  public KeyFilter(int size) {
+    this.bits = new AtomicLongArray(size >>> 6);
+    this.mask = size - 1;
+  }
+
+  /**
+   * size of the filter to hold this number of keys, a power of two.
+   */
+  public static int sizeFor(long keys) {
+    long size = MIN_BITS;
+    while (size < keys * BITS_PER_KEY && size < MAX_BITS) {
+      size <<= 1;
+    }
+    return (int) size;
+  }
+
+  public static long hash(byte[] key) {
+    // FNV-1a then the murmur3 finalizer, both halves are used as independent hashes
+    long h = 0xcbf29ce484222325L;
+    for (byte b : key) {
+      h ^= b;
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  public int size() {
+    return mask + 1;
+  }
+
+  /**
+   * @return true if more keys would raise the false positive rate above the target
+   */
+  public boolean isFull() {
+    return count >= size() / BITS_PER_KEY && size() < MAX_BITS;
+  }
+
+  public void add(long hash) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < HASHES; i++) {
+      int bit = (h1 + i * h2) & mask;
+      long m = 1L << bit;
+      int index = bit >>> 6;
+      long word;
+      while (((word = bits.get(index)) & m) == 0 && !bits.compareAndSet(index, word, word | m)) {
+        // retry
+      }
+    }
+    count++;
+  }
+
+  public boolean mightContain(long hash) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 0; i < HASHES; i++) {
+      int bit = (h1 + i * h2) & mask;
+      if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,34 @@
+package org.tron.core.db2.common;
+
+import java.util.Set;
+import org.tron.core.db.common.iterator.DBIterator;
+
+/**
+ * a db whose state can be pinned at a point in time, the writes after it are not read through
+ * the pin.
+ */
+public interface Pinnable {
+
+  /**
+   * @return the pin of the current state, null if the db is closed
+   */
+  Pinned pin();
+
+  interface Pinned extends AutoCloseable {
+
+    byte[] get(byte[] key);
+
+    DBIterator iterator();
+
+    /**
+     * @return the values of the last limit keys
+     */
+    Set<byte[]> getlatestValues(long limit);
+
+    /**
+     * release the pin, it must not be read after it. the iterators already made are still valid.
+     */
+    @Override
+    void close();
+  }
+}
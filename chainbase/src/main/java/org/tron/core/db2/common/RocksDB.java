@@ -3,13 +3,14 @@ package org.tron.core.db2.common;
 import com.google.common.collect.Maps;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import lombok.Getter;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.common.storage.WriteOptionsWrapper;
 import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
 import org.tron.core.db.common.iterator.DBIterator;
 
-public class RocksDB implements DB<byte[], byte[]>, Flusher {
+public class RocksDB implements DB<byte[], byte[]>, Flusher, Pinnable {
 
   @Getter
   private RocksDbDataSourceImpl db;
@@ -83,4 +84,33 @@ public class RocksDB implements DB<byte[], byte[]>, Flusher {
   public void stat() {
     this.db.stat();
   }
-}
\ No newline at end of file
+
+  @Override
+  public Pinned pin() {
+    org.rocksdb.Snapshot snapshot = db.isAlive() ? db.getSnapshot() : null;
+    if (snapshot == null) {
+      return null;
+    }
+    return new Pinned() {
+      @Override
+      public byte[] get(byte[] key) {
+        return db.getData(key, snapshot);
+      }
+
+      @Override
+      public DBIterator iterator() {
+        return db.iterator(snapshot);
+      }
+
+      @Override
+      public Set<byte[]> getlatestValues(long limit) {
+        return db.getlatestValues(limit, snapshot);
+      }
+
+      @Override
+      public void close() {
+        db.releaseSnapshot(snapshot);
+      }
+    };
+  }
+}
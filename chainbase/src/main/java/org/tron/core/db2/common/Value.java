@@ -53,6 +53,11 @@ public final class Value {
     return Arrays.copyOf(value, value.length);
   }
 
+  public int length() {
+    byte[] value = data.getBytes();
+    return value == null ? 0 : value.length;
+  }
+
   public enum Operator {
     CREATE((byte) 0),
     MODIFY((byte) 1),
@@ -11,9 +11,10 @@ public abstract class AbstractSnapshot<K, V> implements Snapshot {
   protected DB<K, V> db;
   @Getter
   @Setter
-  protected Snapshot previous;
+  // relinked to the root by a flush while the readers walk the layers
+  protected volatile Snapshot previous;
 
-  protected WeakReference<Snapshot> next;
+  protected volatile WeakReference<Snapshot> next;
 
   protected boolean isOptimized;
 
@@ -2,6 +2,9 @@ package org.tron.core.db2.core;
 
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -12,6 +15,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.utils.ByteUtil;
 import org.tron.common.utils.Pair;
 import org.tron.core.capsule.utils.MarketUtils;
@@ -35,7 +39,8 @@ public class Chainbase implements IRevokingDB {
   //true:fullnode, false:soliditynode
   private ThreadLocal<Cursor> cursor = new ThreadLocal<>();
   private ThreadLocal<Long> offset = new ThreadLocal<>();
-  private Snapshot head;
+  // written by the thread applying the blocks only, a reader captures it once for every read
+  private volatile Snapshot head;
 
   public Chainbase(Snapshot head) {
     this.head = head;
@@ -68,31 +73,38 @@ public class Chainbase implements IRevokingDB {
   }
 
   private Snapshot head() {
+    return head(head);
+  }
+
+  /**
+   * @return the snapshot the cursor of the current thread points to, from top
+   */
+  private Snapshot head(Snapshot top) {
     if (cursor.get() == null) {
-      return head;
+      return top;
     }
 
     switch (cursor.get()) {
       case HEAD:
-        return head;
+        return top;
       case SOLIDITY:
-        return head.getSolidity();
+        return top.getSolidity();
       case PBFT:
         if (offset.get() == null) {
-          return head.getSolidity();
+          return top.getSolidity();
         }
 
         if (offset.get() >= 0) {
-          Snapshot tmp = head;
+          Snapshot tmp = top;
           for (int i = 0; i < offset.get() && tmp != tmp.getRoot(); i++) {
             tmp = tmp.getPrevious();
           }
           return tmp;
         } else {
-          return head.getSolidity();
+          return top.getSolidity();
         }
       default:
-        return head;
+        return top;
     }
   }
 
@@ -100,7 +112,22 @@ public class Chainbase implements IRevokingDB {
     return head();
   }
 
-  public synchronized void setHead(Snapshot head) {
+  /**
+   * @return the head of the chain, whatever the cursor of the current thread is
+   */
+  Snapshot latest() {
+    return head;
+  }
+
+  /**
+   * @return the read view bound to the current thread, with its read lock held, null if the
+   *     reads are live. the views only apply to the head.
+   */
+  private ReadView acquireView() {
+    return getCursor() == Cursor.HEAD ? ReadView.acquire(this) : null;
+  }
+
+  public void setHead(Snapshot head) {
     this.head = head;
   }
 
@@ -108,24 +135,24 @@ public class Chainbase implements IRevokingDB {
    * close the database.
    */
   @Override
-  public synchronized void close() {
+  public void close() {
     head().close();
   }
 
   @Override
-  public synchronized void reset() {
+  public void reset() {
     head().reset();
     head().close();
     head = head.getRoot().newInstance();
   }
 
   @Override
-  public synchronized void put(byte[] key, byte[] value) {
+  public void put(byte[] key, byte[] value) {
     head().put(key, value);
   }
 
   @Override
-  public synchronized void delete(byte[] key) {
+  public void delete(byte[] key) {
     head().remove(key);
   }
 
@@ -150,21 +177,61 @@ public class Chainbase implements IRevokingDB {
 
   @Override
   public byte[] getUnchecked(byte[] key) {
+    ReadView view = acquireView();
+    if (view != null) {
+      try {
+        return view.get(this, key);
+      } finally {
+        view.release();
+      }
+    }
     return head().get(key);
   }
 
+  @Override
+  public <M extends Message> M getMessage(byte[] key, Parser<M> parser)
+      throws InvalidProtocolBufferException {
+    ReadView view = acquireView();
+    if (view != null) {
+      byte[] value;
+      try {
+        value = view.get(this, key);
+      } finally {
+        view.release();
+      }
+      return ArrayUtils.isEmpty(value) ? null : parser.parseFrom(value);
+    }
+    return head().getMessage(key, parser);
+  }
+
   @Override
   public boolean has(byte[] key) {
     return getUnchecked(key) != null;
   }
 
   @Override
-  public synchronized Iterator<Map.Entry<byte[], byte[]>> iterator() {
+  public Iterator<Map.Entry<byte[], byte[]>> iterator() {
+    ReadView view = acquireView();
+    if (view != null) {
+      try {
+        return view.iterator(this);
+      } finally {
+        view.release();
+      }
+    }
     return head().iterator();
   }
 
   @Override
   public Set<byte[]> getValuesNext(byte[] key, long limit) {
+    ReadView view = acquireView();
+    if (view != null) {
+      try {
+        return view.getValuesNext(this, key, limit);
+      } finally {
+        view.release();
+      }
+    }
     return getValuesNext(head(), key, limit);
   }
 
@@ -206,6 +273,14 @@ public class Chainbase implements IRevokingDB {
 
   @Override
   public List<byte[]> getKeysNext(byte[] key, long limit) {
+    ReadView view = acquireView();
+    if (view != null) {
+      try {
+        return view.getKeysNext(this, key, limit);
+      } finally {
+        view.release();
+      }
+    }
     return getKeysNext(head(), key, limit);
   }
 
@@ -275,11 +350,19 @@ public class Chainbase implements IRevokingDB {
   // for blockstore
   @Override
   public Set<byte[]> getlatestValues(long limit) {
+    ReadView view = acquireView();
+    if (view != null) {
+      try {
+        return view.getlatestValues(this, limit);
+      } finally {
+        view.release();
+      }
+    }
     return getlatestValues(head(), limit);
   }
 
   // for blockstore
-  private synchronized Set<byte[]> getlatestValues(Snapshot head, long limit) {
+  private Set<byte[]> getlatestValues(Snapshot head, long limit) {
     if (limit <= 0) {
       return Collections.emptySet();
     }
@@ -311,6 +394,14 @@ public class Chainbase implements IRevokingDB {
   // for accout-trace
   @Override
   public Map<byte[], byte[]> getNext(byte[] key, long limit) {
+    ReadView view = acquireView();
+    if (view != null) {
+      try {
+        return view.getNext(this, key, limit);
+      } finally {
+        view.release();
+      }
+    }
     return getNext(head(), key, limit);
   }
 
@@ -350,14 +441,23 @@ public class Chainbase implements IRevokingDB {
   }
 
   public Map<WrappedByteArray, byte[]> prefixQuery(byte[] key) {
-    Map<WrappedByteArray, byte[]> result = prefixQueryRoot(key);
-    Map<WrappedByteArray, byte[]>  snapshot = prefixQuerySnapshot(key);
+    ReadView view = acquireView();
+    if (view != null) {
+      try {
+        return view.prefixQuery(this, key);
+      } finally {
+        view.release();
+      }
+    }
+    Snapshot head = head();
+    Map<WrappedByteArray, byte[]> result = prefixQueryRoot(head, key);
+    Map<WrappedByteArray, byte[]>  snapshot = prefixQuerySnapshot(head, key);
     result.putAll(snapshot);
     result.entrySet().removeIf(e -> e.getValue() == null);
     return result;
   }
 
-  private Map<WrappedByteArray, byte[]> prefixQueryRoot(byte[] key) {
+  private Map<WrappedByteArray, byte[]> prefixQueryRoot(Snapshot head, byte[] key) {
     Map<WrappedByteArray, byte[]> result = new HashMap<>();
     if (((SnapshotRoot) head.getRoot()).db.getClass() == LevelDB.class) {
       result = ((LevelDB) ((SnapshotRoot) head.getRoot()).db).getDb().prefixQuery(key);
@@ -367,10 +467,9 @@ public class Chainbase implements IRevokingDB {
     return result;
   }
 
-  private Map<WrappedByteArray, byte[]> prefixQuerySnapshot(byte[] key) {
+  private Map<WrappedByteArray, byte[]> prefixQuerySnapshot(Snapshot snapshot, byte[] key) {
     Map<WrappedByteArray, byte[]> result = new HashMap<>();
-    Snapshot snapshot = head();
-    if (!snapshot.equals(head.getRoot())) {
+    if (!snapshot.equals(snapshot.getRoot())) {
       Map<WrappedByteArray, WrappedByteArray> all = new HashMap<>();
       ((SnapshotImpl) snapshot).collect(all, key);
       all.forEach((k, v) -> result.put(k, v.getBytes()));
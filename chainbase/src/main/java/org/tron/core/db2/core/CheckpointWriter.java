@@ -0,0 +1,70 @@
+package org.tron.core.db2.core;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import org.tron.common.storage.WriteOptionsWrapper;
+import org.tron.core.db.common.DbSourceInter;
+
+/**
+ * write the entries of a checkpoint in write batches of bounded size, instead of collecting all of
+ * them into one batch. the entries are written in the order they are put, so a key put twice keeps
+ * its last value.
+ * a pending marker is written before the first batch and removed by the last one, a checkpoint
+ * which still has it was not completed and must not be recovered. the marker is encoded like a
+ * key of a db that does not exist, so it is skipped by the recovery of older versions.
+ */
+class CheckpointWriter {
+
+  private static final byte[] PENDING_NAME = "checkpoint-pending".getBytes();
+  static final byte[] PENDING = Bytes.concat(Ints.toByteArray(PENDING_NAME.length),
+      PENDING_NAME);
+
+  private final DbSourceInter<byte[]> db;
+  private final long batchBytes;
+  private final boolean sync;
+  // only the last batch is synced, a synced write also persists all the writes before it
+  private final WriteOptionsWrapper batchOptions = WriteOptionsWrapper.getInstance().sync(false);
+
+  private Map<byte[], byte[]> batch = new LinkedHashMap<>();
+  private long batchSize;
+  @Getter
+  private long bytes;
+
+  CheckpointWriter(DbSourceInter<byte[]> db, long batchBytes, boolean sync) {
+    this.db = db;
+    this.batchBytes = batchBytes;
+    this.sync = sync;
+    db.updateByBatch(Collections.singletonMap(PENDING, new byte[] {1}), batchOptions);
+  }
+
+  static boolean isPending(DbSourceInter<byte[]> db) {
+    return db.getData(PENDING) != null;
+  }
+
+  void put(byte[] key, byte[] value) {
+    batch.put(key, value);
+    batchSize += key.length + value.length;
+    if (batchSize >= batchBytes) {
+      write(batchOptions);
+    }
+  }
+
+  /**
+   * write the last batch together with the removal of the pending marker.
+   */
+  void finish() {
+    batch.put(PENDING, null);
+    write(WriteOptionsWrapper.getInstance().sync(sync));
+  }
+
+  private void write(WriteOptionsWrapper options) {
+    db.updateByBatch(batch, options);
+    bytes += batchSize;
+    batch = new LinkedHashMap<>();
+    batchSize = 0;
+  }
+}
@@ -0,0 +1,97 @@
+package org.tron.core.db2.core;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
+
+/**
+ * decide when the snapshots are flushed to the dbs.
+ * the interval is bounded by the max flush count, which the manager sets to the configured value
+ * while syncing and to 1 at the head of the chain. it is halved when a refresh takes longer than
+ * the latency target and grows again while the refreshes are fast. a flush is also forced when
+ * the layers to be flushed hold more than the memory limit.
+ */
+@Slf4j(topic = "DB")
+class FlushPolicy {
+
+  static final int MAX_INTERVAL = 500;
+
+  private final long memoryLimit;
+  private final long latencyTarget;
+
+  @Getter
+  private int interval = MAX_INTERVAL;
+  private boolean memoryFull;
+
+  /**
+   * @param memoryLimit bytes the layers to be flushed can hold, 0 means no limit
+   * @param latencyTarget milliseconds a refresh should take, 0 means no target
+   */
+  FlushPolicy(long memoryLimit, long latencyTarget) {
+    this.memoryLimit = memoryLimit;
+    this.latencyTarget = latencyTarget;
+  }
+
+  boolean shouldFlush(List<Chainbase> dbs, int flushCount, int maxFlushCount) {
+    memoryFull = false;
+    if (flushCount >= Math.min(interval, maxFlushCount)) {
+      Metrics.counterInc(MetricKeys.Counter.SNAPSHOT_FLUSH, 1,
+          MetricLabels.Counter.FLUSH_INTERVAL);
+      return true;
+    }
+    if ((memoryLimit > 0 || Metrics.enabled()) && flushCount > 0) {
+      memoryFull = memoryLimit > 0 && dirtyBytes(dbs, flushCount) >= memoryLimit;
+      if (memoryFull) {
+        Metrics.counterInc(MetricKeys.Counter.SNAPSHOT_FLUSH, 1,
+            MetricLabels.Counter.FLUSH_MEMORY);
+      }
+    }
+    return memoryFull;
+  }
+
+  /**
+   * adjust the interval by the refresh of flushed layers, which took cost milliseconds.
+   */
+  void onRefresh(int flushed, long cost) {
+    int last = interval;
+    if (latencyTarget > 0 && cost > latencyTarget
+        && flushed > SnapshotManager.DEFAULT_MIN_FLUSH_COUNT) {
+      // a single layer can not be split, its refresh says nothing about the interval
+      interval = Math.max(SnapshotManager.DEFAULT_MIN_FLUSH_COUNT,
+          Math.min(interval, flushed) / 2);
+    } else if (memoryFull) {
+      interval = Math.max(SnapshotManager.DEFAULT_MIN_FLUSH_COUNT, flushed);
+    } else if (flushed >= interval) {
+      interval = Math.min(MAX_INTERVAL, interval + Math.max(1, interval / 8));
+    }
+    if (interval != last) {
+      logger.info("Flush interval {} -> {}, flushed: {}, refresh cost: {} ms.", last, interval,
+          flushed, cost);
+    }
+    Metrics.gaugeSet(MetricKeys.Gauge.SNAPSHOT_FLUSH_INTERVAL, interval);
+  }
+
+  /**
+   * the bytes written to the first flushCount layers of every db, a key written twice is counted
+   * twice.
+   */
+  private static long dirtyBytes(List<Chainbase> dbs, int flushCount) {
+    long bytes = 0;
+    for (Chainbase db : dbs) {
+      long keys = 0;
+      Snapshot next = db.getHead().getRoot().getNext();
+      for (int i = 0; i < flushCount && next != null; ++i) {
+        SnapshotImpl snapshot = (SnapshotImpl) next;
+        bytes += snapshot.getWrittenBytes();
+        keys += snapshot.getDb().size();
+        next = next.getNext();
+      }
+      Metrics.gaugeSet(MetricKeys.Gauge.SNAPSHOT_DIRTY_KEYS, keys, db.getDbName());
+    }
+    Metrics.gaugeSet(MetricKeys.Gauge.SNAPSHOT_DIRTY_BYTES, bytes);
+    return bytes;
+  }
+}
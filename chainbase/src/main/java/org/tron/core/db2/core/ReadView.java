@@ -0,0 +1,316 @@
+package org.tron.core.db2.core;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Streams;
+import com.google.common.primitives.Bytes;
+import io.prometheus.client.Histogram;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
+import org.tron.common.utils.ByteUtil;
+import org.tron.core.capsule.utils.MarketUtils;
+import org.tron.core.db.common.iterator.DBIterator;
+import org.tron.core.db2.common.Key;
+import org.tron.core.db2.common.KeyFilter;
+import org.tron.core.db2.common.Pinnable;
+import org.tron.core.db2.common.Value;
+import org.tron.core.db2.common.Value.Operator;
+import org.tron.core.db2.common.WrappedByteArray;
+
+/**
+ * the state of the dbs at one committed block: the snapshots above their roots at that block and
+ * a pin of every root. it is bound to the thread which opened it, the reads of that thread from a
+ * {@link Chainbase} at its head go to the view until it is closed. the threads working for the
+ * same request may read it at once after {@link #attach(ReadView)}. it may be closed by another
+ * thread, then the reads are live again.
+ */
+public class ReadView implements AutoCloseable {
+
+  private static final ThreadLocal<ReadView> bound = new ThreadLocal<>();
+
+  private final Map<Chainbase, Layers> dbs;
+  @Getter
+  private final long createTime = System.currentTimeMillis();
+  // the pins must not be read after they are released
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Consumer<ReadView> onClose;
+  private final Thread thread = Thread.currentThread();
+  private final ReadView outer;
+  private volatile boolean closed;
+
+  ReadView(Map<Chainbase, Layers> dbs, Consumer<ReadView> onClose) {
+    this.dbs = dbs;
+    this.onClose = onClose;
+    this.outer = bound.get();
+    bound.set(this);
+  }
+
+  /**
+   * @return the open view of db bound to the current thread with its read lock held, which must be
+   *     released by {@link #release()}, null if the reads of db are live
+   */
+  static ReadView acquire(Chainbase db) {
+    ReadView view = bound.get();
+    if (view == null || view.closed || !view.dbs.containsKey(db)) {
+      return null;
+    }
+    view.lock.readLock().lock();
+    if (view.closed) {
+      view.lock.readLock().unlock();
+      return null;
+    }
+    return view;
+  }
+
+  void release() {
+    lock.readLock().unlock();
+  }
+
+  /**
+   * unbind the view of the current thread, until {@link #attach(ReadView)}.
+   * @return the view which was bound, may be null
+   */
+  public static ReadView detach() {
+    ReadView view = bound.get();
+    bound.remove();
+    return view;
+  }
+
+  public static void attach(ReadView view) {
+    if (view == null) {
+      bound.remove();
+    } else {
+      bound.set(view);
+    }
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  byte[] get(Chainbase db, byte[] key) {
+    Layers layers = dbs.get(db);
+    Key k = Key.of(key);
+    long hash = KeyFilter.hash(key);
+    for (SnapshotImpl layer : layers.snapshots) {
+      Value value = layer.findHere(k, hash);
+      if (value != null) {
+        return value.getBytes();
+      }
+    }
+    return layers.root.get(key);
+  }
+
+  Iterator<Map.Entry<byte[], byte[]>> iterator(Chainbase db) {
+    Layers layers = dbs.get(db);
+    Map<WrappedByteArray, WrappedByteArray> all = collect(layers, null);
+    Set<WrappedByteArray> keys = new HashSet<>(all.keySet());
+    all.entrySet().removeIf(entry -> entry.getValue().getBytes() == null);
+    return Iterators.concat(
+        Iterators.transform(all.entrySet().iterator(),
+            e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes())),
+        Iterators.filter(layers.root.iterator(),
+            e -> !keys.contains(WrappedByteArray.of(e.getKey()))));
+  }
+
+  Map<WrappedByteArray, byte[]> prefixQuery(Chainbase db, byte[] key) {
+    Layers layers = dbs.get(db);
+    Map<WrappedByteArray, byte[]> result = new HashMap<>();
+    try (DBIterator iterator = layers.root.iterator()) {
+      for (iterator.seek(key); iterator.valid(); iterator.next()) {
+        if (Bytes.indexOf(iterator.getKey(), key) != 0) {
+          break;
+        }
+        result.put(WrappedByteArray.of(iterator.getKey()), iterator.getValue());
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    collect(layers, key).forEach((k, v) -> result.put(k, v.getBytes()));
+    result.entrySet().removeIf(e -> e.getValue() == null);
+    return result;
+  }
+
+  // for blockstore
+  Set<byte[]> getValuesNext(Chainbase db, byte[] key, long limit) {
+    if (limit <= 0) {
+      return Collections.emptySet();
+    }
+    Layers layers = dbs.get(db);
+    Map<WrappedByteArray, WrappedByteArray> all = next(layers, key, limit);
+    all.putAll(collect(layers, null));
+    return all.entrySet().stream()
+        .sorted((e1, e2) -> ByteUtil.compare(e1.getKey().getBytes(), e2.getKey().getBytes()))
+        .filter(e -> ByteUtil.greaterOrEquals(e.getKey().getBytes(), key))
+        .limit(limit)
+        .map(Map.Entry::getValue)
+        .map(WrappedByteArray::getBytes)
+        .collect(Collectors.toSet());
+  }
+
+  // for accout-trace
+  Map<byte[], byte[]> getNext(Chainbase db, byte[] key, long limit) {
+    if (limit <= 0) {
+      return Collections.emptyMap();
+    }
+    Layers layers = dbs.get(db);
+    Map<WrappedByteArray, WrappedByteArray> all = next(layers, key, limit);
+    all.putAll(collect(layers, null));
+    return all.entrySet().stream()
+        .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
+        .sorted((e1, e2) -> ByteUtil.compare(e1.getKey(), e2.getKey()))
+        .filter(e -> ByteUtil.greaterOrEquals(e.getKey(), key))
+        .limit(limit)
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  /**
+   * the keys of the same token pair from key, ordered by {@link MarketUtils#comparePriceKey}.
+   */
+  // for market
+  List<byte[]> getKeysNext(Chainbase db, byte[] key, long limit) {
+    if (limit <= 0) {
+      return Collections.emptyList();
+    }
+    Layers layers = dbs.get(db);
+    Map<WrappedByteArray, Operator> operators = new HashMap<>();
+    for (int i = layers.snapshots.size() - 1; i >= 0; i--) {
+      for (Map.Entry<Key, Value> e : layers.snapshots.get(i).db) {
+        operators.put(WrappedByteArray.of(e.getKey().getBytes()), e.getValue().getOperator());
+      }
+    }
+    // the deleted keys are read from the root too
+    List<WrappedByteArray> keys = next(layers, key, limit + operators.size()).keySet().stream()
+        .filter(e -> MarketUtils.pairKeyIsEqual(e.getBytes(), key))
+        .collect(Collectors.toList());
+    operators.forEach((k, operator) -> {
+      if (!MarketUtils.pairKeyIsEqual(k.getBytes(), key)) {
+        return;
+      }
+      if (operator == Operator.DELETE) {
+        keys.remove(k);
+      } else if (!keys.contains(k)) {
+        keys.add(k);
+      }
+    });
+    return keys.stream()
+        .filter(e -> MarketUtils.greaterOrEquals(e.getBytes(), key))
+        .sorted((e1, e2) -> MarketUtils.comparePriceKey(e1.getBytes(), e2.getBytes()))
+        .limit(limit)
+        .map(WrappedByteArray::getBytes)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * the values of the latest limit snapshots of the view holding any, then of the root.
+   */
+  // for blockstore
+  Set<byte[]> getlatestValues(Chainbase db, long limit) {
+    if (limit <= 0) {
+      return Collections.emptySet();
+    }
+    Layers layers = dbs.get(db);
+    Set<byte[]> result = new HashSet<>();
+    long tmp = limit;
+    for (int i = 0; tmp > 0 && i < layers.snapshots.size(); i++) {
+      SnapshotImpl layer = layers.snapshots.get(i);
+      if (!layer.db.isEmpty()) {
+        --tmp;
+        Streams.stream(layer.db)
+            .map(Map.Entry::getValue)
+            .map(Value::getBytes)
+            .forEach(result::add);
+      }
+    }
+    if (tmp != 0) {
+      result.addAll(layers.root.getlatestValues(tmp));
+    }
+    return result;
+  }
+
+  /**
+   * @return the limit entries of the root from key
+   */
+  private static Map<WrappedByteArray, WrappedByteArray> next(Layers layers, byte[] key,
+      long limit) {
+    Map<WrappedByteArray, WrappedByteArray> result = new HashMap<>();
+    try (DBIterator iterator = layers.root.iterator()) {
+      long i = 0;
+      for (iterator.seek(key); iterator.valid() && i < limit; iterator.next(), i++) {
+        result.put(WrappedByteArray.of(iterator.getKey()),
+            WrappedByteArray.of(iterator.getValue()));
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return result;
+  }
+
+  /**
+   * @return the values written to the snapshots of the view, the deleted ones are null
+   */
+  private static Map<WrappedByteArray, WrappedByteArray> collect(Layers layers, byte[] prefix) {
+    Map<WrappedByteArray, WrappedByteArray> all = new HashMap<>();
+    // old --> new, so the later values overwrite the former ones
+    for (int i = layers.snapshots.size() - 1; i >= 0; i--) {
+      for (Map.Entry<Key, Value> e : layers.snapshots.get(i).db) {
+        byte[] k = e.getKey().getBytes();
+        if (prefix == null || Bytes.indexOf(Objects.requireNonNull(k), prefix) == 0) {
+          all.put(WrappedByteArray.of(k), WrappedByteArray.of(e.getValue().getBytes()));
+        }
+      }
+    }
+    return all;
+  }
+
+  /**
+   * release the pins and unbind the view, from its thread only.
+   */
+  @Override
+  public void close() {
+    if (Thread.currentThread() == thread && bound.get() == this) {
+      attach(outer);
+    }
+    lock.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      Histogram.Timer timer = Metrics.histogramStartTimer(
+          MetricKeys.Histogram.READ_VIEW_LATENCY, MetricLabels.Histogram.READ_VIEW_RELEASE);
+      dbs.values().forEach(layers -> layers.root.close());
+      Metrics.histogramObserve(timer);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    onClose.accept(this);
+  }
+
+  static class Layers {
+
+    // new --> old
+    private final List<SnapshotImpl> snapshots;
+    private final Pinnable.Pinned root;
+
+    Layers(List<SnapshotImpl> snapshots, Pinnable.Pinned root) {
+      this.snapshots = snapshots;
+      this.root = root;
+    }
+  }
+}
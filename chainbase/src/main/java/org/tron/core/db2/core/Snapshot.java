@@ -1,6 +1,10 @@
 package org.tron.core.db2.core;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import java.util.Map;
+import org.apache.commons.lang3.ArrayUtils;
 import org.tron.core.db2.common.Instance;
 
 public interface Snapshot extends Iterable<Map.Entry<byte[], byte[]>>, Instance<Snapshot> {
@@ -15,6 +19,15 @@ public interface Snapshot extends Iterable<Map.Entry<byte[], byte[]>>, Instance<
 
   byte[] get(byte[] key);
 
+  /**
+   * get the value of key decoded by parser, null if the key is absent or its value is empty.
+   */
+  default <M extends Message> M getMessage(byte[] key, Parser<M> parser)
+      throws InvalidProtocolBufferException {
+    byte[] value = get(key);
+    return ArrayUtils.isEmpty(value) ? null : parser.parseFrom(value);
+  }
+
   void put(byte[] key, byte[] value);
 
   void remove(byte[] key);
@@ -5,6 +5,11 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import com.google.common.primitives.Bytes;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -12,8 +17,12 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import lombok.Getter;
+import org.apache.commons.lang3.ArrayUtils;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.Metrics;
 import org.tron.core.db2.common.HashDB;
 import org.tron.core.db2.common.Key;
+import org.tron.core.db2.common.KeyFilter;
 import org.tron.core.db2.common.Value;
 import org.tron.core.db2.common.Value.Operator;
 import org.tron.core.db2.common.WrappedByteArray;
@@ -22,6 +31,11 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 
   @Getter
   protected Snapshot root;
+  // keys written to this layer, replaced by a bigger one when it is full
+  private volatile KeyFilter filter = new KeyFilter(KeyFilter.MIN_BITS);
+  // bytes of the keys and values written to this layer, including the overwritten ones
+  @Getter
+  private volatile long writtenBytes;
 
   SnapshotImpl(Snapshot snapshot) {
     root = snapshot.getRoot();
@@ -42,18 +56,63 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   }
 
   private byte[] get(Snapshot head, byte[] key) {
+    Value value = find(head, key);
+    if (value != null) {
+      return value.getBytes();
+    }
+    return head.getRoot().get(key);
+  }
+
+  /**
+   * look up key in the layers from head to the root, skipping the layers whose filter does not
+   * contain it.
+   *
+   * @return null if no layer has written key
+   */
+  private static Value find(Snapshot head, byte[] key) {
     Snapshot snapshot = head;
-    Value value;
+    Key k = Key.of(key);
+    long hash = KeyFilter.hash(key);
+    int visited = 0;
+    Value value = null;
 
     while (Snapshot.isImpl(snapshot)) {
-      if ((value = ((SnapshotImpl) snapshot).db.get(Key.of(key))) != null) {
-        return value.getBytes();
+      SnapshotImpl impl = (SnapshotImpl) snapshot;
+      if (impl.filter.mightContain(hash)) {
+        visited++;
+        if ((value = impl.db.get(k)) != null) {
+          break;
+        }
       }
 
       snapshot = snapshot.getPrevious();
     }
 
-    return snapshot == null ? null : snapshot.get(key);
+    if (Metrics.enabled()) {
+      Metrics.histogramObserve(MetricKeys.Histogram.SNAPSHOT_LAYERS_VISITED, visited,
+          head.getDbName());
+    }
+    return value;
+  }
+
+  /**
+   * @return the value written to this layer only, null if it was not written
+   */
+  Value findHere(Key key, long hash) {
+    return filter.mightContain(hash) ? db.get(key) : null;
+  }
+
+  @Override
+  public <M extends Message> M getMessage(byte[] key, Parser<M> parser)
+      throws InvalidProtocolBufferException {
+    Value value = find(this, key);
+    if (value != null) {
+      byte[] bytes = value.getBytes();
+      return ArrayUtils.isEmpty(bytes) ? null : parser.parseFrom(bytes);
+    }
+
+    // the root may keep the decoded values
+    return getRoot().getMessage(key, parser);
   }
 
   @Override
@@ -61,13 +120,34 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
     Preconditions.checkNotNull(key, "key in db is not null.");
     Preconditions.checkNotNull(value, "value in db is not null.");
 
-    db.put(Key.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
+    write(key, Key.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
   }
 
   @Override
   public void remove(byte[] key) {
     Preconditions.checkNotNull(key, "key in db is not null.");
-    db.put(Key.of(key), Value.of(Value.Operator.DELETE, null));
+    write(key, Key.of(key), Value.of(Value.Operator.DELETE, null));
+  }
+
+  /**
+   * the key is added to the filter before the value, so a reader which finds the value in db
+   * could also pass the filter. a key written again is already in the filter, so the filter
+   * counts the keys of db.
+   */
+  private synchronized void write(byte[] bytes, Key key, Value value) {
+    if (db.get(key) == null) {
+      KeyFilter f = filter;
+      if (f.isFull()) {
+        f = new KeyFilter(KeyFilter.sizeFor(db.size() + 1));
+        for (Map.Entry<Key, Value> e : db) {
+          f.add(KeyFilter.hash(e.getKey().getBytes()));
+        }
+        filter = f;
+      }
+      f.add(KeyFilter.hash(bytes));
+    }
+    db.put(key, value);
+    writtenBytes += bytes.length + value.length();
   }
 
   // we have a 3x3 matrix of all possibilities when merging previous snapshot and current snapshot :
@@ -85,7 +165,8 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
   @Override
   public void merge(Snapshot from) {
     SnapshotImpl fromImpl = (SnapshotImpl) from;
-    Streams.stream(fromImpl.db).forEach(e -> db.put(e.getKey(), e.getValue()));
+    Streams.stream(fromImpl.db).forEach(e -> write(e.getKey().getBytes(), e.getKey(),
+        e.getValue()));
   }
 
   public void mergeAhead(Snapshot from) {
@@ -95,7 +176,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
     SnapshotImpl fromImpl = (SnapshotImpl) from;
     Streams.stream(fromImpl.db).forEach(e -> {
       if (db.get(e.getKey()) == null) {
-        db.put(e.getKey(), e.getValue());
+        write(e.getKey().getBytes(), e.getKey(), e.getValue());
       }
     }
     );
@@ -125,24 +206,33 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
             e -> !keys.contains(WrappedByteArray.of(e.getKey()))));
   }
 
-  synchronized void collect(Map<WrappedByteArray, WrappedByteArray> all) {
-    Snapshot next = getRoot().getNext();
-    while (next != null) {
-      Streams.stream(((SnapshotImpl) next).db)
+  /**
+   * @return the layers from the root to this one, old --> new. they are walked from this one, so
+   *     the layers added after it are not read, and a layer unlinked by a flush is either read or
+   *     already in the root.
+   */
+  private Deque<SnapshotImpl> layers() {
+    Deque<SnapshotImpl> layers = new ArrayDeque<>();
+    for (Snapshot snapshot = this; Snapshot.isImpl(snapshot); snapshot = snapshot.getPrevious()) {
+      layers.addFirst((SnapshotImpl) snapshot);
+    }
+    return layers;
+  }
+
+  void collect(Map<WrappedByteArray, WrappedByteArray> all) {
+    for (SnapshotImpl layer : layers()) {
+      Streams.stream(layer.db)
           .forEach(e -> all.put(WrappedByteArray.of(e.getKey().getBytes()),
               WrappedByteArray.of(e.getValue().getBytes())));
-      next = next.getNext();
     }
   }
 
-  synchronized void collect(Map<WrappedByteArray, WrappedByteArray> all, byte[] prefix) {
-    Snapshot next = getRoot().getNext();
-    while (next != null) {
-      Streams.stream(((SnapshotImpl) next).db).filter(e -> Bytes.indexOf(
+  void collect(Map<WrappedByteArray, WrappedByteArray> all, byte[] prefix) {
+    for (SnapshotImpl layer : layers()) {
+      Streams.stream(layer.db).filter(e -> Bytes.indexOf(
               Objects.requireNonNull(e.getKey().getBytes()), prefix) == 0)
           .forEach(e -> all.put(WrappedByteArray.of(e.getKey().getBytes()),
               WrappedByteArray.of(e.getValue().getBytes())));
-      next = next.getNext();
     }
   }
 
@@ -154,13 +244,11 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
    * More than that, there will be some item which has been deleted, but just assigned in Operator,
    * so we need Operator value to determine next step.
    * */
-  synchronized void collectUnique(Map<WrappedByteArray, Operator> all) {
-    Snapshot next = getRoot().getNext();
-    while (next != null) {
-      Streams.stream(((SnapshotImpl) next).db)
+  void collectUnique(Map<WrappedByteArray, Operator> all) {
+    for (SnapshotImpl layer : layers()) {
+      Streams.stream(layer.db)
           .forEach(e -> all.put(WrappedByteArray.of(e.getKey().getBytes()),
               e.getValue().getOperator()));
-      next = next.getNext();
     }
   }
 
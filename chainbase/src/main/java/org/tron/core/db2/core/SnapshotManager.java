@@ -7,14 +7,19 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.prometheus.client.Histogram;
 import java.io.File;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -26,11 +31,16 @@ import javax.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksDBException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.tron.common.error.TronDBException;
 import org.tron.common.es.ExecutorServiceManager;
 import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.common.storage.WriteOptionsWrapper;
+import org.tron.common.storage.rocksdb.SharedRocksDb;
 import org.tron.common.utils.FileUtil;
 import org.tron.common.utils.StorageUtils;
 import org.tron.core.db.RevokingDatabase;
@@ -39,8 +49,10 @@ import org.tron.core.db2.ISession;
 import org.tron.core.db2.common.DB;
 import org.tron.core.db2.common.IRevokingDB;
 import org.tron.core.db2.common.Key;
+import org.tron.core.db2.common.Pinnable;
+import org.tron.core.db2.common.RocksDB;
+import org.tron.core.db2.common.TxCacheDB;
 import org.tron.core.db2.common.Value;
-import org.tron.core.db2.common.WrappedByteArray;
 import org.tron.core.exception.RevokingStoreIllegalStateException;
 import org.tron.core.store.CheckPointV2Store;
 import org.tron.core.store.CheckTmpStore;
@@ -52,6 +64,7 @@ public class SnapshotManager implements RevokingDatabase {
   private static final int DEFAULT_STACK_MAX_SIZE = 256;
   private static final long ONE_MINUTE_MILLS = 60*1000L;
   private static final String CHECKPOINT_V2_DIR = "checkpoint";
+  private static final long CHECKPOINT_BATCH_BYTES = 16 * 1024 * 1024L;
   @Getter
   private List<Chainbase> dbs = new ArrayList<>();
   @Getter
@@ -76,6 +89,12 @@ public class SnapshotManager implements RevokingDatabase {
   private ScheduledExecutorService pruneCheckpointThread = null;
   private final String pruneName = "checkpoint-prune";
 
+  // the heads of the dbs at the last committed block, read by the read views
+  private volatile Map<Chainbase, Snapshot> committed = Collections.emptyMap();
+  private final Set<ReadView> readViews = ConcurrentHashMap.newKeySet();
+  private ScheduledExecutorService readViewReaper = null;
+  private final String reaperName = "read-view-reaper";
+
   @Autowired
   @Setter
   @Getter
@@ -84,7 +103,10 @@ public class SnapshotManager implements RevokingDatabase {
   @Setter
   private volatile int maxFlushCount = DEFAULT_MIN_FLUSH_COUNT;
 
+  private FlushPolicy flushPolicy = new FlushPolicy(0, 0);
+
   private int checkpointVersion = 1;   // default v1
+  private boolean checkpointCleared;
 
   public SnapshotManager(String checkpointPath) {
   }
@@ -92,6 +114,9 @@ public class SnapshotManager implements RevokingDatabase {
   @PostConstruct
   public void init() {
     checkpointVersion = CommonParameter.getInstance().getStorage().getCheckpointVersion();
+    flushPolicy = new FlushPolicy(
+        CommonParameter.getInstance().getStorage().getFlushMemoryLimit() * 1024 * 1024L,
+        CommonParameter.getInstance().getStorage().getFlushLatency());
     // prune checkpoint
     if (isV2Open()) {
       pruneCheckpointThread = ExecutorServiceManager.newSingleThreadScheduledExecutor(pruneName);
@@ -105,6 +130,17 @@ public class SnapshotManager implements RevokingDatabase {
         }
       }, 10000, 3600, TimeUnit.MILLISECONDS);
     }
+    if (CommonParameter.getInstance().getStorage().isReadViewEnable()) {
+      long maxAge = CommonParameter.getInstance().getStorage().getReadViewMaxAge();
+      readViewReaper = ExecutorServiceManager.newSingleThreadScheduledExecutor(reaperName);
+      readViewReaper.scheduleWithFixedDelay(() -> {
+        try {
+          closeReadViews(maxAge);
+        } catch (Throwable t) {
+          logger.error("Exception in close read views", t);
+        }
+      }, maxAge, Math.max(100, maxAge / 2), TimeUnit.MILLISECONDS);
+    }
     exitThread =  new Thread(() -> {
       LockSupport.park();
       // to Guarantee Some other thread invokes unpark with the current thread as the target
@@ -166,6 +202,7 @@ public class SnapshotManager implements RevokingDatabase {
     flushServices.put(revokingDB.getDbName(),
         MoreExecutors.listeningDecorator(ExecutorServiceManager.newSingleThreadExecutor(
             "flush-service-" + revokingDB.getDbName())));
+    publish();
   }
 
   private void advance() {
@@ -227,6 +264,9 @@ public class SnapshotManager implements RevokingDatabase {
         db.getHead().reloadToMem();
       }
     });
+    if (activeSession == 0) {
+      publish();
+    }
   }
 
   public synchronized void pop() {
@@ -247,6 +287,7 @@ public class SnapshotManager implements RevokingDatabase {
     } finally {
       disabled = false;
     }
+    publish();
   }
 
   @Override
@@ -276,9 +317,78 @@ public class SnapshotManager implements RevokingDatabase {
     disabled = true;
   }
 
+  /**
+   * the heads are only published when no session is open, so a read view never sees a block which
+   * is being applied or the pending transactions.
+   */
+  private void publish() {
+    Map<Chainbase, Snapshot> heads = new IdentityHashMap<>();
+    dbs.forEach(db -> heads.put(db, db.latest()));
+    committed = heads;
+  }
+
+  /**
+   * pin the state of the dbs at the last committed block and bind it to the current thread, until
+   * the view is closed. the snapshots are captured before the roots are pinned: a flush merges the
+   * snapshots into a root before unlinking them, so a root pinned later has at least the values of
+   * the snapshots not captured, and the snapshots captured shadow the values merged from them.
+   */
+  @Override
+  public ReadView openReadView() {
+    Histogram.Timer timer = Metrics.histogramStartTimer(
+        MetricKeys.Histogram.READ_VIEW_LATENCY, MetricLabels.Histogram.READ_VIEW_PIN);
+    Map<Chainbase, Snapshot> heads = committed;
+    Map<Chainbase, List<SnapshotImpl>> snapshots = new IdentityHashMap<>();
+    heads.forEach((db, head) -> {
+      List<SnapshotImpl> list = new ArrayList<>();
+      for (Snapshot s = head; Snapshot.isImpl(s); s = s.getPrevious()) {
+        list.add((SnapshotImpl) s);
+      }
+      snapshots.put(db, list);
+    });
+    Map<Chainbase, ReadView.Layers> layers = new IdentityHashMap<>();
+    heads.forEach((db, head) -> {
+      Snapshot root = head.getRoot();
+      if (root instanceof SnapshotRoot && ((SnapshotRoot) root).db instanceof Pinnable) {
+        Pinnable.Pinned pinned = ((Pinnable) ((SnapshotRoot) root).db).pin();
+        if (pinned != null) {
+          layers.put(db, new ReadView.Layers(snapshots.get(db), pinned));
+        }
+      }
+    });
+    ReadView view = new ReadView(layers, this::onReadViewClosed);
+    readViews.add(view);
+    Metrics.gaugeSet(MetricKeys.Gauge.READ_VIEW_ACTIVE, readViews.size());
+    Metrics.histogramObserve(timer);
+    return view;
+  }
+
+  private void onReadViewClosed(ReadView view) {
+    readViews.remove(view);
+    Metrics.gaugeSet(MetricKeys.Gauge.READ_VIEW_ACTIVE, readViews.size());
+  }
+
+  /**
+   * close the read views opened maxAge ms ago or earlier, their reads are live after it.
+   */
+  private void closeReadViews(long maxAge) {
+    long now = System.currentTimeMillis();
+    for (ReadView view : readViews) {
+      if (now - view.getCreateTime() >= maxAge) {
+        logger.warn("Close read view opened {} ms ago.", now - view.getCreateTime());
+        view.close();
+        Metrics.counterInc(MetricKeys.Counter.READ_VIEW_EXPIRED, 1);
+      }
+    }
+  }
+
   @Override
   public void shutdown() {
     ExecutorServiceManager.shutdownAndAwaitTermination(pruneCheckpointThread, pruneName);
+    if (readViewReaper != null) {
+      ExecutorServiceManager.shutdownAndAwaitTermination(readViewReaper, reaperName);
+    }
+    readViews.forEach(ReadView::close);
     flushServices.forEach((key, value) -> ExecutorServiceManager.shutdownAndAwaitTermination(value,
         "flush-service-" + key));
     try {
@@ -299,7 +409,7 @@ public class SnapshotManager implements RevokingDatabase {
   }
 
   private boolean shouldBeRefreshed() {
-    return flushCount >= maxFlushCount;
+    return flushPolicy.shouldFlush(dbs, flushCount, maxFlushCount);
   }
 
   private void refresh() {
@@ -307,6 +417,38 @@ public class SnapshotManager implements RevokingDatabase {
     for (Chainbase db : dbs) {
       futures.add(flushServices.get(db.getDbName()).submit(() -> refreshOne(db)));
     }
+    waitAll(futures);
+  }
+
+  /**
+   * merge the snapshots of all the dbs into one write batch, and link the roots only after it is
+   * written, so a read never misses a value which is neither in the snapshots nor in the db.
+   */
+  private void refresh(SharedRocksDb sharedDb) {
+    try (SharedRocksDb.Batch batch = sharedDb.newBatch()) {
+      List<ListenableFuture<?>> futures = new ArrayList<>(dbs.size());
+      for (Chainbase db : dbs) {
+        futures.add(flushServices.get(db.getDbName()).submit(() -> batch.run(() -> {
+          if (!Snapshot.isRoot(db.getHead())) {
+            mergeOne(db);
+          }
+        })));
+      }
+      waitAll(futures);
+      // the batch replaces the checkpoint, it is as durable as the checkpoint was
+      batch.commit(WriteOptionsWrapper.getInstance()
+          .sync(CommonParameter.getInstance().getStorage().isCheckpointSync()).rocks);
+    } catch (RocksDBException e) {
+      throw new TronDBException(e);
+    }
+    for (Chainbase db : dbs) {
+      if (!Snapshot.isRoot(db.getHead())) {
+        linkOne(db);
+      }
+    }
+  }
+
+  private void waitAll(List<ListenableFuture<?>> futures) {
     Future<?> future = Futures.allAsList(futures);
     try {
       future.get();
@@ -322,7 +464,11 @@ public class SnapshotManager implements RevokingDatabase {
     if (Snapshot.isRoot(db.getHead())) {
       return;
     }
+    mergeOne(db);
+    linkOne(db);
+  }
 
+  private void mergeOne(Chainbase db) {
     List<Snapshot> snapshots = new ArrayList<>();
 
     SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
@@ -333,6 +479,14 @@ public class SnapshotManager implements RevokingDatabase {
     }
 
     root.merge(snapshots);
+  }
+
+  private void linkOne(Chainbase db) {
+    SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
+    Snapshot next = root;
+    for (int i = 0; i < flushCount; ++i) {
+      next = next.getNext();
+    }
 
     root.resetSolidity();
     if (db.getHead() == next) {
@@ -351,13 +505,31 @@ public class SnapshotManager implements RevokingDatabase {
     if (shouldBeRefreshed()) {
       try {
         long start = System.currentTimeMillis();
-        if (!isV2Open()) {
+        SharedRocksDb sharedDb = getAtomicFlushDb();
+        Histogram.Timer checkpointTimer = Metrics.histogramStartTimer(
+            MetricKeys.Histogram.CHECKPOINT_LATENCY, MetricLabels.Histogram.CHECKPOINT_CREATE);
+        if (sharedDb == null) {
+          if (!isV2Open()) {
+            deleteCheckpoint();
+          }
+          createCheckpoint();
+        } else if (!checkpointCleared) {
+          // a checkpoint left by an earlier flush must not be recovered over the later ones
           deleteCheckpoint();
+          checkpointCleared = true;
         }
-        createCheckpoint();
+        Metrics.histogramObserve(checkpointTimer);
 
         long checkPointEnd = System.currentTimeMillis();
-        refresh();
+        Histogram.Timer refreshTimer = Metrics.histogramStartTimer(
+            MetricKeys.Histogram.CHECKPOINT_LATENCY, MetricLabels.Histogram.CHECKPOINT_REFRESH);
+        if (sharedDb == null) {
+          refresh();
+        } else {
+          refresh(sharedDb);
+        }
+        Metrics.histogramObserve(refreshTimer);
+        flushPolicy.onRefresh(flushCount, System.currentTimeMillis() - checkPointEnd);
         flushCount = 0;
         logger.info("Flush cost: {} ms, create checkpoint cost: {} ms, refresh cost: {} ms.",
             System.currentTimeMillis() - start,
@@ -372,17 +544,31 @@ public class SnapshotManager implements RevokingDatabase {
     }
   }
 
+  /**
+   * stream the flushed snapshots of every db into the checkpoint, oldest first, in bounded write
+   * batches, so a key changed in several snapshots ends with its latest value.
+   */
   private void createCheckpoint() {
     TronDatabase<byte[]> checkPointStore = null;
     boolean syncFlag;
     try {
-      Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
       for (Chainbase db : dbs) {
-        Snapshot head = db.getHead();
-        if (Snapshot.isRoot(head)) {
+        if (Snapshot.isRoot(db.getHead())) {
           return;
         }
+      }
+      if (isV2Open()) {
+        String dbName = String.valueOf(System.currentTimeMillis());
+        checkPointStore = getCheckpointDB(dbName);
+        syncFlag = CommonParameter.getInstance().getStorage().isCheckpointSync();
+      } else {
+        checkPointStore = checkTmpStore;
+        syncFlag = CommonParameter.getInstance().getStorage().isDbSync();
+      }
 
+      CheckpointWriter writer = new CheckpointWriter(checkPointStore.getDbSource(),
+          CHECKPOINT_BATCH_BYTES, syncFlag);
+      for (Chainbase db : dbs) {
         String dbName = db.getDbName();
 
         if (Objects.equals(dbName, "trans-cache")) {
@@ -390,32 +576,19 @@ public class SnapshotManager implements RevokingDatabase {
           continue;
         }
 
-        Snapshot next = head.getRoot();
+        byte[] prefix = simpleEncode(dbName);
+        Snapshot next = db.getHead().getRoot();
         for (int i = 0; i < flushCount; ++i) {
           next = next.getNext();
           SnapshotImpl snapshot = (SnapshotImpl) next;
           DB<Key, Value> keyValueDB = snapshot.getDb();
           for (Map.Entry<Key, Value> e : keyValueDB) {
-            Key k = e.getKey();
-            Value v = e.getValue();
-            batch.put(WrappedByteArray.of(Bytes.concat(simpleEncode(dbName), k.getBytes())),
-                WrappedByteArray.of(v.encode()));
+            writer.put(Bytes.concat(prefix, e.getKey().getBytes()), e.getValue().encode());
           }
         }
       }
-      if (isV2Open()) {
-        String dbName = String.valueOf(System.currentTimeMillis());
-        checkPointStore = getCheckpointDB(dbName);
-        syncFlag = CommonParameter.getInstance().getStorage().isCheckpointSync();
-      } else {
-        checkPointStore = checkTmpStore;
-        syncFlag = CommonParameter.getInstance().getStorage().isDbSync();
-      }
-
-      checkPointStore.getDbSource().updateByBatch(batch.entrySet().stream()
-              .map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-              .collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll),
-          WriteOptionsWrapper.getInstance().sync(syncFlag));
+      writer.finish();
+      Metrics.counterInc(MetricKeys.Counter.CHECKPOINT_BYTES, writer.getBytes());
 
     } catch (Exception e) {
       throw new TronDBException(e);
@@ -538,6 +711,11 @@ public class SnapshotManager implements RevokingDatabase {
   }
 
   private void recover(TronDatabase<byte[]> tronDatabase) {
+    if (CheckpointWriter.isPending(tronDatabase.getDbSource())) {
+      // the node stopped while writing it, the dbs were not flushed after it either
+      logger.warn("Skip incomplete checkpoint {}.", tronDatabase.getDbName());
+      return;
+    }
     Map<String, Chainbase> dbMap = dbs.stream()
         .map(db -> Maps.immutableEntry(db.getDbName(), db))
         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
@@ -567,6 +745,29 @@ public class SnapshotManager implements RevokingDatabase {
     retreat();
   }
 
+  /**
+   * the flush of all the dbs is written at once when they are column families of one rocksdb,
+   * then there is nothing to recover after a crash and the checkpoint is not needed. the tx cache
+   * flushes to its filters in memory only, they are rebuilt at startup.
+   */
+  private SharedRocksDb getAtomicFlushDb() {
+    SharedRocksDb sharedDb = SharedRocksDb.getSingle();
+    if (sharedDb == null) {
+      return null;
+    }
+    for (Chainbase db : dbs) {
+      DB<byte[], byte[]> root = ((SnapshotRoot) db.getHead().getRoot()).db;
+      if (root instanceof TxCacheDB) {
+        continue;
+      }
+      if (!(root instanceof RocksDB)
+          || ((RocksDB) root).getDb().getDatabase() != sharedDb.getDatabase()) {
+        return null;
+      }
+    }
+    return sharedDb;
+  }
+
   private boolean isV2Open() {
     return checkpointVersion == 2;
   }
@@ -1,14 +1,20 @@
 package org.tron.core.db2.core;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.cache.CacheManager;
 import org.tron.common.cache.CacheType;
 import org.tron.common.cache.TronCache;
@@ -30,6 +36,13 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   private TronCache<WrappedByteArray, WrappedByteArray> cache;
   private static final List<String> CACHE_DBS = CommonParameter.getInstance()
       .getStorage().getCacheDbs();
+  // decoded values of the cached dbs whose values are protobuf messages
+  private TronCache<WrappedByteArray, Decoded> decodedCache;
+  private static final Map<String, CacheType> DECODED_DBS = ImmutableMap.of(
+      CacheType.account.type, CacheType.decodedAccount,
+      CacheType.witness.type, CacheType.decodedWitness,
+      CacheType.contract.type, CacheType.decodedContract,
+      CacheType.abi.type, CacheType.decodedAbi);
 
   public SnapshotRoot(DB<byte[], byte[]> db) {
     this.db = db;
@@ -37,6 +50,11 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
     isAccountDB = "account".equalsIgnoreCase(db.getDbName());
     if (CACHE_DBS.contains(this.db.getDbName())) {
       this.cache = CacheManager.allocate(CacheType.findByType(this.db.getDbName()));
+      if (CommonParameter.getInstance().getStorage().isDecodedCache()
+          && DECODED_DBS.containsKey(this.db.getDbName())) {
+        this.decodedCache = CacheManager.allocate(DECODED_DBS.get(this.db.getDbName()),
+            (k, v) -> k.getBytes().length + v.raw.getBytes().length);
+      }
     }
     isOptimized = "properties".equalsIgnoreCase(db.getDbName());
   }
@@ -57,6 +75,36 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
     return value;
   }
 
+  /**
+   * a decoded value is only served while the raw value it was decoded from is still the one in
+   * the cache, so a decode racing with put or merge can never be returned after them.
+   * the messages are immutable, a capsule which changes its value builds a new one.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <M extends Message> M getMessage(byte[] key, Parser<M> parser)
+      throws InvalidProtocolBufferException {
+    if (decodedCache == null) {
+      return super.getMessage(key, parser);
+    }
+    WrappedByteArray k = WrappedByteArray.of(key);
+    WrappedByteArray raw = cache.getIfPresent(k);
+    if (raw == null) {
+      raw = WrappedByteArray.of(db.get(key));
+      cache.put(k, raw);
+    }
+    if (ArrayUtils.isEmpty(raw.getBytes())) {
+      return null;
+    }
+    Decoded decoded = decodedCache.getIfPresent(k);
+    if (decoded != null && decoded.raw == raw) {
+      return (M) decoded.message;
+    }
+    M message = parser.parseFrom(raw.getBytes());
+    decodedCache.put(k, new Decoded(raw, message));
+    return message;
+  }
+
   @Override
   public void put(byte[] key, byte[] value) {
     byte[] v = value;
@@ -154,12 +202,20 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
   private void putCache(byte[] key, byte[] value) {
     if (cached()) {
       cache.put(WrappedByteArray.of(key), WrappedByteArray.of(value));
+      invalidateDecoded(WrappedByteArray.of(key));
     }
   }
 
   private void putCache(Map<WrappedByteArray, WrappedByteArray> values) {
     if (cached()) {
       values.forEach(cache::put);
+      values.keySet().forEach(this::invalidateDecoded);
+    }
+  }
+
+  private void invalidateDecoded(WrappedByteArray key) {
+    if (decodedCache != null) {
+      decodedCache.invalidate(key);
     }
   }
 
@@ -192,6 +248,9 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
     if (cached()) {
       CacheManager.release(cache);
     }
+    if (decodedCache != null) {
+      CacheManager.release(decodedCache);
+    }
     ((Flusher) db).close();
   }
 
@@ -200,6 +259,9 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
     if (cached()) {
       CacheManager.release(cache);
     }
+    if (decodedCache != null) {
+      CacheManager.release(decodedCache);
+    }
     ((Flusher) db).reset();
   }
 
@@ -225,4 +287,11 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 
   @Override
   public void reloadToMem() { }
+
+  @AllArgsConstructor
+  private static class Decoded {
+
+    private final WrappedByteArray raw;
+    private final Message message;
+  }
 }
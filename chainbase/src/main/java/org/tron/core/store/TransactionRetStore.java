@@ -11,6 +11,7 @@ import org.tron.common.parameter.CommonParameter;
 import org.tron.common.utils.ByteArray;
 import org.tron.core.capsule.TransactionInfoCapsule;
 import org.tron.core.capsule.TransactionRetCapsule;
+import org.tron.core.db.BlockSegmentStore;
 import org.tron.core.db.TransactionStore;
 import org.tron.core.db.TronStoreWithRevoking;
 import org.tron.core.exception.BadItemException;
@@ -24,6 +25,9 @@ public class TransactionRetStore extends TronStoreWithRevoking<TransactionRetCap
   @Autowired
   private TransactionStore transactionStore;
 
+  @Autowired
+  private BlockSegmentStore blockSegmentStore;
+
   @Autowired
   public TransactionRetStore(@Value("transactionRetStore") String dbName) {
     super(dbName);
@@ -42,7 +46,7 @@ public class TransactionRetStore extends TronStoreWithRevoking<TransactionRetCap
     if (blockNumber == -1) {
       return null;
     }
-    byte[] value = revokingDB.getUnchecked(ByteArray.fromLong(blockNumber));
+    byte[] value = getRet(ByteArray.fromLong(blockNumber));
     if (Objects.isNull(value)) {
       return null;
     }
@@ -74,7 +78,7 @@ public class TransactionRetStore extends TronStoreWithRevoking<TransactionRetCap
 
   public TransactionRetCapsule getTransactionInfoByBlockNum(byte[] key) throws BadItemException {
 
-    byte[] value = revokingDB.getUnchecked(key);
+    byte[] value = getRet(key);
     if (Objects.isNull(value)) {
       return null;
     }
@@ -82,4 +86,9 @@ public class TransactionRetStore extends TronStoreWithRevoking<TransactionRetCap
     return new TransactionRetCapsule(value);
   }
 
+  private byte[] getRet(byte[] key) {
+    byte[] value = blockSegmentStore.getRet(ByteArray.toLong(key));
+    return value == null ? revokingDB.getUnchecked(key) : value;
+  }
+
 }
@@ -5,6 +5,10 @@ import static org.tron.common.cache.CacheType.account;
 import static org.tron.common.cache.CacheType.assetIssueV2;
 import static org.tron.common.cache.CacheType.code;
 import static org.tron.common.cache.CacheType.contract;
+import static org.tron.common.cache.CacheType.decodedAbi;
+import static org.tron.common.cache.CacheType.decodedAccount;
+import static org.tron.common.cache.CacheType.decodedContract;
+import static org.tron.common.cache.CacheType.decodedWitness;
 import static org.tron.common.cache.CacheType.delegatedResource;
 import static org.tron.common.cache.CacheType.delegatedResourceAccountIndex;
 import static org.tron.common.cache.CacheType.delegation;
@@ -46,6 +50,16 @@ public class CacheStrategies {
       String.format(PATTERNS, 20000, 20000, "30s", CPUS);
   private static final List<CacheType> CACHE_HUGE_DBS = Arrays.asList(storageRow, account);
 
+  // weighed by the encoded size of the cached values
+  private static final String WEIGHT_PATTERNS =
+      "maximumWeight=%d,expireAfterAccess=%s,concurrencyLevel=%d,recordStats";
+  private static final String CACHE_STRATEGY_DECODED_DEFAULT =
+      String.format(WEIGHT_PATTERNS, 16 * 1024 * 1024, "30s", CPUS);
+  private static final String CACHE_STRATEGY_DECODED_ACCOUNT_DEFAULT =
+      String.format(WEIGHT_PATTERNS, 64 * 1024 * 1024, "30s", CPUS);
+  private static final List<CacheType> CACHE_DECODED = Arrays.asList(decodedAccount,
+      decodedWitness, decodedContract, decodedAbi);
+
   public static final List<String> CACHE_DBS = Stream.of(CACHE_SMALL_DBS, CACHE_NORMAL_DBS,
           CACHE_BIG_DBS, CACHE_HUGE_DBS).flatMap(Collection::stream).map(CacheType::toString)
       .collect(Collectors.toList());
@@ -65,6 +79,10 @@ public class CacheStrategies {
     if (CACHE_HUGE_DBS.contains(dbName)) {
       defaultStrategy = CACHE_STRATEGY_HUGE_DEFAULT;
     }
+    if (CACHE_DECODED.contains(dbName)) {
+      defaultStrategy = dbName == decodedAccount ? CACHE_STRATEGY_DECODED_ACCOUNT_DEFAULT
+          : CACHE_STRATEGY_DECODED_DEFAULT;
+    }
     return defaultStrategy;
   }
 }
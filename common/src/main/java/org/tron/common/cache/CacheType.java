@@ -5,6 +5,12 @@ import java.util.Arrays;
 public enum CacheType {
   // for 127 SR
   witnessStandby("witnessStandby"),
+  // for jump destination analysis of the contract code
+  programPrecompile("programPrecompile"),
+  // for json-rpc log query of the solidified sections
+  sectionBloom("sectionBloom"),
+  // for signer addresses recovered from the transaction signatures
+  recoveredAddress("recoveredAddress"),
   // for leveldb or rocksdb cache
   recentBlock("recent-block"),
   witness("witness"),
@@ -19,8 +25,12 @@ public enum CacheType {
   properties("properties"),
   delegation("delegation"),
   storageRow("storage-row"),
-  account("account");
-  // for leveldb or rocksdb cache
+  account("account"),
+  // for decoded protobuf messages of leveldb or rocksdb cache
+  decodedAccount("decoded-account"),
+  decodedWitness("decoded-witness"),
+  decodedContract("decoded-contract"),
+  decodedAbi("decoded-abi");
 
   public final String type;
 
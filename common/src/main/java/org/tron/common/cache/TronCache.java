@@ -5,6 +5,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import lombok.Getter;
@@ -20,6 +21,14 @@ public class TronCache<K, V> {
     this.cache = CacheBuilder.from(strategy).build();
   }
 
+  TronCache(CacheType name, String strategy, Weigher<K, V> weigher) {
+    this.name = name;
+    // the weigher is only allowed with maximumWeight, a configured maximumSize works as well
+    this.cache = strategy.contains("maximumWeight")
+        ? CacheBuilder.from(strategy).weigher(weigher).build()
+        : CacheBuilder.from(strategy).build();
+  }
+
   TronCache(CacheType name, String strategy, CacheLoader<K, V> loader) {
     this.name = name;
     this.cache = CacheBuilder.from(strategy).build(loader);
@@ -37,6 +46,10 @@ public class TronCache<K, V> {
     return this.cache.get(k, loader);
   }
 
+  public void invalidate(K k) {
+    this.cache.invalidate(k);
+  }
+
   public CacheStats stats() {
     return this.cache.stats();
   }
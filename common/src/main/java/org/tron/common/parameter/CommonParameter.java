@@ -211,6 +211,30 @@ public class CommonParameter {
   public int fullNodeHttpPort;
   @Getter
   @Setter
+  public int httpMaxThreads = 200;
+  @Getter
+  @Setter
+  public int httpMinThreads = 8;
+  @Getter
+  @Setter
+  public int httpMaxQueued = 1000;
+  @Getter
+  @Setter
+  public int httpAcceptors = -1;
+  @Getter
+  @Setter
+  public int httpSelectors = -1;
+  @Getter
+  @Setter
+  public long httpIdleTimeout = 30000; // (ms)
+  @Getter
+  @Setter
+  public int httpGzipMinSize;
+  @Getter
+  @Setter
+  public boolean httpVirtualThreads;
+  @Getter
+  @Setter
   public int solidityHttpPort;
   @Getter
   @Setter
@@ -262,6 +286,15 @@ public class CommonParameter {
   public int validateSignThreadNum;
   @Getter
   @Setter
+  public boolean prefetchBlockState;
+  @Getter
+  @Setter
+  public boolean pipelineValidateSign;
+  @Getter
+  @Setter
+  public int signatureCacheSize = 100000;
+  @Getter
+  @Setter
   public long maintenanceTimeInterval; // (ms)
   @Getter
   @Setter
@@ -315,6 +348,9 @@ public class CommonParameter {
   public int estimateEnergyMaxRetry;
   @Getter
   @Setter
+  public int estimateEnergyParallelism;
+  @Getter
+  @Setter
   public int backupPriority;
   @Getter
   @Setter
@@ -17,6 +17,13 @@ public class MetricKeys {
     public static final String P2P_ERROR = "tron:p2p_error";
     public static final String P2P_DISCONNECT = "tron:p2p_disconnect";
     public static final String INTERNAL_SERVICE_FAIL = "tron:internal_service_fail";
+    public static final String VM_CODE_CACHE = "tron:vm_code_cache";
+    public static final String CHECKPOINT_BYTES = "tron:checkpoint_bytes";
+    public static final String SNAPSHOT_FLUSH = "tron:snapshot_flush";
+    public static final String SEGMENT_HIT = "tron:segment_hit";
+    public static final String READ_VIEW_EXPIRED = "tron:read_view_expired";
+    public static final String RATE_LIMITER = "tron:rate_limiter";
+    public static final String HTTP_POOL_REJECTED = "tron:http_pool_rejected";
 
     private Counter() {
       throw new IllegalStateException("Counter");
@@ -33,6 +40,13 @@ public class MetricKeys {
     public static final String DB_SST_LEVEL = "tron:db_sst_level";
     public static final String MANAGER_QUEUE = "tron:manager_queue_size";
     public static final String TX_CACHE = "tron:tx_cache";
+    public static final String SNAPSHOT_FLUSH_INTERVAL = "tron:snapshot_flush_interval";
+    public static final String SNAPSHOT_DIRTY_BYTES = "tron:snapshot_dirty_bytes";
+    public static final String SNAPSHOT_DIRTY_KEYS = "tron:snapshot_dirty_keys";
+    public static final String SEGMENT_BLOCKS = "tron:segment_blocks";
+    public static final String READ_VIEW_ACTIVE = "tron:read_view_active";
+    public static final String SYNC_BLOCK_QUEUE = "tron:sync_block_queue";
+    public static final String HTTP_POOL = "tron:http_pool";
 
     private Gauge() {
       throw new IllegalStateException("Gauge");
@@ -48,6 +62,7 @@ public class MetricKeys {
     public static final String MINER_LATENCY = "tron:miner_latency_seconds";
     public static final String PING_PONG_LATENCY = "tron:ping_pong_latency_seconds";
     public static final String VERIFY_SIGN_LATENCY = "tron:verify_sign_latency_seconds";
+    public static final String VERIFY_SIGN_WAIT = "tron:verify_sign_wait_seconds";
     public static final String LOCK_ACQUIRE_LATENCY = "tron:lock_acquire_latency_seconds";
     public static final String BLOCK_PROCESS_LATENCY = "tron:block_process_latency_seconds";
     public static final String BLOCK_PUSH_LATENCY = "tron:block_push_latency_seconds";
@@ -62,6 +77,12 @@ public class MetricKeys {
     public static final String MESSAGE_PROCESS_LATENCY = "tron:message_process_latency_seconds";
     public static final String BLOCK_FETCH_LATENCY = "tron:block_fetch_latency_seconds";
     public static final String BLOCK_RECEIVE_DELAY = "tron:block_receive_delay_seconds";
+    public static final String JSONRPC_FILTER_DISPATCH_LATENCY =
+        "tron:jsonrpc_filter_dispatch_latency_seconds";
+    public static final String SNAPSHOT_LAYERS_VISITED = "tron:snapshot_layers_visited";
+    public static final String CHECKPOINT_LATENCY = "tron:checkpoint_latency_seconds";
+    public static final String READ_VIEW_LATENCY = "tron:read_view_latency_seconds";
+    public static final String SYNC_BLOCK_LATENCY = "tron:sync_block_latency_seconds";
 
     private Histogram() {
       throw new IllegalStateException("Histogram");
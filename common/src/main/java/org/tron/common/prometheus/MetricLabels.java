@@ -31,6 +31,12 @@ public class MetricLabels {
     public static final String TXS_FAIL_SIG = "sig";
     public static final String TXS_FAIL_TAPOS = "tapos";
     public static final String TXS_FAIL_DUP = "dup";
+    public static final String CODE_CACHE_HIT = "hit";
+    public static final String CODE_CACHE_MISS = "miss";
+    public static final String FLUSH_INTERVAL = "interval";
+    public static final String FLUSH_MEMORY = "memory";
+    public static final String RATE_LIMITER_ACCEPT = "accept";
+    public static final String RATE_LIMITER_REJECT = "reject";
 
     private Counter() {
       throw new IllegalStateException("Counter");
@@ -57,6 +63,18 @@ public class MetricLabels {
 
     public static final String PEERS_VALID = "valid";
 
+    public static final String SYNC_VERIFY = "verify";
+
+    public static final String SYNC_APPLY = "apply";
+
+    public static final String HTTP_POOL_BUSY = "busy";
+
+    public static final String HTTP_POOL_IDLE = "idle";
+
+    public static final String HTTP_POOL_QUEUED = "queued";
+
+    public static final String HTTP_POOL_MAX = "max";
+
     private Gauge() {
       throw new IllegalStateException("Gauge");
     }
@@ -68,6 +86,15 @@ public class MetricLabels {
   public static class Histogram {
     public static final String TRAFFIC_IN = "in";
     public static final String TRAFFIC_OUT = "out";
+    public static final String FILTER_FULL = "full";
+    public static final String FILTER_SOLIDITY = "solidity";
+    public static final String CHECKPOINT_CREATE = "checkpoint";
+    public static final String CHECKPOINT_REFRESH = "refresh";
+    public static final String READ_VIEW_PIN = "pin";
+    public static final String READ_VIEW_RELEASE = "release";
+    public static final String SYNC_VERIFY = "verify";
+    public static final String SYNC_WAIT = "wait";
+    public static final String SYNC_APPLY = "apply";
 
     private Histogram() {
       throw new IllegalStateException("Histogram");
@@ -13,6 +13,7 @@ import org.tron.common.parameter.CommonParameter;
 public class Metrics {
 
   public static final double MILLISECONDS_PER_SECOND = Collector.MILLISECONDS_PER_SECOND;
+  public static final double NANOSECONDS_PER_SECOND = Collector.NANOSECONDS_PER_SECOND;
   private static volatile boolean initialized = false;
 
   private Metrics() {
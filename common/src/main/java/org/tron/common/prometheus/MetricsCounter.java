@@ -18,6 +18,15 @@ class MetricsCounter {
     init(MetricKeys.Counter.P2P_DISCONNECT, "tron p2p disconnect .", "type");
     init(MetricKeys.Counter.INTERNAL_SERVICE_FAIL, "internal Service fail.",
         "class", "method");
+    init(MetricKeys.Counter.VM_CODE_CACHE, "tron vm code analysis cache .", "type");
+    init(MetricKeys.Counter.CHECKPOINT_BYTES, "bytes written to the checkpoint.");
+    init(MetricKeys.Counter.SNAPSHOT_FLUSH, "snapshot flushes by the reason of them.", "reason");
+    init(MetricKeys.Counter.SEGMENT_HIT, "reads served by the block segments.", "db");
+    init(MetricKeys.Counter.READ_VIEW_EXPIRED, "read views closed for living too long.");
+    init(MetricKeys.Counter.RATE_LIMITER,
+        "api requests accepted and rejected by the rate limiters.", "endpoint", "result");
+    init(MetricKeys.Counter.HTTP_POOL_REJECTED,
+        "http jobs rejected as the queue of the pool is full.", "service");
   }
 
   private MetricsCounter() {
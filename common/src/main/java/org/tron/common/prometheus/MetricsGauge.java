@@ -19,6 +19,14 @@ class MetricsGauge {
     init(MetricKeys.Gauge.DB_SIZE_BYTES, "tron  db  size .", "type", "db", "level");
     init(MetricKeys.Gauge.DB_SST_LEVEL, "tron  db  files .", "type", "db", "level");
     init(MetricKeys.Gauge.TX_CACHE, "tron tx cache info.", "type");
+    init(MetricKeys.Gauge.SNAPSHOT_FLUSH_INTERVAL, "snapshots flushed at most at once.");
+    init(MetricKeys.Gauge.SNAPSHOT_DIRTY_BYTES, "bytes written to the snapshots to be flushed.");
+    init(MetricKeys.Gauge.SNAPSHOT_DIRTY_KEYS, "keys of the snapshots to be flushed.", "db");
+    init(MetricKeys.Gauge.SEGMENT_BLOCKS, "blocks kept in the block segments.");
+    init(MetricKeys.Gauge.READ_VIEW_ACTIVE, "read views not closed yet.");
+    init(MetricKeys.Gauge.SYNC_BLOCK_QUEUE, "sync blocks waiting for a stage.", "stage");
+    init(MetricKeys.Gauge.HTTP_POOL, "threads and queued jobs of the http pools.", "service",
+        "state");
   }
 
   private MetricsGauge() {
@@ -24,6 +24,8 @@ public class MetricsHistogram {
     init(MetricKeys.Histogram.PING_PONG_LATENCY, "node  ping pong  latency.");
     init(MetricKeys.Histogram.VERIFY_SIGN_LATENCY, "verify sign latency for trx , block.",
         "type");
+    init(MetricKeys.Histogram.VERIFY_SIGN_WAIT,
+        "time the execution of a block waited for the signatures of its transactions.");
     init(MetricKeys.Histogram.LOCK_ACQUIRE_LATENCY, "lock acquire latency.",
         "type");
     init(MetricKeys.Histogram.BLOCK_PROCESS_LATENCY,
@@ -48,6 +50,17 @@ public class MetricsHistogram {
     init(MetricKeys.Histogram.BLOCK_FETCH_LATENCY, "fetch block latency.");
     init(MetricKeys.Histogram.BLOCK_RECEIVE_DELAY,
         "receive block delay time, receiveTime - blockTime.");
+    init(MetricKeys.Histogram.JSONRPC_FILTER_DISPATCH_LATENCY,
+        "dispatch latency of one block to the log filters.", "type");
+    init(MetricKeys.Histogram.SNAPSHOT_LAYERS_VISITED,
+        "snapshot layers looked up by one read before its value is found.",
+        new double[] {0, 1, 2, 4, 8, 16, 32, 64, 128, 256}, "db");
+    init(MetricKeys.Histogram.CHECKPOINT_LATENCY,
+        "latency of writing the checkpoint and of refreshing the dbs after it.", "type");
+    init(MetricKeys.Histogram.READ_VIEW_LATENCY,
+        "latency of pinning the dbs for a read view and of releasing them.", "type");
+    init(MetricKeys.Histogram.SYNC_BLOCK_LATENCY,
+        "latency of the sync block stages: verify, wait for its turn and apply.", "stage");
   }
 
   private MetricsHistogram() {
@@ -62,6 +75,15 @@ public class MetricsHistogram {
         .register());
   }
 
+  private static void init(String name, String help, double[] buckets, String... labels) {
+    container.put(name, Histogram.build()
+        .name(name)
+        .help(help)
+        .buckets(buckets)
+        .labelNames(labels)
+        .register());
+  }
+
   static Histogram.Timer startTimer(String key, String... labels) {
     if (Metrics.enabled()) {
       Histogram histogram = container.get(key);
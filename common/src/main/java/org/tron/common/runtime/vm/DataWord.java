@@ -43,6 +43,7 @@ public class DataWord implements Comparable<DataWord> {
   public static final int MAX_POW = 256;
   public static final BigInteger _2_256 = BigInteger.valueOf(2).pow(256);
   public static final BigInteger MAX_VALUE = _2_256.subtract(BigInteger.ONE);
+  private static final long DIGIT_MASK = 0xFFFFFFFFL;
   // TODO not safe
   public static final DataWord ZERO = new DataWord(
       new byte[WORD_SIZE]);      // don't push it in to the stack
@@ -318,16 +319,23 @@ public class DataWord implements Comparable<DataWord> {
     this.data = ByteUtil.copyToArray(MAX_VALUE.subtract(this.value()));
   }
 
-  // By   : Holger
-  // From : http://stackoverflow.com/a/24023466/459349
   public void add(DataWord word) {
-    byte[] result = new byte[WORD_SIZE];
-    for (int i = 31, overflow = 0; i >= 0; i--) {
-      int v = (this.data[i] & 0xff) + (word.data[i] & 0xff) + overflow;
-      result[i] = (byte) v;
-      overflow = v >>> 8;
-    }
-    this.data = result;
+    long a0 = limb(this.data, 0);
+    long a1 = limb(this.data, 1);
+    long a2 = limb(this.data, 2);
+    long a3 = limb(this.data, 3);
+
+    long r0 = a0 + limb(word.data, 0);
+    long carry = lessUnsigned(r0, a0);
+    long s = a1 + limb(word.data, 1);
+    long r1 = s + carry;
+    carry = lessUnsigned(s, a1) | lessUnsigned(r1, s);
+    s = a2 + limb(word.data, 2);
+    long r2 = s + carry;
+    carry = lessUnsigned(s, a2) | lessUnsigned(r2, s);
+    long r3 = a3 + limb(word.data, 3) + carry;
+
+    this.data = toBytes(r3, r2, r1, r0);
   }
 
   // old add-method with BigInteger quick hack
@@ -336,15 +344,10 @@ public class DataWord implements Comparable<DataWord> {
     this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
   }
 
-  // TODO: mul can be done in more efficient way
-  // TODO:     with shift left shift right trick
-  // TODO      without BigInteger quick hack
   public void mul(DataWord word) {
-    BigInteger result = value().multiply(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    this.data = mulLow(this.data, word.data);
   }
 
-  // TODO: improve with no BigInteger
   public void div(DataWord word) {
 
     if (word.isZero()) {
@@ -352,11 +355,9 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = value().divide(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    this.data = toBytes(divide(digits(this.data), digits(word.data), false));
   }
 
-  // TODO: improve with no BigInteger
   public void sDiv(DataWord word) {
 
     if (word.isZero()) {
@@ -364,23 +365,57 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = sValue().divide(word.sValue());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    boolean negative = this.isNegative();
+    boolean divisorNegative = word.isNegative();
+    int[] result = divide(abs(digits(this.data), negative),
+        abs(digits(word.data), divisorNegative), false);
+    this.data = toBytes(abs(result, negative != divisorNegative));
   }
 
-  // TODO: improve with no BigInteger
   public void sub(DataWord word) {
-    BigInteger result = value().subtract(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    long a0 = limb(this.data, 0);
+    long a1 = limb(this.data, 1);
+    long a2 = limb(this.data, 2);
+    long a3 = limb(this.data, 3);
+    long b0 = limb(word.data, 0);
+    long b1 = limb(word.data, 1);
+    long b2 = limb(word.data, 2);
+
+    long r0 = a0 - b0;
+    long borrow = lessUnsigned(a0, b0);
+    long s = a1 - b1;
+    long r1 = s - borrow;
+    borrow = lessUnsigned(a1, b1) | lessUnsigned(s, borrow);
+    s = a2 - b2;
+    long r2 = s - borrow;
+    borrow = lessUnsigned(a2, b2) | lessUnsigned(s, borrow);
+    long r3 = a3 - limb(word.data, 3) - borrow;
+
+    this.data = toBytes(r3, r2, r1, r0);
   }
 
-  // TODO: improve with no BigInteger
   public void exp(DataWord word) {
-    BigInteger result = value().modPow(word.value(), _2_256);
-    this.data = ByteUtil.copyToArray(result);
+    byte[] exponent = word.data;
+    int bits = bitLength(exponent);
+    if (bits == 0) {
+      this.data = toBytes(0, 0, 0, 1);
+      return;
+    }
+
+    // left-to-right square and multiply on the limbs, the leading bit of the exponent is
+    // always set
+    byte[] base = this.data;
+    long[] b = {limb(base, 0), limb(base, 1), limb(base, 2), limb(base, 3)};
+    long[] result = b.clone();
+    for (int i = bits - 2; i >= 0; i--) {
+      mulLow(result, result, result);
+      if (testBit(exponent, i)) {
+        mulLow(result, b, result);
+      }
+    }
+    this.data = toBytes(result[3], result[2], result[1], result[0]);
   }
 
-  // TODO: improve with no BigInteger
   public void mod(DataWord word) {
 
     if (word.isZero()) {
@@ -388,8 +423,7 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = value().mod(word.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    this.data = toBytes(divide(digits(this.data), digits(word.data), true));
   }
 
   public void sMod(DataWord word) {
@@ -399,10 +433,10 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = sValue().abs().mod(word.sValue().abs());
-    result = (sValue().signum() == -1) ? result.negate() : result;
-
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    boolean negative = this.isNegative();
+    int[] result = divide(abs(digits(this.data), negative),
+        abs(digits(word.data), word.isNegative()), true);
+    this.data = toBytes(abs(result, negative));
   }
 
   public void addmod(DataWord word1, DataWord word2) {
@@ -411,8 +445,19 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = value().add(word1.value()).mod(word2.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    // the sum takes up to 257 bits, keep the carry in a ninth digit
+    int[] a = digits(this.data);
+    int[] b = digits(word1.data);
+    int[] sum = new int[9];
+    long carry = 0;
+    for (int i = 0; i < 8; i++) {
+      long t = (a[i] & DIGIT_MASK) + (b[i] & DIGIT_MASK) + carry;
+      sum[i] = (int) t;
+      carry = t >>> 32;
+    }
+    sum[8] = (int) carry;
+
+    this.data = toBytes(divide(sum, digits(word2.data), true));
   }
 
   public void mulmod(DataWord word1, DataWord word2) {
@@ -422,8 +467,52 @@ public class DataWord implements Comparable<DataWord> {
       return;
     }
 
-    BigInteger result = value().multiply(word1.value()).mod(word2.value());
-    this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+    // full 512 bits product, schoolbook on 32 bits digits
+    int[] a = digits(this.data);
+    int[] b = digits(word1.data);
+    int[] product = new int[16];
+    for (int j = 0; j < 8; j++) {
+      long bj = b[j] & DIGIT_MASK;
+      long carry = 0;
+      for (int i = 0; i < 8; i++) {
+        long t = (a[i] & DIGIT_MASK) * bj + (product[i + j] & DIGIT_MASK) + carry;
+        product[i + j] = (int) t;
+        carry = t >>> 32;
+      }
+      product[j + 8] = (int) carry;
+    }
+
+    this.data = toBytes(divide(product, digits(word2.data), true));
+  }
+
+  /**
+   * Unsigned comparison of the two 256-bit values, same as {@code value().compareTo(o.value())}.
+   */
+  public int compareUnsigned(DataWord o) {
+    for (int i = 3; i >= 0; i--) {
+      int result = Long.compareUnsigned(limb(this.data, i), limb(o.data, i));
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Signed comparison of the two 256-bit values, same as {@code sValue().compareTo(o.sValue())}.
+   */
+  public int sCompareTo(DataWord o) {
+    int result = Long.compare(limb(this.data, 3), limb(o.data, 3));
+    if (result != 0) {
+      return result;
+    }
+    for (int i = 2; i >= 0; i--) {
+      result = Long.compareUnsigned(limb(this.data, i), limb(o.data, i));
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
   }
 
   @JsonValue
@@ -491,7 +580,7 @@ public class DataWord implements Comparable<DataWord> {
     if (0 > k || k > 31) {
       throw new IndexOutOfBoundsException();
     }
-    byte mask = this.sValue().testBit((k * 8) + 7) ? (byte) 0xff : 0;
+    byte mask = (this.data[31 - k] & 0x80) != 0 ? (byte) 0xff : 0;
     for (int i = 31; i > k; i--) {
       this.data[31 - i] = mask;
     }
@@ -523,12 +612,14 @@ public class DataWord implements Comparable<DataWord> {
    * @return this << arg
    */
   public DataWord shiftLeft(DataWord arg) {
-    if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+    long shift = arg.longValueSafe();
+    if (shift >= MAX_POW) {
       return DataWord.ZERO();
     }
 
-    BigInteger result = value().shiftLeft(arg.intValueSafe());
-    return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+    int bits = (int) shift;
+    return new DataWord(toBytes(shiftLeftLimb(data, 3, bits), shiftLeftLimb(data, 2, bits),
+        shiftLeftLimb(data, 1, bits), shiftLeftLimb(data, 0, bits)));
   }
 
   /**
@@ -537,12 +628,12 @@ public class DataWord implements Comparable<DataWord> {
    * @return this >> arg
    */
   public DataWord shiftRight(DataWord arg) {
-    if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+    long shift = arg.longValueSafe();
+    if (shift >= MAX_POW) {
       return DataWord.ZERO();
     }
 
-    BigInteger result = value().shiftRight(arg.intValueSafe());
-    return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+    return new DataWord(shiftRight(data, (int) shift, 0L));
   }
 
   /**
@@ -551,7 +642,8 @@ public class DataWord implements Comparable<DataWord> {
    * @return this >> arg
    */
   public DataWord shiftRightSigned(DataWord arg) {
-    if (arg.value().compareTo(BigInteger.valueOf(MAX_POW)) >= 0) {
+    long shift = arg.longValueSafe();
+    if (shift >= MAX_POW) {
       if (this.isNegative()) {
         DataWord result = ONE();
         result.negate();
@@ -561,7 +653,308 @@ public class DataWord implements Comparable<DataWord> {
       }
     }
 
-    BigInteger result = sValue().shiftRight(arg.intValueSafe());
-    return new DataWord(ByteUtil.copyToArray(result.and(MAX_VALUE)));
+    return new DataWord(shiftRight(data, (int) shift, this.isNegative() ? -1L : 0L));
+  }
+
+  /**
+   * Reads the i-th 64 bits limb, counted from the least significant end of the big-endian word.
+   */
+  private static long limb(byte[] data, int i) {
+    if (data.length != WORD_SIZE) {
+      return 0L;
+    }
+    int offset = WORD_SIZE - 8 - (i << 3);
+    return ((long) data[offset] << 56)
+        | ((long) (data[offset + 1] & 0xff) << 48)
+        | ((long) (data[offset + 2] & 0xff) << 40)
+        | ((long) (data[offset + 3] & 0xff) << 32)
+        | ((long) (data[offset + 4] & 0xff) << 24)
+        | ((data[offset + 5] & 0xff) << 16)
+        | ((data[offset + 6] & 0xff) << 8)
+        | (data[offset + 7] & 0xff);
+  }
+
+  private static byte[] toBytes(long r3, long r2, long r1, long r0) {
+    byte[] result = new byte[WORD_SIZE];
+    putLimb(result, 0, r3);
+    putLimb(result, 8, r2);
+    putLimb(result, 16, r1);
+    putLimb(result, 24, r0);
+    return result;
+  }
+
+  private static void putLimb(byte[] data, int offset, long value) {
+    for (int i = offset + 7; i >= offset; i--) {
+      data[i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private static long lessUnsigned(long a, long b) {
+    return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE) ? 1L : 0L;
+  }
+
+  private static long multiplyHighUnsigned(long x, long y) {
+    long x0 = x & DIGIT_MASK;
+    long x1 = x >>> 32;
+    long y0 = y & DIGIT_MASK;
+    long y1 = y >>> 32;
+    long t = x1 * y0 + ((x0 * y0) >>> 32);
+    long w1 = x0 * y1 + (t & DIGIT_MASK);
+    return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+  }
+
+  /**
+   * Low 256 bits of the product, summed column by column over the 64 bits limbs.
+   */
+  private static byte[] mulLow(byte[] x, byte[] y) {
+    long[] r = new long[4];
+    mulLow(new long[] {limb(x, 0), limb(x, 1), limb(x, 2), limb(x, 3)},
+        new long[] {limb(y, 0), limb(y, 1), limb(y, 2), limb(y, 3)}, r);
+    return toBytes(r[3], r[2], r[1], r[0]);
+  }
+
+  /**
+   * Same as {@link #mulLow(byte[], byte[])} on little-endian limbs, {@code r} may alias the
+   * operands.
+   */
+  private static void mulLow(long[] a, long[] b, long[] r) {
+    long a0 = a[0];
+    long a1 = a[1];
+    long a2 = a[2];
+    long a3 = a[3];
+    long b0 = b[0];
+    long b1 = b[1];
+    long b2 = b[2];
+    long b3 = b[3];
+
+    // column 0
+    long r0 = a0 * b0;
+    long r1 = multiplyHighUnsigned(a0, b0);
+
+    // column 1, c1 counts the carries into column 2
+    long lo = a0 * b1;
+    r1 += lo;
+    long c1 = lessUnsigned(r1, lo);
+    lo = a1 * b0;
+    r1 += lo;
+    c1 += lessUnsigned(r1, lo);
+
+    // column 2, c2 counts the carries into column 3
+    long term = multiplyHighUnsigned(a0, b1);
+    long r2 = c1 + term;
+    long c2 = lessUnsigned(r2, term);
+    term = multiplyHighUnsigned(a1, b0);
+    r2 += term;
+    c2 += lessUnsigned(r2, term);
+    term = a0 * b2;
+    r2 += term;
+    c2 += lessUnsigned(r2, term);
+    term = a1 * b1;
+    r2 += term;
+    c2 += lessUnsigned(r2, term);
+    term = a2 * b0;
+    r2 += term;
+    c2 += lessUnsigned(r2, term);
+
+    // column 3, everything above is discarded
+    long r3 = c2
+        + multiplyHighUnsigned(a0, b2) + multiplyHighUnsigned(a1, b1) + multiplyHighUnsigned(a2, b0)
+        + a0 * b3 + a1 * b2 + a2 * b1 + a3 * b0;
+
+    r[0] = r0;
+    r[1] = r1;
+    r[2] = r2;
+    r[3] = r3;
+  }
+
+  /**
+   * The i-th limb of {@code data << shift}.
+   */
+  private static long shiftLeftLimb(byte[] data, int i, int shift) {
+    int from = i - (shift >>> 6);
+    if (from < 0) {
+      return 0L;
+    }
+    int bitShift = shift & 63;
+    long result = limb(data, from) << bitShift;
+    if (bitShift != 0 && from > 0) {
+      result |= limb(data, from - 1) >>> (64 - bitShift);
+    }
+    return result;
+  }
+
+  /**
+   * The i-th limb of {@code data >> shift}, the bits above the word are taken from {@code fill}.
+   */
+  private static long shiftRightLimb(byte[] data, int i, int shift, long fill) {
+    int from = i + (shift >>> 6);
+    long low = from < 4 ? limb(data, from) : fill;
+    int bitShift = shift & 63;
+    if (bitShift == 0) {
+      return low;
+    }
+    long high = from + 1 < 4 ? limb(data, from + 1) : fill;
+    return (low >>> bitShift) | (high << (64 - bitShift));
+  }
+
+  private static byte[] shiftRight(byte[] data, int shift, long fill) {
+    return toBytes(shiftRightLimb(data, 3, shift, fill), shiftRightLimb(data, 2, shift, fill),
+        shiftRightLimb(data, 1, shift, fill), shiftRightLimb(data, 0, shift, fill));
+  }
+
+  private static int bitLength(byte[] data) {
+    for (int i = 0; i < data.length; i++) {
+      if (data[i] != 0) {
+        return (data.length - i) * 8 - Integer.numberOfLeadingZeros(data[i] & 0xff) + 24;
+      }
+    }
+    return 0;
+  }
+
+  private static boolean testBit(byte[] data, int n) {
+    return (data[data.length - 1 - (n >>> 3)] & (1 << (n & 7))) != 0;
+  }
+
+  /**
+   * Splits the word into eight 32 bits digits, least significant first.
+   */
+  private static int[] digits(byte[] data) {
+    int[] digits = new int[8];
+    for (int i = 0; i < 4; i++) {
+      long limb = limb(data, i);
+      digits[2 * i] = (int) limb;
+      digits[2 * i + 1] = (int) (limb >>> 32);
+    }
+    return digits;
+  }
+
+  private static byte[] toBytes(int[] digits) {
+    long[] limbs = new long[4];
+    for (int i = 0; i < 4; i++) {
+      limbs[i] = (digits[2 * i] & DIGIT_MASK) | ((long) digits[2 * i + 1] << 32);
+    }
+    return toBytes(limbs[3], limbs[2], limbs[1], limbs[0]);
+  }
+
+  /**
+   * Two's complement negation of the digits in place when {@code negate} is set.
+   */
+  private static int[] abs(int[] digits, boolean negate) {
+    if (negate) {
+      long carry = 1;
+      for (int i = 0; i < digits.length; i++) {
+        long t = (~digits[i] & DIGIT_MASK) + carry;
+        digits[i] = (int) t;
+        carry = t >>> 32;
+      }
+    }
+    return digits;
+  }
+
+  private static int significantDigits(int[] digits) {
+    int n = digits.length;
+    while (n > 0 && digits[n - 1] == 0) {
+      n--;
+    }
+    return n;
+  }
+
+  /**
+   * Unsigned division of little-endian 32 bits digits (Knuth, TAOCP vol.2, 4.3.1, algorithm D).
+   * The divisor must not be zero.
+   *
+   * @return the quotient, or the remainder when {@code remainder} is set, as eight digits
+   */
+  private static int[] divide(int[] u, int[] v, boolean remainder) {
+    int m = significantDigits(u);
+    int n = significantDigits(v);
+    int[] result = new int[Math.max(8, m)];
+
+    if (m < n) {
+      if (remainder) {
+        System.arraycopy(u, 0, result, 0, m);
+      }
+      return result;
+    }
+
+    if (n == 1) {
+      long divisor = v[0] & DIGIT_MASK;
+      long rem = 0;
+      for (int j = m - 1; j >= 0; j--) {
+        long num = (rem << 32) | (u[j] & DIGIT_MASK);
+        result[j] = (int) Long.divideUnsigned(num, divisor);
+        rem = Long.remainderUnsigned(num, divisor);
+      }
+      if (remainder) {
+        java.util.Arrays.fill(result, 0);
+        result[0] = (int) rem;
+      }
+      return result;
+    }
+
+    // normalize so that the top digit of the divisor has its high bit set
+    int s = Integer.numberOfLeadingZeros(v[n - 1]);
+    int[] vn = new int[n];
+    for (int i = n - 1; i > 0; i--) {
+      vn[i] = (int) (((v[i] & DIGIT_MASK) << s) | ((v[i - 1] & DIGIT_MASK) >>> (32 - s)));
+    }
+    vn[0] = v[0] << s;
+    int[] un = new int[m + 1];
+    un[m] = (int) ((u[m - 1] & DIGIT_MASK) >>> (32 - s));
+    for (int i = m - 1; i > 0; i--) {
+      un[i] = (int) (((u[i] & DIGIT_MASK) << s) | ((u[i - 1] & DIGIT_MASK) >>> (32 - s)));
+    }
+    un[0] = u[0] << s;
+
+    long vTop = vn[n - 1] & DIGIT_MASK;
+    long vNext = vn[n - 2] & DIGIT_MASK;
+    for (int j = m - n; j >= 0; j--) {
+      // estimate the quotient digit, it is at most one too large after the correction
+      long num = ((un[j + n] & DIGIT_MASK) << 32) | (un[j + n - 1] & DIGIT_MASK);
+      long qhat = Long.divideUnsigned(num, vTop);
+      long rhat = Long.remainderUnsigned(num, vTop);
+      while (qhat > DIGIT_MASK || Long.compareUnsigned(qhat * vNext,
+          (rhat << 32) | (un[j + n - 2] & DIGIT_MASK)) > 0) {
+        qhat--;
+        rhat += vTop;
+        if (rhat > DIGIT_MASK) {
+          break;
+        }
+      }
+
+      // multiply and subtract
+      long borrow = 0;
+      long t;
+      for (int i = 0; i < n; i++) {
+        long p = qhat * (vn[i] & DIGIT_MASK);
+        t = (un[i + j] & DIGIT_MASK) - borrow - (p & DIGIT_MASK);
+        un[i + j] = (int) t;
+        borrow = (p >>> 32) - (t >> 32);
+      }
+      t = (un[j + n] & DIGIT_MASK) - borrow;
+      un[j + n] = (int) t;
+
+      result[j] = (int) qhat;
+      if (t < 0) {
+        // subtracted too much, add back
+        result[j]--;
+        long carry = 0;
+        for (int i = 0; i < n; i++) {
+          t = (un[i + j] & DIGIT_MASK) + (vn[i] & DIGIT_MASK) + carry;
+          un[i + j] = (int) t;
+          carry = t >>> 32;
+        }
+        un[j + n] = (int) ((un[j + n] & DIGIT_MASK) + carry);
+      }
+    }
+
+    if (remainder) {
+      java.util.Arrays.fill(result, 0);
+      for (int i = 0; i < n; i++) {
+        result[i] = (int) (((un[i] & DIGIT_MASK) >>> s) | ((un[i + 1] & DIGIT_MASK) << (32 - s)));
+      }
+    }
+    return result;
   }
 }
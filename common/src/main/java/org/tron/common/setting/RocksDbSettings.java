@@ -33,6 +33,8 @@ public class RocksDbSettings {
   private int targetFileSizeMultiplier;
   @Getter
   private boolean enableStatistics;
+  @Getter
+  private boolean columnFamily;
 
   static {
     RocksDB.loadLibrary();
@@ -79,13 +81,14 @@ public class RocksDbSettings {
     logger.info(String.format(
         "level number: %d, CompactThreads: %d, Blocksize: %d, maxBytesForLevelBase: %d,"
             + " withMaxBytesForLevelMultiplier: %f, level0FileNumCompactionTrigger: %d, "
-            + "withTargetFileSizeBase: %d, withTargetFileSizeMultiplier: %d",
+            + "withTargetFileSizeBase: %d, withTargetFileSizeMultiplier: %d, columnFamily: %b",
         rocksDbSettings.getLevelNumber(),
         rocksDbSettings.getCompactThreads(), rocksDbSettings.getBlockSize(),
         rocksDbSettings.getMaxBytesForLevelBase(),
         rocksDbSettings.getMaxBytesForLevelMultiplier(),
         rocksDbSettings.getLevel0FileNumCompactionTrigger(),
-        rocksDbSettings.getTargetFileSizeBase(), rocksDbSettings.getTargetFileSizeMultiplier()));
+        rocksDbSettings.getTargetFileSizeBase(), rocksDbSettings.getTargetFileSizeMultiplier(),
+        rocksDbSettings.isColumnFamily()));
   }
 
   public RocksDbSettings withMaxOpenFiles(int maxOpenFiles) {
@@ -123,6 +126,11 @@ public class RocksDbSettings {
     return this;
   }
 
+  public RocksDbSettings withColumnFamily(boolean columnFamily) {
+    this.columnFamily = columnFamily;
+    return this;
+  }
+
   public RocksDbSettings withLevelNumber(int levelNumber) {
     this.levelNumber = levelNumber;
     return this;
@@ -78,6 +78,8 @@ public class Constant {
 
   public static final String VM_ESTIMATE_ENERGY_MAX_RETRY = "vm.estimateEnergyMaxRetry";
 
+  public static final String VM_ESTIMATE_ENERGY_PARALLELISM = "vm.estimateEnergyParallelism";
+
   public static final String ROCKSDB = "ROCKSDB";
 
   public static final String GENESIS_BLOCK = "genesis.block";
@@ -132,6 +134,14 @@ public class Constant {
   public static final String NODE_HTTP_FULLNODE_ENABLE = "node.http.fullNodeEnable";
   public static final String NODE_HTTP_SOLIDITY_ENABLE = "node.http.solidityEnable";
   public static final String NODE_HTTP_PBFT_PORT = "node.http.PBFTPort";
+  public static final String NODE_HTTP_MAX_THREADS = "node.http.maxThreads";
+  public static final String NODE_HTTP_MIN_THREADS = "node.http.minThreads";
+  public static final String NODE_HTTP_MAX_QUEUED = "node.http.maxQueued";
+  public static final String NODE_HTTP_ACCEPTORS = "node.http.acceptors";
+  public static final String NODE_HTTP_SELECTORS = "node.http.selectors";
+  public static final String NODE_HTTP_IDLE_TIMEOUT = "node.http.idleTimeout";
+  public static final String NODE_HTTP_GZIP_MIN_SIZE = "node.http.gzipMinSize";
+  public static final String NODE_HTTP_VIRTUAL_THREADS = "node.http.virtualThreads";
 
   public static final String NODE_JSONRPC_HTTP_FULLNODE_ENABLE = "node.jsonrpc.httpFullNodeEnable";
   public static final String NODE_JSONRPC_HTTP_FULLNODE_PORT = "node.jsonrpc.httpFullNodePort";
@@ -192,6 +202,12 @@ public class Constant {
 
   public static final String NODE_VALIDATE_SIGN_THREAD_NUM = "node.validateSignThreadNum";
 
+  public static final String NODE_PREFETCH_BLOCK_STATE = "node.prefetchBlockState";
+
+  public static final String NODE_PIPELINE_VALIDATE_SIGN = "node.pipelineValidateSign";
+
+  public static final String NODE_SIGNATURE_CACHE_SIZE = "node.signatureCacheSize";
+
   public static final String NODE_WALLET_EXTENSION_API = "node.walletExtensionApi";
 
   public static final String NODE_RECEIVE_TCP_MIN_DATA_LENGTH = "node.receiveTcpMinDataLength";
@@ -56,6 +56,13 @@ public class Storage {
   private static final String ESTIMATED_TRANSACTIONS_CONFIG_KEY =
       "storage.txCache.estimatedTransactions";
   private static final String SNAPSHOT_MAX_FLUSH_COUNT_CONFIG_KEY = "storage.snapshot.maxFlushCount";
+  private static final String SNAPSHOT_FLUSH_MEMORY_LIMIT_CONFIG_KEY =
+      "storage.snapshot.flushMemoryLimit";
+  private static final String SNAPSHOT_FLUSH_LATENCY_CONFIG_KEY = "storage.snapshot.flushLatency";
+  private static final String SEGMENT_ENABLE_CONFIG_KEY = "storage.segment.enable";
+  private static final String SEGMENT_BLOCKS_CONFIG_KEY = "storage.segment.blocks";
+  private static final String READ_VIEW_ENABLE_CONFIG_KEY = "storage.readView.enable";
+  private static final String READ_VIEW_MAX_AGE_CONFIG_KEY = "storage.readView.maxAge";
   private static final String PROPERTIES_CONFIG_KEY = "storage.properties";
   private static final String PROPERTIES_CONFIG_DB_KEY = "storage";
   private static final String PROPERTIES_CONFIG_DEFAULT_KEY = "default";
@@ -79,6 +86,7 @@ public class Storage {
   private static final String CHECKPOINT_SYNC_KEY = "storage.checkpoint.sync";
 
   private static final String CACHE_STRATEGIES = "storage.cache.strategies";
+  private static final String CACHE_DECODED = "storage.cache.decoded";
   public static final String TX_CACHE_INIT_OPTIMIZATION = "storage.txCache.initOptimization";
 
   private static final String MERKLE_ROOT = "storage.merkleRoot";
@@ -96,6 +104,11 @@ public class Storage {
   private static final boolean DEFAULT_CHECKPOINT_SYNC = true;
   private static final int DEFAULT_ESTIMATED_TRANSACTIONS = 1000;
   private static final int DEFAULT_SNAPSHOT_MAX_FLUSH_COUNT = 1;
+  private static final int DEFAULT_SNAPSHOT_FLUSH_MEMORY_LIMIT = 1024;
+  private static final int DEFAULT_SNAPSHOT_FLUSH_LATENCY = 3000;
+  private static final int DEFAULT_SEGMENT_BLOCKS = 4096;
+  private static final int MIN_SEGMENT_BLOCKS = 16;
+  private static final long DEFAULT_READ_VIEW_MAX_AGE = 60000;
   private Config storage;
 
   /**
@@ -117,6 +130,20 @@ public class Storage {
   @Setter
   private int maxFlushCount;
 
+  /**
+   * MB the snapshots to be flushed can hold before they are flushed, 0 means no limit
+   */
+  @Getter
+  @Setter
+  private int flushMemoryLimit = DEFAULT_SNAPSHOT_FLUSH_MEMORY_LIMIT;
+
+  /**
+   * milliseconds a flush should take, a slower one halves the snapshots flushed at once
+   */
+  @Getter
+  @Setter
+  private int flushLatency = DEFAULT_SNAPSHOT_FLUSH_LATENCY;
+
   /**
    * Index storage directory: /path/to/{indexDirectory}
    */
@@ -154,6 +181,33 @@ public class Storage {
   @Setter
   private boolean txCacheInitOptimization = false;
 
+  @Getter
+  @Setter
+  private boolean decodedCache = false;
+
+  /**
+   * finalized blocks are also kept in memory-mapped segments of segmentBlocks blocks
+   */
+  @Getter
+  @Setter
+  private boolean segmentEnable = false;
+
+  @Getter
+  @Setter
+  private int segmentBlocks = DEFAULT_SEGMENT_BLOCKS;
+
+  /**
+   * the api queries read the state of the last committed block pinned for them,
+   * a pin older than readViewMaxAge ms is released and its reads become live
+   */
+  @Getter
+  @Setter
+  private boolean readViewEnable = false;
+
+  @Getter
+  @Setter
+  private long readViewMaxAge = DEFAULT_READ_VIEW_MAX_AGE;
+
   // second cache
   private final Map<CacheType, String> cacheStrategies = Maps.newConcurrentMap();
 
@@ -194,6 +248,18 @@ public class Storage {
     return maxFlushCountConfig;
   }
 
+  public static int getSnapshotFlushMemoryLimitFromConfig(final Config config) {
+    return config.hasPath(SNAPSHOT_FLUSH_MEMORY_LIMIT_CONFIG_KEY)
+        ? Math.max(0, config.getInt(SNAPSHOT_FLUSH_MEMORY_LIMIT_CONFIG_KEY))
+        : DEFAULT_SNAPSHOT_FLUSH_MEMORY_LIMIT;
+  }
+
+  public static int getSnapshotFlushLatencyFromConfig(final Config config) {
+    return config.hasPath(SNAPSHOT_FLUSH_LATENCY_CONFIG_KEY)
+        ? Math.max(0, config.getInt(SNAPSHOT_FLUSH_LATENCY_CONFIG_KEY))
+        : DEFAULT_SNAPSHOT_FLUSH_LATENCY;
+  }
+
   public static Boolean getContractParseSwitchFromConfig(final Config config) {
     return config.hasPath(EVENT_SUBSCRIBE_CONTRACT_PARSE)
         ? config.getBoolean(EVENT_SUBSCRIBE_CONTRACT_PARSE)
@@ -253,6 +319,32 @@ public class Storage {
   }
 
 
+  public static boolean getDecodedCacheFromConfig(final Config config) {
+    return config.hasPath(CACHE_DECODED) && config.getBoolean(CACHE_DECODED);
+  }
+
+  public static boolean getSegmentEnableFromConfig(final Config config) {
+    return config.hasPath(SEGMENT_ENABLE_CONFIG_KEY)
+        && config.getBoolean(SEGMENT_ENABLE_CONFIG_KEY);
+  }
+
+  public static int getSegmentBlocksFromConfig(final Config config) {
+    return config.hasPath(SEGMENT_BLOCKS_CONFIG_KEY)
+        ? Math.max(MIN_SEGMENT_BLOCKS, config.getInt(SEGMENT_BLOCKS_CONFIG_KEY))
+        : DEFAULT_SEGMENT_BLOCKS;
+  }
+
+  public static boolean getReadViewEnableFromConfig(final Config config) {
+    return config.hasPath(READ_VIEW_ENABLE_CONFIG_KEY)
+        && config.getBoolean(READ_VIEW_ENABLE_CONFIG_KEY);
+  }
+
+  public static long getReadViewMaxAgeFromConfig(final Config config) {
+    return config.hasPath(READ_VIEW_MAX_AGE_CONFIG_KEY)
+        ? Math.max(1, config.getLong(READ_VIEW_MAX_AGE_CONFIG_KEY))
+        : DEFAULT_READ_VIEW_MAX_AGE;
+  }
+
   public  void setCacheStrategies(Config config) {
     if (config.hasPath(CACHE_STRATEGIES)) {
       config.getConfig(CACHE_STRATEGIES).resolve().entrySet().forEach(c ->
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.core.ChainBaseManager;
+import org.tron.core.Wallet;
 import org.tron.core.config.args.Args;
 import org.tron.core.consensus.ConsensusService;
 import org.tron.core.db.Manager;
@@ -29,6 +30,9 @@ public class ApplicationImpl implements Application {
   @Autowired
   private ConsensusService consensusService;
 
+  @Autowired
+  private Wallet wallet;
+
   @Override
   public void setOptions(Args args) {
     // not used
@@ -66,6 +70,7 @@ public class ApplicationImpl implements Application {
   @Override
   public void shutdown() {
     this.shutdownServices();
+    wallet.shutdown();
     consensusService.stop();
     if (!Args.getInstance().isSolidityNode() && (!Args.getInstance().p2pDisable)) {
       tronNetService.close();
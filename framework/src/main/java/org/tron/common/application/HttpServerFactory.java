@@ -0,0 +1,158 @@
+package org.tron.common.application;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.server.ConnectionLimit;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.tron.common.es.ExecutorServiceManager;
+import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
+
+/**
+ * the jetty servers of the http services, with the pool, the connector, gzip and the connection
+ * limit of node.http and node.maxHttpConnectNumber.
+ */
+@Slf4j(topic = "rpc")
+public class HttpServerFactory {
+
+  private static final int QUEUE_GROW_BY = 256;
+  private static final long METRICS_INTERVAL_MS = 1000;
+
+  private HttpServerFactory() {
+  }
+
+  /**
+   * @param name the name of the service, the threads and the metrics of its pool are named by it
+   */
+  public static Server create(String name, int port, Handler handler) {
+    CommonParameter parameter = CommonParameter.getInstance();
+    Server server = new Server(newThreadPool(name, parameter));
+
+    ServerConnector connector = new ServerConnector(server, parameter.getHttpAcceptors(),
+        parameter.getHttpSelectors());
+    connector.setPort(port);
+    // the keep-alive connections are closed after it
+    connector.setIdleTimeout(parameter.getHttpIdleTimeout());
+    server.addConnector(connector);
+
+    if (parameter.getHttpGzipMinSize() > 0) {
+      GzipHandler gzipHandler = new GzipHandler();
+      gzipHandler.setMinGzipSize(parameter.getHttpGzipMinSize());
+      gzipHandler.setIncludedMethods("GET", "POST");
+      gzipHandler.setHandler(handler);
+      server.setHandler(gzipHandler);
+    } else {
+      server.setHandler(handler);
+    }
+
+    int maxHttpConnectNumber = parameter.getMaxHttpConnectNumber();
+    if (maxHttpConnectNumber > 0) {
+      server.addBean(new ConnectionLimit(maxHttpConnectNumber, server));
+    }
+    return server;
+  }
+
+  static QueuedThreadPool newThreadPool(String name, CommonParameter parameter) {
+    int maxQueued = parameter.getHttpMaxQueued();
+    BlockingArrayQueue<Runnable> queue = maxQueued > 0
+        ? new BlockingArrayQueue<>(Math.min(maxQueued, QUEUE_GROW_BY), QUEUE_GROW_BY, maxQueued)
+        : new BlockingArrayQueue<>(QUEUE_GROW_BY, QUEUE_GROW_BY);
+    ThreadFactory threadFactory = null;
+    if (parameter.isHttpVirtualThreads()) {
+      threadFactory = virtualThreadFactory(name);
+      if (threadFactory == null) {
+        logger.warn("Virtual threads are not supported by java {}, {} runs on platform threads.",
+            System.getProperty("java.version"), name);
+      }
+    }
+    QueuedThreadPool pool = new MonitoredThreadPool(name, parameter.getHttpMaxThreads(),
+        parameter.getHttpMinThreads(), queue, threadFactory);
+    pool.setName(name);
+    return pool;
+  }
+
+  /**
+   * @return the factory of the virtual threads named by name, null before jdk 21
+   */
+  static ThreadFactory virtualThreadFactory(String name) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Method naming = builderClass.getMethod("name", String.class, long.class);
+      builder = naming.invoke(builder, name + "-", 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      // a preview feature before jdk 21
+      return null;
+    }
+  }
+
+  /**
+   * the pool of a service, exporting its threads, its queue and the jobs it rejects. the gauges
+   * are refreshed every second while it runs, so they fall back when a burst is over.
+   */
+  private static class MonitoredThreadPool extends QueuedThreadPool {
+
+    private final String service;
+    private ScheduledExecutorService metricsExecutor;
+
+    MonitoredThreadPool(String service, int maxThreads, int minThreads,
+        BlockingArrayQueue<Runnable> queue, ThreadFactory threadFactory) {
+      super(maxThreads, minThreads, 60000, -1, queue, null, threadFactory);
+      this.service = service;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+      super.doStart();
+      if (Metrics.enabled()) {
+        metricsExecutor = ExecutorServiceManager.newSingleThreadScheduledExecutor(
+            service + "-pool-metrics");
+        metricsExecutor.scheduleWithFixedDelay(this::refreshMetrics, 0, METRICS_INTERVAL_MS,
+            TimeUnit.MILLISECONDS);
+      }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+      if (metricsExecutor != null) {
+        ExecutorServiceManager.shutdownAndAwaitTermination(metricsExecutor,
+            service + "-pool-metrics");
+        metricsExecutor = null;
+      }
+      super.doStop();
+    }
+
+    @Override
+    public void execute(Runnable job) {
+      try {
+        super.execute(job);
+      } catch (RejectedExecutionException e) {
+        Metrics.counterInc(MetricKeys.Counter.HTTP_POOL_REJECTED, 1, service);
+        throw e;
+      }
+    }
+
+    void refreshMetrics() {
+      Metrics.gaugeSet(MetricKeys.Gauge.HTTP_POOL, getBusyThreads(), service,
+          MetricLabels.Gauge.HTTP_POOL_BUSY);
+      Metrics.gaugeSet(MetricKeys.Gauge.HTTP_POOL, getIdleThreads(), service,
+          MetricLabels.Gauge.HTTP_POOL_IDLE);
+      Metrics.gaugeSet(MetricKeys.Gauge.HTTP_POOL, getQueueSize(), service,
+          MetricLabels.Gauge.HTTP_POOL_QUEUED);
+      Metrics.gaugeSet(MetricKeys.Gauge.HTTP_POOL, getMaxThreads(), service,
+          MetricLabels.Gauge.HTTP_POOL_MAX);
+    }
+  }
+}
@@ -52,6 +52,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
@@ -107,6 +114,7 @@ import org.tron.api.GrpcAPI.WitnessList;
 import org.tron.common.crypto.Hash;
 import org.tron.common.crypto.SignInterface;
 import org.tron.common.crypto.SignUtils;
+import org.tron.common.es.ExecutorServiceManager;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.common.runtime.ProgramResult;
 import org.tron.common.runtime.vm.LogInfo;
@@ -163,6 +171,7 @@ import org.tron.core.db.EnergyProcessor;
 import org.tron.core.db.Manager;
 import org.tron.core.db.TransactionContext;
 import org.tron.core.db2.core.Chainbase;
+import org.tron.core.db2.core.ReadView;
 import org.tron.core.exception.AccountResourceInsufficientException;
 import org.tron.core.exception.BadItemException;
 import org.tron.core.exception.ContractExeException;
@@ -280,6 +289,11 @@ public class Wallet {
 
   private int minEffectiveConnection = CommonParameter.getInstance().getMinEffectiveConnection();
   private boolean trxCacheEnable = CommonParameter.getInstance().isTrxCacheEnable();
+  /**
+   * thread pool of executing fee limits in parallel for estimate energy
+   */
+  private volatile ThreadPoolExecutor estimateEnergyExecutor;
+  private final String esEstimateEnergyName = "estimate-energy";
   public static final String CONTRACT_VALIDATE_EXCEPTION = "ContractValidateException: {}";
   public static final String CONTRACT_VALIDATE_ERROR = "Contract validate error : ";
 
@@ -2889,6 +2903,13 @@ public class Wallet {
     }
     int retry = Args.getInstance().estimateEnergyMaxRetry;
 
+    // the probes on the estimate pool read the state of the request with the same offset
+    Chainbase.Cursor cursor = chainBaseManager.getDynamicPropertiesStore().getCursor();
+    long offset = dbManager.getCursorOffset(cursor);
+    if (cursor == Chainbase.Cursor.PBFT) {
+      dbManager.setCursor(cursor, offset);
+    }
+
     DynamicPropertiesStore dps = chainBaseManager.getDynamicPropertiesStore();
     long high = dps.getMaxFeeLimit();
 
@@ -2915,51 +2936,38 @@ public class Wallet {
     }
 
     long low = dps.getEnergyFee() * txExtBuilder.getEnergyUsed();
+    AtomicInteger retryLeft = new AtomicInteger(retry);
+    Transaction origin = txCap.getInstance();
 
+    // The energy used with the max fee limit is a lower bound, it is not enough only when
+    // calls have to keep back 1/64 of the energy left, so a tight bound is verified first.
+    List<Long> feeLimits = new ArrayList<>();
+    long tightBound = low + low / 63 + TRX_PRECISION;
     long twoTimes = low * 2;
-    if (twoTimes < high) {
-      while (true) {
-        try {
-          transaction = cleanContextAndTriggerConstantContract(
-              triggerSmartContract, txCap, txExtBuilder, txRetBuilder, twoTimes);
-
-          if (transaction.getRet(0).getRet().equals(code.FAILED)) {
-            low = twoTimes;
-          } else {
-            high = twoTimes;
-          }
-
-          break;
-        } catch (Program.OutOfTimeException e) {
-          retry--;
-          if (retry < 0) {
-            throw e;
-          }
-        }
-      }
+    if (tightBound < high) {
+      feeLimits.add(tightBound);
+    }
+    if (tightBound < twoTimes && twoTimes < high) {
+      feeLimits.add(twoTimes);
+    }
+    if (feeLimits.isEmpty()) {
+      // low is close to high, search the range itself
+      feeLimits = splitFeeLimitRange(low, high, Args.getInstance().estimateEnergyParallelism);
     }
 
-    while (low + TRX_PRECISION < high) {
-      long mid = (low + high) / 2;
-
-      while (true) {
-        try {
-          transaction = cleanContextAndTriggerConstantContract(
-              triggerSmartContract, txCap, txExtBuilder, txRetBuilder, mid);
+    // Each round executes several fee limits of (low, high) in parallel, and narrows the range
+    // to the gap between the largest failed one and the smallest succeeded one.
+    while (!feeLimits.isEmpty()) {
+      boolean[] failed = probeEstimateEnergy(triggerSmartContract, origin, feeLimits,
+          retryLeft, cursor, offset);
+      for (int i = 0; i < feeLimits.size(); i++) {
+        if (!failed[i]) {
+          high = feeLimits.get(i);
           break;
-        } catch (Program.OutOfTimeException e) {
-          retry--;
-          if (retry < 0) {
-            throw e;
-          }
         }
+        low = feeLimits.get(i);
       }
-
-      if (transaction.getRet(0).getRet().equals(code.FAILED)) {
-        low = mid;
-      } else {
-        high = mid;
-      }
+      feeLimits = splitFeeLimitRange(low, high, Args.getInstance().estimateEnergyParallelism);
     }
 
     // Retry the binary search result
@@ -2976,6 +2984,137 @@ public class Wallet {
     return transaction;
   }
 
+  private static List<Long> splitFeeLimitRange(long low, long high, int parts) {
+    List<Long> feeLimits = new ArrayList<>();
+    if (low + TRX_PRECISION >= high) {
+      return feeLimits;
+    }
+    long step = Math.max((high - low) / (parts + 1), 1);
+    for (long feeLimit = low + step; feeLimit < high && feeLimits.size() < parts;
+        feeLimit += step) {
+      feeLimits.add(feeLimit);
+    }
+    return feeLimits;
+  }
+
+  /**
+   * execute the fee limits in ascending order, the last one on the request thread and the
+   * others on the estimate pool. they are all executed on the request thread when the pool is
+   * busy with the other requests. return whether each of them failed.
+   */
+  private boolean[] probeEstimateEnergy(TriggerSmartContract triggerSmartContract,
+      Transaction origin, List<Long> feeLimits, AtomicInteger retry, Chainbase.Cursor cursor,
+      long offset)
+      throws ContractValidateException, ContractExeException, HeaderNotFound, VMIllegalException {
+    boolean[] failed = new boolean[feeLimits.size()];
+    int last = feeLimits.size() - 1;
+    ThreadPoolExecutor executor = last == 0 || Args.getInstance().estimateEnergyParallelism <= 1
+        ? null : getEstimateEnergyExecutor();
+    if (executor == null || executor.getActiveCount() + executor.getQueue().size() + last
+        > executor.getMaximumPoolSize()) {
+      for (int i = 0; i <= last; i++) {
+        failed[i] = estimateEnergyFailed(triggerSmartContract, origin, feeLimits.get(i), retry);
+      }
+      return failed;
+    }
+
+    // the view of the request is read by its probes on the pool too
+    ReadView view = ReadView.detach();
+    ReadView.attach(view);
+    List<Future<Boolean>> futures = new ArrayList<>(last);
+    try {
+      for (int i = 0; i < last; i++) {
+        long feeLimit = feeLimits.get(i);
+        try {
+          futures.add(executor.submit(() -> {
+            // keep the state of the request, e.g. solidity or pbft
+            ReadView outer = ReadView.detach();
+            ReadView.attach(view);
+            dbManager.setCursor(cursor, offset);
+            try {
+              return estimateEnergyFailed(triggerSmartContract, origin, feeLimit, retry);
+            } finally {
+              dbManager.resetCursor();
+              ReadView.attach(outer);
+            }
+          }));
+        } catch (RejectedExecutionException e) {
+          // executed on the request thread below
+          futures.add(null);
+        }
+      }
+      failed[last] = estimateEnergyFailed(triggerSmartContract, origin, feeLimits.get(last),
+          retry);
+      for (int i = 0; i < last; i++) {
+        Future<Boolean> future = futures.get(i);
+        failed[i] = future == null
+            ? estimateEnergyFailed(triggerSmartContract, origin, feeLimits.get(i), retry)
+            : future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ContractExeException("estimate energy interrupted");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof ContractValidateException) {
+        throw (ContractValidateException) cause;
+      }
+      if (cause instanceof ContractExeException) {
+        throw (ContractExeException) cause;
+      }
+      if (cause instanceof HeaderNotFound) {
+        throw (HeaderNotFound) cause;
+      }
+      if (cause instanceof VMIllegalException) {
+        throw (VMIllegalException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new ContractExeException(String.valueOf(cause));
+    } finally {
+      futures.stream().filter(Objects::nonNull).forEach(future -> future.cancel(true));
+    }
+    return failed;
+  }
+
+  private boolean estimateEnergyFailed(TriggerSmartContract triggerSmartContract,
+      Transaction origin, long feeLimit, AtomicInteger retry)
+      throws ContractValidateException, ContractExeException, HeaderNotFound, VMIllegalException {
+    TransactionCapsule txCap = new TransactionCapsule(origin);
+    while (true) {
+      try {
+        Transaction transaction = cleanContextAndTriggerConstantContract(triggerSmartContract,
+            txCap, TransactionExtention.newBuilder(), Return.newBuilder(), feeLimit);
+        return transaction.getRet(0).getRet().equals(code.FAILED);
+      } catch (Program.OutOfTimeException e) {
+        if (retry.decrementAndGet() < 0) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private ThreadPoolExecutor getEstimateEnergyExecutor() {
+    if (estimateEnergyExecutor == null) {
+      synchronized (this) {
+        if (estimateEnergyExecutor == null) {
+          // the probes queued beyond the threads are rejected, the requests execute them
+          int threads = Args.getInstance().estimateEnergyParallelism * 2;
+          estimateEnergyExecutor = (ThreadPoolExecutor) ExecutorServiceManager
+              .newThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                  new ArrayBlockingQueue<>(threads), esEstimateEnergyName, true);
+        }
+      }
+    }
+    return estimateEnergyExecutor;
+  }
+
+  public void shutdown() {
+    ExecutorServiceManager.shutdownAndAwaitTermination(estimateEnergyExecutor,
+        esEstimateEnergyName);
+  }
+
   private Transaction cleanContextAndTriggerConstantContract(
       TriggerSmartContract triggerSmartContract, TransactionCapsule txCap,
       Builder txExtBuilder, Return.Builder txRetBuilder, long feeLimit)
@@ -148,6 +148,14 @@ public class Args extends CommonParameter {
     PARAMETER.fullNodeHttpPort = 0;
     PARAMETER.solidityHttpPort = 0;
     PARAMETER.pBFTHttpPort = 0;
+    PARAMETER.httpMaxThreads = 200;
+    PARAMETER.httpMinThreads = 8;
+    PARAMETER.httpMaxQueued = 1000;
+    PARAMETER.httpAcceptors = -1;
+    PARAMETER.httpSelectors = -1;
+    PARAMETER.httpIdleTimeout = 30000;
+    PARAMETER.httpGzipMinSize = 0;
+    PARAMETER.httpVirtualThreads = false;
     PARAMETER.pBFTExpireNum = 20;
     PARAMETER.jsonRpcHttpFullNodePort = 0;
     PARAMETER.jsonRpcHttpSolidityPort = 0;
@@ -170,6 +178,8 @@ public class Args extends CommonParameter {
     PARAMETER.walletExtensionApi = false;
     PARAMETER.estimateEnergy = false;
     PARAMETER.estimateEnergyMaxRetry = 3;
+    PARAMETER.estimateEnergyParallelism = 3;
+    PARAMETER.signatureCacheSize = 100000;
     PARAMETER.receiveTcpMinDataLength = 2048;
     PARAMETER.isOpenFullTcpDisconnect = false;
     PARAMETER.nodeDetectEnable = false;
@@ -528,10 +538,17 @@ public class Args extends CommonParameter {
     PARAMETER.storage.setTxCacheInitOptimization(
         Storage.getTxCacheInitOptimizationFromConfig(config));
     PARAMETER.storage.setMaxFlushCount(Storage.getSnapshotMaxFlushCountFromConfig(config));
+    PARAMETER.storage.setFlushMemoryLimit(Storage.getSnapshotFlushMemoryLimitFromConfig(config));
+    PARAMETER.storage.setFlushLatency(Storage.getSnapshotFlushLatencyFromConfig(config));
 
     PARAMETER.storage.setDefaultDbOptions(config);
     PARAMETER.storage.setPropertyMapFromConfig(config);
     PARAMETER.storage.setCacheStrategies(config);
+    PARAMETER.storage.setDecodedCache(Storage.getDecodedCacheFromConfig(config));
+    PARAMETER.storage.setSegmentEnable(Storage.getSegmentEnableFromConfig(config));
+    PARAMETER.storage.setSegmentBlocks(Storage.getSegmentBlocksFromConfig(config));
+    PARAMETER.storage.setReadViewEnable(Storage.getReadViewEnableFromConfig(config));
+    PARAMETER.storage.setReadViewMaxAge(Storage.getReadViewMaxAgeFromConfig(config));
     PARAMETER.storage.setDbRoots(config);
 
     PARAMETER.seedNode = new SeedNode();
@@ -688,6 +705,38 @@ public class Args extends CommonParameter {
         config.hasPath(Constant.NODE_HTTP_PBFT_PORT)
             ? config.getInt(Constant.NODE_HTTP_PBFT_PORT) : 8092;
 
+    PARAMETER.httpMaxThreads =
+        config.hasPath(Constant.NODE_HTTP_MAX_THREADS)
+            ? config.getInt(Constant.NODE_HTTP_MAX_THREADS) : 200;
+
+    PARAMETER.httpMinThreads =
+        config.hasPath(Constant.NODE_HTTP_MIN_THREADS)
+            ? config.getInt(Constant.NODE_HTTP_MIN_THREADS) : 8;
+
+    PARAMETER.httpMaxQueued =
+        config.hasPath(Constant.NODE_HTTP_MAX_QUEUED)
+            ? config.getInt(Constant.NODE_HTTP_MAX_QUEUED) : 1000;
+
+    PARAMETER.httpAcceptors =
+        config.hasPath(Constant.NODE_HTTP_ACCEPTORS)
+            ? config.getInt(Constant.NODE_HTTP_ACCEPTORS) : -1;
+
+    PARAMETER.httpSelectors =
+        config.hasPath(Constant.NODE_HTTP_SELECTORS)
+            ? config.getInt(Constant.NODE_HTTP_SELECTORS) : -1;
+
+    PARAMETER.httpIdleTimeout =
+        config.hasPath(Constant.NODE_HTTP_IDLE_TIMEOUT)
+            ? config.getLong(Constant.NODE_HTTP_IDLE_TIMEOUT) : 30000;
+
+    PARAMETER.httpGzipMinSize =
+        config.hasPath(Constant.NODE_HTTP_GZIP_MIN_SIZE)
+            ? config.getInt(Constant.NODE_HTTP_GZIP_MIN_SIZE) : 0;
+
+    PARAMETER.httpVirtualThreads =
+        config.hasPath(Constant.NODE_HTTP_VIRTUAL_THREADS)
+            && config.getBoolean(Constant.NODE_HTTP_VIRTUAL_THREADS);
+
     PARAMETER.jsonRpcHttpFullNodePort =
         config.hasPath(Constant.NODE_JSONRPC_HTTP_FULLNODE_PORT)
             ? config.getInt(Constant.NODE_JSONRPC_HTTP_FULLNODE_PORT) : 8545;
@@ -709,6 +758,18 @@ public class Args extends CommonParameter {
             ? config.getInt(Constant.NODE_SOLIDITY_THREADS)
             : Runtime.getRuntime().availableProcessors();
 
+    PARAMETER.prefetchBlockState =
+        config.hasPath(Constant.NODE_PREFETCH_BLOCK_STATE)
+            && config.getBoolean(Constant.NODE_PREFETCH_BLOCK_STATE);
+
+    PARAMETER.pipelineValidateSign =
+        config.hasPath(Constant.NODE_PIPELINE_VALIDATE_SIGN)
+            && config.getBoolean(Constant.NODE_PIPELINE_VALIDATE_SIGN);
+
+    PARAMETER.signatureCacheSize =
+        config.hasPath(Constant.NODE_SIGNATURE_CACHE_SIZE)
+            ? Math.max(0, config.getInt(Constant.NODE_SIGNATURE_CACHE_SIZE)) : 100000;
+
     PARAMETER.maxConcurrentCallsPerConnection =
         config.hasPath(Constant.NODE_RPC_MAX_CONCURRENT_CALLS_PER_CONNECTION)
             ? config.getInt(Constant.NODE_RPC_MAX_CONCURRENT_CALLS_PER_CONNECTION)
@@ -836,6 +897,14 @@ public class Args extends CommonParameter {
     if (PARAMETER.estimateEnergyMaxRetry > 10) {
       PARAMETER.estimateEnergyMaxRetry = 10;
     }
+    PARAMETER.estimateEnergyParallelism = config.hasPath(Constant.VM_ESTIMATE_ENERGY_PARALLELISM)
+        ? config.getInt(Constant.VM_ESTIMATE_ENERGY_PARALLELISM) : 3;
+    if (PARAMETER.estimateEnergyParallelism < 1) {
+      PARAMETER.estimateEnergyParallelism = 1;
+    }
+    if (PARAMETER.estimateEnergyParallelism > 8) {
+      PARAMETER.estimateEnergyParallelism = 8;
+    }
 
     PARAMETER.receiveTcpMinDataLength = config.hasPath(Constant.NODE_RECEIVE_TCP_MIN_DATA_LENGTH)
         ? config.getLong(Constant.NODE_RECEIVE_TCP_MIN_DATA_LENGTH) : 2048;
@@ -1595,11 +1664,14 @@ public class Args extends CommonParameter {
         .getLong(prefix + "targetFileSizeBase") : 64;
     int targetFileSizeMultiplier = config.hasPath(prefix + "targetFileSizeMultiplier") ? config
         .getInt(prefix + "targetFileSizeMultiplier") : 1;
+    boolean columnFamily = config.hasPath(prefix + "columnFamily")
+        && config.getBoolean(prefix + "columnFamily");
 
     PARAMETER.rocksDBCustomSettings = RocksDbSettings
         .initCustomSettings(levelNumber, compactThreads, blocksize, maxBytesForLevelBase,
             maxBytesForLevelMultiplier, level0FileNumCompactionTrigger,
-            targetFileSizeBase, targetFileSizeMultiplier);
+            targetFileSizeBase, targetFileSizeMultiplier)
+        .withColumnFamily(columnFamily);
     RocksDbSettings.loggingSettings();
   }
 
@@ -1671,6 +1743,8 @@ public class Args extends CommonParameter {
     logger.info("************************ DB config *************************");
     logger.info("DB engine : {}", parameter.getStorage().getDbEngine());
     logger.info("Snapshot max flush count: {}", parameter.getStorage().getMaxFlushCount());
+    logger.info("Snapshot flush memory limit: {} MB, latency: {} ms",
+        parameter.getStorage().getFlushMemoryLimit(), parameter.getStorage().getFlushLatency());
     logger.info("***************************************************************");
     logger.info("************************ shutDown config *************************");
     logger.info("ShutDown blockTime  : {}", parameter.getShutdownBlockTime());
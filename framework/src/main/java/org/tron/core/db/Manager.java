@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -88,6 +90,7 @@ import org.tron.core.capsule.BlockBalanceTraceCapsule;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
 import org.tron.core.capsule.BytesCapsule;
+import org.tron.core.capsule.ContractCapsule;
 import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.capsule.TransactionInfoCapsule;
 import org.tron.core.capsule.TransactionRetCapsule;
@@ -105,6 +108,7 @@ import org.tron.core.db.api.EnergyPriceHistoryLoader;
 import org.tron.core.db.api.MoveAbiHelper;
 import org.tron.core.db2.ISession;
 import org.tron.core.db2.core.Chainbase;
+import org.tron.core.db2.core.ReadView;
 import org.tron.core.db2.core.SnapshotManager;
 import org.tron.core.exception.AccountResourceInsufficientException;
 import org.tron.core.exception.BadBlockException;
@@ -161,8 +165,10 @@ import org.tron.protos.Protocol.AccountType;
 import org.tron.protos.Protocol.Permission;
 import org.tron.protos.Protocol.Transaction;
 import org.tron.protos.Protocol.Transaction.Contract;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
 import org.tron.protos.Protocol.TransactionInfo;
 import org.tron.protos.contract.BalanceContract;
+import org.tron.protos.contract.SmartContractOuterClass.TriggerSmartContract;
 
 
 @Slf4j(topic = "DB")
@@ -208,6 +214,11 @@ public class Manager {
   private MerkleContainer merkleContainer;
   private ExecutorService validateSignService;
   private String validateSignName = "validate-sign";
+  // apart from the sign checks, so the prefetch is not queued behind them
+  private ExecutorService prefetchStateService;
+  private static final String prefetchStateName = "prefetch-state";
+  // the contract triggers of the block being processed, posted once all its signatures pass
+  private List<ContractTriggerCapsule> pendingContractTriggers;
   private boolean isRunRePushThread = true;
   private boolean isRunTriggerCapsuleProcessThread = true;
   private BlockingQueue<TransactionCapsule> pushTransactionQueue = new LinkedBlockingQueue<>();
@@ -456,6 +467,7 @@ public class Manager {
 
   public void stopValidateSignThread() {
     ExecutorServiceManager.shutdownAndAwaitTermination(validateSignService, "validate-sign");
+    ExecutorServiceManager.shutdownAndAwaitTermination(prefetchStateService, prefetchStateName);
   }
 
   @PostConstruct
@@ -544,6 +556,9 @@ public class Manager {
     revokingStore.enable();
     validateSignService = ExecutorServiceManager
         .newFixedThreadPool(validateSignName, Args.getInstance().getValidateSignThreadNum());
+    // no thread is started until a block is prefetched
+    prefetchStateService = ExecutorServiceManager
+        .newFixedThreadPool(prefetchStateName, Args.getInstance().getValidateSignThreadNum());
     rePushEs = ExecutorServiceManager.newSingleThreadExecutor(rePushEsName, true);
     rePushEs.submit(rePushLoop);
     // add contract event listener for subscribing
@@ -852,6 +867,20 @@ public class Manager {
       AccountResourceInsufficientException, DupTransactionException, TaposException,
       TooBigTransactionException, TransactionExpirationException,
       ReceiptCheckErrException, VMIllegalException, TooBigTransactionResultException {
+    // a transaction is applied to the latest state, not to the read view of an api query
+    ReadView view = ReadView.detach();
+    try {
+      return doPushTransaction(trx);
+    } finally {
+      ReadView.attach(view);
+    }
+  }
+
+  private boolean doPushTransaction(final TransactionCapsule trx)
+      throws ValidateSignatureException, ContractValidateException, ContractExeException,
+      AccountResourceInsufficientException, DupTransactionException, TaposException,
+      TooBigTransactionException, TransactionExpirationException,
+      ReceiptCheckErrException, VMIllegalException, TooBigTransactionResultException {
 
     if (isShieldedTransaction(trx.getInstance()) && !Args.getInstance()
         .isFullNodeAllowShieldedTransactionArgs()) {
@@ -1751,9 +1780,22 @@ public class Manager {
     //reset BlockEnergyUsage
     chainBaseManager.getDynamicPropertiesStore().saveBlockEnergyUsage(0);
     //parallel check sign
+    Map<TransactionCapsule, Future<Boolean>> signFutures = null;
     if (!block.generatedByMyself) {
       try {
-        preValidateTransactionSign(txs);
+        CountDownLatch prefetched = CommonParameter.getInstance().isPrefetchBlockState()
+            ? prefetchTransactionState(txs) : null;
+        if (CommonParameter.getInstance().isPipelineValidateSign()) {
+          signFutures = submitTransactionSign(txs);
+        } else {
+          long start = System.nanoTime();
+          preValidateTransactionSign(txs);
+          Metrics.histogramObserve(MetricKeys.Histogram.VERIFY_SIGN_WAIT,
+              (System.nanoTime() - start) / Metrics.NANOSECONDS_PER_SECOND);
+          if (prefetched != null) {
+            prefetched.await();
+          }
+        }
       } catch (InterruptedException e) {
         logger.error("Parallel check sign interrupted exception! block info: {}.", block, e);
         Thread.currentThread().interrupt();
@@ -1767,17 +1809,53 @@ public class Manager {
       accountStateCallBack.preExecute(block);
       List<TransactionInfo> results = new ArrayList<>();
       long num = block.getNum();
-      for (TransactionCapsule transactionCapsule : block.getTransactions()) {
-        transactionCapsule.setBlockNum(num);
-        if (block.generatedByMyself) {
-          transactionCapsule.setVerified(true);
+      long signWait = 0;
+      if (signFutures != null && eventPluginLoaded) {
+        pendingContractTriggers = new ArrayList<>();
+      }
+      try {
+        for (TransactionCapsule transactionCapsule : block.getTransactions()) {
+          transactionCapsule.setBlockNum(num);
+          if (block.generatedByMyself) {
+            transactionCapsule.setVerified(true);
+          }
+          if (signFutures != null) {
+            long start = System.nanoTime();
+            if (!waitTransactionSign(signFutures.get(transactionCapsule), block)) {
+              signFutures = null;
+            }
+            signWait += System.nanoTime() - start;
+          }
+          accountStateCallBack.preExeTrans();
+          TransactionInfo result = processTransaction(transactionCapsule, block);
+          accountStateCallBack.exeTransFinish();
+          if (Objects.nonNull(result)) {
+            results.add(result);
+          }
         }
-        accountStateCallBack.preExeTrans();
-        TransactionInfo result = processTransaction(transactionCapsule, block);
-        accountStateCallBack.exeTransFinish();
-        if (Objects.nonNull(result)) {
-          results.add(result);
+        // the signature of every transaction is verified before it is executed
+        if (pendingContractTriggers != null) {
+          pendingContractTriggers.forEach(this::offerContractTrigger);
+        }
+      } catch (ValidateSignatureException e) {
+        throw e;
+      } catch (Exception e) {
+        // a bad signature of any transaction fails the block first, as if it was checked
+        // before the execution
+        if (signFutures != null) {
+          for (TransactionCapsule transactionCapsule : txs) {
+            if (!waitTransactionSign(signFutures.get(transactionCapsule), block)) {
+              break;
+            }
+          }
         }
+        throw e;
+      } finally {
+        pendingContractTriggers = null;
+      }
+      if (signFutures != null) {
+        Metrics.histogramObserve(MetricKeys.Histogram.VERIFY_SIGN_WAIT,
+            signWait / Metrics.NANOSECONDS_PER_SECOND);
       }
       transactionRetCapsule.addAllTransactionInfos(results);
       accountStateCallBack.executePushFinish();
@@ -2006,6 +2084,77 @@ public class Manager {
     }
   }
 
+  /**
+   * Starts to verify the signatures without waiting for them, the execution waits for each
+   * transaction in {@link #waitTransactionSign}. The permissions are read before any
+   * transaction of the block is executed, so the result is the same as
+   * {@link #preValidateTransactionSign}, only the recovery of the signers overlaps with the
+   * execution.
+   */
+  private Map<TransactionCapsule, Future<Boolean>> submitTransactionSign(
+      List<TransactionCapsule> txs) throws InterruptedException {
+    Map<TransactionCapsule, Future<Boolean>> futures = new IdentityHashMap<>(txs.size());
+    if (txs.isEmpty()) {
+      return futures;
+    }
+    CountDownLatch countDownLatch = new CountDownLatch(txs.size());
+    List<Future<Permission>> permissions = new ArrayList<>(txs.size());
+    for (TransactionCapsule transaction : txs) {
+      permissions.add(validateSignService
+          .submit(new ReadSignPermissionTask(transaction, countDownLatch, chainBaseManager)));
+    }
+    countDownLatch.await();
+
+    for (int i = 0; i < txs.size(); i++) {
+      TransactionCapsule transaction = txs.get(i);
+      try {
+        Permission permission = permissions.get(i).get();
+        futures.put(transaction, validateSignService
+            .submit(() -> transaction.validateSignature(permission)));
+      } catch (ExecutionException e) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        future.completeExceptionally(e.getCause());
+        futures.put(transaction, future);
+      }
+    }
+    return futures;
+  }
+
+  /**
+   * Waits for the signature of one transaction submitted by {@link #submitTransactionSign}.
+   * Returns false if interrupted, the rest transactions are verified by the execution then.
+   */
+  private boolean waitTransactionSign(Future<Boolean> future, BlockCapsule block)
+      throws ValidateSignatureException {
+    if (future == null) {
+      return true;
+    }
+    try {
+      future.get();
+      return true;
+    } catch (ExecutionException e) {
+      throw new ValidateSignatureException(e.getCause().getMessage());
+    } catch (InterruptedException e) {
+      logger.error("Parallel check sign interrupted exception! block info: {}.", block, e);
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Reads the state the transactions are about to touch on the prefetch threads, so the
+   * sequential execution finds it in the db caches. Nothing is written, the result of the block
+   * does not depend on it, so the pipelined sign check does not wait for the returned latch.
+   */
+  private CountDownLatch prefetchTransactionState(List<TransactionCapsule> txs) {
+    CountDownLatch countDownLatch = new CountDownLatch(txs.size());
+    for (TransactionCapsule transaction : txs) {
+      prefetchStateService.submit(
+          new PrefetchStateTask(transaction, countDownLatch, chainBaseManager));
+    }
+    return countDownLatch;
+  }
+
   public void rePush(TransactionCapsule tx) {
     if (containsTransaction(tx)) {
       return;
@@ -2037,14 +2186,32 @@ public class Manager {
 
   public void setCursor(Chainbase.Cursor cursor) {
     if (cursor == Chainbase.Cursor.PBFT) {
-      long headNum = getHeadBlockNum();
-      long pbftNum = chainBaseManager.getCommonDataBase().getLatestPbftBlockNum();
-      revokingStore.setCursor(cursor, headNum - pbftNum);
+      revokingStore.setCursor(cursor, getCursorOffset(cursor));
     } else {
       revokingStore.setCursor(cursor);
     }
   }
 
+  /**
+   * set the cursor with an offset got once, so the threads of one request read the same state
+   * while the blocks are applied.
+   */
+  public void setCursor(Chainbase.Cursor cursor, long offset) {
+    revokingStore.setCursor(cursor, offset);
+  }
+
+  /**
+   * @return the number of the blocks the cursor is behind the head, 0 if not pbft
+   */
+  public long getCursorOffset(Chainbase.Cursor cursor) {
+    if (cursor != Chainbase.Cursor.PBFT) {
+      return 0;
+    }
+    long headNum = getHeadBlockNum();
+    long pbftNum = chainBaseManager.getCommonDataBase().getLatestPbftBlockNum();
+    return headNum - pbftNum;
+  }
+
   public void resetCursor() {
     revokingStore.setCursor(Chainbase.Cursor.HEAD, 0L);
   }
@@ -2345,14 +2512,22 @@ public class Manager {
             .getLatestSolidifiedBlockNum());
         contractTriggerCapsule.setBlockHash(blockHash);
 
-        if (!triggerCapsuleQueue.offer(contractTriggerCapsule)) {
-          logger.info("Too many triggers, contract log trigger lost: {}.",
-              trigger.getTransactionId());
+        if (pendingContractTriggers != null) {
+          pendingContractTriggers.add(contractTriggerCapsule);
+        } else {
+          offerContractTrigger(contractTriggerCapsule);
         }
       }
     }
   }
 
+  private void offerContractTrigger(ContractTriggerCapsule contractTriggerCapsule) {
+    if (!triggerCapsuleQueue.offer(contractTriggerCapsule)) {
+      logger.info("Too many triggers, contract log trigger lost: {}.",
+          contractTriggerCapsule.getContractTrigger().getTransactionId());
+    }
+  }
+
   private void prepareStoreFactory() {
     StoreFactory.init();
     StoreFactory.getInstance().setChainBaseManager(chainBaseManager);
@@ -2493,4 +2668,73 @@ public class Manager {
       return true;
     }
   }
+
+  private static class ReadSignPermissionTask implements Callable<Permission> {
+
+    private TransactionCapsule trx;
+    private CountDownLatch countDownLatch;
+    private ChainBaseManager manager;
+
+    ReadSignPermissionTask(TransactionCapsule trx, CountDownLatch countDownLatch,
+        ChainBaseManager manager) {
+      this.trx = trx;
+      this.countDownLatch = countDownLatch;
+      this.manager = manager;
+    }
+
+    @Override
+    public Permission call() throws ValidateSignatureException {
+      try {
+        return trx.getSignPermission(manager.getAccountStore(),
+            manager.getDynamicPropertiesStore());
+      } finally {
+        countDownLatch.countDown();
+      }
+    }
+  }
+
+  private static class PrefetchStateTask implements Runnable {
+
+    private TransactionCapsule trx;
+    private CountDownLatch countDownLatch;
+    private ChainBaseManager manager;
+
+    PrefetchStateTask(TransactionCapsule trx, CountDownLatch countDownLatch,
+        ChainBaseManager manager) {
+      this.trx = trx;
+      this.countDownLatch = countDownLatch;
+      this.manager = manager;
+    }
+
+    @Override
+    public void run() {
+      try {
+        if (trx.getInstance().getRawData().getContractCount() != 1) {
+          return;
+        }
+        Contract contract = trx.getInstance().getRawData().getContract(0);
+        manager.getAccountStore().get(TransactionCapsule.getOwner(contract));
+        byte[] to = TransactionCapsule.getToAddress(contract);
+        if (to.length > 0) {
+          manager.getAccountStore().get(to);
+        }
+        if (contract.getType() == ContractType.TriggerSmartContract) {
+          byte[] address = contract.getParameter().unpack(TriggerSmartContract.class)
+              .getContractAddress().toByteArray();
+          ContractCapsule contractCapsule = manager.getContractStore().get(address);
+          if (contractCapsule != null) {
+            manager.getAccountStore().get(address);
+            manager.getAccountStore().get(contractCapsule.getOriginAddress());
+            manager.getCodeStore().get(address);
+            manager.getContractStateStore().get(address);
+          }
+        }
+      } catch (Exception e) {
+        logger.debug("Prefetch state of tx {} failed, {}.", trx.getTransactionId(),
+            e.getMessage());
+      } finally {
+        countDownLatch.countDown();
+      }
+    }
+  }
 }
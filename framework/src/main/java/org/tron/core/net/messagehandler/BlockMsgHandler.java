@@ -77,8 +77,10 @@ public class BlockMsgHandler implements TronMsgHandler {
       check(peer, blockMessage);
     }
 
-    if (peer.getSyncBlockRequested().containsKey(blockId)) {
-      peer.getSyncBlockRequested().remove(blockId);
+    Long requestTime = peer.getSyncBlockRequested().remove(blockId);
+    if (requestTime != null) {
+      long now = System.currentTimeMillis();
+      peer.getPeerStatistics().fetchStatistics.onReceive(now - requestTime, now);
       peer.getSyncBlockInProcess().add(blockId);
       syncService.processBlock(peer, blockMessage);
     } else {
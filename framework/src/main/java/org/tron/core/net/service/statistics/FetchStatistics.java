@@ -0,0 +1,96 @@
+package org.tron.core.net.service.statistics;
+
+import static org.tron.core.config.Parameter.NetConstants.MAX_BLOCK_FETCH_PER_PEER;
+import static org.tron.core.config.Parameter.NetConstants.SYNC_TIME_OUT;
+
+/**
+ * the sync blocks delivered by a peer: the smoothed latency from the request to the block, the
+ * blocks delivered per second while requests are in flight, and the window of the blocks which
+ * may be requested from it at once. the window grows by one block per window delivered, it is
+ * halved when the peer stalls a block, at most once per stall timeout, and it is kept to the
+ * blocks the peer delivers within half of SYNC_TIME_OUT.
+ */
+public class FetchStatistics {
+
+  public static final int MIN_WINDOW = 4;
+  public static final int MAX_WINDOW = 4 * MAX_BLOCK_FETCH_PER_PEER;
+  private static final long TARGET_LATENCY = SYNC_TIME_OUT / 2;
+  private static final long MIN_STALL_TIMEOUT = 500;
+  private static final long SAMPLE_INTERVAL = 1000;
+  private static final double LATENCY_GAIN = 0.125;
+  private static final double RATE_GAIN = 0.25;
+
+  private double window = MAX_BLOCK_FETCH_PER_PEER;
+  // -1 until the first block, or the first sample
+  private double latency = -1;
+  private double rate = -1;
+  private long sampleStart;
+  private int sampleBlocks;
+  private long lastStall;
+
+  /**
+   * @param inFlight the blocks requested and not delivered before this request
+   */
+  public synchronized void onRequest(int inFlight, long now) {
+    if (inFlight == 0) {
+      // the time the peer was idle is not in the rate
+      sampleStart = now;
+      sampleBlocks = 0;
+    }
+  }
+
+  public synchronized void onReceive(long blockLatency, long now) {
+    latency = latency < 0 ? blockLatency : latency + (blockLatency - latency) * LATENCY_GAIN;
+    sampleBlocks++;
+    if (now - sampleStart >= SAMPLE_INTERVAL) {
+      double blocks = sampleBlocks * 1000.0 / (now - sampleStart);
+      rate = rate < 0 ? blocks : rate + (blocks - rate) * RATE_GAIN;
+      sampleStart = now;
+      sampleBlocks = 0;
+    }
+    window = Math.min(limit(), window + 1 / window);
+  }
+
+  /**
+   * the peer holds a block longer than the stall timeout, the other blocks are behind it.
+   */
+  public synchronized void onStall(long now) {
+    if (now - lastStall < getStallTimeout()) {
+      return;
+    }
+    lastStall = now;
+    window = Math.max(MIN_WINDOW, window / 2);
+  }
+
+  /**
+   * @return the time after which a block requested from the peer is stalled
+   */
+  public synchronized long getStallTimeout() {
+    if (latency < 0) {
+      return TARGET_LATENCY;
+    }
+    return Math.min(TARGET_LATENCY, Math.max(MIN_STALL_TIMEOUT, (long) (3 * latency)));
+  }
+
+  public synchronized int getWindow() {
+    return (int) Math.min(window, limit());
+  }
+
+  public synchronized long getLatency() {
+    return latency < 0 ? 0 : (long) latency;
+  }
+
+  /**
+   * @return the blocks per second, 0 before the first sample
+   */
+  public synchronized double getRate() {
+    return rate < 0 ? 0 : rate;
+  }
+
+  private double limit() {
+    if (rate < 0) {
+      return MAX_WINDOW;
+    }
+    return Math.max(MIN_WINDOW, Math.min(MAX_WINDOW, rate * TARGET_LATENCY / 1000));
+  }
+}
@@ -2,4 +2,5 @@ package org.tron.core.net.service.statistics;
 
 public class PeerStatistics {
   public final MessageStatistics messageStatistics = new MessageStatistics();
+  public final FetchStatistics fetchStatistics = new FetchStatistics();
 }
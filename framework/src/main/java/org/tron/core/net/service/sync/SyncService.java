@@ -1,26 +1,38 @@
 package org.tron.core.net.service.sync;
 
-import static org.tron.core.config.Parameter.NetConstants.MAX_BLOCK_FETCH_PER_PEER;
-
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import io.prometheus.client.Histogram;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.common.es.ExecutorServiceManager;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.common.utils.Pair;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.config.args.Args;
 import org.tron.core.exception.P2pException;
 import org.tron.core.exception.P2pException.TypeEnum;
@@ -31,6 +43,7 @@ import org.tron.core.net.message.sync.SyncBlockChainMessage;
 import org.tron.core.net.messagehandler.PbftDataSyncHandler;
 import org.tron.core.net.peer.PeerConnection;
 import org.tron.core.net.peer.TronState;
+import org.tron.core.net.service.statistics.FetchStatistics;
 import org.tron.protos.Protocol.Inventory.InventoryType;
 import org.tron.protos.Protocol.ReasonCode;
 
@@ -44,7 +57,10 @@ public class SyncService {
   @Autowired
   private PbftDataSyncHandler pbftDataSyncHandler;
 
-  private Map<BlockMessage, PeerConnection> blockWaitToProcess = new ConcurrentHashMap<>();
+  // the blocks received and not applied yet by number, the blocks of a number are from forks.
+  // it is read and written by handleSyncBlock only.
+  private final NavigableMap<Long, Map<BlockId, SyncBlock>> blockWaitToProcess = new TreeMap<>();
+  private int blockWaitNum;
 
   private Map<BlockMessage, PeerConnection> blockJustReceived = new ConcurrentHashMap<>();
 
@@ -62,6 +78,12 @@ public class SyncService {
   private final ScheduledExecutorService blockHandleExecutor = ExecutorServiceManager
       .newSingleThreadScheduledExecutor(handleEsName);
 
+  // recovers the signers and merkle roots of the blocks ahead of applying them
+  private final String verifyEsName = "sync-verify-block";
+  private final ExecutorService blockVerifyExecutor = ExecutorServiceManager
+      .newFixedThreadPool(verifyEsName, Math.max(1, Args.getInstance().getValidateSignThreadNum()));
+  private final AtomicInteger blockVerifyNum = new AtomicInteger();
+
   private volatile boolean handleFlag = false;
 
   @Setter
@@ -72,7 +94,9 @@ public class SyncService {
   public void init() {
     fetchExecutor.scheduleWithFixedDelay(() -> {
       try {
-        if (fetchFlag) {
+        // the requests in flight are checked for the stalled ones
+        if (fetchFlag || tronNetDelegate.getActivePeer().stream()
+            .anyMatch(peer -> !peer.getSyncBlockRequested().isEmpty())) {
           fetchFlag = false;
           startFetchSyncBlock();
         }
@@ -96,6 +120,7 @@ public class SyncService {
   public void close() {
     ExecutorServiceManager.shutdownAndAwaitTermination(fetchExecutor, fetchEsName);
     ExecutorServiceManager.shutdownAndAwaitTermination(blockHandleExecutor, handleEsName);
+    ExecutorServiceManager.shutdownAndAwaitTermination(blockVerifyExecutor, verifyEsName);
   }
 
   public void startSync(PeerConnection peer) {
@@ -141,6 +166,9 @@ public class SyncService {
       } else {
         fetchFlag = true;
       }
+    } else if (peer.getSyncChainRequested() == null && peer.getSyncBlockRequested().size()
+        < peer.getPeerStatistics().fetchStatistics.getWindow()) {
+      fetchFlag = true;
     }
   }
 
@@ -148,6 +176,8 @@ public class SyncService {
     if (!peer.getSyncBlockRequested().isEmpty()) {
       peer.getSyncBlockRequested().keySet().forEach(blockId -> invalid(blockId, peer));
     }
+    // the blocks received from the peer are dropped by the next handling
+    handleFlag = true;
   }
 
   private void invalid(BlockId blockId, PeerConnection peerConnection) {
@@ -223,76 +253,222 @@ public class SyncService {
     return tronNetDelegate.getBlockIdByNum(num);
   }
 
+  /**
+   * request the blocks from the peers up to their windows, the fastest peers first. a block held
+   * by a peer longer than its stall timeout is requested again from a faster peer, and the peer
+   * stalling the head of a fetch queue is requested again from any peer and its window is cut.
+   */
   private void startFetchSyncBlock() {
     HashMap<PeerConnection, List<BlockId>> send = new HashMap<>();
-    tronNetDelegate.getActivePeer().stream()
-        .filter(peer -> peer.isNeedSyncFromPeer() && peer.isSyncIdle())
+    long now = System.currentTimeMillis();
+    List<PeerConnection> peers = tronNetDelegate.getActivePeer().stream()
+        .filter(peer -> peer.isNeedSyncFromPeer() && peer.getSyncChainRequested() == null)
         .filter(peer -> peer.isFetchAble())
-        .forEach(peer -> {
-          if (!send.containsKey(peer)) {
-            send.put(peer, new LinkedList<>());
-          }
-          for (BlockId blockId : peer.getSyncBlockToFetch()) {
-            if (requestBlockIds.getIfPresent(blockId) == null
-                && !peer.getSyncBlockInProcess().contains(blockId)) {
-              requestBlockIds.put(blockId, peer);
-              peer.getSyncBlockRequested().put(blockId, System.currentTimeMillis());
-              send.get(peer).add(blockId);
-              if (send.get(peer).size() >= MAX_BLOCK_FETCH_PER_PEER) {
-                break;
-              }
-            }
+        .sorted(Comparator.comparingDouble(
+            (PeerConnection peer) -> peer.getPeerStatistics().fetchStatistics.getRate())
+            .reversed())
+        .collect(Collectors.toList());
+
+    for (PeerConnection peer : peers) {
+      FetchStatistics statistics = peer.getPeerStatistics().fetchStatistics;
+      int room = statistics.getWindow() - peer.getSyncBlockRequested().size();
+      List<BlockId> blockIds = new LinkedList<>();
+      BlockId head = peer.getSyncBlockToFetch().peek();
+      for (BlockId blockId : peer.getSyncBlockToFetch()) {
+        if (blockIds.size() >= room) {
+          break;
+        }
+        if (peer.getSyncBlockRequested().containsKey(blockId)
+            || peer.getSyncBlockInProcess().contains(blockId)) {
+          continue;
+        }
+        PeerConnection owner = requestBlockIds.getIfPresent(blockId);
+        if (owner != null && !isStalled(owner, blockId, now)) {
+          continue;
+        }
+        if (owner != null) {
+          FetchStatistics stalled = owner.getPeerStatistics().fetchStatistics;
+          if (blockId.equals(head)) {
+            stalled.onStall(now);
+          } else if (stalled.getRate() >= statistics.getRate()) {
+            continue;
           }
-        });
+          logger.info("Block {} stalled by peer {}, request it from peer {}",
+              blockId.getString(), owner.getInetSocketAddress(), peer.getInetSocketAddress());
+        }
+        requestBlockIds.put(blockId, peer);
+        blockIds.add(blockId);
+      }
 
-    send.forEach((peer, blockIds) -> {
       if (!blockIds.isEmpty()) {
-        peer.sendMessage(new FetchInvDataMessage(new LinkedList<>(blockIds), InventoryType.BLOCK));
+        statistics.onRequest(peer.getSyncBlockRequested().size(), now);
+        blockIds.forEach(blockId -> peer.getSyncBlockRequested().put(blockId, now));
+        send.put(peer, blockIds);
       }
-    });
+    }
+
+    send.forEach((peer, blockIds) ->
+        peer.sendMessage(new FetchInvDataMessage(new LinkedList<>(blockIds), InventoryType.BLOCK)));
+  }
+
+  private boolean isStalled(PeerConnection owner, BlockId blockId, long now) {
+    Long time = owner.getSyncBlockRequested().get(blockId);
+    return time != null
+        && now - time > owner.getPeerStatistics().fetchStatistics.getStallTimeout();
   }
 
   private synchronized void handleSyncBlock() {
+    long solidNum = tronNetDelegate.getSolidBlockId().getNum();
+    receiveSyncBlock();
+    removeSyncBlock(solidNum);
+
+    while (true) {
+      synchronized (tronNetDelegate.getBlockLock()) {
+        SyncBlock syncBlock = nextSyncBlock();
+        if (syncBlock == null) {
+          break;
+        }
+        if (syncBlock.peer.isDisconnect()) {
+          invalid(syncBlock.blockId, syncBlock.peer);
+          continue;
+        }
+        applySyncBlock(syncBlock);
+      }
+      // the blocks received while applying are verified before their turn
+      receiveSyncBlock();
+    }
+
+    removeSyncBlock(solidNum);
+  }
 
+  /**
+   * move the blocks just received to blockWaitToProcess and start verifying them.
+   */
+  private void receiveSyncBlock() {
+    List<SyncBlock> received = new ArrayList<>();
     synchronized (blockJustReceived) {
-      blockWaitToProcess.putAll(blockJustReceived);
+      blockJustReceived.forEach((msg, peer) -> received.add(new SyncBlock(msg, peer)));
       blockJustReceived.clear();
     }
 
-    final boolean[] isProcessed = {true};
-    long solidNum = tronNetDelegate.getSolidBlockId().getNum();
-
-    while (isProcessed[0]) {
+    for (SyncBlock syncBlock : received) {
+      SyncBlock exist = blockWaitToProcess
+          .computeIfAbsent(syncBlock.blockId.getNum(), num -> new HashMap<>())
+          .putIfAbsent(syncBlock.blockId, syncBlock);
+      if (exist != null) {
+        if (!exist.peer.equals(syncBlock.peer)) {
+          syncBlock.peer.getSyncBlockInProcess().remove(syncBlock.blockId);
+        }
+        continue;
+      }
+      blockWaitNum++;
+      blockVerifyNum.incrementAndGet();
+      syncBlock.verified = blockVerifyExecutor.submit(() -> verifySyncBlock(syncBlock.block));
+    }
+    updateQueueMetrics();
+  }
 
-      isProcessed[0] = false;
+  /**
+   * compute the transaction ids, the merkle root and the signer of block, they are kept by the
+   * capsules, so validating and applying the block does not compute them again. a block which
+   * fails them is still reported by the validation, in the order of the blocks.
+   */
+  private void verifySyncBlock(BlockCapsule block) {
+    Histogram.Timer timer = Metrics.histogramStartTimer(
+        MetricKeys.Histogram.SYNC_BLOCK_LATENCY, MetricLabels.Histogram.SYNC_VERIFY);
+    try {
+      block.getTransactions().forEach(TransactionCapsule::getTransactionId);
+      block.calcMerkleRoot();
+      block.getSignerAddress();
+    } catch (Exception e) {
+      logger.debug("Verify sync block {} failed, {}", block.getBlockId().getString(),
+          e.getMessage());
+    } finally {
+      Metrics.histogramObserve(timer);
+      Metrics.gaugeSet(MetricKeys.Gauge.SYNC_BLOCK_QUEUE, blockVerifyNum.decrementAndGet(),
+          MetricLabels.Gauge.SYNC_VERIFY);
+    }
+  }
 
-      blockWaitToProcess.forEach((msg, peerConnection) -> {
-        synchronized (tronNetDelegate.getBlockLock()) {
-          if (peerConnection.isDisconnect()) {
-            blockWaitToProcess.remove(msg);
-            invalid(msg.getBlockId(), peerConnection);
-            return;
-          }
-          if (msg.getBlockId().getNum() <= solidNum) {
-            blockWaitToProcess.remove(msg);
-            peerConnection.getSyncBlockInProcess().remove(msg.getBlockId());
-            return;
-          }
-          final boolean[] isFound = {false};
-          tronNetDelegate.getActivePeer().stream()
-              .filter(peer -> msg.getBlockId().equals(peer.getSyncBlockToFetch().peek()))
-              .forEach(peer -> {
-                isFound[0] = true;
-              });
-          if (isFound[0]) {
-            blockWaitToProcess.remove(msg);
-            isProcessed[0] = true;
-            processSyncBlock(msg.getBlockCapsule(), peerConnection);
-            peerConnection.getSyncBlockInProcess().remove(msg.getBlockId());
-          }
+  /**
+   * remove the blocks not above solidNum, and the ones received from the disconnected peers.
+   */
+  private void removeSyncBlock(long solidNum) {
+    NavigableMap<Long, Map<BlockId, SyncBlock>> solid = blockWaitToProcess.headMap(solidNum, true);
+    solid.values().forEach(blocks -> blocks.values().forEach(syncBlock -> {
+      syncBlock.peer.getSyncBlockInProcess().remove(syncBlock.blockId);
+      blockWaitNum--;
+    }));
+    solid.clear();
+
+    Iterator<Map<BlockId, SyncBlock>> iterator = blockWaitToProcess.values().iterator();
+    while (iterator.hasNext()) {
+      Map<BlockId, SyncBlock> blocks = iterator.next();
+      blocks.values().removeIf(syncBlock -> {
+        if (!syncBlock.peer.isDisconnect()) {
+          return false;
         }
+        invalid(syncBlock.blockId, syncBlock.peer);
+        blockWaitNum--;
+        return true;
       });
+      if (blocks.isEmpty()) {
+        iterator.remove();
+      }
+    }
+    updateQueueMetrics();
+  }
+
+  /**
+   * take the block at the head of the fetch queue of an active peer, it is looked up by its
+   * number and id, so the cost does not grow with the blocks waiting.
+   *
+   * @return null if none of the blocks is received
+   */
+  private SyncBlock nextSyncBlock() {
+    for (PeerConnection peer : tronNetDelegate.getActivePeer()) {
+      BlockId blockId = peer.getSyncBlockToFetch().peek();
+      if (blockId == null) {
+        continue;
+      }
+      Map<BlockId, SyncBlock> blocks = blockWaitToProcess.get(blockId.getNum());
+      SyncBlock syncBlock = blocks == null ? null : blocks.remove(blockId);
+      if (syncBlock != null) {
+        if (blocks.isEmpty()) {
+          blockWaitToProcess.remove(blockId.getNum());
+        }
+        blockWaitNum--;
+        updateQueueMetrics();
+        return syncBlock;
+      }
+    }
+    return null;
+  }
+
+  private void applySyncBlock(SyncBlock syncBlock) {
+    try {
+      if (syncBlock.verified != null) {
+        syncBlock.verified.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      // the block is verified again by processSyncBlock
     }
+    Metrics.histogramObserve(MetricKeys.Histogram.SYNC_BLOCK_LATENCY,
+        (System.currentTimeMillis() - syncBlock.receiveTime) / Metrics.MILLISECONDS_PER_SECOND,
+        MetricLabels.Histogram.SYNC_WAIT);
+
+    Histogram.Timer timer = Metrics.histogramStartTimer(
+        MetricKeys.Histogram.SYNC_BLOCK_LATENCY, MetricLabels.Histogram.SYNC_APPLY);
+    processSyncBlock(syncBlock.block, syncBlock.peer);
+    syncBlock.peer.getSyncBlockInProcess().remove(syncBlock.blockId);
+    Metrics.histogramObserve(timer);
+  }
+
+  private void updateQueueMetrics() {
+    Metrics.gaugeSet(MetricKeys.Gauge.SYNC_BLOCK_QUEUE, blockWaitNum,
+        MetricLabels.Gauge.SYNC_APPLY);
   }
 
   private void processSyncBlock(BlockCapsule block, PeerConnection peerConnection) {
@@ -336,4 +512,18 @@ public class SyncService {
     }
   }
 
+  private static class SyncBlock {
+
+    private final BlockCapsule block;
+    private final BlockId blockId;
+    private final PeerConnection peer;
+    private final long receiveTime = System.currentTimeMillis();
+    private Future<?> verified;
+
+    private SyncBlock(BlockMessage msg, PeerConnection peer) {
+      this.block = msg.getBlockCapsule();
+      this.blockId = msg.getBlockId();
+      this.peer = peer;
+    }
+  }
 }
@@ -4,14 +4,13 @@ import java.util.EnumSet;
 import javax.servlet.DispatcherType;
 import javax.servlet.Filter;
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.jetty.server.ConnectionLimit;
-import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.tron.common.application.HttpServerFactory;
 import org.tron.common.application.HttpService;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.core.config.args.Args;
@@ -306,10 +305,9 @@ public class FullNodeHttpApiService extends HttpService {
   @Override
   public void start() {
     try {
-      apiServer = new Server(port);
       ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
       context.setContextPath("/");
-      apiServer.setHandler(context);
+      apiServer = HttpServerFactory.create(getClass().getSimpleName(), port, context);
 
       context.addServlet(new ServletHolder(getAccountServlet), "/wallet/getaccount");
       context.addServlet(new ServletHolder(transferServlet), "/wallet/createtransaction");
@@ -520,11 +518,6 @@ public class FullNodeHttpApiService extends HttpService {
       context.addServlet(new ServletHolder(cancelAllUnfreezeV2Servlet),
           "/wallet/cancelallunfreezev2");
 
-      int maxHttpConnectNumber = Args.getInstance().getMaxHttpConnectNumber();
-      if (maxHttpConnectNumber > 0) {
-        apiServer.addBean(new ConnectionLimit(maxHttpConnectNumber, apiServer));
-      }
-
       // filters the specified APIs
       // when node is lite fullnode and openHistoryQueryWhenLiteFN is false
       context.addFilter(new FilterHolder(liteFnQueryHttpFilter), "/*",
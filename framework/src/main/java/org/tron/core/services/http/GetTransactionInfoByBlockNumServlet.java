@@ -1,7 +1,5 @@
 package org.tron.core.services.http;
 
-import com.alibaba.fastjson.JSONArray;
-import com.alibaba.fastjson.JSONObject;
 import java.io.IOException;
 import java.util.List;
 import javax.servlet.http.HttpServletRequest;
@@ -22,22 +20,28 @@ public class GetTransactionInfoByBlockNumServlet extends RateLimiterServlet {
   @Autowired
   private Wallet wallet;
 
-  private JSONObject convertLogAddressToTronAddress(TransactionInfo transactionInfo,
+  private TransactionInfo convertLogAddressToTronAddress(TransactionInfo transactionInfo,
       boolean visible) {
     if (visible) {
       List<Log> newLogList = Util.convertLogAddressToTronAddress(transactionInfo);
       transactionInfo = transactionInfo.toBuilder().clearLog().addAllLog(newLogList).build();
     }
-
-    return JSONObject.parseObject(JsonFormat.printToString(transactionInfo, visible));
+    return transactionInfo;
   }
 
-  private String printTransactionInfoList(TransactionInfoList list, boolean selfType) {
-    JSONArray jsonArray = new JSONArray();
-    for (TransactionInfo transactionInfo : list.getTransactionInfoList()) {
-      jsonArray.add(convertLogAddressToTronAddress(transactionInfo, selfType));
+  private void printTransactionInfoList(TransactionInfoList list, boolean selfType,
+      HttpServletResponse response) throws IOException {
+    try (JsonResponseWriter writer = JsonResponseWriter.of(response)) {
+      writer.write("[");
+      for (int i = 0; i < list.getTransactionInfoCount(); i++) {
+        if (i > 0) {
+          writer.write(",");
+        }
+        JsonFormat.print(convertLogAddressToTronAddress(list.getTransactionInfo(i), selfType),
+            writer, selfType);
+      }
+      writer.write("]\n");
     }
-    return jsonArray.toJSONString();
   }
 
   protected void doGet(HttpServletRequest request, HttpServletResponse response) {
@@ -47,7 +51,7 @@ public class GetTransactionInfoByBlockNumServlet extends RateLimiterServlet {
 
       if (num > 0L) {
         TransactionInfoList reply = wallet.getTransactionInfoByBlockNum(num);
-        response.getWriter().println(printTransactionInfoList(reply, visible));
+        printTransactionInfoList(reply, visible, response);
       } else {
         response.getWriter().println("{}");
       }
@@ -55,7 +59,7 @@ public class GetTransactionInfoByBlockNumServlet extends RateLimiterServlet {
       logger.debug("Exception: {}", e.getMessage());
       try {
         response.getWriter().println(Util.printErrorMsg(e));
-      } catch (IOException ioe) {
+      } catch (IOException | IllegalStateException ioe) {
         logger.debug("IOException: {}", ioe.getMessage());
       }
     }
@@ -70,7 +74,7 @@ public class GetTransactionInfoByBlockNumServlet extends RateLimiterServlet {
       long num = build.getNum();
       if (num > 0L) {
         TransactionInfoList reply = wallet.getTransactionInfoByBlockNum(num);
-        response.getWriter().println(printTransactionInfoList(reply, params.isVisible()));
+        printTransactionInfoList(reply, params.isVisible(), response);
       } else {
         response.getWriter().println("{}");
       }
@@ -78,7 +82,7 @@ public class GetTransactionInfoByBlockNumServlet extends RateLimiterServlet {
       logger.debug("Exception: {}", e.getMessage());
       try {
         response.getWriter().println(Util.printErrorMsg(e));
-      } catch (IOException ioe) {
+      } catch (IOException | IllegalStateException ioe) {
         logger.debug("IOException: {}", ioe.getMessage());
       }
     }
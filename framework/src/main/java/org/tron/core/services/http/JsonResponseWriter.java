@@ -0,0 +1,187 @@
+package org.tron.core.services.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * writes a json response to the output stream of the servlet as it is printed, in utf-8, through
+ * buffers kept by the thread, instead of building the response in a string first. the response
+ * must not be written by {@link HttpServletResponse#getWriter()} as well.
+ */
+public class JsonResponseWriter extends Writer {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final ThreadLocal<Buffers> pool = ThreadLocal.withInitial(Buffers::new);
+
+  private final OutputStream out;
+  private final Buffers buffers;
+  private final CharBuffer chars;
+  private final ByteBuffer bytes;
+  private boolean closed;
+
+  JsonResponseWriter(OutputStream out) {
+    this.out = out;
+    Buffers pooled = pool.get();
+    // a writer opened while another one is open on the thread gets its own buffers
+    this.buffers = pooled.inUse ? new Buffers() : pooled;
+    this.buffers.inUse = true;
+    this.chars = buffers.chars;
+    this.bytes = buffers.bytes;
+  }
+
+  public static JsonResponseWriter of(HttpServletResponse response) throws IOException {
+    return new JsonResponseWriter(response.getOutputStream());
+  }
+
+  @Override
+  public void write(int c) throws IOException {
+    ensureOpen();
+    if (!chars.hasRemaining()) {
+      encode(false);
+    }
+    chars.put((char) c);
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      if (!chars.hasRemaining()) {
+        encode(false);
+      }
+      int n = Math.min(len, chars.remaining());
+      chars.put(cbuf, off, n);
+      off += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      if (!chars.hasRemaining()) {
+        encode(false);
+      }
+      int n = Math.min(len, chars.remaining());
+      chars.put(str, off, off + n);
+      off += n;
+      len -= n;
+    }
+  }
+
+  /**
+   * the generator of JsonFormat appends the char sequences, they are copied without a string.
+   */
+  @Override
+  public Writer append(CharSequence csq) throws IOException {
+    if (csq == null) {
+      write("null");
+    } else if (csq instanceof String) {
+      write((String) csq);
+    } else {
+      append(csq, 0, csq.length());
+    }
+    return this;
+  }
+
+  @Override
+  public Writer append(CharSequence csq, int start, int end) throws IOException {
+    if (csq == null) {
+      return append("null", start, end);
+    }
+    if (csq instanceof String) {
+      write((String) csq, start, end - start);
+      return this;
+    }
+    ensureOpen();
+    for (int i = start; i < end; i++) {
+      if (!chars.hasRemaining()) {
+        encode(false);
+      }
+      chars.put(csq.charAt(i));
+    }
+    return this;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    ensureOpen();
+    encode(false);
+    drain();
+    out.flush();
+  }
+
+  /**
+   * write the rest of the response and give the buffers back to the thread, the output stream is
+   * left to the servlet container.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      encode(true);
+      while (buffers.encoder.flush(bytes).isOverflow()) {
+        drain();
+      }
+      drain();
+      out.flush();
+    } finally {
+      buffers.reset();
+    }
+  }
+
+  private void encode(boolean endOfInput) throws IOException {
+    chars.flip();
+    while (true) {
+      CoderResult result = buffers.encoder.encode(chars, bytes, endOfInput);
+      if (!result.isOverflow()) {
+        break;
+      }
+      drain();
+    }
+    // a high surrogate at the end waits for the next chars
+    chars.compact();
+  }
+
+  private void drain() throws IOException {
+    if (bytes.position() > 0) {
+      out.write(bytes.array(), 0, bytes.position());
+      bytes.clear();
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+  }
+
+  private static class Buffers {
+
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean inUse;
+
+    private void reset() {
+      chars.clear();
+      bytes.clear();
+      encoder.reset();
+      inUse = false;
+    }
+  }
+}
@@ -10,12 +10,15 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.tron.common.parameter.RateLimiterInitialization;
 import org.tron.common.prometheus.MetricKeys;
 import org.tron.common.prometheus.MetricLabels;
 import org.tron.common.prometheus.Metrics;
 import org.tron.core.config.args.Args;
+import org.tron.core.db.RevokingDatabase;
+import org.tron.core.db2.core.ReadView;
 import org.tron.core.services.ratelimiter.GlobalRateLimiter;
 import org.tron.core.services.ratelimiter.RateLimiterContainer;
 import org.tron.core.services.ratelimiter.RuntimeData;
@@ -35,6 +38,9 @@ public abstract class RateLimiterServlet extends HttpServlet {
   @Autowired
   private RateLimiterContainer container;
 
+  @Autowired
+  private RevokingDatabase revokingStore;
+
   @PostConstruct
   private void addRateContainer() {
     RateLimiterInitialization.HttpRateLimiterItem item = Args.getInstance()
@@ -85,15 +91,16 @@ public abstract class RateLimiterServlet extends HttpServlet {
       throws ServletException, IOException {
     
     RuntimeData runtimeData = new RuntimeData(req);
-    GlobalRateLimiter.acquire(runtimeData);
+    boolean acquireResource = GlobalRateLimiter.acquire(runtimeData);
 
     IRateLimiter rateLimiter = container.get(KEY_PREFIX_HTTP, getClass().getSimpleName());
 
-    boolean acquireResource = true;
-
-    if (rateLimiter != null) {
+    if (acquireResource && rateLimiter != null) {
       acquireResource = rateLimiter.acquire(runtimeData);
     }
+    Metrics.counterInc(MetricKeys.Counter.RATE_LIMITER, 1, getClass().getSimpleName(),
+        acquireResource ? MetricLabels.Counter.RATE_LIMITER_ACCEPT
+            : MetricLabels.Counter.RATE_LIMITER_REJECT);
     String url = Strings.isNullOrEmpty(req.getRequestURI())
         ? MetricLabels.UNDEFINED : req.getRequestURI();
     try {
@@ -102,9 +109,12 @@ public abstract class RateLimiterServlet extends HttpServlet {
       if (acquireResource) {
         Histogram.Timer requestTimer = Metrics.histogramStartTimer(
             MetricKeys.Histogram.HTTP_SERVICE_LATENCY, url);
-        super.service(req, resp);
+        try (ReadView view = openReadView()) {
+          super.service(req, resp);
+        }
         Metrics.histogramObserve(requestTimer);
       } else {
+        resp.setStatus(HttpStatus.TOO_MANY_REQUESTS_429);
         resp.getWriter()
             .println(Util.printErrorMsg(new IllegalAccessException("lack of computing resources")));
       }
@@ -118,4 +128,12 @@ public abstract class RateLimiterServlet extends HttpServlet {
       }
     }
   }
+
+  /**
+   * @return the view the request reads the state from, null if it reads the latest state
+   */
+  private ReadView openReadView() {
+    return Args.getInstance().getStorage().isReadViewEnable()
+        ? revokingStore.openReadView() : null;
+  }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import com.alibaba.fastjson.JSONException;
 import com.alibaba.fastjson.JSONObject;
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.GeneratedMessageV3;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
@@ -16,6 +17,7 @@ import com.google.protobuf.Message;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
@@ -24,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -119,6 +122,126 @@ public class Util {
     return jsonObject;
   }
 
+  /**
+   * Stream the json of printBlockList to the response, a transaction at a time.
+   */
+  public static void printBlockList(BlockList list, boolean selfType,
+      HttpServletResponse response) throws IOException {
+    try (JsonResponseWriter writer = JsonResponseWriter.of(response)) {
+      writer.write("{\"block\":[");
+      for (int i = 0; i < list.getBlockCount(); i++) {
+        if (i > 0) {
+          writer.write(",");
+        }
+        printBlock(list.getBlock(i), selfType, writer);
+      }
+      writer.write("]}\n");
+    }
+  }
+
+  /**
+   * Write the json of printBlockToJSON, the header is printed by JsonFormat directly.
+   */
+  public static void printBlock(Block block, boolean selfType, Writer writer)
+      throws IOException {
+    writer.write("{");
+    if (block.hasBlockHeader()) {
+      writer.write("\"block_header\":");
+      JsonFormat.print(block.getBlockHeader(), writer, selfType);
+      writer.write(",");
+    }
+    writer.write("\"blockID\":\"");
+    writer.write(ByteArray.toHexString(new BlockCapsule(block).getBlockId().getBytes()));
+    writer.write("\"");
+    if (block.getTransactionsCount() > 0) {
+      writer.write(",\"transactions\":[");
+      for (int i = 0; i < block.getTransactionsCount(); i++) {
+        if (i > 0) {
+          writer.write(",");
+        }
+        printTransaction(block.getTransactions(i), selfType, writer);
+      }
+      writer.write("]");
+    }
+    writer.write("}");
+  }
+
+  /**
+   * Write the json of printTransactionToJSON, the fields are printed by JsonFormat directly.
+   */
+  public static void printTransaction(Transaction transaction, boolean selfType, Writer writer)
+      throws IOException {
+    JsonFormat.JsonGenerator generator = new JsonFormat.JsonGenerator(writer);
+    String contractAddress = null;
+    generator.print("{");
+    for (Map.Entry<FieldDescriptor, Object> field
+        : new TreeMap<>(transaction.getAllFields()).entrySet()) {
+      if (field.getKey().getNumber() != Transaction.RAW_DATA_FIELD_NUMBER) {
+        JsonFormat.printField(field.getKey(), field.getValue(), generator, selfType);
+        generator.print(",");
+        continue;
+      }
+      generator.print("\"raw_data\":{");
+      for (Map.Entry<FieldDescriptor, Object> rawField
+          : new TreeMap<>(transaction.getRawData().getAllFields()).entrySet()) {
+        if (rawField.getKey().getNumber() != Transaction.raw.CONTRACT_FIELD_NUMBER) {
+          JsonFormat.printField(rawField.getKey(), rawField.getValue(), generator, selfType);
+          generator.print(",");
+        }
+      }
+      generator.print("\"contract\":[");
+      boolean first = true;
+      for (Transaction.Contract contract : transaction.getRawData().getContractList()) {
+        Message value;
+        try {
+          if (contract.getType() == ContractType.CreateSmartContract) {
+            CreateSmartContract deployContract = contract.getParameter()
+                .unpack(CreateSmartContract.class);
+            contractAddress = ByteArray.toHexString(generateContractAddress(transaction,
+                deployContract.getOwnerAddress().toByteArray()));
+            value = deployContract;
+          } else {
+            Class clazz = TransactionFactory.getContract(contract.getType());
+            value = clazz == null ? null : contract.getParameter().unpack(clazz);
+          }
+        } catch (InvalidProtocolBufferException e) {
+          logger.debug("InvalidProtocolBufferException: {}", e.getMessage());
+          continue;
+        }
+        generator.print(first ? "{" : ",{");
+        first = false;
+        // the null value is left out, as by fastjson
+        generator.print("\"parameter\":{");
+        if (value != null) {
+          generator.print("\"value\":{");
+          JsonFormat.print(value, generator, selfType);
+          generator.print("},");
+        }
+        generator.print("\"type_url\":\"");
+        generator.print(JsonFormat.escapeText(contract.getParameter().getTypeUrl()));
+        generator.print("\"},\"type\":\"");
+        generator.print(contract.getType().name());
+        generator.print("\"");
+        if (contract.getPermissionId() > 0) {
+          generator.print(",\"" + PERMISSION_ID + "\":" + contract.getPermissionId());
+        }
+        generator.print("}");
+      }
+      generator.print("]},");
+    }
+    byte[] rawData = transaction.getRawData().toByteArray();
+    generator.print("\"raw_data_hex\":\"");
+    generator.print(ByteArray.toHexString(rawData));
+    generator.print("\",\"txID\":\"");
+    generator.print(ByteArray.toHexString(Sha256Hash
+        .hash(CommonParameter.getInstance().isECKeyCryptoEngine(), rawData)));
+    generator.print("\"");
+    if (contractAddress != null) {
+      generator.print(",\"" + CONTRACT_ADDRESS + "\":\"" + contractAddress + "\"");
+    }
+    generator.print("}");
+  }
+
   public static String printTransactionList(TransactionList list, boolean selfType) {
     List<Transaction> transactions = list.getTransactionList();
     JSONObject jsonObject = JSONObject.parseObject(JsonFormat.printToString(list, selfType));
@@ -478,7 +601,8 @@ public class Util {
     logger.debug(e.getMessage(), e);
     try {
       response.getWriter().println(Util.printErrorMsg(e));
-    } catch (IOException ioe) {
+    } catch (IOException | IllegalStateException ioe) {
+      // IllegalStateException: the response was being streamed by its output stream
       logger.debug("IOException: {}", ioe.getMessage());
     }
   }
@@ -498,8 +622,12 @@ public class Util {
   public static void printAccount(Account reply, HttpServletResponse response, Boolean visible)
       throws java.io.IOException {
     if (reply != null) {
-      if (visible) {
-        response.getWriter().println(JsonFormat.printToString(reply, true));
+      if (visible || reply.getAssetIssuedID().isEmpty()) {
+        // large accounts are streamed, instead of printed to a string
+        try (JsonResponseWriter writer = JsonResponseWriter.of(response)) {
+          JsonFormat.print(reply, writer, visible);
+          writer.write("\n");
+        }
       } else {
         response.getWriter().println(convertOutput(reply));
       }
@@ -3,13 +3,12 @@ package org.tron.core.services.http.solidity;
 import java.util.EnumSet;
 import javax.servlet.DispatcherType;
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.jetty.server.ConnectionLimit;
-import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.tron.common.application.HttpServerFactory;
 import org.tron.common.application.HttpService;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.core.config.args.Args;
@@ -178,10 +177,9 @@ public class SolidityNodeHttpApiService extends HttpService {
   @Override
   public void start() {
     try {
-      apiServer = new Server(port);
       ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
       context.setContextPath("/");
-      apiServer.setHandler(context);
+      apiServer = HttpServerFactory.create(getClass().getSimpleName(), port, context);
 
       // same as FullNode
       context.addServlet(new ServletHolder(getAccountServlet), "/walletsolidity/getaccount");
@@ -292,11 +290,6 @@ public class SolidityNodeHttpApiService extends HttpService {
           .setPathSpecs(new String[] {"/walletsolidity/*",
               "/wallet/getnodeinfo"});
 
-      int maxHttpConnectNumber = Args.getInstance().getMaxHttpConnectNumber();
-      if (maxHttpConnectNumber > 0) {
-        apiServer.addBean(new ConnectionLimit(maxHttpConnectNumber, apiServer));
-      }
-
       super.start();
     } catch (Exception e) {
       logger.debug("IOException: {}", e.getMessage());
@@ -1,12 +1,11 @@
 package org.tron.core.services.interfaceJsonRpcOnPBFT;
 
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.jetty.server.ConnectionLimit;
-import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.tron.common.application.HttpServerFactory;
 import org.tron.common.application.HttpService;
 import org.tron.common.parameter.CommonParameter;
 
@@ -29,18 +28,12 @@ public class JsonRpcServiceOnPBFT extends HttpService {
   @Override
   public void start() {
     try {
-      apiServer = new Server(port);
       ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
       context.setContextPath("/");
-      apiServer.setHandler(context);
+      apiServer = HttpServerFactory.create(getClass().getSimpleName(), port, context);
 
       context.addServlet(new ServletHolder(jsonRpcOnPBFTServlet), "/jsonrpc");
 
-      int maxHttpConnectNumber = CommonParameter.getInstance().getMaxHttpConnectNumber();
-      if (maxHttpConnectNumber > 0) {
-        apiServer.addBean(new ConnectionLimit(maxHttpConnectNumber, apiServer));
-      }
-
       super.start();
 
     } catch (Exception e) {
@@ -3,12 +3,11 @@ package org.tron.core.services.interfaceOnPBFT.http.PBFT;
 import java.util.EnumSet;
 import javax.servlet.DispatcherType;
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.jetty.server.ConnectionLimit;
-import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.tron.common.application.HttpServerFactory;
 import org.tron.common.application.HttpService;
 import org.tron.common.parameter.CommonParameter;
 import org.tron.core.config.args.Args;
@@ -185,10 +184,9 @@ public class HttpApiOnPBFTService extends HttpService {
   @Override
   public void start() {
     try {
-      apiServer = new Server(port);
       ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
       context.setContextPath("/walletpbft/");
-      apiServer.setHandler(context);
+      apiServer = HttpServerFactory.create(getClass().getSimpleName(), port, context);
 
       // same as FullNode
       context.addServlet(new ServletHolder(accountOnPBFTServlet), "/getaccount");
@@ -275,11 +273,6 @@ public class HttpApiOnPBFTService extends HttpService {
       context.addServlet(new ServletHolder(getDelegatedResourceV2OnPBFTServlet),
           "/getdelegatedresourcev2");
 
-      int maxHttpConnectNumber = Args.getInstance().getMaxHttpConnectNumber();
-      if (maxHttpConnectNumber > 0) {
-        apiServer.addBean(new ConnectionLimit(maxHttpConnectNumber, apiServer));
-      }
-
       // filters the specified APIs
       // when node is lite fullnode and openHistoryQueryWhenLiteFN is false
       context.addFilter(new FilterHolder(liteFnQueryHttpFilter), "/*",
@@ -13,6 +13,7 @@ import static org.tron.core.services.jsonrpc.JsonRpcApiUtil.triggerCallContract;
 import com.alibaba.fastjson.JSON;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.GeneratedMessageV3;
+import io.prometheus.client.Histogram;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Arrays;
@@ -44,6 +45,9 @@ import org.tron.common.logsfilter.ContractEventParser;
 import org.tron.common.logsfilter.capsule.BlockFilterCapsule;
 import org.tron.common.logsfilter.capsule.LogsFilterCapsule;
 import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.ByteUtil;
@@ -70,6 +74,7 @@ import org.tron.core.services.jsonrpc.filters.BlockFilterAndResult;
 import org.tron.core.services.jsonrpc.filters.LogBlockQuery;
 import org.tron.core.services.jsonrpc.filters.LogFilter;
 import org.tron.core.services.jsonrpc.filters.LogFilterAndResult;
+import org.tron.core.services.jsonrpc.filters.LogFilterIndex;
 import org.tron.core.services.jsonrpc.filters.LogFilterWrapper;
 import org.tron.core.services.jsonrpc.filters.LogMatch;
 import org.tron.core.services.jsonrpc.types.BlockResult;
@@ -124,6 +129,15 @@ public class TronJsonRpcImpl implements TronJsonRpc, Closeable {
   @Getter
   private static final Map<String, LogFilterAndResult> eventFilter2ResultSolidity =
       new ConcurrentHashMap<>();
+  /**
+   * index of log filters by address and topic0, for Full and solidity Json-RPC
+   */
+  @Getter
+  private static final LogFilterIndex eventFilterIndexFull =
+      new LogFilterIndex(eventFilter2ResultFull);
+  @Getter
+  private static final LogFilterIndex eventFilterIndexSolidity =
+      new LogFilterIndex(eventFilter2ResultSolidity);
   /**
    * for block in solidity Json-RPC
    */
@@ -184,43 +198,54 @@ public class TronJsonRpcImpl implements TronJsonRpc, Closeable {
   }
 
   public static void handleLogsFilter(LogsFilterCapsule logsFilterCapsule) {
-    Iterator<Entry<String, LogFilterAndResult>> it;
-
+    LogFilterIndex eventFilterIndex;
+    String type;
     if (logsFilterCapsule.isSolidified()) {
-      it = getEventFilter2ResultSolidity().entrySet().iterator();
+      eventFilterIndex = eventFilterIndexSolidity;
+      type = MetricLabels.Histogram.FILTER_SOLIDITY;
     } else {
-      it = getEventFilter2ResultFull().entrySet().iterator();
+      eventFilterIndex = eventFilterIndexFull;
+      type = MetricLabels.Histogram.FILTER_FULL;
     }
 
-    while (it.hasNext()) {
-      Entry<String, LogFilterAndResult> entry = it.next();
-      if (entry.getValue().isExpire()) {
-        it.remove();
-        continue;
-      }
+    Histogram.Timer timer = Metrics.histogramStartTimer(
+        MetricKeys.Histogram.JSONRPC_FILTER_DISPATCH_LATENCY, type);
+    try {
+      eventFilterIndex.removeExpired();
+      // only the filters indexed by an address or topic0 of this block, and the ones without both
+      Map<String, LogFilterAndResult> candidates =
+          eventFilterIndex.getCandidates(logsFilterCapsule.getTxInfoList());
+      for (Entry<String, LogFilterAndResult> entry : candidates.entrySet()) {
+        LogFilterAndResult logFilterAndResult = entry.getValue();
+        if (logFilterAndResult.isExpire()) {
+          eventFilterIndex.remove(entry.getKey());
+          continue;
+        }
 
-      LogFilterAndResult logFilterAndResult = entry.getValue();
-      long fromBlock = logFilterAndResult.getLogFilterWrapper().getFromBlock();
-      long toBlock = logFilterAndResult.getLogFilterWrapper().getToBlock();
-      if (!(fromBlock <= logsFilterCapsule.getBlockNumber()
-          && logsFilterCapsule.getBlockNumber() <= toBlock)) {
-        continue;
-      }
+        long fromBlock = logFilterAndResult.getLogFilterWrapper().getFromBlock();
+        long toBlock = logFilterAndResult.getLogFilterWrapper().getToBlock();
+        if (!(fromBlock <= logsFilterCapsule.getBlockNumber()
+            && logsFilterCapsule.getBlockNumber() <= toBlock)) {
+          continue;
+        }
 
-      if (logsFilterCapsule.getBloom() != null
-          && !logFilterAndResult.getLogFilterWrapper().getLogFilter()
-          .matchBloom(logsFilterCapsule.getBloom())) {
-        continue;
-      }
+        if (logsFilterCapsule.getBloom() != null
+            && !logFilterAndResult.getLogFilterWrapper().getLogFilter()
+            .matchBloom(logsFilterCapsule.getBloom())) {
+          continue;
+        }
 
-      LogFilter logFilter = logFilterAndResult.getLogFilterWrapper().getLogFilter();
-      List<LogFilterElement> elements =
-          LogMatch.matchBlock(logFilter, logsFilterCapsule.getBlockNumber(),
-              logsFilterCapsule.getBlockHash(), logsFilterCapsule.getTxInfoList(),
-              logsFilterCapsule.isRemoved());
-      if (CollectionUtils.isNotEmpty(elements)) {
-        logFilterAndResult.getResult().addAll(elements);
+        LogFilter logFilter = logFilterAndResult.getLogFilterWrapper().getLogFilter();
+        List<LogFilterElement> elements =
+            LogMatch.matchBlock(logFilter, logsFilterCapsule.getBlockNumber(),
+                logsFilterCapsule.getBlockHash(), logsFilterCapsule.getTxInfoList(),
+                logsFilterCapsule.isRemoved());
+        if (CollectionUtils.isNotEmpty(elements)) {
+          logFilterAndResult.getResult().addAll(elements);
+        }
       }
+    } finally {
+      Metrics.histogramObserve(timer);
     }
   }
 
@@ -1227,17 +1252,17 @@ public class TronJsonRpcImpl implements TronJsonRpc, Closeable {
       JsonRpcMethodNotFoundException {
     disableInPBFT("eth_newFilter");
 
-    Map<String, LogFilterAndResult> eventFilter2Result;
+    LogFilterIndex eventFilterIndex;
     if (getSource() == RequestSource.FULLNODE) {
-      eventFilter2Result = eventFilter2ResultFull;
+      eventFilterIndex = eventFilterIndexFull;
     } else {
-      eventFilter2Result = eventFilter2ResultSolidity;
+      eventFilterIndex = eventFilterIndexSolidity;
     }
 
     long currentMaxFullNum = wallet.getNowBlock().getBlockHeader().getRawData().getNumber();
     LogFilterAndResult logFilterAndResult = new LogFilterAndResult(fr, currentMaxFullNum, wallet);
     String filterID = generateFilterId();
-    eventFilter2Result.put(filterID, logFilterAndResult);
+    eventFilterIndex.add(filterID, logFilterAndResult);
     return ByteArray.toJsonHex(filterID);
   }
 
@@ -1264,21 +1289,18 @@ public class TronJsonRpcImpl implements TronJsonRpc, Closeable {
     disableInPBFT("eth_uninstallFilter");
 
     Map<String, BlockFilterAndResult> blockFilter2Result;
-    Map<String, LogFilterAndResult> eventFilter2Result;
+    LogFilterIndex eventFilterIndex;
     if (getSource() == RequestSource.FULLNODE) {
       blockFilter2Result = blockFilter2ResultFull;
-      eventFilter2Result = eventFilter2ResultFull;
+      eventFilterIndex = eventFilterIndexFull;
     } else {
       blockFilter2Result = blockFilter2ResultSolidity;
-      eventFilter2Result = eventFilter2ResultSolidity;
+      eventFilterIndex = eventFilterIndexSolidity;
     }
 
     filterId = ByteArray.fromHex(filterId);
-    if (eventFilter2Result.containsKey(filterId)) {
-      eventFilter2Result.remove(filterId);
-    } else if (blockFilter2Result.containsKey(filterId)) {
-      blockFilter2Result.remove(filterId);
-    } else {
+    if (eventFilterIndex.remove(filterId) == null
+        && blockFilter2Result.remove(filterId) == null) {
       throw new ItemNotFoundException(FILTER_NOT_FOUND);
     }
 
@@ -1347,12 +1369,13 @@ public class TronJsonRpcImpl implements TronJsonRpc, Closeable {
       InterruptedException, BadItemException, ItemNotFoundException {
     //query possible block
     LogBlockQuery logBlockQuery = new LogBlockQuery(logFilterWrapper, manager.getChainBaseManager()
-        .getSectionBloomStore(), currentMaxBlockNum, sectionExecutor);
+        .getSectionBloomStore(), currentMaxBlockNum, manager.getChainBaseManager()
+        .getDynamicPropertiesStore().getLatestSolidifiedBlockNum(), sectionExecutor);
     List<Long> possibleBlockList = logBlockQuery.getPossibleBlock();
 
-    //match event from block one by one exactly
+    //match event from block one by one exactly, the blocks of a batch are loaded in parallel
     LogMatch logMatch =
-        new LogMatch(logFilterWrapper, possibleBlockList, manager);
+        new LogMatch(logFilterWrapper, possibleBlockList, manager, sectionExecutor);
     return logMatch.matchBlockOneByOne();
   }
 
@@ -2,14 +2,20 @@ package org.tron.core.services.jsonrpc.filters;
 
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.bloom.Bloom;
+import org.tron.common.cache.CacheManager;
+import org.tron.common.cache.CacheType;
+import org.tron.common.cache.TronCache;
 import org.tron.common.crypto.Hash;
+import org.tron.core.exception.EventBloomException;
 import org.tron.core.exception.JsonRpcTooManyResultException;
 import org.tron.core.store.SectionBloomStore;
 
@@ -21,6 +27,17 @@ import org.tron.core.store.SectionBloomStore;
 public class LogBlockQuery {
 
   public static final int MAX_RESULT = 10000;
+  private static final int SECTION_CACHE_SIZE = 20000;
+  private static final int SECTION_WINDOW = 64;
+  /**
+   * bitSets of the sections below the solidified block, they never change any more.
+   * key is section * 1_000_000 + bitIndex, an empty bitSet stands for a missing one.
+   * the cached bitSets are shared, never modify them
+   */
+  private static final TronCache<Long, BitSet> sectionBloomCache = CacheManager.allocate(
+      CacheType.sectionBloom, String.format("maximumSize=%d,recordStats", SECTION_CACHE_SIZE));
+  private static final BitSet EMPTY = new BitSet();
+
   private final LogFilterWrapper logFilterWrapper;
   private final SectionBloomStore sectionBloomStore;
   private final ExecutorService sectionExecutor;
@@ -30,10 +47,18 @@ public class LogBlockQuery {
   private final long minBlock;
   private long maxBlock;
   private final long currentMaxBlockNum;
+  // sections below it are complete and solidified, so they can be cached
+  private final long sealedSection;
 
   public LogBlockQuery(LogFilterWrapper logFilterWrapper, SectionBloomStore sectionBloomStore,
       long currentMaxBlockNum, ExecutorService executor) {
+    this(logFilterWrapper, sectionBloomStore, currentMaxBlockNum, -1, executor);
+  }
+
+  public LogBlockQuery(LogFilterWrapper logFilterWrapper, SectionBloomStore sectionBloomStore,
+      long currentMaxBlockNum, long solidBlockNum, ExecutorService executor) {
     this.logFilterWrapper = logFilterWrapper;
+    this.sealedSection = (solidBlockNum + 1) / SectionBloomStore.BLOCK_PER_SECTION;
     this.sectionBloomStore = sectionBloomStore;
     this.sectionExecutor = executor;
     this.currentMaxBlockNum = currentMaxBlockNum;
@@ -67,76 +92,92 @@ public class LogBlockQuery {
 
     int[][][] allConditionsIndex = getConditions();
 
-    int capacity = (maxSection - minSection + 1) * SectionBloomStore.BLOCK_PER_SECTION;
-    BitSet blockNumBitSet = new BitSet(capacity);
-    blockNumBitSet.set(0, capacity);
+    // a window of sections is fetched in parallel at a time, bounds the pending lookups
+    for (int from = minSection; from <= maxSection; from += SECTION_WINDOW) {
+      int to = Math.min(maxSection, from + SECTION_WINDOW - 1);
+      Map<Long, Future<BitSet>> sectionBlooms = querySectionBlooms(allConditionsIndex, from, to);
 
-    //works serial
-    for (int[][] conditionsIndex : allConditionsIndex) {
-      BitSet bitSet = subMatch(conditionsIndex);
-      blockNumBitSet.and(bitSet);
-    }
+      for (int section = from; section <= to; section++) {
+        BitSet blockNumBitSet = new BitSet(SectionBloomStore.BLOCK_PER_SECTION);
+        blockNumBitSet.set(0, SectionBloomStore.BLOCK_PER_SECTION);
+        for (int[][] conditionsIndex : allConditionsIndex) {
+          blockNumBitSet.and(partialMatch(conditionsIndex, section, sectionBlooms));
+        }
 
-    for (int i = blockNumBitSet.nextSetBit(0); i >= 0; i = blockNumBitSet.nextSetBit(i + 1)) {
-      // operate on index i here
-      if (i == Integer.MAX_VALUE) {
-        break; // or (i+1) would overflow
-      }
-      long blockNum = (long) minSection * SectionBloomStore.BLOCK_PER_SECTION + i;
-      if (minBlock <= blockNum && blockNum <= maxBlock) {
-        blockNumList.add(blockNum);
-      }
-    }
+        for (int i = blockNumBitSet.nextSetBit(0); i >= 0;
+            i = blockNumBitSet.nextSetBit(i + 1)) {
+          long blockNum = (long) section * SectionBloomStore.BLOCK_PER_SECTION + i;
+          if (minBlock <= blockNum && blockNum <= maxBlock) {
+            blockNumList.add(blockNum);
+          }
+        }
 
-    if (blockNumList.size() >= MAX_RESULT) {
-      throw new JsonRpcTooManyResultException(
-          "query returned more than " + MAX_RESULT + " results");
+        if (blockNumList.size() >= MAX_RESULT) {
+          cancel(sectionBlooms);
+          throw new JsonRpcTooManyResultException(
+              "query returned more than " + MAX_RESULT + " results");
+        }
+      }
     }
 
     return blockNumList;
   }
 
   /**
-   * address -> subMatch0,
-   * topic1 -> subMatch1, topic2 -> subMatch2, topic3 -> subMatch3, topic4 -> subMatch4
-   * works serial, return a BitSet with capacity of section num * blockPerSection
+   * submit every distinct (section, bitIndex) lookup of all the conditions in the window at
+   * once, so the sections are fetched in parallel instead of one section after another
    */
-  private BitSet subMatch(int[][] bitIndexes) throws ExecutionException, InterruptedException {
-
-    int capacity = (maxSection - minSection + 1) * SectionBloomStore.BLOCK_PER_SECTION;
-    BitSet subBitSet = new BitSet(capacity);
-
-    for (int section = minSection; section <= maxSection; section++) {
-      BitSet partialBitSet = partialMatch(bitIndexes, section);
-
-      for (int i = partialBitSet.nextSetBit(0); i >= 0; i = partialBitSet.nextSetBit(i + 1)) {
-        // operate on index i here
-        if (i == Integer.MAX_VALUE) {
-          break; // or (i+1) would overflow
+  private Map<Long, Future<BitSet>> querySectionBlooms(int[][][] allConditionsIndex,
+      int fromSection, int toSection) {
+    Map<Long, Future<BitSet>> sectionBlooms = new HashMap<>();
+    for (int section = fromSection; section <= toSection; section++) {
+      final int s = section;
+      for (int[][] conditionsIndex : allConditionsIndex) {
+        for (int[] index : conditionsIndex) {
+          for (final int bitIndex : index) {
+            sectionBlooms.computeIfAbsent(combineKey(section, bitIndex),
+                k -> sectionExecutor.submit(() -> getSectionBloom(s, bitIndex)));
+          }
         }
-        int offset = (section - minSection) * SectionBloomStore.BLOCK_PER_SECTION + i;
-        subBitSet.set(offset);
       }
     }
+    return sectionBlooms;
+  }
+
+  private static void cancel(Map<Long, Future<BitSet>> sectionBlooms) {
+    sectionBlooms.values().forEach(future -> future.cancel(false));
+  }
+
+  private BitSet getSectionBloom(int section, int bitIndex) throws EventBloomException {
+    if (section >= sealedSection) {
+      return sectionBloomStore.get(section, bitIndex);
+    }
+    long key = combineKey(section, bitIndex);
+    BitSet bitSet = sectionBloomCache.getIfPresent(key);
+    if (bitSet == null) {
+      bitSet = sectionBloomStore.get(section, bitIndex);
+      sectionBloomCache.put(key, bitSet == null ? EMPTY : bitSet);
+    }
+    return bitSet == null || bitSet.isEmpty() ? null : bitSet;
+  }
 
-    return subBitSet;
+  private static long combineKey(int section, int bitIndex) {
+    return section * 1_000_000L + bitIndex;
   }
 
   /**
-   * every section has a compound query of sectionBloomStore, works parallel
+   * every section has a compound query of sectionBloomStore, already submitted in parallel
    * "and" condition in second dimension of query, "or" condition in first dimension
    * return a BitSet whose capacity is blockPerSection
    */
-  private BitSet partialMatch(final int[][] bitIndexes, int section)
-      throws ExecutionException, InterruptedException {
+  private BitSet partialMatch(final int[][] bitIndexes, int section,
+      Map<Long, Future<BitSet>> sectionBlooms) throws ExecutionException, InterruptedException {
     List<List<Future<BitSet>>> bitSetList = new ArrayList<>();
 
     for (int[] index : bitIndexes) {
       List<Future<BitSet>> futureList = new ArrayList<>();
       for (final int bitIndex : index) { //must be 3
-        Future<BitSet> bitSetFuture =
-            sectionExecutor.submit(() -> sectionBloomStore.get(section, bitIndex));
-        futureList.add(bitSetFuture);
+        futureList.add(sectionBlooms.get(combineKey(section, bitIndex)));
       }
       bitSetList.add(futureList);
     }
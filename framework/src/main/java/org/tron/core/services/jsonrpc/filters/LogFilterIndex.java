@@ -0,0 +1,155 @@
+package org.tron.core.services.jsonrpc.filters;
+
+import com.google.protobuf.ByteString;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.tron.common.runtime.vm.DataWord;
+import org.tron.protos.Protocol.TransactionInfo;
+import org.tron.protos.Protocol.TransactionInfo.Log;
+
+/**
+ * inverted index over the installed log filters, so that a new block only visits the filters
+ * which could match one of its logs instead of all of them.
+ * a filter with contract addresses is indexed by each address, a filter without address but
+ * with a first topic is indexed by each topic0, the rest can match any log and are kept in a
+ * separate bucket.
+ */
+public class LogFilterIndex {
+
+  /**
+   * expired filters which are never a candidate are removed by a full sweep at this interval
+   */
+  private static final long SWEEP_INTERVAL_MS = 60 * 1000L;
+
+  private final Map<String, LogFilterAndResult> filters;
+
+  private final Map<ByteString, Set<String>> addressIndex = new ConcurrentHashMap<>();
+  private final Map<ByteString, Set<String>> topicIndex = new ConcurrentHashMap<>();
+  // filters without address and topic0
+  private final Set<String> anyLog = ConcurrentHashMap.newKeySet();
+
+  private volatile long lastSweepTime = System.currentTimeMillis();
+
+  public LogFilterIndex(Map<String, LogFilterAndResult> filters) {
+    this.filters = filters;
+  }
+
+  public void add(String filterId, LogFilterAndResult logFilterAndResult) {
+    filters.put(filterId, logFilterAndResult);
+    LogFilter logFilter = logFilterAndResult.getLogFilterWrapper().getLogFilter();
+    byte[][] addresses = logFilter.getContractAddresses();
+    byte[][] topic0 = firstTopics(logFilter);
+    if (addresses.length > 0) {
+      for (byte[] address : addresses) {
+        put(addressIndex, ByteString.copyFrom(address), filterId);
+      }
+    } else if (topic0.length > 0) {
+      for (byte[] topic : topic0) {
+        put(topicIndex, topicKey(topic), filterId);
+      }
+    } else {
+      anyLog.add(filterId);
+    }
+  }
+
+  public LogFilterAndResult remove(String filterId) {
+    LogFilterAndResult logFilterAndResult = filters.remove(filterId);
+    if (logFilterAndResult == null) {
+      return null;
+    }
+    LogFilter logFilter = logFilterAndResult.getLogFilterWrapper().getLogFilter();
+    for (byte[] address : logFilter.getContractAddresses()) {
+      delete(addressIndex, ByteString.copyFrom(address), filterId);
+    }
+    for (byte[] topic : firstTopics(logFilter)) {
+      delete(topicIndex, topicKey(topic), filterId);
+    }
+    anyLog.remove(filterId);
+    return logFilterAndResult;
+  }
+
+  /**
+   * collect the filters which may match at least one log of these transactions.
+   */
+  public Map<String, LogFilterAndResult> getCandidates(List<TransactionInfo> txInfoList) {
+    Set<String> ids = new HashSet<>(anyLog);
+    if (txInfoList != null && (!addressIndex.isEmpty() || !topicIndex.isEmpty())) {
+      for (TransactionInfo txInfo : txInfoList) {
+        for (Log log : txInfo.getLogList()) {
+          ids.addAll(addressIndex.getOrDefault(log.getAddress(), Collections.emptySet()));
+          if (log.getTopicsCount() > 0 && !topicIndex.isEmpty()) {
+            ids.addAll(topicIndex.getOrDefault(topicKey(log.getTopics(0)),
+                Collections.emptySet()));
+          }
+        }
+      }
+    }
+
+    Map<String, LogFilterAndResult> candidates = new HashMap<>();
+    for (String id : ids) {
+      LogFilterAndResult logFilterAndResult = filters.get(id);
+      if (logFilterAndResult != null) {
+        candidates.put(id, logFilterAndResult);
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * remove all expired filters, at most once per SWEEP_INTERVAL_MS.
+   */
+  public void removeExpired() {
+    long now = System.currentTimeMillis();
+    if (now - lastSweepTime < SWEEP_INTERVAL_MS) {
+      return;
+    }
+    lastSweepTime = now;
+    Iterator<Entry<String, LogFilterAndResult>> it = filters.entrySet().iterator();
+    while (it.hasNext()) {
+      Entry<String, LogFilterAndResult> entry = it.next();
+      if (entry.getValue().isExpire()) {
+        remove(entry.getKey());
+      }
+    }
+  }
+
+  private static byte[][] firstTopics(LogFilter logFilter) {
+    List<byte[][]> topics = logFilter.getTopics();
+    if (topics.isEmpty() || topics.get(0) == null) {
+      return new byte[0][];
+    }
+    return topics.get(0);
+  }
+
+  private static ByteString topicKey(byte[] topic) {
+    return ByteString.copyFrom(new DataWord(topic).getData());
+  }
+
+  private static ByteString topicKey(ByteString topic) {
+    // same as the comparison of LogFilter.matchesExactly, topics are 32 bytes in general
+    return topic.size() >= DataWord.WORD_SIZE ? topic : topicKey(topic.toByteArray());
+  }
+
+  private static void put(Map<ByteString, Set<String>> index, ByteString key, String filterId) {
+    index.compute(key, (k, ids) -> {
+      Set<String> set = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+      set.add(filterId);
+      return set;
+    });
+  }
+
+  private static void delete(Map<ByteString, Set<String>> index, ByteString key,
+      String filterId) {
+    index.computeIfPresent(key, (k, ids) -> {
+      ids.remove(filterId);
+      return ids.isEmpty() ? null : ids;
+    });
+  }
+}
@@ -3,6 +3,9 @@ package org.tron.core.services.jsonrpc.filters;
 import com.google.protobuf.ByteString;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.runtime.vm.DataWord;
 import org.tron.common.utils.ByteArray;
@@ -31,11 +34,23 @@ public class LogMatch {
    */
   private final List<Long> blockNumList;
   private final Manager manager;
+  /**
+   * loads the possible blocks in parallel, a batch at a time, null for one by one
+   */
+  private final ExecutorService executor;
+
+  private static final int BATCH_SIZE = 32;
 
   public LogMatch(LogFilterWrapper logFilterWrapper, List<Long> blockNumList, Manager manager) {
+    this(logFilterWrapper, blockNumList, manager, null);
+  }
+
+  public LogMatch(LogFilterWrapper logFilterWrapper, List<Long> blockNumList, Manager manager,
+      ExecutorService executor) {
     this.logFilterWrapper = logFilterWrapper;
     this.blockNumList = blockNumList;
     this.manager = manager;
+    this.executor = executor;
   }
 
   public static List<LogFilterElement> matchBlock(LogFilter logFilter, long blockNum,
@@ -79,35 +94,79 @@ public class LogMatch {
   }
 
   public LogFilterElement[] matchBlockOneByOne()
-      throws BadItemException, ItemNotFoundException, JsonRpcTooManyResultException {
+      throws BadItemException, ItemNotFoundException, JsonRpcTooManyResultException,
+      InterruptedException {
     List<LogFilterElement> logFilterElementList = new ArrayList<>();
 
-    for (long blockNum : blockNumList) {
-      TransactionRetCapsule transactionRetCapsule =
-          manager.getTransactionRetStore()
-              .getTransactionInfoByBlockNum(ByteArray.fromLong(blockNum));
-      if (transactionRetCapsule == null) {
-        //if query condition (address and topics) is empty, we will traversal every block,
-        //include empty block
-        continue;
-      }
-      TransactionRet transactionRet = transactionRetCapsule.getInstance();
-      List<TransactionInfo> transactionInfoList = transactionRet.getTransactioninfoList();
+    for (int from = 0; from < blockNumList.size(); from += BATCH_SIZE) {
+      List<Long> batch = blockNumList.subList(from,
+          Math.min(blockNumList.size(), from + BATCH_SIZE));
 
-      String blockHash = manager.getChainBaseManager().getBlockIdByNum(blockNum).toString();
-      List<LogFilterElement> matchedLog = matchBlock(logFilterWrapper.getLogFilter(), blockNum,
-          blockHash, transactionInfoList, false);
-      if (!matchedLog.isEmpty()) {
+      // keep the block order whichever block is loaded first
+      for (List<LogFilterElement> matchedLog : matchBatch(batch)) {
         logFilterElementList.addAll(matchedLog);
-      }
 
-      if (logFilterElementList.size() > LogBlockQuery.MAX_RESULT) {
-        throw new JsonRpcTooManyResultException(
-            "query returned more than " + LogBlockQuery.MAX_RESULT + " results");
+        if (logFilterElementList.size() > LogBlockQuery.MAX_RESULT) {
+          throw new JsonRpcTooManyResultException(
+              "query returned more than " + LogBlockQuery.MAX_RESULT + " results");
+        }
       }
     }
 
     return logFilterElementList.toArray(new LogFilterElement[0]);
   }
 
+  private List<List<LogFilterElement>> matchBatch(List<Long> batch)
+      throws BadItemException, ItemNotFoundException, InterruptedException {
+    List<List<LogFilterElement>> result = new ArrayList<>(batch.size());
+    if (executor == null) {
+      for (long blockNum : batch) {
+        result.add(matchBlock(blockNum));
+      }
+      return result;
+    }
+
+    List<Future<List<LogFilterElement>>> futures = new ArrayList<>(batch.size());
+    for (long blockNum : batch) {
+      futures.add(executor.submit(() -> matchBlock(blockNum)));
+    }
+    try {
+      for (Future<List<LogFilterElement>> future : futures) {
+        result.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(false));
+      Throwable cause = e.getCause();
+      if (cause instanceof BadItemException) {
+        throw (BadItemException) cause;
+      }
+      if (cause instanceof ItemNotFoundException) {
+        throw (ItemNotFoundException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+    return result;
+  }
+
+  private List<LogFilterElement> matchBlock(long blockNum)
+      throws BadItemException, ItemNotFoundException {
+    TransactionRetCapsule transactionRetCapsule =
+        manager.getTransactionRetStore()
+            .getTransactionInfoByBlockNum(ByteArray.fromLong(blockNum));
+    if (transactionRetCapsule == null) {
+      //if query condition (address and topics) is empty, we will traversal every block,
+      //include empty block
+      return new ArrayList<>();
+    }
+    TransactionRet transactionRet = transactionRetCapsule.getInstance();
+    List<TransactionInfo> transactionInfoList = transactionRet.getTransactioninfoList();
+
+    String blockHash = manager.getChainBaseManager().getBlockIdByNum(blockNum).toString();
+    return matchBlock(logFilterWrapper.getLogFilter(), blockNum, blockHash,
+        transactionInfoList, false);
+  }
+
 }
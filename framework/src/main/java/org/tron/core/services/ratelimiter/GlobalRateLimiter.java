@@ -3,33 +3,44 @@ package org.tron.core.services.ratelimiter;
 import com.google.common.base.Strings;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.util.concurrent.RateLimiter;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import org.tron.core.config.args.Args;
+import org.tron.core.services.ratelimiter.strategy.TokenBucket;
 
+/**
+ * the limits of all the requests and of the requests of every ip, ahead of the limit of each api.
+ * a request over them is rejected at once instead of waiting for the tokens.
+ */
 public class GlobalRateLimiter {
 
   private static double QPS = Args.getInstance().getRateLimiterGlobalQps();
 
   private static double IP_QPS = Args.getInstance().getRateLimiterGlobalIpQps();
 
-  private static Cache<String, RateLimiter> cache = CacheBuilder.newBuilder()
-      .maximumSize(10000).expireAfterWrite(1, TimeUnit.HOURS).build();
+  // created atomically by get, its segments are locked apart
+  private static Cache<String, TokenBucket> cache = CacheBuilder.newBuilder()
+      .maximumSize(10000).expireAfterAccess(1, TimeUnit.HOURS).build();
 
-  private static RateLimiter rateLimiter = RateLimiter.create(QPS);
+  private static TokenBucket rateLimiter = new TokenBucket(QPS, QPS);
 
-  public static void acquire(RuntimeData runtimeData) {
-    rateLimiter.acquire();
+  /**
+   * @return false if the ip or all the requests are over their limit
+   */
+  public static boolean acquire(RuntimeData runtimeData) {
     String ip = runtimeData.getRemoteAddr();
-    if (Strings.isNullOrEmpty(ip)) {
-      return;
+    if (!Strings.isNullOrEmpty(ip)) {
+      try {
+        // the requests of an ip over its limit do not take the tokens of the others
+        if (!cache.get(ip, () -> new TokenBucket(IP_QPS, IP_QPS)).tryAcquire(1)) {
+          return false;
+        }
+      } catch (ExecutionException e) {
+        // the bucket is created without an exception
+        throw new IllegalStateException(e);
+      }
     }
-    RateLimiter r = cache.getIfPresent(ip);
-    if (r == null) {
-      r = RateLimiter.create(IP_QPS);
-      cache.put(ip, r);
-    }
-    r.acquire();
+    return rateLimiter.tryAcquire(1);
   }
 
 }
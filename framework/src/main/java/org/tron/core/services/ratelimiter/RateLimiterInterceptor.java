@@ -17,7 +17,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.tron.common.parameter.RateLimiterInitialization.RpcRateLimiterItem;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.common.prometheus.Metrics;
 import org.tron.core.config.args.Args;
+import org.tron.core.db.RevokingDatabase;
+import org.tron.core.db2.core.ReadView;
 import org.tron.core.metrics.MetricsKey;
 import org.tron.core.metrics.MetricsUtil;
 import org.tron.core.services.ratelimiter.adapter.DefaultBaseQqsAdapter;
@@ -32,6 +37,8 @@ public class RateLimiterInterceptor implements ServerInterceptor {
   private static final String KEY_PREFIX_RPC = "rpc_";
   @Autowired
   private RateLimiterContainer container;
+  @Autowired
+  private RevokingDatabase revokingStore;
 
   public void init(Server server) {
     // add default
@@ -105,13 +112,15 @@ public class RateLimiterInterceptor implements ServerInterceptor {
         .get(KEY_PREFIX_RPC, call.getMethodDescriptor().getFullMethodName());
 
     RuntimeData runtimeData = new RuntimeData(call);
-    GlobalRateLimiter.acquire(runtimeData);
-
-    boolean acquireResource = true;
+    boolean acquireResource = GlobalRateLimiter.acquire(runtimeData);
 
-    if (rateLimiter != null) {
+    if (acquireResource && rateLimiter != null) {
       acquireResource = rateLimiter.acquire(runtimeData);
     }
+    Metrics.counterInc(MetricKeys.Counter.RATE_LIMITER, 1,
+        call.getMethodDescriptor().getFullMethodName(),
+        acquireResource ? MetricLabels.Counter.RATE_LIMITER_ACCEPT
+            : MetricLabels.Counter.RATE_LIMITER_REJECT);
 
     Listener<ReqT> listener = new ServerCall.Listener<ReqT>() {
     };
@@ -122,6 +131,18 @@ public class RateLimiterInterceptor implements ServerInterceptor {
         ServerCall.Listener<ReqT> delegate = next.startCall(call, headers);
 
         listener = new SimpleForwardingServerCallListener<ReqT>(delegate) {
+          @Override
+          public void onHalfClose() {
+            // a unary call is handled here, in the thread of the executor
+            if (!Args.getInstance().getStorage().isReadViewEnable()) {
+              super.onHalfClose();
+              return;
+            }
+            try (ReadView view = revokingStore.openReadView()) {
+              super.onHalfClose();
+            }
+          }
+
           @Override
           public void onComplete() {
             // must release the permit to avoid the leak of permit.
@@ -1,36 +1,59 @@
 package org.tron.core.services.ratelimiter.strategy;
 
+import com.google.common.base.Strings;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.util.concurrent.RateLimiter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * a token bucket of every ip, refilled at qps and holding one second of it. a request takes cost
+ * tokens, or it is rejected at once. the endpoints of the same group share the buckets, so their
+ * costs weigh the requests to the group.
+ */
+@Slf4j
 public class IPQpsStrategy extends Strategy {
 
   public static final String STRATEGY_PARAM_IPQPS = "qps";
+  public static final String STRATEGY_PARAM_COST = "cost";
+  public static final String STRATEGY_PARAM_GROUP = "group";
   public static final Double DEFAULT_IPQPS = 2D;
+  public static final Double DEFAULT_COST = 1D;
 
-  private Cache<String, RateLimiter> ipLimiter = CacheBuilder.newBuilder().maximumSize(10000)
-      .expireAfterWrite(600, TimeUnit.SECONDS).recordStats().build();
+  private static final Map<String, Group> groups = new ConcurrentHashMap<>();
+
+  private final Group group;
+  private final double cost;
 
   public IPQpsStrategy(String paramString) {
     super(paramString);
+    double qps = (Double) mapParams.get(STRATEGY_PARAM_IPQPS).value;
+    cost = (Double) mapParams.get(STRATEGY_PARAM_COST).value;
+    String name = (String) mapParams.get(STRATEGY_PARAM_GROUP).value;
+    if (name.isEmpty()) {
+      group = new Group(qps);
+    } else {
+      group = groups.computeIfAbsent(name, k -> new Group(qps));
+      if (group.qps != qps) {
+        logger.warn("The ip qps of group {} is {}, not {}.", name, group.qps, qps);
+      }
+    }
   }
 
+  /**
+   * @return false if the ip has not enough tokens, it never waits for them
+   */
   public boolean acquire(String ip) {
-    RateLimiter limiter = ipLimiter.getIfPresent(ip);
-    if (limiter == null) {
-      limiter = newRateLimiter();
-      ipLimiter.put(ip, limiter);
+    try {
+      return group.ipLimiter.get(Strings.nullToEmpty(ip), group::newBucket).tryAcquire(cost);
+    } catch (ExecutionException e) {
+      // newBucket does not throw
+      throw new IllegalStateException(e);
     }
-    limiter.acquire();
-    return true;
-  }
-
-  private RateLimiter newRateLimiter() {
-    return RateLimiter.create((Double) mapParams.get(STRATEGY_PARAM_IPQPS).value);
   }
 
   // define the default strategy params.
@@ -38,6 +61,24 @@ public class IPQpsStrategy extends Strategy {
   protected Map<String, ParamItem> defaultParam() {
     Map<String, ParamItem> map = new HashMap<>();
     map.put(STRATEGY_PARAM_IPQPS, new ParamItem(Double.class, DEFAULT_IPQPS));
+    map.put(STRATEGY_PARAM_COST, new ParamItem(Double.class, DEFAULT_COST));
+    map.put(STRATEGY_PARAM_GROUP, new ParamItem(String.class, ""));
     return map;
   }
-}
\ No newline at end of file
+
+  private static class Group {
+
+    private final double qps;
+    // created atomically by get, its segments are locked apart
+    private final Cache<String, TokenBucket> ipLimiter = CacheBuilder.newBuilder()
+        .maximumSize(10000).expireAfterAccess(600, TimeUnit.SECONDS).recordStats().build();
+
+    private Group(double qps) {
+      this.qps = qps;
+    }
+
+    private TokenBucket newBucket() {
+      return new TokenBucket(qps, qps);
+    }
+  }
+}
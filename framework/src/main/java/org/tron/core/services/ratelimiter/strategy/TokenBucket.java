@@ -0,0 +1,42 @@
+package org.tron.core.services.ratelimiter.strategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * a bucket of capacity tokens refilled at rate tokens per second. it is kept as the time the
+ * bucket is full again, so the tokens are taken by one compare-and-set, and a request which
+ * finds too few tokens is rejected instead of waiting for them.
+ */
+public class TokenBucket {
+
+  private final double nanosPerToken;
+  private final long capacityNanos;
+  private final AtomicLong fullAt = new AtomicLong(System.nanoTime());
+
+  public TokenBucket(double rate, double capacity) {
+    this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / rate;
+    this.capacityNanos = (long) (capacity * nanosPerToken);
+  }
+
+  /**
+   * a full bucket takes a request of any cost, the cost above the capacity is refilled before the
+   * next one.
+   *
+   * @return false if the bucket has fewer than cost tokens, none are taken then
+   */
+  public boolean tryAcquire(double cost) {
+    long need = (long) (cost * nanosPerToken);
+    while (true) {
+      long now = System.nanoTime();
+      long full = fullAt.get();
+      long next = Math.max(full, now) + need;
+      if (next - now > capacityNanos && full - now > 0) {
+        return false;
+      }
+      if (fullAt.compareAndSet(full, next)) {
+        return true;
+      }
+    }
+  }
+}
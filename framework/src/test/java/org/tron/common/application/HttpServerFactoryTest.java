@@ -0,0 +1,195 @@
+package org.tron.common.application;
+
+import io.prometheus.client.CollectorRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jetty.server.ConnectionLimit;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.parameter.CommonParameter;
+import org.tron.common.prometheus.MetricKeys;
+import org.tron.common.prometheus.MetricLabels;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+
+public class HttpServerFactoryTest {
+
+  private static final String BODY = new String(new char[4096]).replace('\0', 'a');
+
+  private Server server;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[] {}, Constant.TEST_CONF);
+    CommonParameter parameter = CommonParameter.getInstance();
+    parameter.setHttpMaxThreads(16);
+    parameter.setHttpMinThreads(4);
+    parameter.setHttpMaxQueued(8);
+    parameter.setHttpAcceptors(1);
+    parameter.setHttpSelectors(1);
+    parameter.setHttpIdleTimeout(5000);
+    parameter.setHttpGzipMinSize(1024);
+  }
+
+  @After
+  public void destroy() throws Exception {
+    if (server != null) {
+      server.stop();
+    }
+    Args.clearParam();
+  }
+
+  @Test
+  public void testCreate() throws Exception {
+    start();
+    QueuedThreadPool pool = (QueuedThreadPool) server.getThreadPool();
+    Assert.assertEquals(16, pool.getMaxThreads());
+    Assert.assertEquals(4, pool.getMinThreads());
+    ServerConnector connector = (ServerConnector) server.getConnectors()[0];
+    Assert.assertEquals(1, connector.getAcceptors());
+    Assert.assertEquals(1, connector.getSelectorManager().getSelectorCount());
+    Assert.assertEquals(5000, connector.getIdleTimeout());
+    Assert.assertNotNull(server.getBean(ConnectionLimit.class));
+
+    HttpURLConnection connection = open(connector);
+    connection.setRequestProperty("Accept-Encoding", "gzip");
+    Assert.assertEquals("gzip", connection.getContentEncoding());
+    try (InputStream in = new GZIPInputStream(connection.getInputStream())) {
+      Assert.assertEquals(BODY, IOUtils.toString(in, "UTF-8"));
+    }
+    // not gzipped for the clients not accepting it
+    connection = open(connector);
+    Assert.assertNull(connection.getContentEncoding());
+    try (InputStream in = connection.getInputStream()) {
+      Assert.assertEquals(BODY, IOUtils.toString(in, "UTF-8"));
+    }
+  }
+
+  @Test
+  public void testQueueOverflow() throws Exception {
+    start();
+    QueuedThreadPool pool = (QueuedThreadPool) server.getThreadPool();
+    CountDownLatch release = new CountDownLatch(1);
+    int executed = 0;
+    try {
+      // the threads are busy, then the queue is full
+      for (; executed <= 16 + 8; executed++) {
+        pool.execute(() -> {
+          try {
+            release.await(1, TimeUnit.MINUTES);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+      Assert.fail("the queue is bounded");
+    } catch (RejectedExecutionException e) {
+      // the starting threads may take a few jobs from the queue already
+      Assert.assertTrue(executed >= 8);
+      Assert.assertTrue(pool.getQueueSize() <= 8);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  public void testPoolMetricsAfterBurst() throws Exception {
+    CommonParameter.getInstance().setMetricsPrometheusEnable(true);
+    try {
+      start();
+      QueuedThreadPool pool = (QueuedThreadPool) server.getThreadPool();
+      CountDownLatch release = new CountDownLatch(1);
+      for (int i = 0; i < 8; i++) {
+        pool.execute(() -> {
+          try {
+            release.await(1, TimeUnit.MINUTES);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+      }
+      Assert.assertTrue(waitFor(() -> busy() >= 8));
+      release.countDown();
+      // no request after the burst, the gauge still falls back
+      Assert.assertTrue(waitFor(() -> busy() < 8));
+      Assert.assertEquals(16, CollectorRegistry.defaultRegistry.getSampleValue(
+          MetricKeys.Gauge.HTTP_POOL, new String[] {"service", "state"},
+          new String[] {"TestHttpService", MetricLabels.Gauge.HTTP_POOL_MAX}), 0);
+    } finally {
+      CommonParameter.getInstance().setMetricsPrometheusEnable(false);
+    }
+  }
+
+  @Test
+  public void testVirtualThreads() throws Exception {
+    ThreadFactory factory = HttpServerFactory.virtualThreadFactory("test");
+    String version = System.getProperty("java.specification.version");
+    if (version.startsWith("1.") || Integer.parseInt(version) < 21) {
+      Assert.assertNull(factory);
+    } else {
+      Thread thread = factory.newThread(() -> { });
+      Assert.assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+      Assert.assertEquals("test-0", thread.getName());
+    }
+
+    // the requests are served on the platform threads when virtual ones are not supported
+    CommonParameter.getInstance().setHttpVirtualThreads(true);
+    start();
+    Assert.assertEquals(BODY, IOUtils.toString(open((ServerConnector) server.getConnectors()[0])
+        .getInputStream(), "UTF-8"));
+  }
+
+  private void start() throws Exception {
+    ServletContextHandler context = new ServletContextHandler(ServletContextHandler.SESSIONS);
+    context.setContextPath("/");
+    context.addServlet(new ServletHolder(new HttpServlet() {
+      @Override
+      protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        resp.getWriter().print(BODY);
+      }
+    }), "/test");
+    server = HttpServerFactory.create("TestHttpService", 0, context);
+    server.start();
+  }
+
+  private static double busy() {
+    Double busy = CollectorRegistry.defaultRegistry.getSampleValue(MetricKeys.Gauge.HTTP_POOL,
+        new String[] {"service", "state"},
+        new String[] {"TestHttpService", MetricLabels.Gauge.HTTP_POOL_BUSY});
+    return busy == null ? 0 : busy;
+  }
+
+  private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+    for (int i = 0; i < 100; i++) {
+      if (condition.getAsBoolean()) {
+        return true;
+      }
+      Thread.sleep(100);
+    }
+    return false;
+  }
+
+  private static HttpURLConnection open(ServerConnector connector) throws IOException {
+    return (HttpURLConnection) new URL("http://localhost:" + connector.getLocalPort() + "/test")
+        .openConnection();
+  }
+}
@@ -19,6 +19,7 @@
 package org.tron.common.runtime.vm;
 
 import static org.apache.commons.lang3.ArrayUtils.isNotEmpty;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -27,7 +28,10 @@ import static org.junit.Assert.assertTrue;
 import static org.tron.common.runtime.vm.DataWord.isZero;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 import org.bouncycastle.util.encoders.Hex;
@@ -618,5 +622,230 @@ public class DataWordTest {
     assertEquals(-1, dataWord.compareTo(null));
   }
 
+  private static final BigInteger MIN_SIGNED = BigInteger.ONE.shiftLeft(255);
+
+  private static byte[] legacyResult(BigInteger result) {
+    return org.tron.common.utils.ByteUtil.copyToArray(result.and(DataWord.MAX_VALUE));
+  }
+
+  private static List<DataWord> sampleWords() {
+    List<DataWord> words = new ArrayList<>();
+    String[] edges = {"00", "01", "02", "03", "ff", "0100", "ffffffff", "0100000000",
+        "ffffffffffffffff", "010000000000000000", "0de0b6b3a7640000",
+        "ffffffffffffffffffffffffffffffff", "0100000000000000000000000000000000",
+        "7fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff",
+        "8000000000000000000000000000000000000000000000000000000000000000",
+        "8000000000000000000000000000000000000000000000000000000000000001",
+        "ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff",
+        "fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffe",
+        "00000000ffffffff00000000ffffffff00000000ffffffff00000000ffffffff"};
+    for (String edge : edges) {
+      words.add(new DataWord(edge));
+    }
+    Random random = new Random(20230801L);
+    for (int i = 0; i < 60; i++) {
+      byte[] bytes = new byte[1 + random.nextInt(32)];
+      random.nextBytes(bytes);
+      words.add(new DataWord(bytes));
+    }
+    return words;
+  }
+
+  @Test
+  public void testArithmeticMatchesBigInteger() {
+    List<DataWord> words = sampleWords();
+    for (DataWord a : words) {
+      for (DataWord b : words) {
+        String msg = a + " op " + b;
+        BigInteger x = a.value();
+        BigInteger y = b.value();
+        BigInteger sx = a.sValue();
+        BigInteger sy = b.sValue();
+
+        DataWord r = a.clone();
+        r.add(b);
+        assertArrayEquals(msg, legacyResult(x.add(y)), r.getData());
+
+        r = a.clone();
+        r.sub(b);
+        assertArrayEquals(msg, legacyResult(x.subtract(y)), r.getData());
+
+        r = a.clone();
+        r.mul(b);
+        assertArrayEquals(msg, legacyResult(x.multiply(y)), r.getData());
+
+        r = a.clone();
+        r.exp(b);
+        assertArrayEquals(msg, legacyResult(x.modPow(y, DataWord._2_256)), r.getData());
+
+        assertEquals(msg, x.compareTo(y), a.compareUnsigned(b));
+        assertEquals(msg, sx.compareTo(sy), a.sCompareTo(b));
+
+        if (b.isZero()) {
+          continue;
+        }
+
+        r = a.clone();
+        r.div(b);
+        assertArrayEquals(msg, legacyResult(x.divide(y)), r.getData());
+
+        r = a.clone();
+        r.mod(b);
+        assertArrayEquals(msg, legacyResult(x.mod(y)), r.getData());
+
+        r = a.clone();
+        r.sDiv(b);
+        assertArrayEquals(msg, legacyResult(sx.divide(sy)), r.getData());
+
+        r = a.clone();
+        r.sMod(b);
+        BigInteger sMod = sx.abs().mod(sy.abs());
+        assertArrayEquals(msg, legacyResult(sx.signum() == -1 ? sMod.negate() : sMod),
+            r.getData());
+
+        for (DataWord c : words.subList(0, 30)) {
+          if (c.isZero()) {
+            continue;
+          }
+          r = a.clone();
+          r.addmod(b, c);
+          assertArrayEquals(msg + " mod " + c, legacyResult(x.add(y).mod(c.value())),
+              r.getData());
+
+          r = a.clone();
+          r.mulmod(b, c);
+          assertArrayEquals(msg + " mod " + c, legacyResult(x.multiply(y).mod(c.value())),
+              r.getData());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testShiftMatchesBigInteger() {
+    List<DataWord> words = sampleWords();
+    int[] shifts = {0, 1, 7, 8, 31, 32, 63, 64, 65, 100, 127, 128, 129, 191, 192, 193, 254, 255,
+        256, 257, 1000};
+    for (DataWord a : words) {
+      for (int shift : shifts) {
+        DataWord arg = new DataWord(shift);
+        String msg = a + " shift " + shift;
+        byte[] left = shift >= 256 ? new byte[32] : legacyResult(a.value().shiftLeft(shift));
+        byte[] right = shift >= 256 ? new byte[32] : legacyResult(a.value().shiftRight(shift));
+        byte[] signed = legacyResult(a.sValue().shiftRight(Math.min(shift, 256)));
+        assertArrayEquals(msg, left, a.shiftLeft(arg).getData());
+        assertArrayEquals(msg, right, a.shiftRight(arg).getData());
+        assertArrayEquals(msg, signed, a.shiftRightSigned(arg).getData());
+      }
+      DataWord huge = new DataWord("0100000000000000000000000000000000");
+      assertTrue(a.shiftLeft(huge).isZero());
+      assertTrue(a.shiftRight(huge).isZero());
+    }
+  }
+
+  @Test
+  public void testSMinByMinusOne() {
+    DataWord min = new DataWord(legacyResult(MIN_SIGNED));
+    DataWord minusOne = new DataWord(legacyResult(DataWord.MAX_VALUE));
+    DataWord quotient = min.clone();
+    quotient.sDiv(minusOne);
+    assertEquals(min, quotient);
+    DataWord remainder = min.clone();
+    remainder.sMod(minusOne);
+    assertTrue(remainder.isZero());
+  }
+
+  @Test
+  public void testArithmeticPerformance() {
+    boolean enabled = false;
+
+    if (enabled) {
+      List<DataWord> words = sampleWords();
+      int iterations = 200;
+      String[] ops = {"ADD", "SUB", "MUL", "DIV", "SDIV", "MOD", "EXP", "ADDMOD", "MULMOD"};
+      for (String op : ops) {
+        long limbs = 0;
+        long bigInteger = 0;
+        for (int i = 0; i < iterations; i++) {
+          long start = System.nanoTime();
+          for (DataWord a : words) {
+            for (DataWord b : words) {
+              applyLimbs(op, a.clone(), b);
+            }
+          }
+          limbs += System.nanoTime() - start;
+
+          start = System.nanoTime();
+          for (DataWord a : words) {
+            for (DataWord b : words) {
+              applyBigInteger(op, a, b);
+            }
+          }
+          bigInteger += System.nanoTime() - start;
+        }
+        logger.info("{}: limbs {}ms, BigInteger {}ms", op, limbs / 1_000_000,
+            bigInteger / 1_000_000);
+      }
+    } else {
+      logger.info("Arithmetic performance test is disabled.");
+    }
+  }
+
+  private static void applyLimbs(String op, DataWord a, DataWord b) {
+    switch (op) {
+      case "ADD":
+        a.add(b);
+        break;
+      case "SUB":
+        a.sub(b);
+        break;
+      case "MUL":
+        a.mul(b);
+        break;
+      case "DIV":
+        a.div(b);
+        break;
+      case "SDIV":
+        a.sDiv(b);
+        break;
+      case "MOD":
+        a.mod(b);
+        break;
+      case "EXP":
+        a.exp(b);
+        break;
+      case "ADDMOD":
+        a.addmod(b, b);
+        break;
+      default:
+        a.mulmod(b, b);
+    }
+  }
+
+  private static byte[] applyBigInteger(String op, DataWord a, DataWord b) {
+    BigInteger x = a.value();
+    BigInteger y = b.value();
+    boolean zero = y.signum() == 0;
+    switch (op) {
+      case "ADD":
+        return legacyResult(x.add(y));
+      case "SUB":
+        return legacyResult(x.subtract(y));
+      case "MUL":
+        return legacyResult(x.multiply(y));
+      case "DIV":
+        return zero ? new byte[32] : legacyResult(x.divide(y));
+      case "SDIV":
+        return zero ? new byte[32] : legacyResult(a.sValue().divide(b.sValue()));
+      case "MOD":
+        return zero ? new byte[32] : legacyResult(x.mod(y));
+      case "EXP":
+        return legacyResult(x.modPow(y, DataWord._2_256));
+      case "ADDMOD":
+        return zero ? new byte[32] : legacyResult(x.add(y).mod(y));
+      default:
+        return zero ? new byte[32] : legacyResult(x.multiply(y).mod(y));
+    }
+  }
 
 }
@@ -562,5 +562,83 @@ public class MemoryTest {
     assertTrue(zero == 10);
   }
 
+  @Test
+  public void memoryRelease() {
+
+    Memory memoryBuffer = new Memory();
+    byte[] data = new byte[CHUNK_SIZE * 3];
+    Arrays.fill(data, (byte) 1);
+    memoryBuffer.write(0, data, data.length, false);
+    byte[] chunk = memoryBuffer.getChunks().get(0);
+
+    memoryBuffer.release();
+
+    assertTrue(memoryBuffer.size() == 0);
+    assertTrue(memoryBuffer.internalSize() == 0);
+    assertTrue(memoryBuffer.getChunks().isEmpty());
+
+    // chunks are recycled on the same thread and handed out zeroed
+    Memory reused = new Memory();
+    reused.extend(0, CHUNK_SIZE * 3);
+    assertTrue(reused.getChunks().contains(chunk));
+    assertArrayEquals(new byte[CHUNK_SIZE * 3], reused.read(0, CHUNK_SIZE * 3));
+
+    // released memory can still be extended again
+    memoryBuffer.write(CHUNK_SIZE * 5, data, 4, false);
+    assertTrue(memoryBuffer.getChunks().size() == 6);
+    assertTrue(memoryBuffer.readByte(CHUNK_SIZE * 5 + 3) == 1);
+    assertTrue(memoryBuffer.readByte(CHUNK_SIZE * 5 - 1) == 0);
+  }
+
+  @Test
+  public void testMemoryPerformance() {
+    boolean enabled = false;
+
+    if (enabled) {
+      int iterations = 20;
+      byte[] word = new byte[WORD_SIZE];
+      Arrays.fill(word, (byte) 0x5a);
+
+      for (int memorySize = 1024; memorySize <= 1024 * 1024; memorySize *= 4) {
+        byte[] callData = new byte[memorySize];
+        Arrays.fill(callData, (byte) 0x33);
+
+        long mstore = 0;
+        long mload = 0;
+        long callDataCopy = 0;
+        long ret = 0;
+        for (int i = 0; i < iterations; i++) {
+          Memory memory = new Memory();
+
+          long start = System.nanoTime();
+          for (int address = 0; address < memorySize; address += WORD_SIZE) {
+            memory.write(address, word, WORD_SIZE, false);
+          }
+          mstore += System.nanoTime() - start;
+
+          start = System.nanoTime();
+          for (int address = 0; address < memorySize; address += WORD_SIZE) {
+            memory.readWord(address);
+          }
+          mload += System.nanoTime() - start;
+
+          start = System.nanoTime();
+          memory.extendAndWrite(0, memorySize, callData);
+          callDataCopy += System.nanoTime() - start;
+
+          start = System.nanoTime();
+          memory.read(0, memorySize);
+          ret += System.nanoTime() - start;
+
+          memory.release();
+        }
+        logger.info("memory {} bytes, avg us: MSTORE {}, MLOAD {}, CALLDATACOPY {}, RETURN {}",
+            memorySize, mstore / iterations / 1000, mload / iterations / 1000,
+            callDataCopy / iterations / 1000, ret / iterations / 1000);
+      }
+    } else {
+      logger.info("Memory performance test is disabled.");
+    }
+  }
 
 }
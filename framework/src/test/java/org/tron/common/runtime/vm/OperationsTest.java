@@ -934,6 +934,27 @@ public class OperationsTest extends BaseTest {
     Assert.assertEquals(30000 + memoryExpandEnergy, EnergyCost.getVoteWitnessCost2(program));
   }
 
+  @Test
+  public void testGetTable() {
+    VMConfig.initAllowHigherLimitForMaxCpuTimeOfOneTx(0);
+    VMConfig.initAllowEnergyAdjustment(0);
+    JumpTable origin = OperationRegistry.getTable();
+    Assert.assertSame(origin, OperationRegistry.getTable());
+
+    VMConfig.initAllowHigherLimitForMaxCpuTimeOfOneTx(1);
+    VMConfig.initAllowEnergyAdjustment(1);
+    JumpTable adjusted = OperationRegistry.getTable();
+    Assert.assertNotSame(origin, adjusted);
+    Assert.assertNotSame(origin.get(Op.MSTORE), adjusted.get(Op.MSTORE));
+    Assert.assertNotSame(origin.get(Op.SUICIDE), adjusted.get(Op.SUICIDE));
+
+    // the adjustments never leak into the table of the other switches
+    VMConfig.initAllowHigherLimitForMaxCpuTimeOfOneTx(0);
+    VMConfig.initAllowEnergyAdjustment(0);
+    Assert.assertSame(origin, OperationRegistry.getTable());
+    Assert.assertNotSame(adjusted.get(Op.MSTORE), OperationRegistry.getTable().get(Op.MSTORE));
+  }
+
   private void testOperations(Program program) {
     try {
       while (!program.isStopped()) {
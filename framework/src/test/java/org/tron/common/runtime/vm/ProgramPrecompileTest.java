@@ -0,0 +1,113 @@
+package org.tron.common.runtime.vm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.common.parameter.CommonParameter;
+import org.tron.common.runtime.InternalTransaction;
+import org.tron.common.runtime.InternalTransaction.TrxType;
+import org.tron.core.config.args.Args;
+import org.tron.core.exception.ContractValidateException;
+import org.tron.core.vm.program.Program;
+import org.tron.core.vm.program.ProgramPrecompile;
+import org.tron.core.vm.program.invoke.ProgramInvokeMockImpl;
+import org.tron.protos.Protocol.Transaction;
+
+public class ProgramPrecompileTest {
+
+  @BeforeClass
+  public static void init() {
+    CommonParameter.getInstance().setDebug(true);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+  }
+
+  @Test
+  public void testJumpDest() {
+    // JUMPDEST, PUSH1 0x5b, JUMPDEST
+    ProgramPrecompile precompile = ProgramPrecompile.compile(Hex.decode("5b605b5b"));
+    assertTrue(precompile.hasJumpDest(0));
+    assertFalse(precompile.hasJumpDest(1));
+    assertFalse(precompile.hasJumpDest(2));
+    assertTrue(precompile.hasJumpDest(3));
+    assertFalse(precompile.hasJumpDest(4));
+    assertFalse(precompile.hasJumpDest(-1));
+    assertFalse(precompile.hasJumpDest(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testImmediate() {
+    // PUSH2 0x1234, PUSH1 0x01, PUSH1 0x01, PUSH2 0x12 (truncated)
+    ProgramPrecompile precompile = ProgramPrecompile.compile(Hex.decode("61123460016001" + "6112"));
+    assertEquals(new DataWord(0x1234), precompile.getImmediate(0));
+    assertEquals(new DataWord(1), precompile.getImmediate(3));
+    assertSame(precompile.getImmediate(3), precompile.getImmediate(5));
+    assertEquals(new DataWord(0x1200), precompile.getImmediate(7));
+    assertEquals(null, precompile.getImmediate(1));
+  }
+
+  @Test
+  public void testFootprint() throws ReflectiveOperationException {
+    // 24000 JUMPDESTs with PUSH1 0x01, PUSH2 0x1234, PUSH1 0x01 in the middle
+    byte[] ops = new byte[24000];
+    Arrays.fill(ops, (byte) 0x5b);
+    System.arraycopy(Hex.decode("6001611234" + "6001"), 0, ops, 12000, 7);
+    ProgramPrecompile precompile = ProgramPrecompile.compile(ops);
+
+    // one slot per PUSH, not per byte of the code
+    assertEquals(3, ((int[]) getField(precompile, "pushPcs")).length);
+    DataWord[] immediates = (DataWord[]) getField(precompile, "immediates");
+    assertEquals(3, immediates.length);
+    assertSame(immediates[0], immediates[2]);
+
+    assertEquals(new DataWord(1), precompile.getImmediate(12000));
+    assertEquals(new DataWord(0x1234), precompile.getImmediate(12002));
+    assertSame(immediates[0], precompile.getImmediate(12005));
+    assertEquals(null, precompile.getImmediate(0));
+    assertEquals(null, precompile.getImmediate(12003));
+    assertEquals(null, precompile.getImmediate(23999));
+    assertTrue(precompile.hasJumpDest(23999));
+    assertFalse(precompile.hasJumpDest(12001));
+  }
+
+  private static Object getField(Object target, String name) throws ReflectiveOperationException {
+    Field field = target.getClass().getDeclaredField(name);
+    field.setAccessible(true);
+    return field.get(target);
+  }
+
+  @Test
+  public void testSweepImmediate() throws ContractValidateException {
+    byte[] ops = Hex.decode("600160016112");
+    InternalTransaction interTrx = new InternalTransaction(Transaction.getDefaultInstance(),
+        TrxType.TRX_UNKNOWN_TYPE);
+    Program program = new Program(ops, ops, new ProgramInvokeMockImpl(ops, ops), interTrx);
+
+    // not analysed yet, copied out of the ops
+    DataWord first = program.sweepImmediate(1);
+    assertEquals(2, program.getPC());
+    assertEquals(new DataWord(1), first);
+
+    program.getProgramPrecompile();
+    DataWord second = program.sweepImmediate(1);
+    assertEquals(4, program.getPC());
+    assertEquals(new DataWord(1), second);
+    assertNotSame(program.getProgramPrecompile().getImmediate(2), second);
+    assertFalse(program.isStopped());
+
+    assertEquals(new DataWord(0x1200), program.sweepImmediate(2));
+    assertTrue(program.isStopped());
+  }
+}
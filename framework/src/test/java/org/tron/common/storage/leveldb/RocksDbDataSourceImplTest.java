@@ -1,5 +1,6 @@
 package org.tron.common.storage.leveldb;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -27,7 +28,11 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.ExpectedSystemExit;
 import org.junit.rules.TemporaryFolder;
+import org.rocksdb.Snapshot;
+import org.rocksdb.WriteOptions;
+import org.tron.common.setting.RocksDbSettings;
 import org.tron.common.storage.rocksdb.RocksDbDataSourceImpl;
+import org.tron.common.storage.rocksdb.SharedRocksDb;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.FileUtil;
 import org.tron.common.utils.PropUtil;
@@ -327,6 +332,13 @@ public class RocksDbDataSourceImplTest {
     seekKeyLimitNext.forEach(value -> {
       Assert.assertTrue(hashSet.contains(ByteArray.toStr(value)));
     });
+    // case: the later writes are not read through a snapshot
+    Snapshot snapshot = dataSource.getSnapshot();
+    dataSource.putData("00000007aa".getBytes(), "70000".getBytes());
+    seekKeyLimitNext = dataSource.getlatestValues(1, snapshot);
+    assertEquals(1, seekKeyLimitNext.size());
+    assertArrayEquals(value6, seekKeyLimitNext.iterator().next());
+    dataSource.releaseSnapshot(snapshot);
     // case: limit<=0
     seekKeyLimitNext = dataSource.getlatestValues(0);
     assertEquals(0, seekKeyLimitNext.size());
@@ -400,6 +412,84 @@ public class RocksDbDataSourceImplTest {
     dataSource.closeDB();
   }
 
+  @Test
+  public void testColumnFamily() throws IOException {
+    RocksDbSettings settings = RocksDbSettings.getDefaultSettings().withColumnFamily(true);
+    String parentPath = temporaryFolder.newFolder().toString();
+    RocksDbDataSourceImpl account = new RocksDbDataSourceImpl(parentPath, "account");
+    RocksDbDataSourceImpl block = new RocksDbDataSourceImpl(parentPath, "block");
+    account.initDB(settings);
+    block.initDB(settings);
+    Assert.assertSame(account.getDatabase(), block.getDatabase());
+    assertFalse(new File(parentPath, "account").exists());
+    // a checkpoint keeps its own rocksdb, it is recovered and pruned by its directory
+    RocksDbDataSourceImpl checkpoint = new RocksDbDataSourceImpl(parentPath, "checkpoint/1");
+    checkpoint.initDB(settings);
+    Assert.assertNotSame(account.getDatabase(), checkpoint.getDatabase());
+    Assert.assertTrue(new File(parentPath, "checkpoint/1").exists());
+    checkpoint.closeDB();
+
+    account.putData(key1, value1);
+    Map<byte[], byte[]> batch = new HashMap<>();
+    batch.put(key2, value2);
+    batch.put(key3, value3);
+    account.updateByBatch(batch);
+    block.putData(key1, value4);
+    assertArrayEquals(value1, account.getData(key1));
+    assertArrayEquals(value4, block.getData(key1));
+    assertEquals(3, account.allKeys().size());
+    assertEquals(1, block.allKeys().size());
+    // account has a hash index, the iterators still see its keys in order
+    assertEquals(Arrays.asList(ByteArray.toStr(key2), ByteArray.toStr(key3)),
+        account.getKeysNext(key2, 10).stream().map(ByteArray::toStr)
+            .collect(Collectors.toList()));
+
+    block.resetDb();
+    assertNull(block.getData(key1));
+    assertArrayEquals(value1, account.getData(key1));
+    block.putData(key5, value5);
+    account.closeDB();
+    block.closeDB();
+
+    account = new RocksDbDataSourceImpl(parentPath, "account");
+    block = new RocksDbDataSourceImpl(parentPath, "block");
+    account.initDB(settings);
+    block.initDB(settings);
+    assertArrayEquals(value3, account.getData(key3));
+    assertArrayEquals(value5, block.getData(key5));
+    assertEquals(1, block.allKeys().size());
+    account.closeDB();
+    block.closeDB();
+  }
+
+  @Test
+  public void testColumnFamilyBatch() throws Exception {
+    RocksDbSettings settings = RocksDbSettings.getDefaultSettings().withColumnFamily(true);
+    String parentPath = temporaryFolder.newFolder().toString();
+    RocksDbDataSourceImpl first = new RocksDbDataSourceImpl(parentPath, "test_batch_first");
+    RocksDbDataSourceImpl second = new RocksDbDataSourceImpl(parentPath, "test_batch_second");
+    first.initDB(settings);
+    second.initDB(settings);
+    second.putData(key2, value2);
+
+    try (SharedRocksDb.Batch batch = SharedRocksDb.get(parentPath).newBatch();
+         WriteOptions options = new WriteOptions()) {
+      batch.run(() -> {
+        first.updateByBatch(Collections.singletonMap(key1, value1));
+        second.deleteData(key2);
+      });
+      assertEquals(2, batch.count());
+      assertNull(first.getData(key1));
+      assertArrayEquals(value2, second.getData(key2));
+
+      batch.commit(options);
+    }
+    assertArrayEquals(value1, first.getData(key1));
+    assertNull(second.getData(key2));
+    first.closeDB();
+    second.closeDB();
+  }
+
   private void makeExceptionDb(String dbName) {
     RocksDbDataSourceImpl dataSource = new RocksDbDataSourceImpl(
         Args.getInstance().getOutputDirectory(), "test_initDb");
@@ -29,7 +29,11 @@ import static org.tron.protos.contract.Common.ResourceCode.ENERGY;
 
 import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Resource;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -1098,6 +1102,64 @@ public class WalletTest extends BaseTest {
         contract, trxCap, trxExtBuilder, retBuilder, estimateBuilder);
     GrpcAPI.EstimateEnergyMessage message = estimateBuilder.build();
     Assert.assertTrue(message.getEnergyRequired() > 0);
+
+    // a plain binary search lands in the same precision range
+    int parallelism = Args.getInstance().getEstimateEnergyParallelism();
+    Args.getInstance().setEstimateEnergyParallelism(1);
+    try {
+      estimateBuilder = GrpcAPI.EstimateEnergyMessage.newBuilder();
+      wallet.estimateEnergy(contract, trxCap, GrpcAPI.TransactionExtention.newBuilder(),
+          GrpcAPI.Return.newBuilder(), estimateBuilder);
+      long precision = (long) Math.ceil((double) TRX_PRECISION
+          / dbManager.getDynamicPropertiesStore().getEnergyFee());
+      Assert.assertTrue(Math.abs(message.getEnergyRequired()
+          - estimateBuilder.getEnergyRequired()) <= precision);
+    } finally {
+      Args.getInstance().setEstimateEnergyParallelism(parallelism);
+    }
+
+    // the pool is busy with the other requests, the probes are executed on the request thread
+    Method getExecutor = Wallet.class.getDeclaredMethod("getEstimateEnergyExecutor");
+    getExecutor.setAccessible(true);
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) getExecutor.invoke(wallet);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      for (int i = 0; i < executor.getMaximumPoolSize() * 2; i++) {
+        executor.submit(() -> {
+          release.await(1, TimeUnit.MINUTES);
+          return null;
+        });
+      }
+      estimateBuilder = GrpcAPI.EstimateEnergyMessage.newBuilder();
+      wallet.estimateEnergy(contract, trxCap, GrpcAPI.TransactionExtention.newBuilder(),
+          GrpcAPI.Return.newBuilder(), estimateBuilder);
+      Assert.assertEquals(message.getEnergyRequired(), estimateBuilder.getEnergyRequired());
+    } finally {
+      release.countDown();
+    }
+
+    // the max fee limit is close to the energy used, above the seeds of the search but more than
+    // the precision above it, the range is still searched
+    DynamicPropertiesStore dps = dbManager.getDynamicPropertiesStore();
+    long energyFee = dps.getEnergyFee();
+    long maxFeeLimit = dps.getMaxFeeLimit();
+    long energyUsed = trxExtBuilder.getEnergyUsed();
+    long fee = 100_000_000L / energyUsed;
+    long low = energyUsed * fee;
+    long high = low + TRX_PRECISION + low / 126;
+    dps.saveEnergyFee(fee);
+    dps.saveMaxFeeLimit(high);
+    try {
+      estimateBuilder = GrpcAPI.EstimateEnergyMessage.newBuilder();
+      wallet.estimateEnergy(contract, trxCap, GrpcAPI.TransactionExtention.newBuilder(),
+          GrpcAPI.Return.newBuilder(), estimateBuilder);
+      long required = estimateBuilder.getEnergyRequired();
+      Assert.assertTrue(required >= energyUsed);
+      Assert.assertTrue(required < (long) Math.ceil((double) high / fee));
+    } finally {
+      dps.saveEnergyFee(energyFee);
+      dps.saveMaxFeeLimit(maxFeeLimit);
+    }
   }
 
   @Test
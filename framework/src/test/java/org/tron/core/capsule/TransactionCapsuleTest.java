@@ -4,6 +4,7 @@ import static org.tron.protos.Protocol.Transaction.Result.contractResult.BAD_JUM
 import static org.tron.protos.Protocol.Transaction.Result.contractResult.PRECOMPILED_CONTRACT;
 import static org.tron.protos.Protocol.Transaction.Result.contractResult.SUCCESS;
 
+import com.google.common.cache.CacheStats;
 import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Assert;
@@ -11,16 +12,24 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.tron.common.BaseTest;
+import org.tron.common.cache.CacheManager;
+import org.tron.common.cache.CacheType;
+import org.tron.common.crypto.SignInterface;
+import org.tron.common.crypto.SignUtils;
+import org.tron.common.utils.Utils;
 import org.tron.common.utils.StringUtil;
 import org.tron.core.Constant;
 import org.tron.core.Wallet;
 import org.tron.core.config.args.Args;
+import org.tron.core.exception.ValidateSignatureException;
 import org.tron.protos.Protocol.AccountType;
+import org.tron.protos.Protocol.Permission;
 import org.tron.protos.Protocol.Transaction;
 import org.tron.protos.Protocol.Transaction.Contract.ContractType;
 import org.tron.protos.Protocol.Transaction.Result;
 import org.tron.protos.Protocol.Transaction.Result.contractResult;
 import org.tron.protos.Protocol.Transaction.raw;
+import org.tron.protos.contract.BalanceContract.TransferContract;
 
 @Slf4j
 public class TransactionCapsuleTest extends BaseTest {
@@ -1058,6 +1067,77 @@ public class TransactionCapsuleTest extends BaseTest {
     }
   }*/
 
+  @Test
+  public void testValidateSignatureWithPermission() throws ValidateSignatureException {
+    boolean isECKey = Args.getInstance().isECKeyCryptoEngine();
+    SignInterface signer = SignUtils.getGeneratedRandomSign(Utils.getRandom(), isECKey);
+    SignInterface other = SignUtils.getGeneratedRandomSign(Utils.getRandom(), isECKey);
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(signer.getAddress()))
+        .setToAddress(StringUtil.hexString2ByteString(OWNER_ADDRESS))
+        .setAmount(1).build();
+
+    TransactionCapsule trxCap = new TransactionCapsule(contract, ContractType.TransferContract);
+    try {
+      trxCap.getSignPermission(dbManager.getAccountStore(), dbManager.getDynamicPropertiesStore());
+      Assert.fail();
+    } catch (ValidateSignatureException e) {
+      Assert.assertEquals("miss sig or contract", e.getMessage());
+    }
+
+    trxCap.sign(signer.getPrivateKey());
+    Permission permission = trxCap.getSignPermission(dbManager.getAccountStore(),
+        dbManager.getDynamicPropertiesStore());
+    Assert.assertEquals(ByteString.copyFrom(signer.getAddress()),
+        permission.getKeys(0).getAddress());
+    Assert.assertTrue(trxCap.validateSignature(permission));
+
+    TransactionCapsule otherCap = new TransactionCapsule(contract,
+        ContractType.TransferContract);
+    otherCap.sign(other.getPrivateKey());
+    try {
+      otherCap.validateSignature(permission);
+      Assert.fail();
+    } catch (ValidateSignatureException e) {
+      Assert.assertTrue(e.getMessage().contains("is not contained of permission"));
+    }
+  }
+
+  @Test
+  public void testRecoveredAddressCache() throws ValidateSignatureException {
+    boolean isECKey = Args.getInstance().isECKeyCryptoEngine();
+    SignInterface signer = SignUtils.getGeneratedRandomSign(Utils.getRandom(), isECKey);
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(signer.getAddress()))
+        .setToAddress(StringUtil.hexString2ByteString(OWNER_ADDRESS))
+        .setAmount(2).build();
+    TransactionCapsule trxCap = new TransactionCapsule(contract, ContractType.TransferContract);
+    trxCap.sign(signer.getPrivateKey());
+    Permission permission = trxCap.getSignPermission(dbManager.getAccountStore(),
+        dbManager.getDynamicPropertiesStore());
+
+    CacheStats before = CacheManager.stats().get(CacheType.recoveredAddress.toString());
+    Assert.assertTrue(trxCap.validateSignature(permission));
+    // a new capsule of the same transaction, as received again in a block
+    TransactionCapsule received = new TransactionCapsule(trxCap.getInstance());
+    Assert.assertTrue(received.validateSignature(permission));
+    CacheStats after = CacheManager.stats().get(CacheType.recoveredAddress.toString());
+    Assert.assertEquals(1, after.minus(before).missCount());
+    Assert.assertEquals(1, after.minus(before).hitCount());
+
+    // another signature over the same hash is not served from the cache
+    SignInterface other = SignUtils.getGeneratedRandomSign(Utils.getRandom(), isECKey);
+    TransactionCapsule otherCap = new TransactionCapsule(contract,
+        ContractType.TransferContract);
+    otherCap.sign(other.getPrivateKey());
+    try {
+      otherCap.validateSignature(permission);
+      Assert.fail();
+    } catch (ValidateSignatureException e) {
+      Assert.assertTrue(e.getMessage().contains("is not contained of permission"));
+    }
+  }
+
   @Test
   public void trxCapsuleClearTest() {
     Transaction tx = Transaction.newBuilder()
@@ -73,6 +73,12 @@ public class ArgsTest {
     Assert.assertEquals(10001, parameter.getBackupPort());
 
     Assert.assertEquals("database", parameter.getStorage().getDbDirectory());
+    Assert.assertEquals(1024, parameter.getStorage().getFlushMemoryLimit());
+    Assert.assertEquals(3000, parameter.getStorage().getFlushLatency());
+    Assert.assertFalse(parameter.getStorage().isSegmentEnable());
+    Assert.assertEquals(4096, parameter.getStorage().getSegmentBlocks());
+    Assert.assertFalse(parameter.getStorage().isReadViewEnable());
+    Assert.assertEquals(60000, parameter.getStorage().getReadViewMaxAge());
 
     Assert.assertEquals(11, parameter.getSeedNode().getAddressList().size());
 
@@ -102,6 +108,19 @@ public class ArgsTest {
     Assert.assertEquals(54, parameter.getMaxUnsolidifiedBlocks());
     Assert.assertEquals(false, parameter.isUnsolidifiedBlockCheck());
     Assert.assertEquals(1000, parameter.getMaxCreateAccountTxSize());
+    Assert.assertFalse(parameter.isPrefetchBlockState());
+    Assert.assertFalse(parameter.isPipelineValidateSign());
+    Assert.assertEquals(100000, parameter.getSignatureCacheSize());
+
+    // http pool and connector configs checking
+    Assert.assertEquals(200, parameter.getHttpMaxThreads());
+    Assert.assertEquals(8, parameter.getHttpMinThreads());
+    Assert.assertEquals(1000, parameter.getHttpMaxQueued());
+    Assert.assertEquals(-1, parameter.getHttpAcceptors());
+    Assert.assertEquals(-1, parameter.getHttpSelectors());
+    Assert.assertEquals(30000L, parameter.getHttpIdleTimeout());
+    Assert.assertEquals(0, parameter.getHttpGzipMinSize());
+    Assert.assertFalse(parameter.isHttpVirtualThreads());
     //Assert.assertEquals(30, args.getSyncNodeCount());
 
     // gRPC network configs checking
@@ -0,0 +1,123 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.annotation.Resource;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.BaseTest;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.TransactionInfoCapsule;
+import org.tron.core.capsule.TransactionRetCapsule;
+import org.tron.core.config.args.Args;
+import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
+import org.tron.core.store.TransactionRetStore;
+import org.tron.protos.Protocol.Transaction;
+
+public class BlockSegmentStoreTest extends BaseTest {
+
+  private static final int SEGMENT_BLOCKS = 16;
+  private static final int BLOCKS = 40;
+  private static final int TRANSACTIONS = 3;
+
+  @Resource
+  private BlockSegmentStore blockSegmentStore;
+  @Resource
+  private BlockSegmentCompactor blockSegmentCompactor;
+  @Resource
+  private BlockStore blockStore;
+  @Resource
+  private BlockIndexStore blockIndexStore;
+  @Resource
+  private TransactionStore transactionStore;
+  @Resource
+  private TransactionRetStore transactionRetStore;
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath()}, Constant.TEST_CONF);
+    Args.getInstance().getStorage().setSegmentEnable(true);
+    Args.getInstance().getStorage().setSegmentBlocks(SEGMENT_BLOCKS);
+  }
+
+  private BlockCapsule putBlock(long number) {
+    BlockCapsule block = new BlockCapsule(number, Sha256Hash.ZERO_HASH,
+        number * 3000, ByteString.EMPTY);
+    TransactionRetCapsule ret = new TransactionRetCapsule();
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      TransactionCapsule transaction = new TransactionCapsule(Transaction.newBuilder()
+          .setRawData(Transaction.raw.newBuilder().setTimestamp(number * TRANSACTIONS + i))
+          .build());
+      block.addTransaction(transaction);
+      transaction.setBlockNum(number);
+      transactionStore.put(transaction.getTransactionId().getBytes(), transaction);
+
+      TransactionInfoCapsule info = new TransactionInfoCapsule();
+      info.setId(transaction.getTransactionId().getBytes());
+      info.setBlockNumber(number);
+      ret.addTransactionInfo(info.getInstance());
+    }
+    blockStore.put(block.getBlockId().getBytes(), block);
+    blockIndexStore.put(block.getBlockId());
+    transactionRetStore.put(ByteArray.fromLong(number), ret);
+    return block;
+  }
+
+  @Test
+  public void testCompact() throws IOException, ItemNotFoundException, BadItemException {
+    BlockCapsule[] blocks = new BlockCapsule[BLOCKS];
+    for (int i = 0; i < BLOCKS; i++) {
+      blocks[i] = putBlock(i);
+    }
+    chainBaseManager.getDynamicPropertiesStore().saveLatestSolidifiedBlockNum(BLOCKS - 1);
+
+    blockSegmentCompactor.compact();
+    // the blocks after the second segment are not enough for a third one
+    Assert.assertEquals(0, blockSegmentStore.getStart());
+    Assert.assertEquals(2 * SEGMENT_BLOCKS, blockSegmentStore.getEnd());
+
+    // the segments are read instead of the dbs
+    for (int i = 0; i < BLOCKS; i++) {
+      blockStore.delete(blocks[i].getBlockId().getBytes());
+      transactionRetStore.delete(ByteArray.fromLong(i));
+    }
+    for (int i = 0; i < 2 * SEGMENT_BLOCKS; i++) {
+      byte[] id = blocks[i].getBlockId().getBytes();
+      Assert.assertArrayEquals(blocks[i].getData(), blockStore.get(id).getData());
+      for (TransactionCapsule transaction : blocks[i].getTransactions()) {
+        byte[] transactionId = transaction.getTransactionId().getBytes();
+        TransactionCapsule found = transactionStore.get(transactionId);
+        Assert.assertArrayEquals(transaction.getData(), found.getData());
+        Assert.assertEquals(i, found.getBlockNum());
+        Assert.assertEquals(i, transactionRetStore.getTransactionInfo(transactionId)
+            .getBlockNumber());
+      }
+    }
+    Assert.assertNull(blockStore.getUnchecked(blocks[2 * SEGMENT_BLOCKS].getBlockId().getBytes()));
+    // an id of another block with the same number is not in the segments
+    Assert.assertNull(blockSegmentStore.getBlock(new BlockCapsule.BlockId(
+        Sha256Hash.of(true, new byte[] {1}), 1).getBytes()));
+
+    List<BlockCapsule> limit = blockStore.getLimitNumber(SEGMENT_BLOCKS - 2, 4);
+    Assert.assertEquals(4, limit.size());
+    for (int i = 0; i < limit.size(); i++) {
+      Assert.assertEquals(SEGMENT_BLOCKS - 2 + i, limit.get(i).getNum());
+    }
+
+    // the segments above the solidified block were rolled back
+    chainBaseManager.getDynamicPropertiesStore().saveLatestSolidifiedBlockNum(SEGMENT_BLOCKS + 1);
+    blockSegmentStore.init();
+    Assert.assertEquals(SEGMENT_BLOCKS, blockSegmentStore.getEnd());
+    try (Stream<Path> files = Files.list(blockSegmentStore.getDir())) {
+      Assert.assertEquals(2, files.count());
+    }
+  }
+}
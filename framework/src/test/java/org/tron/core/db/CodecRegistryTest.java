@@ -0,0 +1,69 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.ProtoCapsule;
+import org.tron.core.db.common.Codec;
+import org.tron.core.db.common.CodecRegistry;
+import org.tron.core.exception.BadItemException;
+import org.tron.protos.Protocol.AccountType;
+
+public class CodecRegistryTest {
+
+  @Test
+  public void testRegisteredCodec() throws BadItemException {
+    AccountCapsule account = new AccountCapsule(ByteString.copyFromUtf8("owner"),
+        ByteString.copyFromUtf8("address"), AccountType.Normal, 100);
+    Codec<AccountCapsule> codec = CodecRegistry.get(AccountCapsule.class);
+    Assert.assertSame(codec, CodecRegistry.get(AccountCapsule.class));
+    Assert.assertEquals(account.getInstance(), codec.decode(account.getData()).getInstance());
+  }
+
+  @Test
+  public void testReflectiveCodec() throws BadItemException {
+    Codec<ValueCapsule> codec = CodecRegistry.get(ValueCapsule.class);
+    Assert.assertSame(codec, CodecRegistry.get(ValueCapsule.class));
+    Assert.assertArrayEquals(new byte[] {1, 2}, codec.decode(new byte[] {1, 2}).getData());
+
+    try {
+      CodecRegistry.get(NoBytesCapsule.class).decode(new byte[] {1});
+      Assert.fail();
+    } catch (BadItemException e) {
+      Assert.assertTrue(e.getMessage().contains("NoBytesCapsule"));
+    }
+  }
+
+  public static class ValueCapsule implements ProtoCapsule<byte[]> {
+
+    private final byte[] value;
+
+    public ValueCapsule(byte[] value) {
+      this.value = value;
+    }
+
+    @Override
+    public byte[] getData() {
+      return value;
+    }
+
+    @Override
+    public byte[] getInstance() {
+      return value;
+    }
+  }
+
+  public static class NoBytesCapsule implements ProtoCapsule<byte[]> {
+
+    @Override
+    public byte[] getData() {
+      return new byte[0];
+    }
+
+    @Override
+    public byte[] getInstance() {
+      return new byte[0];
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.junit.rules.TemporaryFolder;
 import org.tron.common.application.TronApplicationContext;
 import org.tron.common.crypto.ECKey;
 import org.tron.common.runtime.RuntimeImpl;
+import org.tron.common.runtime.TvmTestUtils;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.JsonUtil;
 import org.tron.common.utils.LocalWitnesses;
@@ -92,6 +93,7 @@ import org.tron.protos.Protocol.Account;
 import org.tron.protos.Protocol.Block;
 import org.tron.protos.Protocol.Transaction;
 import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.Protocol.Transaction.Result.contractResult;
 import org.tron.protos.Protocol.Transaction.raw;
 import org.tron.protos.contract.AccountContract;
 import org.tron.protos.contract.AssetIssueContractOuterClass;
@@ -839,6 +841,124 @@ public class ManagerTest extends BlockGenerate {
     Assert.assertEquals(txs.size(), 2);
   }
 
+  @Test
+  public void pushBlockPipelineValidateSign() {
+    ECKey owner = ECKey.fromPrivate(ByteArray.fromHexString(PublicMethod.getRandomPrivateKey()));
+    ECKey other = ECKey.fromPrivate(ByteArray.fromHexString(PublicMethod.getRandomPrivateKey()));
+    TransferContract contract = TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(owner.getAddress()))
+        .setToAddress(ByteString.copyFrom(other.getAddress()))
+        .setAmount(1).build();
+    // signed well but can not be executed, the owner has no balance
+    TransactionCapsule unexecutable =
+        new TransactionCapsule(contract, ContractType.TransferContract);
+    unexecutable.sign(owner.getPrivKeyBytes());
+    TransactionCapsule badSign = new TransactionCapsule(contract.toBuilder().setAmount(2).build(),
+        ContractType.TransferContract);
+    badSign.sign(other.getPrivKeyBytes());
+
+    byte[] witnessKey = ByteArray.fromHexString(Args.getLocalWitnesses().getPrivateKey());
+    for (boolean pipeline : new boolean[] {false, true}) {
+      Args.getInstance().setPipelineValidateSign(pipeline);
+      BlockCapsule block = new BlockCapsule(1,
+          Sha256Hash.wrap(chainManager.getGenesisBlockId().getByteString()), 1,
+          ByteString.copyFrom(ECKey.fromPrivate(witnessKey).getAddress()));
+      block.addTransaction(new TransactionCapsule(unexecutable.getInstance()));
+      block.addTransaction(new TransactionCapsule(badSign.getInstance()));
+      block.setMerkleRoot();
+      block.sign(witnessKey);
+      // the bad signature of the later transaction fails the block in both modes
+      assertThrows(ValidateSignatureException.class, () -> dbManager.pushBlock(block));
+      Assert.assertEquals(0, chainManager.getHeadBlockNum());
+    }
+  }
+
+  // contract Vote {
+  //   uint256 vote;
+  //   function getVote() public constant returns (uint256 _vote) { _vote = vote; }
+  //   function setVote(uint256 _vote) public { vote = _vote; while(true) { vote += 1; } }
+  // }
+  @Test
+  public void pushBlockPrefetchState() throws Exception {
+    ECKey owner = ECKey.fromPrivate(ByteArray.fromHexString(PublicMethod.getRandomPrivateKey()));
+    byte[] ownerAddress = owner.getAddress();
+    chainManager.getAccountStore().put(ownerAddress, new AccountCapsule(Account.newBuilder()
+        .setAddress(ByteString.copyFrom(ownerAddress)).setBalance(10_000_000_000L).build()));
+    String abi = "[{\"constant\":true,\"inputs\":[],\"name\":\"getVote\",\"outputs\":[{"
+        + "\"name\":\"_vote\",\"type\":\"uint256\"}],\"payable\":false,\"stateMutability\""
+        + ":\"view\",\"type\":\"function\"},{\"constant\":false,\"inputs\":[{\"name\":"
+        + "\"_vote\",\"type\":\"uint256\"}],\"name\":\"setVote\",\"outputs\":[],\"payable\""
+        + ":false,\"stateMutability\":\"nonpayable\",\"type\":\"function\"},{\"inputs\":[],"
+        + "\"payable\":false,\"stateMutability\":\"nonpayable\",\"type\":\"constructor\"}]";
+    String code = "608060405234801561001057600080fd5b506000808190555060fa806100266000396000f3006080"
+        + "604052600436106049576000357c010000000000000000000000000000000000000000000000000000000090"
+        + "0463ffffffff1680630242f35114604e578063230796ae146076575b600080fd5b348015605957600080fd5b"
+        + "50606060a0565b6040518082815260200191505060405180910390f35b348015608157600080fd5b50609e60"
+        + "04803603810190808035906020019092919050505060a9565b005b60008054905090565b806000819055505b"
+        + "60011560cb576001600080828254019250508190555060b1565b505600a165627a7a72305820290a38c9bbaf"
+        + "ccaf6c7f752ab56d229e354da767efb72715ee9fdb653b9f4b6c0029";
+    byte[] contractAddress = TvmTestUtils.deployContractAndReturnTvmTestResult("Vote",
+        ownerAddress, abi, code, 0, 1_000_000_000L, 0, null, dbManager, null)
+        .getContractAddress();
+
+    List<byte[]> addresses = new ArrayList<>();
+    addresses.add(ownerAddress);
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = 1; i <= 3; i++) {
+      byte[] to = ECKey.fromPrivate(ByteArray.fromHexString(PublicMethod.getRandomPrivateKey()))
+          .getAddress();
+      addresses.add(to);
+      transactions.add(new TransactionCapsule(TransferContract.newBuilder()
+          .setOwnerAddress(ByteString.copyFrom(ownerAddress))
+          .setToAddress(ByteString.copyFrom(to))
+          .setAmount(1_000_000L * i).build(), ContractType.TransferContract).getInstance());
+    }
+    transactions.add(TvmTestUtils.generateTriggerSmartContractAndGetTransaction(ownerAddress,
+        contractAddress, TvmTestUtils.parseAbi("getVote()", ""), 0, 1_000_000_000L));
+
+    byte[] witnessKey = ByteArray.fromHexString(Args.getLocalWitnesses().getPrivateKey());
+    BlockCapsule head = chainManager.getHead();
+    BlockCapsule block = new BlockCapsule(head.getNum() + 1, head.getBlockId(),
+        head.getTimeStamp() + 3000, ByteString.copyFrom(ECKey.fromPrivate(witnessKey)
+        .getAddress()));
+    for (Transaction transaction : transactions) {
+      TransactionCapsule trx = new TransactionCapsule(transaction);
+      trx.setReference(head.getNum(), head.getBlockId().getBytes());
+      trx.setExpiration(head.getTimeStamp() + 60_000);
+      trx.sign(owner.getPrivKeyBytes());
+      trx.setResultCode(contractResult.SUCCESS);
+      block.addTransaction(trx);
+    }
+    block.setMerkleRoot();
+    block.sign(witnessKey);
+
+    List<Object> expected = null;
+    for (boolean prefetch : new boolean[] {false, true}) {
+      for (boolean pipeline : new boolean[] {false, true}) {
+        Args.getInstance().setPrefetchBlockState(prefetch);
+        Args.getInstance().setPipelineValidateSign(pipeline);
+        BlockCapsule pushed = new BlockCapsule(block.getInstance());
+        dbManager.pushBlock(pushed);
+        Assert.assertEquals(block.getBlockId(), chainManager.getHeadBlockId());
+
+        List<Object> state = new ArrayList<>();
+        state.add(pushed.getResult().getInstance());
+        addresses.forEach(address -> state.add(
+            chainManager.getAccountStore().get(address).getInstance()));
+        state.add(chainManager.getContractStore().get(contractAddress).getInstance());
+        if (expected == null) {
+          expected = state;
+          Assert.assertEquals(transactions.size(), pushed.getResult().getInstance()
+              .getTransactioninfoCount());
+        } else {
+          // the prefetch and the pipelined sign check do not change the block
+          Assert.assertEquals(expected, state);
+        }
+        dbManager.eraseBlock();
+      }
+    }
+  }
+
   @Test
   public void doNotSwitch()
       throws ValidateSignatureException, ContractValidateException, ContractExeException,
@@ -0,0 +1,135 @@
+package org.tron.core.db2;
+
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.application.Application;
+import org.tron.common.application.ApplicationFactory;
+import org.tron.common.application.TronApplicationContext;
+import org.tron.common.config.DbBackupConfig;
+import org.tron.common.setting.RocksDbSettings;
+import org.tron.common.storage.rocksdb.SharedRocksDb;
+import org.tron.common.utils.FileUtil;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db2.RevokingDbWithCacheNewValueTest.TestRevokingTronStore;
+import org.tron.core.db2.SnapshotRootTest.ProtoCapsuleTest;
+import org.tron.core.db2.core.Chainbase;
+import org.tron.core.db2.core.SnapshotManager;
+
+/**
+ * the flush of the stores in the column families of one rocksdb, written at once without a
+ * checkpoint, and the checkpoint of the flush when a store keeps its own rocksdb.
+ */
+@Slf4j
+public class AtomicFlushTest {
+
+  private static final String OUTPUT = "output_AtomicFlush_test";
+
+  private SnapshotManager revokingDatabase;
+  private TronApplicationContext context;
+  private Application appT;
+  private TestRevokingTronStore tronDatabase;
+  private TestRevokingTronStore standalone;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{"-d", OUTPUT}, Constant.TEST_CONF);
+    Args.getInstance().getStorage().setDbEngine(Constant.ROCKSDB);
+    Args.getInstance().rocksDBCustomSettings = RocksDbSettings.initCustomSettings(
+        7, 8, 16, 256, 10, 2, 64, 1).withColumnFamily(true);
+    Args.getInstance().dbBackupConfig = DbBackupConfig.getInstance()
+        .initArgs(false, "prop.properties", "bak1/database/", "bak2/database/", 10000);
+    context = new TronApplicationContext(DefaultConfig.class);
+    appT = ApplicationFactory.create(context);
+    revokingDatabase = context.getBean(SnapshotManager.class);
+    revokingDatabase.enable();
+    tronDatabase = new TestRevokingTronStore("testAtomicFlush-test");
+    revokingDatabase.add(tronDatabase.getRevokingDB());
+  }
+
+  @After
+  public void removeDb() {
+    context.destroy();
+    tronDatabase.close();
+    if (standalone != null) {
+      standalone.close();
+    }
+    revokingDatabase.getCheckTmpStore().close();
+    Args.getInstance().getRocksDBCustomSettings().withColumnFamily(false);
+    Args.clearParam();
+    FileUtil.deleteDir(new File(OUTPUT));
+  }
+
+  @Test
+  public void testAtomicFlush() {
+    Assert.assertNotNull(SharedRocksDb.getSingle());
+    flush();
+
+    Chainbase block = getDb("block");
+    Assert.assertNotNull(block.getHead().getRoot().get(Longs.toByteArray(1)));
+    Assert.assertNotNull(block.getUnchecked(Longs.toByteArray(10)));
+    Assert.assertEquals(new ProtoCapsuleTest("flush10".getBytes()),
+        tronDatabase.get("flush".getBytes()));
+    // the stores are written at once, there is no checkpoint to recover
+    Assert.assertTrue(revokingDatabase.getCheckTmpStore().getDbSource().allKeys().isEmpty());
+  }
+
+  @Test
+  public void testCheckpointWithStandaloneDb() {
+    // a store opened with its own rocksdb, which the batch of the shared one can not write to
+    Args.getInstance().getRocksDBCustomSettings().withColumnFamily(false);
+    standalone = new TestRevokingTronStore("testAtomicFlush-standalone");
+    Args.getInstance().getRocksDBCustomSettings().withColumnFamily(true);
+    revokingDatabase.add(standalone.getRevokingDB());
+    Assert.assertNotNull(SharedRocksDb.getSingle());
+    flush();
+
+    Assert.assertNotNull(getDb("block").getHead().getRoot().get(Longs.toByteArray(1)));
+    Assert.assertEquals(new ProtoCapsuleTest("flush10".getBytes()),
+        standalone.get("flush".getBytes()));
+    Assert.assertFalse(revokingDatabase.getCheckTmpStore().getDbSource().allKeys().isEmpty());
+  }
+
+  private void flush() {
+    while (revokingDatabase.size() != 0) {
+      revokingDatabase.pop();
+    }
+    revokingDatabase.setMaxFlushCount(0);
+    revokingDatabase.setUnChecked(false);
+    revokingDatabase.setMaxSize(5);
+    Chainbase block = getDb("block");
+    for (int i = 1; i <= 10; i++) {
+      ProtoCapsuleTest capsule = new ProtoCapsuleTest(("flush" + i).getBytes());
+      try (ISession tmpSession = revokingDatabase.buildSession()) {
+        tronDatabase.put("flush".getBytes(), capsule);
+        if (standalone != null) {
+          standalone.put("flush".getBytes(), capsule);
+        }
+        BlockCapsule blockCapsule = new BlockCapsule(i, Sha256Hash.ZERO_HASH,
+            System.currentTimeMillis(), ByteString.EMPTY);
+        block.put(Longs.toByteArray(i), blockCapsule.getData());
+        // the oldest sessions are flushed when there are more than the max size
+        tmpSession.commit();
+      }
+    }
+  }
+
+  private Chainbase getDb(String name) {
+    Map<String, Chainbase> dbMap = revokingDatabase.getDbs().stream()
+        .map(db -> Maps.immutableEntry(db.getDbName(), db))
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    return dbMap.get(name);
+  }
+}
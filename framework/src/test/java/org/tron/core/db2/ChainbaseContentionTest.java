@@ -0,0 +1,154 @@
+package org.tron.core.db2;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Longs;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rocksdb.RocksDB;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+import org.tron.core.db2.common.LevelDB;
+import org.tron.core.db2.core.Chainbase;
+import org.tron.core.db2.core.Snapshot;
+import org.tron.core.db2.core.SnapshotRoot;
+
+/**
+ * api reader threads against the thread applying the blocks on one chainbase, the cost of a block
+ * with the readers is logged beside the cost without them.
+ */
+@Slf4j
+public class ChainbaseContentionTest {
+
+  private static final int READERS = 4;
+  private static final int BLOCKS = 300;
+  private static final int KEYS_PER_BLOCK = 200;
+  // the layers above the root, the oldest one is flushed above it
+  private static final int MAX_LAYERS = 16;
+  private static final byte[] PREFIX = "account".getBytes();
+  // getNext compares the keys of the same length only
+  private static final byte[] COUNTER = Bytes.concat("counter".getBytes(), Longs.toByteArray(0));
+
+  @ClassRule
+  public static final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private LevelDbDataSourceImpl dataSource;
+  private Chainbase chainbase;
+  private int layers;
+
+  @Before
+  public void init() throws IOException {
+    RocksDB.loadLibrary();
+    Args.setParam(new String[] {"--output-directory",
+        temporaryFolder.newFolder().toString()}, Constant.TEST_CONF);
+    dataSource = new LevelDbDataSourceImpl(Args.getInstance().getOutputDirectory(),
+        "testContention");
+    dataSource.initDB();
+    chainbase = new Chainbase(new SnapshotRoot(new LevelDB(dataSource)));
+  }
+
+  @After
+  public void destroy() {
+    chainbase.close();
+    Args.clearParam();
+  }
+
+  @Test
+  public void testReadersAgainstWriter() throws Exception {
+    long alone = applyBlocks(0);
+
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicLong reads = new AtomicLong();
+    ExecutorService readers = Executors.newFixedThreadPool(READERS);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < READERS; i++) {
+      futures.add(readers.submit(() -> read(running, reads)));
+    }
+    long contended;
+    try {
+      contended = applyBlocks(BLOCKS);
+    } finally {
+      running.set(false);
+      readers.shutdown();
+    }
+    for (Future<?> future : futures) {
+      // rethrow the failures of the readers
+      future.get(1, TimeUnit.MINUTES);
+    }
+
+    logger.info("Apply {} blocks of {} keys, {} us/block alone, {} us/block with {} readers, "
+            + "{} reads.", BLOCKS, KEYS_PER_BLOCK, alone / BLOCKS / 1000,
+        contended / BLOCKS / 1000, READERS, reads.get());
+    Assert.assertTrue(reads.get() > 0);
+    Assert.assertEquals(2 * BLOCKS, Longs.fromByteArray(chainbase.getUnchecked(COUNTER)));
+  }
+
+  /**
+   * @return the nanoseconds to apply the blocks from start
+   */
+  private long applyBlocks(long start) {
+    long begin = System.nanoTime();
+    for (long num = start + 1; num <= start + BLOCKS; num++) {
+      chainbase.setHead(chainbase.getHead().advance());
+      layers++;
+      for (int i = 0; i < KEYS_PER_BLOCK; i++) {
+        chainbase.put(Bytes.concat(PREFIX, Longs.toByteArray(i)), Longs.toByteArray(num));
+      }
+      chainbase.put(COUNTER, Longs.toByteArray(num));
+      if (layers > MAX_LAYERS) {
+        flushOne();
+      }
+    }
+    return System.nanoTime() - begin;
+  }
+
+  /**
+   * merge the oldest layer into the root before unlinking it, as the snapshot manager does.
+   */
+  private void flushOne() {
+    SnapshotRoot root = (SnapshotRoot) chainbase.getHead().getRoot();
+    Snapshot oldest = root.getNext();
+    root.merge(oldest);
+    root.setNext(oldest.getNext());
+    oldest.getNext().setPrevious(root);
+    layers--;
+  }
+
+  private void read(AtomicBoolean running, AtomicLong reads) {
+    long last = 0;
+    while (running.get()) {
+      byte[] counter = chainbase.getUnchecked(COUNTER);
+      if (counter != null) {
+        long num = Longs.fromByteArray(counter);
+        Assert.assertTrue("counter goes back from " + last + " to " + num, num >= last);
+        last = num;
+      }
+      Map<byte[], byte[]> next = chainbase.getNext(Bytes.concat(PREFIX, Longs.toByteArray(0)),
+          10);
+      Assert.assertTrue(next.size() <= 10);
+      chainbase.prefixQuery(PREFIX);
+      // the iterator of the root is closed when it is consumed
+      Iterator<Map.Entry<byte[], byte[]>> iterator = chainbase.iterator();
+      while (iterator.hasNext()) {
+        Assert.assertNotNull(iterator.next().getValue());
+      }
+      reads.addAndGet(4);
+    }
+  }
+}
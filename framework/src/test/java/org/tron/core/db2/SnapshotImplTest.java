@@ -5,6 +5,7 @@ import static org.junit.Assert.assertNull;
 
 import java.io.File;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -16,6 +17,7 @@ import org.tron.common.utils.FileUtil;
 import org.tron.core.Constant;
 import org.tron.core.config.DefaultConfig;
 import org.tron.core.config.args.Args;
+import org.tron.core.db2.common.KeyFilter;
 import org.tron.core.db2.core.Snapshot;
 import org.tron.core.db2.core.SnapshotImpl;
 import org.tron.core.db2.core.SnapshotManager;
@@ -182,6 +184,78 @@ public class SnapshotImplTest {
     assertEquals(new String("value4".getBytes()), new String(s4));
   }
 
+  /**
+   * linklist is: from64 -> ... -> from1 -> root
+   * each layer i puts layer-i, the layers skip the keys not written to them by their filter.
+   */
+  @Test
+  public void testDeepStack() {
+    SnapshotRoot root = new SnapshotRoot(tronDatabase.getDb());
+    root.put("root".getBytes(), "root".getBytes());
+    Snapshot head = root;
+    for (int i = 1; i <= 64; i++) {
+      head = getSnapshotImplIns(head);
+      head.put(("layer-" + i).getBytes(), ("value-" + i).getBytes());
+    }
+    head.remove("layer-1".getBytes());
+    head.put("layer-2".getBytes(), "value-top".getBytes());
+
+    assertNull(head.get("layer-1".getBytes()));
+    assertEquals("value-top", new String(head.get("layer-2".getBytes())));
+    for (int i = 3; i <= 64; i++) {
+      assertEquals("value-" + i, new String(head.get(("layer-" + i).getBytes())));
+    }
+    assertEquals("root", new String(head.get("root".getBytes())));
+    assertNull(head.get("absent".getBytes()));
+
+    // a layer whose filter has grown still finds all its keys
+    SnapshotImpl big = getSnapshotImplIns(head);
+    for (int i = 0; i < 10000; i++) {
+      big.put(("big-" + i).getBytes(), ("value-" + i).getBytes());
+    }
+    SnapshotImpl top = getSnapshotImplIns(big);
+    for (int i = 0; i < 10000; i++) {
+      assertEquals("value-" + i, new String(top.get(("big-" + i).getBytes())));
+    }
+    assertEquals("value-64", new String(top.get("layer-64".getBytes())));
+  }
+
+  /**
+   * a layer one key below the capacity of its filter, the keys written again neither fill the
+   * filter nor rebuild it.
+   */
+  @Test
+  public void testOverwriteKeepsFilter() throws Exception {
+    SnapshotRoot root = new SnapshotRoot(tronDatabase.getDb());
+    SnapshotImpl layer = getSnapshotImplIns(root);
+    int capacity = KeyFilter.MIN_BITS / 8;
+    for (int i = 0; i < capacity - 1; i++) {
+      layer.put(("key-" + i).getBytes(), "value".getBytes());
+    }
+    Field field = SnapshotImpl.class.getDeclaredField("filter");
+    field.setAccessible(true);
+    KeyFilter filter = (KeyFilter) field.get(layer);
+    for (int i = 0; i < 1000; i++) {
+      layer.put("key-0".getBytes(), ("value-" + i).getBytes());
+      layer.remove("key-1".getBytes());
+    }
+    Assert.assertSame(filter, field.get(layer));
+    Assert.assertFalse(filter.isFull());
+    assertEquals("value-999", new String(layer.get("key-0".getBytes())));
+    assertNull(layer.get("key-1".getBytes()));
+
+    // the next new keys fill it, then it grows once
+    layer.put("new-0".getBytes(), "value".getBytes());
+    Assert.assertTrue(filter.isFull());
+    layer.put("new-1".getBytes(), "value".getBytes());
+    KeyFilter grown = (KeyFilter) field.get(layer);
+    Assert.assertEquals(KeyFilter.MIN_BITS * 2, grown.size());
+    for (int i = 2; i < capacity - 1; i++) {
+      assertEquals("value", new String(layer.get(("key-" + i).getBytes())));
+    }
+    assertEquals("value", new String(layer.get("new-1".getBytes())));
+  }
+
   /**
    * The constructor of SnapshotImpl is not public
    * so reflection is used to construct the object here.
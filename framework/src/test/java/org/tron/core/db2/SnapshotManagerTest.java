@@ -1,13 +1,20 @@
 package org.tron.core.db2;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.primitives.Bytes;
+import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
 import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.After;
@@ -17,15 +24,21 @@ import org.junit.Test;
 import org.tron.common.application.Application;
 import org.tron.common.application.ApplicationFactory;
 import org.tron.common.application.TronApplicationContext;
+import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.FileUtil;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Constant;
 import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.utils.MarketUtils;
 import org.tron.core.config.DefaultConfig;
 import org.tron.core.config.args.Args;
 import org.tron.core.db2.RevokingDbWithCacheNewValueTest.TestRevokingTronStore;
 import org.tron.core.db2.SnapshotRootTest.ProtoCapsuleTest;
+import org.tron.core.db2.common.IRevokingDB;
+import org.tron.core.db2.common.Value;
 import org.tron.core.db2.core.Chainbase;
+import org.tron.core.db2.core.ReadView;
+import org.tron.core.db2.core.Snapshot;
 import org.tron.core.db2.core.SnapshotManager;
 import org.tron.core.exception.BadItemException;
 import org.tron.core.exception.ItemNotFoundException;
@@ -33,6 +46,8 @@ import org.tron.core.exception.ItemNotFoundException;
 @Slf4j
 public class SnapshotManagerTest {
 
+  private static final long READ_VIEW_MAX_AGE = 500;
+
   private SnapshotManager revokingDatabase;
   private TronApplicationContext context;
   private Application appT;
@@ -42,6 +57,9 @@ public class SnapshotManagerTest {
   public void init() {
     Args.setParam(new String[]{"-d", "output_SnapshotManager_test"},
         Constant.TEST_CONF);
+    Args.getInstance().getStorage().setFlushMemoryLimit(1);
+    Args.getInstance().getStorage().setReadViewEnable(true);
+    Args.getInstance().getStorage().setReadViewMaxAge(READ_VIEW_MAX_AGE);
     context = new TronApplicationContext(DefaultConfig.class);
     appT = ApplicationFactory.create(context);
     revokingDatabase = context.getBean(SnapshotManager.class);
@@ -111,4 +129,181 @@ public class SnapshotManagerTest {
         tronDatabase.get(protoCapsule.getData()));
 
   }
+
+  @Test
+  public synchronized void testIncompleteCheckpoint() {
+    while (revokingDatabase.size() != 0) {
+      revokingDatabase.pop();
+    }
+
+    byte[] key = "incomplete".getBytes();
+    byte[] value = "incomplete1".getBytes();
+    byte[] pending = encode("checkpoint-pending");
+    Map<byte[], byte[]> batch = new HashMap<>();
+    batch.put(Bytes.concat(encode(((Chainbase) tronDatabase.getRevokingDB()).getDbName()), key),
+        Value.of(Value.Operator.PUT, value).encode());
+    batch.put(pending, new byte[] {1});
+    revokingDatabase.getCheckTmpStore().getDbSource().updateByBatch(batch);
+
+    revokingDatabase.check();
+    Assert.assertNull(tronDatabase.getRevokingDB().getUnchecked(key));
+
+    revokingDatabase.getCheckTmpStore().getDbSource().deleteData(pending);
+    revokingDatabase.check();
+    Assert.assertArrayEquals(value, tronDatabase.getRevokingDB().getUnchecked(key));
+  }
+
+  @Test
+  public synchronized void testFlushOnMemoryLimit() {
+    while (revokingDatabase.size() != 0) {
+      revokingDatabase.pop();
+    }
+
+    revokingDatabase.setMaxFlushCount(100);
+    revokingDatabase.setUnChecked(false);
+    revokingDatabase.setMaxSize(0);
+    Snapshot root = ((Chainbase) tronDatabase.getRevokingDB()).getHead().getRoot();
+    byte[] value = new byte[256 * 1024];
+    for (int i = 1; i <= 6; i++) {
+      try (ISession tmpSession = revokingDatabase.buildSession()) {
+        tronDatabase.put(Longs.toByteArray(i), new ProtoCapsuleTest(value));
+        tmpSession.commit();
+      }
+    }
+    // the first four blocks are over the limit of 1MB, the next session flushes them
+    Assert.assertNotNull(root.get(Longs.toByteArray(4)));
+    Assert.assertNull(root.get(Longs.toByteArray(6)));
+  }
+
+  @Test
+  public synchronized void testReadView() throws InterruptedException {
+    while (revokingDatabase.size() != 0) {
+      revokingDatabase.pop();
+    }
+
+    revokingDatabase.setMaxFlushCount(1);
+    revokingDatabase.setUnChecked(false);
+    revokingDatabase.setMaxSize(2);
+    byte[] key = "view".getBytes();
+    byte[] added = "view-added".getBytes();
+    putBlock(key, "view1");
+
+    try (ReadView view = revokingDatabase.openReadView()) {
+      // the next blocks are flushed into the root, and a pending session is not committed
+      for (int i = 2; i <= 6; i++) {
+        putBlock(key, "view" + i);
+      }
+      putBlock(added, "added");
+      ISession pending = revokingDatabase.buildSession();
+      tronDatabase.put(key, new ProtoCapsuleTest("pending".getBytes()));
+
+      Assert.assertEquals(new ProtoCapsuleTest("view1".getBytes()), tronDatabase.get(key));
+      Assert.assertNull(tronDatabase.get(added));
+      int count = 0;
+      Iterator<Map.Entry<byte[], byte[]>> iterator = tronDatabase.getRevokingDB().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<byte[], byte[]> entry = iterator.next();
+        Assert.assertArrayEquals(key, entry.getKey());
+        Assert.assertArrayEquals("view1".getBytes(), entry.getValue());
+        count++;
+      }
+      Assert.assertEquals(1, count);
+
+      // a thread working for the same request reads the view once attached
+      AtomicReference<ProtoCapsuleTest> attached = new AtomicReference<>();
+      Thread worker = new Thread(() -> {
+        ReadView.attach(view);
+        try {
+          attached.set(tronDatabase.get(key));
+        } finally {
+          ReadView.attach(null);
+        }
+      });
+      worker.start();
+      worker.join();
+      Assert.assertEquals(new ProtoCapsuleTest("view1".getBytes()), attached.get());
+
+      // the writes of a detached thread read the latest state
+      ReadView detached = ReadView.detach();
+      Assert.assertEquals(new ProtoCapsuleTest("pending".getBytes()), tronDatabase.get(key));
+      ReadView.attach(detached);
+      Assert.assertEquals(new ProtoCapsuleTest("view1".getBytes()), tronDatabase.get(key));
+      pending.revoke();
+    }
+    Assert.assertEquals(new ProtoCapsuleTest("view6".getBytes()), tronDatabase.get(key));
+
+    // a view living too long is closed, then it reads the latest state
+    ReadView view = revokingDatabase.openReadView();
+    putBlock(key, "view7");
+    Assert.assertEquals(new ProtoCapsuleTest("view6".getBytes()), tronDatabase.get(key));
+    long deadline = System.currentTimeMillis() + READ_VIEW_MAX_AGE * 20;
+    while (!view.isClosed() && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(READ_VIEW_MAX_AGE / 5);
+    }
+    Assert.assertTrue(view.isClosed());
+    Assert.assertEquals(new ProtoCapsuleTest("view7".getBytes()), tronDatabase.get(key));
+    view.close();
+  }
+
+  @Test
+  public synchronized void testReadViewRanges() {
+    while (revokingDatabase.size() != 0) {
+      revokingDatabase.pop();
+    }
+
+    revokingDatabase.setMaxFlushCount(1);
+    revokingDatabase.setUnChecked(false);
+    revokingDatabase.setMaxSize(2);
+    IRevokingDB db = tronDatabase.getRevokingDB();
+    byte[] key1 = priceKey(1);
+    byte[] key2 = priceKey(2);
+    byte[] key3 = priceKey(3);
+    // the first one is flushed into the root, the others are in the snapshots
+    putBlock(key1, "range1");
+    putBlock(key2, "range2");
+    putBlock(key2, "range2");
+
+    try (ReadView view = revokingDatabase.openReadView()) {
+      putBlock(key2, "changed");
+      putBlock(key3, "range3");
+      for (int i = 0; i < 3; i++) {
+        putBlock(priceKey(10 + i), "other" + i);
+      }
+      ISession pending = revokingDatabase.buildSession();
+      tronDatabase.put(priceKey(4), new ProtoCapsuleTest("pending".getBytes()));
+
+      Set<String> values = Sets.newHashSet("range1", "range2");
+      Assert.assertEquals(values, strings(db.getNext(key1, 10).values()));
+      Assert.assertEquals(values, strings(db.getValuesNext(key1, 10)));
+      Assert.assertEquals(values, strings(db.getlatestValues(10)));
+      Assert.assertEquals(Sets.newHashSet(ByteArray.toHexString(key1),
+          ByteArray.toHexString(key2)), db.getKeysNext(key1, 10).stream()
+          .map(ByteArray::toHexString).collect(Collectors.toSet()));
+      pending.revoke();
+    }
+    Assert.assertEquals(Sets.newHashSet("range1", "changed", "range3"),
+        strings(db.getValuesNext(key1, 3)));
+    Assert.assertEquals(6, db.getKeysNext(key1, 10).size());
+  }
+
+  private static byte[] priceKey(long buyTokenQuantity) {
+    return MarketUtils.createPairPriceKey(ByteArray.fromString("100"),
+        ByteArray.fromString("200"), 1L, buyTokenQuantity);
+  }
+
+  private static Set<String> strings(Collection<byte[]> values) {
+    return values.stream().map(String::new).collect(Collectors.toSet());
+  }
+
+  private void putBlock(byte[] key, String value) {
+    try (ISession tmpSession = revokingDatabase.buildSession()) {
+      tronDatabase.put(key, new ProtoCapsuleTest(value.getBytes()));
+      tmpSession.commit();
+    }
+  }
+
+  private static byte[] encode(String s) {
+    byte[] bytes = s.getBytes();
+    return Bytes.concat(Ints.toByteArray(bytes.length), bytes);
+  }
 }
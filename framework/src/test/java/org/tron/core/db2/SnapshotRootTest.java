@@ -1,6 +1,8 @@
 package org.tron.core.db2;
 
 import com.google.common.collect.Sets;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,18 +20,24 @@ import org.springframework.util.CollectionUtils;
 import org.tron.common.application.Application;
 import org.tron.common.application.ApplicationFactory;
 import org.tron.common.application.TronApplicationContext;
+import org.tron.common.cache.CacheManager;
 import org.tron.common.cache.CacheStrategies;
+import org.tron.common.cache.CacheType;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
 import org.tron.common.utils.FileUtil;
 import org.tron.common.utils.SessionOptional;
 import org.tron.core.Constant;
 import org.tron.core.capsule.ProtoCapsule;
+import org.tron.core.capsule.WitnessCapsule;
 import org.tron.core.config.DefaultConfig;
 import org.tron.core.config.args.Args;
 import org.tron.core.db2.RevokingDbWithCacheNewValueTest.TestRevokingTronStore;
+import org.tron.core.db2.common.LevelDB;
 import org.tron.core.db2.core.Snapshot;
 import org.tron.core.db2.core.SnapshotManager;
 import org.tron.core.db2.core.SnapshotRoot;
 import org.tron.core.exception.ItemNotFoundException;
+import org.tron.protos.Protocol.Witness;
 
 public class SnapshotRootTest {
 
@@ -128,6 +136,34 @@ public class SnapshotRootTest {
     tronDatabase.close();
   }
 
+  @Test
+  public void testDecodedCache() throws InvalidProtocolBufferException {
+    Args.getInstance().getStorage().setDecodedCache(true);
+    LevelDbDataSourceImpl dataSource =
+        new LevelDbDataSourceImpl("output_revokingStore_test/decoded", "witness");
+    dataSource.initDB();
+    SnapshotRoot root = new SnapshotRoot(new LevelDB(dataSource));
+    Args.getInstance().getStorage().setDecodedCache(false);
+    byte[] key = "witness".getBytes();
+    WitnessCapsule witness = new WitnessCapsule(ByteString.copyFrom(key), 1, "url");
+    root.put(key, witness.getData());
+
+    Witness decoded = root.getMessage(key, Witness.parser());
+    Assert.assertEquals(witness.getInstance(), decoded);
+    Assert.assertSame(decoded, root.getMessage(key, Witness.parser()));
+    Assert.assertTrue(CacheManager.stats().get(CacheType.decodedWitness.toString())
+        .hitCount() > 0);
+
+    witness.setVoteCount(2);
+    root.put(key, witness.getData());
+    Assert.assertEquals(2, root.getMessage(key, Witness.parser()).getVoteCount());
+    Assert.assertEquals(1, decoded.getVoteCount());
+
+    root.remove(key);
+    Assert.assertNull(root.getMessage(key, Witness.parser()));
+    root.close();
+  }
+
   @Test
   public void testSecondCacheCheck()
       throws ItemNotFoundException {
@@ -0,0 +1,81 @@
+package org.tron.core.jsonrpc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.runtime.vm.DataWord;
+import org.tron.common.runtime.vm.LogInfo;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.exception.JsonRpcInvalidParamsException;
+import org.tron.core.services.jsonrpc.TronJsonRpc.FilterRequest;
+import org.tron.core.services.jsonrpc.filters.LogFilterAndResult;
+import org.tron.core.services.jsonrpc.filters.LogFilterIndex;
+import org.tron.protos.Protocol.TransactionInfo;
+
+public class LogFilterIndexTest {
+
+  private static final String ADDRESS_1 = "0xd4048be096f969f51fd5642a9c744ec2a7eb89fe";
+  private static final String ADDRESS_2 = "0x98ff8c0e1effbc70b23de702f415ec1e5ed76d42";
+  private static final String TOPIC_1 =
+      "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+  private static final String TOPIC_2 =
+      "0x8c5be1e5ebec7d5bd14f71427d1e84f3dd0314c0f7b2291e5b200ac8c7c3b925";
+
+  private TransactionInfo createTransactionInfo(String address, String topic) {
+    List<DataWord> topics = new ArrayList<>();
+    topics.add(new DataWord(ByteArray.fromHexString(topic)));
+    LogInfo logInfo = new LogInfo(ByteArray.fromHexString(address), topics, new byte[0]);
+    return TransactionInfo.newBuilder().addLog(LogInfo.buildLog(logInfo)).build();
+  }
+
+  private LogFilterAndResult createFilter(Object address, Object[] topics)
+      throws JsonRpcInvalidParamsException {
+    return new LogFilterAndResult(new FilterRequest(null, null, address, topics, null), 0, null);
+  }
+
+  @Test
+  public void testCandidates() throws JsonRpcInvalidParamsException {
+    Map<String, LogFilterAndResult> filters = new ConcurrentHashMap<>();
+    LogFilterIndex index = new LogFilterIndex(filters);
+
+    index.add("byAddress", createFilter(ADDRESS_1, null));
+    ArrayList<String> addresses = new ArrayList<>();
+    addresses.add(ADDRESS_1);
+    addresses.add(ADDRESS_2);
+    index.add("byAddresses", createFilter(addresses, new Object[] {TOPIC_2}));
+    index.add("byTopic", createFilter(null, new Object[] {TOPIC_1}));
+    index.add("any", createFilter(null, new Object[] {null, TOPIC_1}));
+    Assert.assertEquals(4, filters.size());
+
+    Map<String, LogFilterAndResult> candidates = index.getCandidates(
+        Collections.singletonList(createTransactionInfo(ADDRESS_1, TOPIC_2)));
+    Assert.assertEquals(3, candidates.size());
+    Assert.assertTrue(candidates.containsKey("byAddress"));
+    Assert.assertTrue(candidates.containsKey("byAddresses"));
+    Assert.assertTrue(candidates.containsKey("any"));
+
+    candidates = index.getCandidates(
+        Collections.singletonList(createTransactionInfo(ADDRESS_2, TOPIC_1)));
+    Assert.assertEquals(3, candidates.size());
+    Assert.assertTrue(candidates.containsKey("byAddresses"));
+    Assert.assertTrue(candidates.containsKey("byTopic"));
+    Assert.assertTrue(candidates.containsKey("any"));
+
+    candidates = index.getCandidates(Collections.emptyList());
+    Assert.assertEquals(1, candidates.size());
+    Assert.assertTrue(candidates.containsKey("any"));
+
+    Assert.assertNotNull(index.remove("byAddresses"));
+    Assert.assertNull(index.remove("byAddresses"));
+    Assert.assertNotNull(index.remove("any"));
+    Assert.assertEquals(2, filters.size());
+    candidates = index.getCandidates(
+        Collections.singletonList(createTransactionInfo(ADDRESS_2, TOPIC_1)));
+    Assert.assertEquals(1, candidates.size());
+    Assert.assertTrue(candidates.containsKey("byTopic"));
+  }
+}
@@ -235,5 +235,22 @@ public class SectionBloomStoreTest extends BaseTest {
     } catch (Exception e) {
       Assert.fail();
     }
+
+    //query with the solidified sections cached, the second query hits the cache
+    try {
+      LogFilterWrapper logFilterWrapper = new LogFilterWrapper(
+          new FilterRequest("earliest", "latest", ByteArray.toJsonHex(address1), null, null),
+          currentMaxBlockNum, null);
+      List<Long> possibleBlockList =
+          new LogBlockQuery(logFilterWrapper, sectionBloomStore, currentMaxBlockNum,
+              currentMaxBlockNum, sectionExecutor).getPossibleBlock();
+      List<Long> cachedBlockList =
+          new LogBlockQuery(logFilterWrapper, sectionBloomStore, currentMaxBlockNum,
+              currentMaxBlockNum, sectionExecutor).getPossibleBlock();
+      Assert.assertTrue(possibleBlockList.contains(10000L));
+      Assert.assertEquals(possibleBlockList, cachedBlockList);
+    } catch (Exception e) {
+      Assert.fail();
+    }
   }
 }
@@ -0,0 +1,129 @@
+package org.tron.core.net.services;
+
+import static org.tron.core.config.Parameter.NetConstants.MAX_BLOCK_FETCH_PER_PEER;
+import static org.tron.core.config.Parameter.NetConstants.SYNC_TIME_OUT;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.core.net.service.statistics.FetchStatistics;
+
+public class FetchStatisticsTest {
+
+  private static final long TICK = 100;
+
+  @Test
+  public void testWindowFollowsPeer() {
+    SimulatedPeer fast = new SimulatedPeer(5);
+    SimulatedPeer slow = new SimulatedPeer(200);
+    run(60_000, fast, slow);
+
+    // 200 and 5 blocks per second
+    Assert.assertEquals(200, fast.statistics.getRate(), 20);
+    Assert.assertEquals(5, slow.statistics.getRate(), 1);
+    Assert.assertTrue(fast.statistics.getWindow() > MAX_BLOCK_FETCH_PER_PEER);
+    Assert.assertTrue(slow.statistics.getWindow() < MAX_BLOCK_FETCH_PER_PEER / 4);
+    // once the windows follow the peers, no request is near the timeout
+    Assert.assertTrue(fast.maxLatency < SYNC_TIME_OUT);
+    Assert.assertTrue(slow.maxLatency < SYNC_TIME_OUT);
+    Assert.assertTrue(fast.delivered > 20 * slow.delivered);
+  }
+
+  @Test
+  public void testSlowerPeer() {
+    SimulatedPeer peer = new SimulatedPeer(5);
+    run(30_000, peer);
+    int window = peer.statistics.getWindow();
+
+    // the peer slows down, the window shrinks to the blocks it delivers within the target latency
+    peer.serviceTime = 100;
+    run(30_000, peer);
+    Assert.assertTrue(peer.statistics.getWindow() < window / 4);
+    Assert.assertTrue(peer.maxLatency < SYNC_TIME_OUT);
+  }
+
+  @Test
+  public void testStall() {
+    FetchStatistics statistics = new FetchStatistics();
+    int window = statistics.getWindow();
+    long now = System.currentTimeMillis();
+
+    statistics.onStall(now);
+    Assert.assertEquals(window / 2, statistics.getWindow());
+    // once per stall timeout
+    statistics.onStall(now + 1);
+    Assert.assertEquals(window / 2, statistics.getWindow());
+
+    for (int i = 1; i < 10; i++) {
+      statistics.onStall(now + i * statistics.getStallTimeout());
+    }
+    Assert.assertEquals(FetchStatistics.MIN_WINDOW, statistics.getWindow());
+  }
+
+  /**
+   * request the blocks up to the windows of the peers every tick, the latency of the requests in
+   * the first half of duration is not counted, the windows follow the peers in it.
+   */
+  private void run(long duration, SimulatedPeer... peers) {
+    long start = peers[0].now;
+    for (SimulatedPeer peer : peers) {
+      peer.maxLatency = 0;
+      peer.countFrom = start + duration / 2;
+    }
+    for (long now = start; now < start + duration; now += TICK) {
+      for (SimulatedPeer peer : peers) {
+        peer.deliver(now);
+        peer.request(now);
+      }
+    }
+  }
+
+  /**
+   * a peer sending the blocks one by one, in the order of the requests, each takes serviceTime.
+   * it is penalised when the block at the head of its queue is stalled, as the sync service does.
+   */
+  private static class SimulatedPeer {
+
+    private final FetchStatistics statistics = new FetchStatistics();
+    // the request time and the delivery time of the blocks in flight
+    private final Deque<long[]> inFlight = new ArrayDeque<>();
+    private long serviceTime;
+    private long lastDelivery;
+    private long now;
+    private long delivered;
+    private long maxLatency;
+    private long countFrom;
+
+    private SimulatedPeer(long serviceTime) {
+      this.serviceTime = serviceTime;
+    }
+
+    private void deliver(long time) {
+      now = time;
+      while (!inFlight.isEmpty() && inFlight.peek()[1] <= now) {
+        long[] block = inFlight.poll();
+        statistics.onReceive(block[1] - block[0], block[1]);
+        if (block[0] >= countFrom) {
+          maxLatency = Math.max(maxLatency, block[1] - block[0]);
+        }
+        delivered++;
+      }
+    }
+
+    private void request(long time) {
+      if (!inFlight.isEmpty() && time - inFlight.peek()[0] > statistics.getStallTimeout()) {
+        statistics.onStall(time);
+      }
+      int room = statistics.getWindow() - inFlight.size();
+      if (room <= 0) {
+        return;
+      }
+      statistics.onRequest(inFlight.size(), time);
+      for (int i = 0; i < room; i++) {
+        lastDelivery = Math.max(lastDelivery, time) + serviceTime;
+        inFlight.add(new long[] {time, lastDelivery});
+      }
+    }
+  }
+}
@@ -9,6 +9,7 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
+import java.util.NavigableMap;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -28,6 +29,7 @@ import org.tron.core.net.message.adv.BlockMessage;
 import org.tron.core.net.peer.PeerConnection;
 import org.tron.core.net.peer.PeerManager;
 import org.tron.core.net.peer.TronState;
+import org.tron.core.net.service.statistics.FetchStatistics;
 import org.tron.core.net.service.sync.SyncService;
 import org.tron.p2p.connection.Channel;
 import org.tron.protos.Protocol;
@@ -226,4 +228,95 @@ public class SyncServiceTest {
 
     Assert.assertTrue(requestBlockIds.getIfPresent(blockId) == null);
   }
+
+  private BlockCapsule newBlock(long number) {
+    return new BlockCapsule(Protocol.Block.newBuilder()
+        .setBlockHeader(Protocol.BlockHeader.newBuilder()
+            .setRawData(Protocol.BlockHeader.raw.newBuilder().setNumber(number))).build());
+  }
+
+  @Test
+  public void testHandleSyncBlockInOrder() throws Exception {
+    Field field = PeerManager.class.getDeclaredField("peers");
+    field.setAccessible(true);
+    field.set(PeerManager.class, Collections.synchronizedList(new ArrayList<>()));
+
+    Method method = service.getClass().getDeclaredMethod("handleSyncBlock");
+    method.setAccessible(true);
+    Map<BlockMessage, PeerConnection> blockJustReceived =
+        (Map<BlockMessage, PeerConnection>)
+            ReflectUtils.getFieldObject(service, "blockJustReceived");
+    NavigableMap<Long, ?> blockWaitToProcess =
+        (NavigableMap<Long, ?>) ReflectUtils.getFieldObject(service, "blockWaitToProcess");
+    Cache<BlockCapsule.BlockId, PeerConnection> requestBlockIds =
+        (Cache<BlockCapsule.BlockId, PeerConnection>)
+            ReflectUtils.getFieldObject(service, "requestBlockIds");
+
+    InetSocketAddress a1 = new InetSocketAddress("127.0.0.1", 10001);
+    Channel c1 = mock(Channel.class);
+    Mockito.when(c1.getInetSocketAddress()).thenReturn(a1);
+    Mockito.when(c1.getInetAddress()).thenReturn(a1.getAddress());
+    PeerManager.add(ctx, c1);
+    peer = PeerManager.getPeers().get(0);
+
+    BlockCapsule solid = newBlock(0);
+    BlockCapsule waiting = newBlock(100000);
+    BlockCapsule next = newBlock(100001);
+    blockJustReceived.put(new BlockMessage(solid), peer);
+    blockJustReceived.put(new BlockMessage(waiting), peer);
+    blockJustReceived.put(new BlockMessage(next), peer);
+    // only the head of the fetch queue is applied, whatever the order they are received in
+    peer.getSyncBlockToFetch().add(next.getBlockId());
+    requestBlockIds.put(next.getBlockId(), peer);
+
+    method.invoke(service);
+
+    // the unsigned block is rejected when it is applied
+    Assert.assertNull(requestBlockIds.getIfPresent(next.getBlockId()));
+    Assert.assertEquals(1, blockWaitToProcess.size());
+    Assert.assertTrue(blockWaitToProcess.containsKey(waiting.getNum()));
+  }
+
+  private PeerConnection addPeer(int port) {
+    InetSocketAddress address = new InetSocketAddress("127.0.0.1", port);
+    Channel channel = mock(Channel.class);
+    Mockito.when(channel.getInetSocketAddress()).thenReturn(address);
+    Mockito.when(channel.getInetAddress()).thenReturn(address.getAddress());
+    PeerConnection p = PeerManager.add(ctx, channel);
+    p.setFetchAble(true);
+    return p;
+  }
+
+  @Test
+  public void testStartFetchSyncBlockStalled() throws Exception {
+    Field field = PeerManager.class.getDeclaredField("peers");
+    field.setAccessible(true);
+    field.set(PeerManager.class, Collections.synchronizedList(new ArrayList<>()));
+
+    Method method = service.getClass().getDeclaredMethod("startFetchSyncBlock");
+    method.setAccessible(true);
+    Cache<BlockCapsule.BlockId, PeerConnection> requestBlockIds =
+        (Cache<BlockCapsule.BlockId, PeerConnection>)
+            ReflectUtils.getFieldObject(service, "requestBlockIds");
+
+    PeerConnection slow = addPeer(10001);
+    PeerConnection fast = addPeer(10002);
+    BlockCapsule.BlockId head = newBlock(1).getBlockId();
+    slow.getSyncBlockToFetch().add(head);
+    fast.getSyncBlockToFetch().add(head);
+    // the slow peer holds the head of the fetch queue for longer than its stall timeout
+    FetchStatistics statistics = slow.getPeerStatistics().fetchStatistics;
+    long requestTime = System.currentTimeMillis() - statistics.getStallTimeout() - 1;
+    slow.getSyncBlockRequested().put(head, requestTime);
+    requestBlockIds.put(head, slow);
+    int window = statistics.getWindow();
+
+    method.invoke(service);
+
+    Assert.assertEquals(fast, requestBlockIds.getIfPresent(head));
+    Assert.assertNotNull(fast.getSyncBlockRequested().get(head));
+    // the request of the slow peer is kept, it may still deliver the block
+    Assert.assertEquals(requestTime, (long) slow.getSyncBlockRequested().get(head));
+    Assert.assertEquals(window / 2, statistics.getWindow());
+  }
 }
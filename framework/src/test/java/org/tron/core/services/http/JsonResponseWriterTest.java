@@ -0,0 +1,231 @@
+package org.tron.core.services.http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.tron.api.GrpcAPI.BlockList;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.actuator.TransactionFactory;
+import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.BlockHeader;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+import org.tron.protos.Protocol.Transaction.Result.contractResult;
+import org.tron.protos.contract.BalanceContract.TransferContract;
+import org.tron.protos.contract.SmartContractOuterClass.CreateSmartContract;
+import org.tron.protos.contract.SmartContractOuterClass.SmartContract;
+import org.tron.protos.contract.WitnessContract.VoteWitnessContract;
+
+/**
+ * the streamed responses against the printed ones, and the heap allocated per request of both on
+ * large blocks.
+ */
+@Slf4j
+public class JsonResponseWriterTest {
+
+  private static final int BLOCKS = 2;
+  private static final int TRANSACTIONS_PER_BLOCK = 2000;
+  private static final int REQUESTS = 10;
+
+  static {
+    // the contract of the transfers, without the actuators of Args
+    TransactionFactory.register(ContractType.TransferContract, null, TransferContract.class);
+  }
+
+  @Test
+  public void testUtf8AcrossBuffers() throws IOException {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      // ascii, two and three bytes, and a surrogate pair which may be split by a buffer
+      text.append("aé中😀");
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (JsonResponseWriter writer = new JsonResponseWriter(out)) {
+      writer.append(text);
+      writer.write(text.toString());
+    }
+    Assert.assertEquals(text.toString() + text, new String(out.toByteArray(), UTF_8));
+  }
+
+  @Test
+  public void testNestedWriters() throws IOException {
+    ByteArrayOutputStream outer = new ByteArrayOutputStream();
+    ByteArrayOutputStream inner = new ByteArrayOutputStream();
+    try (JsonResponseWriter writer = new JsonResponseWriter(outer)) {
+      writer.write("outer");
+      try (JsonResponseWriter nested = new JsonResponseWriter(inner)) {
+        nested.write("inner");
+      }
+      writer.write("outer");
+    }
+    Assert.assertEquals("outerouter", new String(outer.toByteArray(), UTF_8));
+    Assert.assertEquals("inner", new String(inner.toByteArray(), UTF_8));
+  }
+
+  @Test
+  public void testBlockListEquivalent() throws IOException {
+    BlockList list = newBlockList(BLOCKS, 50);
+    for (boolean visible : new boolean[] {false, true}) {
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      Util.printBlockList(list, visible, response);
+      JSONObject streamed = JSON.parseObject(new String(response.getContentAsByteArray(), UTF_8));
+      JSONObject printed = JSON.parseObject(Util.printBlockList(list, visible));
+      Assert.assertEquals(printed, streamed);
+    }
+  }
+
+  @Test
+  public void testTransactionEquivalent() throws IOException {
+    Transaction transfer = newBlockList(1, 1).getBlock(0).getTransactions(0);
+    CreateSmartContract deploy = CreateSmartContract.newBuilder()
+        .setOwnerAddress(address(1))
+        .setNewContract(SmartContract.newBuilder().setName("test").setBytecode(
+            ByteString.copyFrom(new byte[] {0x60, 0x60})))
+        .build();
+    Transaction.raw raw = transfer.getRawData().toBuilder()
+        .addContract(Transaction.Contract.newBuilder()
+            .setType(ContractType.CreateSmartContract)
+            .setParameter(Any.pack(deploy))
+            .setPermissionId(2))
+        // no contract class registered for it
+        .addContract(Transaction.Contract.newBuilder()
+            .setType(ContractType.VoteWitnessContract)
+            .setParameter(Any.pack(VoteWitnessContract.getDefaultInstance())))
+        .setData(ByteString.copyFromUtf8("\"memo\"\n"))
+        .build();
+    Transaction transaction = transfer.toBuilder().setRawData(raw)
+        .addRet(Transaction.Result.newBuilder().setContractRet(contractResult.SUCCESS))
+        .build();
+    for (boolean visible : new boolean[] {false, true}) {
+      StringWriter writer = new StringWriter();
+      Util.printTransaction(transaction, visible, writer);
+      Assert.assertEquals(
+          JSON.parseObject(Util.printTransactionToJSON(transaction, visible).toJSONString()),
+          JSON.parseObject(writer.toString()));
+    }
+  }
+
+  @Test
+  public void testAllocationPerRequest() throws IOException {
+    BlockList list = newBlockList(BLOCKS, TRANSACTIONS_PER_BLOCK);
+    DiscardResponse response = new DiscardResponse();
+    // warm up both ways
+    for (int i = 0; i < 2; i++) {
+      response.getWriter().println(Util.printBlockList(list, true));
+      Util.printBlockList(list, true, response);
+    }
+
+    long printed = allocated();
+    for (int i = 0; i < REQUESTS; i++) {
+      response.getWriter().println(Util.printBlockList(list, true));
+    }
+    printed = (allocated() - printed) / REQUESTS;
+    long streamed = allocated();
+    for (int i = 0; i < REQUESTS; i++) {
+      Util.printBlockList(list, true, response);
+    }
+    streamed = (allocated() - streamed) / REQUESTS;
+
+    logger.info("{} blocks of {} transactions, {} bytes of json, allocated {} KB/request "
+            + "printed, {} KB/request streamed.", BLOCKS, TRANSACTIONS_PER_BLOCK,
+        response.length / (2 * REQUESTS + 4), printed / 1024, streamed / 1024);
+    Assert.assertTrue(streamed < printed);
+  }
+
+  private static long allocated() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static BlockList newBlockList(int blocks, int transactions) {
+    BlockList.Builder list = BlockList.newBuilder();
+    for (int num = 1; num <= blocks; num++) {
+      Block.Builder block = Block.newBuilder().setBlockHeader(BlockHeader.newBuilder()
+          .setRawData(BlockHeader.raw.newBuilder().setNumber(num).setTimestamp(num * 3000L)
+              .setWitnessAddress(address(num))
+              .setParentHash(ByteString.copyFrom(new byte[32])))
+          .setWitnessSignature(ByteString.copyFrom(new byte[65])));
+      for (int i = 0; i < transactions; i++) {
+        TransferContract transfer = TransferContract.newBuilder()
+            .setOwnerAddress(address(i))
+            .setToAddress(address(i + 1))
+            .setAmount(i + 1)
+            .build();
+        block.addTransactions(Transaction.newBuilder()
+            .setRawData(Transaction.raw.newBuilder()
+                .addContract(Transaction.Contract.newBuilder()
+                    .setType(ContractType.TransferContract)
+                    .setParameter(Any.pack(transfer)))
+                .setRefBlockBytes(ByteString.copyFrom(ByteArray.fromInt(i)))
+                .setExpiration(num * 3000L + 60_000)
+                .setTimestamp(num * 3000L))
+            .addSignature(ByteString.copyFrom(new byte[65])));
+      }
+      list.addBlock(block);
+    }
+    return list.build();
+  }
+
+  private static ByteString address(int i) {
+    byte[] address = new byte[21];
+    address[0] = 0x41;
+    System.arraycopy(ByteArray.fromInt(i), 0, address, 17, 4);
+    return ByteString.copyFrom(address);
+  }
+
+  /**
+   * a response which discards the content, counting its bytes, so only the allocation of the
+   * json is measured.
+   */
+  private static class DiscardResponse extends MockHttpServletResponse {
+
+    private long length;
+    private final ServletOutputStream out = new ServletOutputStream() {
+      @Override
+      public void write(int b) {
+        length++;
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        length += len;
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setWriteListener(WriteListener writeListener) {
+      }
+    };
+    private final PrintWriter writer = new PrintWriter(
+        new OutputStreamWriter(out, UTF_8), true);
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      return out;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+      return writer;
+    }
+  }
+}
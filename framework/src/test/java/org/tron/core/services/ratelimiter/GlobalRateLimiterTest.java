@@ -1,6 +1,7 @@
 package org.tron.core.services.ratelimiter;
 
 import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Test;
@@ -18,7 +19,37 @@ public class GlobalRateLimiterTest {
     field.setAccessible(true);
     field.set(runtimeData, "127.0.0.1");
     Assert.assertEquals(runtimeData.getRemoteAddr(), "127.0.0.1");
-    GlobalRateLimiter.acquire(runtimeData);
+    Assert.assertTrue(GlobalRateLimiter.acquire(runtimeData));
+  }
+
+  @Test
+  public void testIpOverLimit() throws Exception {
+    Args.setParam(new String[0], Constant.TESTNET_CONF);
+    Field ipQps = GlobalRateLimiter.class.getDeclaredField("IP_QPS");
+    ipQps.setAccessible(true);
+    double qps = ipQps.getDouble(null);
+    ipQps.setDouble(null, 2);
+    try {
+      RuntimeData flooding = runtimeData("10.0.0.1");
+      Assert.assertTrue(GlobalRateLimiter.acquire(flooding));
+      Assert.assertTrue(GlobalRateLimiter.acquire(flooding));
+      // rejected at once, without waiting for the tokens
+      long start = System.nanoTime();
+      Assert.assertFalse(GlobalRateLimiter.acquire(flooding));
+      Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+      // the other ips are not limited by it
+      Assert.assertTrue(GlobalRateLimiter.acquire(runtimeData("10.0.0.2")));
+    } finally {
+      ipQps.setDouble(null, qps);
+    }
+  }
+
+  private static RuntimeData runtimeData(String ip) throws Exception {
+    RuntimeData runtimeData = new RuntimeData(null);
+    Field field = runtimeData.getClass().getDeclaredField("address");
+    field.setAccessible(true);
+    field.set(runtimeData, ip);
+    return runtimeData;
   }
 
   @AfterClass
@@ -1,9 +1,9 @@
 package org.tron.core.services.ratelimiter.adaptor;
 
 import com.google.common.cache.Cache;
-import com.google.common.util.concurrent.RateLimiter;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Test;
 import org.tron.common.utils.ReflectUtils;
@@ -13,6 +13,7 @@ import org.tron.core.services.ratelimiter.adapter.QpsRateLimiterAdapter;
 import org.tron.core.services.ratelimiter.strategy.GlobalPreemptibleStrategy;
 import org.tron.core.services.ratelimiter.strategy.IPQpsStrategy;
 import org.tron.core.services.ratelimiter.strategy.QpsStrategy;
+import org.tron.core.services.ratelimiter.strategy.TokenBucket;
 
 public class AdaptorTest {
 
@@ -49,26 +50,65 @@ public class AdaptorTest {
         .parseDouble(ReflectUtils.getFieldValue(strategy.getMapParams().get("qps"),
             "value").toString()), 0.0);
 
+    // one second of qps is taken at once, the others are rejected without waiting
     long t0 = System.currentTimeMillis();
+    int accepted = 0;
     for (int i = 0; i < 20; i++) {
-      strategy.acquire("1.2.3.4");
+      if (strategy.acquire("1.2.3.4")) {
+        accepted++;
+      }
     }
     long t1 = System.currentTimeMillis();
-    Assert.assertTrue(t1 - t0 > 3500);
+    Assert.assertTrue(t1 - t0 < 1000);
+    Assert.assertEquals(5, accepted);
+    Assert.assertFalse(strategy.acquire("1.2.3.4"));
+    // the other ip has its own bucket
+    Assert.assertTrue(strategy.acquire("4.3.2.1"));
+
+    Object group = ReflectUtils.getFieldObject(strategy, "group");
+    Cache<String, TokenBucket> ipLimiter = (Cache<String, TokenBucket>) ReflectUtils
+        .getFieldObject(group, "ipLimiter");
+    Assert.assertEquals(2, ipLimiter.size());
+  }
 
-    t0 = System.currentTimeMillis();
-    for (int i = 0; i < 20; i++) {
-      if (i % 2 == 0) {
-        strategy.acquire("1.2.3.4");
-      } else {
-        strategy.acquire("4.3.2.1");
-      }
+  @Test
+  public void testIPQPSCost() throws InterruptedException {
+    IPQpsStrategy light = new IPQpsStrategy("qps=10 group=testIPQPSCost");
+    IPQpsStrategy heavy = new IPQpsStrategy("qps=10 cost=5 group=testIPQPSCost");
+
+    // the apis of a group share the bucket of the ip
+    Assert.assertTrue(heavy.acquire("1.2.3.4"));
+    Assert.assertTrue(light.acquire("1.2.3.4"));
+    Assert.assertFalse(heavy.acquire("1.2.3.4"));
+    for (int i = 0; i < 4; i++) {
+      Assert.assertTrue(light.acquire("1.2.3.4"));
     }
-    t1 = System.currentTimeMillis();
-    Assert.assertTrue(t1 - t0 > 1500);
-    Cache<String, RateLimiter> ipLimiter = (Cache<String, RateLimiter>) ReflectUtils
-        .getFieldObject(strategy, "ipLimiter");
-    Assert.assertEquals(2, ipLimiter.size());
+    Assert.assertFalse(light.acquire("1.2.3.4"));
+
+    // refilled at qps
+    Thread.sleep(600);
+    Assert.assertTrue(heavy.acquire("1.2.3.4"));
+  }
+
+  @Test
+  public void testTokenBucketConcurrent() throws InterruptedException {
+    TokenBucket bucket = new TokenBucket(0.001, 100);
+    AtomicInteger accepted = new AtomicInteger();
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < 100; j++) {
+          if (bucket.tryAcquire(1)) {
+            accepted.incrementAndGet();
+          }
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(100, accepted.get());
   }
 
   @Test